@@ -0,0 +1,105 @@
+package com.example.modmenu.store.logistics;
+
+import net.minecraft.core.Direction;
+import net.minecraftforge.energy.EnergyStorage;
+import net.minecraftforge.energy.IEnergyStorage;
+import net.minecraftforge.fluids.capability.IFluidHandler;
+import net.minecraftforge.fluids.capability.templates.FluidTank;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemStackHandler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * {@link LogisticsWorld} over plain Forge inventories, for running the logistics tick without a server.
+ * Every BLOCK node owns an item, a fluid and an energy handler; the clock only moves when {@link #advance()} is called.
+ * Item and fluid handlers touch the vanilla registries, so they are only created when first asked for; a caller that
+ * uses them has to bootstrap the registries first (see {@link NetworkTickBenchmark}).
+ */
+public class InMemoryLogisticsWorld implements LogisticsWorld {
+    private final UUID ownerId = UUID.randomUUID();
+    private final Map<UUID, NetworkData> networks = new HashMap<>();
+    private final Map<UUID, ItemStackHandler> items = new HashMap<>();
+    private final Map<UUID, FluidTank> fluids = new HashMap<>();
+    private final Map<UUID, EnergyStorage> energy = new HashMap<>();
+    private ItemStackHandler playerInventory;
+    private long gameTime = 0;
+
+    public void addNetwork(NetworkData network) {
+        networks.put(network.networkId, network);
+    }
+
+    public ItemStackHandler items(NetworkNode node) {
+        return items.computeIfAbsent(node.nodeId, id -> new ItemStackHandler(27));
+    }
+
+    public FluidTank fluids(NetworkNode node) {
+        return fluids.computeIfAbsent(node.nodeId, id -> new FluidTank(16000));
+    }
+
+    public EnergyStorage energy(NetworkNode node) {
+        return energy.computeIfAbsent(node.nodeId, id -> new EnergyStorage(100000));
+    }
+
+    public void advance() {
+        gameTime++;
+    }
+
+    @Override
+    public long gameTime() {
+        return gameTime;
+    }
+
+    @Override
+    public UUID ownerId() {
+        return ownerId;
+    }
+
+    @Override
+    public NetworkData findNetwork(UUID networkId) {
+        return networkId != null ? networks.get(networkId) : null;
+    }
+
+    @Override
+    public IItemHandler blockItems(NetworkNode node, Direction side) {
+        return items(node);
+    }
+
+    @Override
+    public IFluidHandler blockFluids(NetworkNode node, Direction side, boolean searchAllSides) {
+        return fluids(node);
+    }
+
+    @Override
+    public IEnergyStorage blockEnergy(NetworkNode node, Direction side, boolean searchAllSides) {
+        return energy(node);
+    }
+
+    @Override
+    public IItemHandler playerInventory() {
+        if (playerInventory == null) playerInventory = new ItemStackHandler(36);
+        return playerInventory;
+    }
+
+    @Override
+    public IItemHandler chamber(NetworkNode node, boolean isSource) {
+        return null;
+    }
+
+    @Override
+    public IItemHandler market() {
+        return null;
+    }
+
+    @Override
+    public boolean isMissing(NetworkNode node) {
+        return false;
+    }
+
+    @Override
+    public boolean isLoaded(NetworkNode node) {
+        return true;
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.modmenu.store.logistics;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.material.Fluids;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.fluids.capability.IFluidHandler;
+import net.minecraftforge.items.ItemHandlerHelper;
+import net.minecraftforge.items.ItemStackHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One network tick over a large synthetic network: BLOCK nodes holding items, fluids and energy, a few BUFFER nodes
+ * on the network's virtual buffers, and ITEMS, FLUIDS and ENERGY rules between single nodes and groups. Item rules
+ * carry ID, wildcard and blacklist filters and some of them min/max limits, so filtering and counting run as well;
+ * some rules are guarded by conditions. Rules come in opposite pairs so the network keeps moving instead of settling
+ * into idle backoff.
+ *
+ * {@code ItemStack}, {@code Items} and {@code FluidStack} need the vanilla registries, so the MIXED run bootstraps
+ * them the way Forge's test harness does before building the network. The ENERGY run skips the bootstrap and only
+ * covers the parts of the tick that work on plain Forge handlers (scheduling, plans, conditions, grouping,
+ * distribution and the movement log).
+ *
+ * Run with {@code ./gradlew jmh}; narrow with {@code -Pjmh.includes=NetworkTickBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NetworkTickBenchmark {
+    @Param({"1000"})
+    public int nodes;
+
+    @Param({"500"})
+    public int rules;
+
+    @Param({"MIXED", "ENERGY"})
+    public String resources;
+
+    private static boolean bootstrapped = false;
+
+    private InMemoryLogisticsWorld world;
+    private NetworkData network;
+
+    private static void bootstrap() {
+        if (bootstrapped) return;
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        bootstrapped = true;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        boolean mixed = resources.equals("MIXED");
+        if (mixed) bootstrap();
+
+        Random random = new Random(42);
+        world = new InMemoryLogisticsWorld();
+        network = new NetworkData();
+        world.addNetwork(network);
+
+        Item[] itemPool = mixed ? new Item[]{Items.COBBLESTONE, Items.IRON_INGOT, Items.GOLD_INGOT, Items.DIAMOND, Items.OAK_LOG} : null;
+        List<NetworkNode> buffers = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            NetworkNode node = new NetworkNode();
+            if (mixed && i % 50 == 0) {
+                node.nodeType = "BUFFER";
+                network.addNode(node);
+                buffers.add(node);
+                continue;
+            }
+            node.pos = new BlockPos(i % 64, 64, i / 64);
+            node.dimension = "minecraft:overworld";
+            network.addNode(node);
+            world.energy(node).receiveEnergy(random.nextInt(100000), false);
+            if (mixed) {
+                ItemStackHandler items = world.items(node);
+                for (int s = 0; s < 4; s++) {
+                    ItemHandlerHelper.insertItem(items, new ItemStack(itemPool[random.nextInt(itemPool.length)], 1 + random.nextInt(64)), false);
+                }
+                world.fluids(node).fill(new FluidStack(i % 4 == 0 ? Fluids.LAVA : Fluids.WATER, random.nextInt(16000)), IFluidHandler.FluidAction.EXECUTE);
+            }
+        }
+
+        for (int g = 0; g < nodes / 50; g++) {
+            NodeGroup group = new NodeGroup("group" + g);
+            for (int i = 0; i < 8; i++) group.nodeIds.add(network.nodes.get(random.nextInt(nodes)).nodeId);
+            network.putGroup(group);
+        }
+
+        String[] types = mixed ? new String[]{"ITEMS", "ENERGY", "FLUIDS"} : new String[]{"ENERGY"};
+        String[] distributions = {"BALANCED", "ROUND_ROBIN", "OVERFLOW"};
+        for (int i = 0; i < rules / 2; i++) {
+            LogisticsRule rule = rule(types[i % types.length]);
+            rule.distributionMode = distributions[i % distributions.length];
+            rule.priority = random.nextInt(10);
+            if (rule.type.equals("ITEMS")) {
+                rule.filter = itemFilter(i / types.length);
+                if (i % 6 == 0) rule.maxAmount = 256;
+                if (i % 9 == 0) rule.minAmount = 16;
+            }
+
+            if (i % 5 == 0 && !network.groups.isEmpty()) {
+                rule.sourceNodeId = network.groups.get(random.nextInt(network.groups.size())).groupId;
+                rule.sourceIsGroup = true;
+            } else {
+                rule.sourceNodeId = network.nodes.get(random.nextInt(nodes)).nodeId;
+            }
+            if (i % 10 == 1 && !buffers.isEmpty()) {
+                rule.destNodeId = buffers.get(random.nextInt(buffers.size())).nodeId;
+            } else if (i % 7 == 0 && !network.groups.isEmpty()) {
+                rule.destNodeId = network.groups.get(random.nextInt(network.groups.size())).groupId;
+                rule.destIsGroup = true;
+            } else {
+                rule.destNodeId = network.nodes.get(random.nextInt(nodes)).nodeId;
+            }
+            if (i % 4 == 0) {
+                LogicCondition condition = new LogicCondition();
+                condition.targetId = rule.sourceNodeId;
+                condition.isGroup = rule.sourceIsGroup;
+                condition.type = rule.type;
+                condition.operator = "GREATER";
+                condition.value = 0;
+                rule.conditions.add(condition);
+            }
+            network.addRule(rule);
+
+            LogisticsRule back = rule(rule.type);
+            back.distributionMode = rule.distributionMode;
+            back.priority = rule.priority;
+            back.filter = rule.filter.snapshot(); // Equal content, separate object, as rules loaded from disk have
+            back.sourceNodeId = rule.destNodeId;
+            back.sourceIsGroup = rule.destIsGroup;
+            back.destNodeId = rule.sourceNodeId;
+            back.destIsGroup = rule.sourceIsGroup;
+            network.addRule(back);
+        }
+    }
+
+    private static LogisticsRule rule(String type) {
+        LogisticsRule rule = new LogisticsRule();
+        rule.type = type;
+        rule.speedMode = "HYPER";
+        rule.scanItems = false; // Keeps energy and fluid rules on the block handlers
+        return rule;
+    }
+
+    private static LogisticsFilter itemFilter(int variant) {
+        LogisticsFilter filter = new LogisticsFilter();
+        switch (variant % 4) {
+            case 1 -> {
+                filter.matchType = "ID";
+                filter.matchValues.add("minecraft:cobblestone");
+                filter.matchValues.add("minecraft:iron_ingot");
+            }
+            case 2 -> {
+                filter.matchType = "ID";
+                filter.matchValues.add("minecraft:*_ingot");
+            }
+            case 3 -> {
+                filter.matchType = "ID";
+                filter.matchValues.add("minecraft:diamond");
+                filter.blacklist = true;
+            }
+            default -> filter.matchType = "ALL";
+        }
+        return filter;
+    }
+
+    @Benchmark
+    public NetworkData tick() {
+        world.advance();
+        NetworkTickHandler.tickNetwork(world, network, Long.MAX_VALUE);
+        return network;
+    }
+}
@@ -36,12 +36,32 @@ public class Config
             .comment("A list of items to log on common setup.")
             .defineListAllowEmpty("items", List.of("minecraft:iron_ingot"), Config::validateItemName);
 
+    private static final ForgeConfigSpec.IntValue LOGISTICS_TICK_SLICE_MICROS = BUILDER
+            .comment("Wall-clock time (microseconds) all logistics networks together may use per server tick")
+            .defineInRange("logisticsTickSliceMicros", 2000, 100, 50000);
+
+    private static final ForgeConfigSpec.IntValue LOGISTICS_MAX_CREDIT_SLICES = BUILDER
+            .comment("How many tick slices of unused time a single logistics network may bank")
+            .defineInRange("logisticsMaxCreditSlices", 4, 1, 100);
+
+    private static final ForgeConfigSpec.IntValue LOGISTICS_MAX_IDLE_BACKOFF_TICKS = BUILDER
+            .comment("Longest delay (ticks) between re-checks of a logistics rule that keeps finding nothing to move")
+            .defineInRange("logisticsMaxIdleBackoffTicks", 200, 1, 6000);
+
+    private static final ForgeConfigSpec.IntValue LOGISTICS_ACCESS_CACHE_TICKS = BUILDER
+            .comment("How long (ticks) a logistics block permission check is reused; 0 checks every time")
+            .defineInRange("logisticsAccessCacheTicks", 600, 0, 72000);
+
     static final ForgeConfigSpec SPEC = BUILDER.build();
 
     public static boolean logDirtBlock;
     public static int magicNumber;
     public static String magicNumberIntroduction;
     public static Set<Item> items;
+    public static int logisticsTickSliceMicros = 2000;
+    public static int logisticsMaxCreditSlices = 4;
+    public static int logisticsMaxIdleBackoffTicks = 200;
+    public static int logisticsAccessCacheTicks = 600;
 
     private static boolean validateItemName(final Object obj)
     {
@@ -54,6 +74,10 @@ public class Config
         logDirtBlock = LOG_DIRT_BLOCK.get();
         magicNumber = MAGIC_NUMBER.get();
         magicNumberIntroduction = MAGIC_NUMBER_INTRODUCTION.get();
+        logisticsTickSliceMicros = LOGISTICS_TICK_SLICE_MICROS.get();
+        logisticsMaxCreditSlices = LOGISTICS_MAX_CREDIT_SLICES.get();
+        logisticsMaxIdleBackoffTicks = LOGISTICS_MAX_IDLE_BACKOFF_TICKS.get();
+        logisticsAccessCacheTicks = LOGISTICS_ACCESS_CACHE_TICKS.get();
 
         // convert the list of strings into a set of items
         items = ITEM_STRINGS.get().stream()
@@ -891,6 +891,20 @@ public class ServerForgeEvents {
     private static boolean pricesCalculated = false;
     private static volatile boolean pricesCalculating = false;
 
+    @SubscribeEvent
+    public static void onDatapackSync(net.minecraftforge.event.OnDatapackSyncEvent event) {
+        // Without a player this is the end of /reload; joining players are handled on login
+        if (event.getPlayer() != null || !pricesCalculated) return;
+        net.minecraft.server.MinecraftServer server = event.getPlayerList().getServer();
+        StorePriceManager.repriceChangedItems(server.overworld()).whenComplete((changed, e) -> {
+            if (e != null) {
+                e.printStackTrace();
+            } else if (changed > 0) {
+                server.getPlayerList().broadcastSystemMessage(Component.literal("\u00A76[ModMenu] \u00A7aUpdated " + changed + " item prices after reload."), false);
+            }
+        });
+    }
+
     @SubscribeEvent
     public static void onPlayerLogin(PlayerEvent.PlayerLoggedInEvent event) {
         if (event.getEntity() instanceof ServerPlayer player) {
@@ -904,20 +918,28 @@ public class ServerForgeEvents {
                 if (server != null) {
                     server.execute(() -> {
                         try {
-                            StorePriceManager.addAllItems(player.level());
-                            pricesCalculated = true;
-                            pricesCalculating = false;
-                            
-                            server.getPlayerList().broadcastSystemMessage(Component.literal("\u00A76[ModMenu] \u00A7aItem pricing calculation complete!"), false);
-                            for (ServerPlayer p : server.getPlayerList().getPlayers()) {
-                                StorePriceManager.syncPrices(p);
-                            }
+                            // Prices are computed off-thread and published back on the server thread
+                            StorePriceManager.addAllItems(player.level()).whenComplete((v, e) -> {
+                                pricesCalculating = false;
+                                if (e != null) {
+                                    e.printStackTrace();
+                                    return;
+                                }
+                                pricesCalculated = true;
+
+                                server.getPlayerList().broadcastSystemMessage(Component.literal("\u00A76[ModMenu] \u00A7aItem pricing calculation complete!"), false);
+                                for (ServerPlayer p : server.getPlayerList().getPlayers()) {
+                                    StorePriceManager.syncPrices(p);
+                                }
+                            });
                         } catch (Exception e) {
                             e.printStackTrace();
                             pricesCalculating = false;
                         }
                     });
                 }
+            } else if (pricesCalculating) {
+                player.displayClientMessage(Component.literal("\u00A76[ModMenu] \u00A7eItem prices are still being calculated (" + Math.round(StorePriceManager.getPricingProgress() * 100) + "%)."), false);
             }
             
             SkillManager.handleOfflineProcessing(player);
@@ -926,10 +948,7 @@ public class ServerForgeEvents {
             if (pricesCalculated) StorePriceManager.syncPrices(player);
 
             com.example.modmenu.store.logistics.LogisticsCapability.getNetworks(player).ifPresent(data -> {
-                com.example.modmenu.network.PacketHandler.sendToPlayer(
-                    new com.example.modmenu.network.SyncNetworksPacket(data.getNetworks()),
-                    player
-                );
+                com.example.modmenu.network.NetworkSync.resync(player, data);
             });
 
             if (StorePriceManager.isDataCorrupted) {
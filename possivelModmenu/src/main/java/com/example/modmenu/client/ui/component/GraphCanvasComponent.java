@@ -173,9 +173,12 @@ public class GraphCanvasComponent extends UIContainer {
                     lines.add(net.minecraft.network.chat.Component.literal("\u00A7b[ INTERNAL BUFFER ]"));
                     if (node.virtualEnergyBuffer > 0) lines.add(net.minecraft.network.chat.Component.literal("\u00A76Energy: \u00A7f" + node.virtualEnergyBuffer + " FE"));
                     if (!node.virtualFluidBuffer.isEmpty()) lines.add(net.minecraft.network.chat.Component.literal("\u00A7aFluids: \u00A7f" + node.virtualFluidBuffer.size() + " types"));
-                    if (!node.virtualItemBuffer.isEmpty()) lines.add(net.minecraft.network.chat.Component.literal("\u00A7eItems: \u00A7f" + node.virtualItemBuffer.size() + " stacks"));
+                    if (!node.virtualItemBuffer.isEmpty()) lines.add(net.minecraft.network.chat.Component.literal("\u00A7eItems: \u00A7f" + node.virtualItemBuffer.size() + " types"));
                 }
                 
+                long nodeRate = network.movementHistory.nodeRate(node.nodeId);
+                if (nodeRate > 0) lines.add(net.minecraft.network.chat.Component.literal("\u00A77Throughput: \u00A7a" + nodeRate + "/s"));
+
                 if (node.isMissing) {
                     lines.add(net.minecraft.network.chat.Component.literal(""));
                     lines.add(net.minecraft.network.chat.Component.literal("\u00A7c\u00A7l\u26A0 ERROR: BLOCK OFFLINE"));
@@ -226,10 +229,13 @@ public class GraphCanvasComponent extends UIContainer {
                     lines.add(net.minecraft.network.chat.Component.literal("\u00A77Target Var: \u00A7e" + rule.variableName));
                 }
 
+                long ruleRate = network.movementHistory.ruleRate(rule.ruleId);
+                if (ruleRate > 0) lines.add(net.minecraft.network.chat.Component.literal("\u00A77Throughput: \u00A7a" + ruleRate + "/s"));
+
                 if (rule.lastReport != null && !rule.lastReport.isEmpty()) {
                     lines.add(net.minecraft.network.chat.Component.literal(""));
                     lines.add(net.minecraft.network.chat.Component.literal("\u00A77Last Report:"));
-                    lines.add(net.minecraft.network.chat.Component.literal("  " + rule.lastReport.replace("[ACTIVE] ", "\u00A7a").replace("[SEARCH] ", "\u00A7e").replace("[FULL] ", "\u00A76").replace("[BLOCKED] ", "\u00A7c").replace("[ERROR] ", "\u00A7c\u00A7l")));
+                    lines.add(net.minecraft.network.chat.Component.literal("  " + rule.lastReport.replace("[ACTIVE] ", "\u00A7a").replace("[SEARCH] ", "\u00A7e").replace("[FULL] ", "\u00A76").replace("[BLOCKED] ", "\u00A7c").replace("[ERROR] ", "\u00A7c\u00A7l").replace("[PARKED] ", "\u00A7b")));
                 }
                 
                 lines.add(net.minecraft.network.chat.Component.literal(""));
@@ -263,11 +269,12 @@ public class GraphCanvasComponent extends UIContainer {
             }
 
             // Flight Recorder: Spawn particles for history matches
-            if (!historySearchTerm.isEmpty() && !network.movementHistory.isEmpty()) {
-                for (com.example.modmenu.store.logistics.MovementRecord rec : network.movementHistory) {
-                    if (rec.itemName.toLowerCase().contains(historySearchTerm) || rec.itemId.toLowerCase().contains(historySearchTerm)) {
-                        int[] srcPos = getTargetPos(rec.sourceNodeId, false);
-                        int[] dstPos = getTargetPos(rec.destNodeId, false);
+            if (!historySearchTerm.isEmpty()) {
+                com.example.modmenu.store.logistics.MovementLog history = network.movementHistory;
+                for (int h = 0; h < history.size(); h++) {
+                    if (history.itemName(h).toLowerCase().contains(historySearchTerm) || history.itemId(h).toLowerCase().contains(historySearchTerm)) {
+                        int[] srcPos = getTargetPos(history.source(h), false);
+                        int[] dstPos = getTargetPos(history.destination(h), false);
                         if (srcPos != null && dstPos != null && Math.random() < 0.05) {
                             particles.add(new UIParticle(srcPos[0], srcPos[1], dstPos[0], dstPos[1], 0xFFFFCC00, 2)); // Gold for history, size 2
                         }
@@ -383,6 +390,7 @@ public class GraphCanvasComponent extends UIContainer {
                     else if (rule.lastReport.startsWith("[ACTIVE]")) statusIcon = "\u26A1"; // ⚡
                     else if (rule.lastReport.startsWith("[BLOCKED]")) statusIcon = "\uD83D\uDEAB"; // 🚫
                     else if (rule.lastReport.startsWith("[ERROR]")) statusIcon = "\u26A0"; // ⚠
+                    else if (rule.lastReport.startsWith("[PARKED]")) statusIcon = "\uD83D\uDCA4"; // 💤
                 }
                 
                 int midX = (srcPos[0] + dstPos[0]) / 2;
@@ -4,6 +4,7 @@ import com.example.modmenu.client.ui.base.BaseResponsiveLodestoneScreen;
 import com.example.modmenu.client.ui.base.UIElement;
 import com.example.modmenu.client.ui.component.ResponsiveButton;
 import com.example.modmenu.network.*;
+import com.example.modmenu.store.logistics.InventoryView;
 import com.example.modmenu.store.logistics.LogisticsFilter;
 import com.example.modmenu.store.logistics.NetworkData;
 import com.example.modmenu.store.logistics.NetworkNode;
@@ -26,6 +27,7 @@ public class FilterConfigScreen extends BaseResponsiveLodestoneScreen {
     private final boolean sourceIsGroup;
     private EditBox filterInput;
     private List<ItemStack> sourceInventoryPreview = null;
+    private final InventoryView.Pages groupPages = new InventoryView.Pages();
 
     public FilterConfigScreen(Screen parent, LogisticsFilter filter, UUID networkId, NetworkData networkData, UUID sourceNodeId, boolean sourceIsGroup) {
         super(Component.literal("Filter Configuration"));
@@ -38,7 +40,8 @@ public class FilterConfigScreen extends BaseResponsiveLodestoneScreen {
         
         if (sourceNodeId != null) {
             if (sourceIsGroup) {
-                PacketHandler.sendToServer(GroupManagementPacket.probeInventory(networkId, sourceNodeId));
+                groupPages.reset(sourceNodeId);
+                PacketHandler.sendToServer(GroupManagementPacket.probeInventory(networkId, sourceNodeId, groupPages.viewId, 0));
             } else {
                 PacketHandler.sendToServer(NodeManagementPacket.probeInventory(networkId, sourceNodeId));
             }
@@ -51,6 +54,16 @@ public class FilterConfigScreen extends BaseResponsiveLodestoneScreen {
         }
     }
 
+    public void handleInventoryPage(UUID viewId, UUID id, int page, int totalEntries, List<ItemStack> items) {
+        if (groupPages.accept(viewId, id, page, totalEntries, items)) this.sourceInventoryPreview = groupPages.items();
+    }
+
+    // A group arrives a page at a time; keep loading while the preview row still has room for matches
+    private void requestMorePreview() {
+        int next = groupPages.nextPage();
+        if (next > 0) PacketHandler.sendToServer(GroupManagementPacket.probeInventory(networkId, sourceNodeId, groupPages.viewId, next));
+    }
+
     @Override
     protected void setupLayout() {
         this.layoutRoot.addElement(new ResponsiveButton(10, 10, 50, 20, Component.literal("Back"), btn -> this.minecraft.setScreen(parent)));
@@ -141,6 +154,7 @@ public class FilterConfigScreen extends BaseResponsiveLodestoneScreen {
                             if (dx > 280) break;
                         }
                     }
+                    if (dx <= 280) requestMorePreview();
                 }
             }
 
@@ -161,7 +161,7 @@ public class NetworkManagerScreen extends BaseResponsiveLodestoneScreen {
         this.layoutRoot.addElement(canvas);
 
         // Network Stats Overlay (Top Right)
-        this.layoutRoot.addElement(new UIElement(this.width - 160, 45, 150, 60) {
+        this.layoutRoot.addElement(new UIElement(this.width - 160, 45, 150, 70) {
             @Override
             public void render(GuiGraphics g, int mx, int my, float pt) {
                 g.fill(getX(), getY(), getX() + getWidth(), getY() + getHeight(), 0xAA000000);
@@ -175,6 +175,9 @@ public class NetworkManagerScreen extends BaseResponsiveLodestoneScreen {
                 g.drawString(font, "Energy: \u00A76" + networkData.energyMovedLastMin + " FE/min", getX() + 10, dy, 0xFFFFFFFF);
                 dy += 10;
                 g.drawString(font, "Fluids: \u00A7a" + networkData.fluidsMovedLastMin + " mB/min", getX() + 10, dy, 0xFFFFFFFF);
+                dy += 10;
+                String dropped = networkData.signalsDroppedLastMin > 0 ? " \u00A7c" + networkData.signalsDroppedLastMin + " dropped" : "";
+                g.drawString(font, "Signals: \u00A77" + networkData.signalsCoalescedLastMin + " merged" + dropped, getX() + 10, dy, 0xFFFFFFFF);
                 dy += 12;
                 String ov = "None";
                 if (networkData.overflowTargetId != null) {
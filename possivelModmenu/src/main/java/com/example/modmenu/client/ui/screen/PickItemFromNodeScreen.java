@@ -4,6 +4,7 @@ import com.example.modmenu.client.ui.base.ScrollableUIContainer;
 import com.example.modmenu.client.ui.base.UIElement;
 import com.example.modmenu.client.ui.component.ResponsiveButton;
 import com.example.modmenu.network.*;
+import com.example.modmenu.store.logistics.InventoryView;
 import com.example.modmenu.store.logistics.NetworkNode;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.screens.Screen;
@@ -23,6 +24,14 @@ public class PickItemFromNodeScreen extends BaseResponsiveLodestoneScreen {
     private List<Integer> slotX = null;
     private List<Integer> slotY = null;
     private UUID probedTargetId = null;
+
+    // Group views arrive a page at a time; the next one is asked for when the last loaded slot scrolls into view
+    private final UUID viewId = UUID.randomUUID();
+    private final it.unimi.dsi.fastutil.longs.LongArrayList totals = new it.unimi.dsi.fastutil.longs.LongArrayList();
+    private int totalEntries = 0;
+    private int requestedPage = 0;
+    private ScrollableUIContainer slotList = null;
+    private int contentHeight = 0;
     public PickItemFromNodeScreen(Screen parent, UUID networkId, UUID targetId, boolean isGroup, Consumer<ItemStack> onPick) {
         super(Component.literal(isGroup ? "Pick Item from Group" : "Pick Item from Source"));
         this.parent = parent;
@@ -32,7 +41,7 @@ public class PickItemFromNodeScreen extends BaseResponsiveLodestoneScreen {
         this.onPick = onPick;
 
         if (isGroup) {
-            PacketHandler.sendToServer(GroupManagementPacket.probeInventory(networkId, targetId));
+            PacketHandler.sendToServer(GroupManagementPacket.probeInventory(networkId, targetId, viewId, 0));
         } else {
             PacketHandler.sendToServer(NodeManagementPacket.probeInventory(networkId, targetId));
         }
@@ -46,62 +55,55 @@ public class PickItemFromNodeScreen extends BaseResponsiveLodestoneScreen {
             this.init(this.minecraft, this.width, this.height);
         }
     }
+
+    public void handleInventoryPage(UUID viewId, UUID id, int page, int totalEntries, List<ItemStack> items, long[] pageTotals) {
+        if (!this.viewId.equals(viewId) || !this.targetId.equals(id)) return;
+        if (page == 0 || inventory == null) {
+            this.probedTargetId = id;
+            this.inventory = new java.util.ArrayList<>();
+            this.slotX = new java.util.ArrayList<>();
+            this.slotY = new java.util.ArrayList<>();
+            this.totals.clear();
+            this.requestedPage = 0;
+        } else if (page * InventoryView.PAGE_SIZE != inventory.size()) {
+            return; // Stale or duplicate page
+        }
+        this.totalEntries = totalEntries;
+        int start = inventory.size();
+        for (int i = 0; i < items.size(); i++) {
+            int index = start + i;
+            inventory.add(items.get(i));
+            slotX.add((index % 9) * 18);
+            slotY.add((index / 9) * 18);
+            totals.add(pageTotals[i]);
+        }
+        if (page == 0 || slotList == null) {
+            this.init(this.minecraft, this.width, this.height);
+        } else {
+            for (int i = start; i < inventory.size(); i++) addSlot(slotList, i);
+            slotList.setContentHeight(contentHeight + 20);
+        }
+    }
+
+    private void requestNextPage() {
+        int next = inventory.size() / InventoryView.PAGE_SIZE;
+        if (next <= requestedPage) return;
+        requestedPage = next;
+        PacketHandler.sendToServer(GroupManagementPacket.probeInventory(networkId, targetId, viewId, next));
+    }
+
     @Override
     protected void setupLayout() {
         this.layoutRoot.addElement(new ResponsiveButton(10, 10, 50, 20, Component.literal("Cancel"), btn -> {
             this.minecraft.setScreen(parent);
         }));
         if (inventory != null && targetId.equals(probedTargetId)) {
-            ScrollableUIContainer slotList = new ScrollableUIContainer(50, 40, this.width - 100, this.height - 80);
+            slotList = new ScrollableUIContainer(50, 40, this.width - 100, this.height - 80);
             this.layoutRoot.addElement(slotList);
 
-            int slotSize = 18;
-            int maxY = 0;
-
-            for (int i = 0; i < inventory.size(); i++) {
-                ItemStack stack = inventory.get(i);
-                if (stack.isEmpty()) continue;
-
-                int sx = slotX.get(i);
-                int sy = slotY.get(i);
-                maxY = Math.max(maxY, sy + slotSize);
-
-                slotList.addElement(new UIElement(sx, sy, slotSize, slotSize) {
-                    @Override
-                    public void render(GuiGraphics g, int mx, int my, float pt) {
-                        boolean hov = mx >= getX() && my >= getY() && mx < getX() + getWidth() && my < getY() + getHeight();
-                        g.fill(getX(), getY(), getX() + getWidth(), getY() + getHeight(), hov ? 0x66FFFFFF : 0x33FFFFFF);
-                        g.renderItem(stack, getX() + 1, getY() + 1);
-
-                        if (hov) {
-                            addPostRenderTask(graphics -> {
-                                java.util.List<net.minecraft.network.chat.Component> tooltip = new java.util.ArrayList<>();
-                                tooltip.add(stack.getHoverName());
-                                if (stack.hasTag()) {
-                                    tooltip.add(net.minecraft.network.chat.Component.literal("\u00A7bNBT: \u00A77" + stack.getTag().getAllKeys().size() + " tags"));
-                                    for (String key : stack.getTag().getAllKeys()) {
-                                        if (tooltip.size() > 10) { tooltip.add(net.minecraft.network.chat.Component.literal("\u00A77...")); break; }
-                                        tooltip.add(net.minecraft.network.chat.Component.literal(" \u00A78- " + key));
-                                    }
-                                }
-                                if (!stack.getTags().toList().isEmpty()) {
-                                    tooltip.add(net.minecraft.network.chat.Component.literal("\u00A76Tags:"));
-                                    stack.getTags().forEach(t -> tooltip.add(net.minecraft.network.chat.Component.literal(" \u00A78# " + t.location())));
-                                }
-                                graphics.renderComponentTooltip(font, tooltip, absMouseX, absMouseY);
-                            });
-                        }
-                    }
-                    @Override
-                    public boolean mouseClicked(double mx, double my, int button) {
-                        if (!isMouseOver(mx, my)) return false;
-                        onPick.accept(stack);
-                        minecraft.setScreen(parent);
-                        return true;
-                    }
-                });
-            }
-            slotList.setContentHeight(maxY + 20);
+            contentHeight = 0;
+            for (int i = 0; i < inventory.size(); i++) addSlot(slotList, i);
+            slotList.setContentHeight(contentHeight + 20);
         } else {
             this.layoutRoot.addElement(new UIElement(this.width / 2 - 50, this.height / 2, 100, 20) {
                 @Override
@@ -111,4 +113,53 @@ public class PickItemFromNodeScreen extends BaseResponsiveLodestoneScreen {
             });
         }
     }
+
+    private void addSlot(ScrollableUIContainer slotList, int i) {
+        ItemStack stack = inventory.get(i);
+        if (stack.isEmpty()) return;
+
+        int slotSize = 18;
+        int sx = slotX.get(i);
+        int sy = slotY.get(i);
+        long total = i < totals.size() ? totals.getLong(i) : -1;
+        boolean last = i == inventory.size() - 1;
+        contentHeight = Math.max(contentHeight, sy + slotSize);
+
+        slotList.addElement(new UIElement(sx, sy, slotSize, slotSize) {
+            @Override
+            public void render(GuiGraphics g, int mx, int my, float pt) {
+                boolean hov = mx >= getX() && my >= getY() && mx < getX() + getWidth() && my < getY() + getHeight();
+                g.fill(getX(), getY(), getX() + getWidth(), getY() + getHeight(), hov ? 0x66FFFFFF : 0x33FFFFFF);
+                g.renderItem(stack, getX() + 1, getY() + 1);
+                if (last && isGroup && inventory.size() < totalEntries) requestNextPage();
+
+                if (hov) {
+                    addPostRenderTask(graphics -> {
+                        java.util.List<net.minecraft.network.chat.Component> tooltip = new java.util.ArrayList<>();
+                        tooltip.add(stack.getHoverName());
+                        if (total >= 0) tooltip.add(net.minecraft.network.chat.Component.literal("\u00A77Total: \u00A7f" + total));
+                        if (stack.hasTag()) {
+                            tooltip.add(net.minecraft.network.chat.Component.literal("\u00A7bNBT: \u00A77" + stack.getTag().getAllKeys().size() + " tags"));
+                            for (String key : stack.getTag().getAllKeys()) {
+                                if (tooltip.size() > 10) { tooltip.add(net.minecraft.network.chat.Component.literal("\u00A77...")); break; }
+                                tooltip.add(net.minecraft.network.chat.Component.literal(" \u00A78- " + key));
+                            }
+                        }
+                        if (!stack.getTags().toList().isEmpty()) {
+                            tooltip.add(net.minecraft.network.chat.Component.literal("\u00A76Tags:"));
+                            stack.getTags().forEach(t -> tooltip.add(net.minecraft.network.chat.Component.literal(" \u00A78# " + t.location())));
+                        }
+                        graphics.renderComponentTooltip(font, tooltip, absMouseX, absMouseY);
+                    });
+                }
+            }
+            @Override
+            public boolean mouseClicked(double mx, double my, int button) {
+                if (!isMouseOver(mx, my)) return false;
+                onPick.accept(stack);
+                minecraft.setScreen(parent);
+                return true;
+            }
+        });
+    }
 }
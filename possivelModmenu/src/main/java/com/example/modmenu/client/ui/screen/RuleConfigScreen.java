@@ -5,6 +5,7 @@ import com.example.modmenu.client.ui.base.BaseResponsiveLodestoneScreen;
 import com.example.modmenu.client.ui.base.UIElement;
 import com.example.modmenu.client.ui.component.ResponsiveButton;
 import com.example.modmenu.network.*;
+import com.example.modmenu.store.logistics.InventoryView;
 import com.example.modmenu.store.logistics.LogisticsRule;
 import com.example.modmenu.store.logistics.NetworkData;
 import com.example.modmenu.store.logistics.NetworkNode;
@@ -34,6 +35,7 @@ public class RuleConfigScreen extends BaseResponsiveLodestoneScreen {
     
     private List<ItemStack> sourceInventoryPreview = null;
     private UUID probedNodeId = null;
+    private final InventoryView.Pages groupPages = new InventoryView.Pages();
 
     public RuleConfigScreen(Screen parent, UUID networkId, NetworkData networkData, LogisticsRule rule, boolean isNew) {
         super(Component.literal("Rule Configuration"));
@@ -65,13 +67,16 @@ public class RuleConfigScreen extends BaseResponsiveLodestoneScreen {
 
     private void requestProbe() {
         int nodeSize = networkData.nodes.size();
+        groupPages.reset(null);
         if (sourceIdx < nodeSize && !networkData.nodes.isEmpty()) {
             NetworkNode n = networkData.nodes.get(sourceIdx);
             if (n != null) PacketHandler.sendToServer(NodeManagementPacket.probeInventory(networkId, n.nodeId));
         } else if (!networkData.groups.isEmpty()) {
             int groupIdx = sourceIdx - nodeSize;
             if (groupIdx >= 0 && groupIdx < networkData.groups.size()) {
-                PacketHandler.sendToServer(GroupManagementPacket.probeInventory(networkId, networkData.groups.get(groupIdx).groupId));
+                UUID groupId = networkData.groups.get(groupIdx).groupId;
+                groupPages.reset(groupId);
+                PacketHandler.sendToServer(GroupManagementPacket.probeInventory(networkId, groupId, groupPages.viewId, 0));
             }
         }
     }
@@ -95,6 +100,19 @@ public class RuleConfigScreen extends BaseResponsiveLodestoneScreen {
         }
     }
 
+    public void handleInventoryPage(UUID viewId, UUID id, int page, int totalEntries, List<ItemStack> items) {
+        if (groupPages.accept(viewId, id, page, totalEntries, items)) {
+            this.probedNodeId = id;
+            this.sourceInventoryPreview = groupPages.items();
+        }
+    }
+
+    // A group arrives a page at a time; keep loading while the preview row still has room for matches
+    private void requestMorePreview() {
+        int next = groupPages.nextPage();
+        if (next > 0) PacketHandler.sendToServer(GroupManagementPacket.probeInventory(networkId, probedNodeId, groupPages.viewId, next));
+    }
+
     @Override
     protected void setupLayout() {
         this.layoutRoot.addElement(new ResponsiveButton(10, 10, 50, 20, Component.literal("Back"), btn -> {
@@ -338,6 +356,7 @@ public class RuleConfigScreen extends BaseResponsiveLodestoneScreen {
                                 if (dx > 280) break;
                             }
                         }
+                        if (dx <= 280) requestMorePreview();
                     }
                 }
 
@@ -148,7 +148,7 @@ public class RulesListScreen extends BaseResponsiveLodestoneScreen {
             g.drawString(font, text, getX() + 10, getY() + 8, 0xFFFFFFFF);
             
             // Diagnostic Status
-            String status = rule.active ? (rule.lastReport.isEmpty() ? "\u00A77Idle" : "\u00A7e" + rule.lastReport) : "\u00A7cPaused";
+            String status = rule.active ? (rule.lastReport.isEmpty() ? "\u00A77Idle" : (rule.lastReport.startsWith("[PARKED]") ? "\u00A7b" : "\u00A7e") + rule.lastReport) : "\u00A7cPaused";
             if (status.length() > 40) status = status.substring(0, 37) + "...";
             g.drawString(font, status, getX() + 10, getY() + 20, 0xFFAAAAAA);
 
@@ -3,6 +3,7 @@ package com.example.modmenu.commands;
 import com.example.modmenu.network.PacketHandler;
 import com.example.modmenu.network.SyncMoneyPacket;
 import com.example.modmenu.store.StorePriceManager;
+import com.example.modmenu.store.logistics.AccessCache;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.DoubleArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
@@ -98,6 +99,19 @@ public class StoreCommands {
             })
         );
 
+        dispatcher.register(Commands.literal("logisticsaccessstats")
+            .requires(source -> source.hasPermission(2))
+            .executes(context -> {
+                long hits = AccessCache.hits;
+                long lookups = hits + AccessCache.misses;
+                String rate = lookups > 0 ? String.format("%.1f%%", hits * 100.0 / lookups) : "n/a";
+                context.getSource().sendSuccess(() -> Component.literal("Logistics access cache: " + AccessCache.size() + " entries, "
+                        + hits + " hits, " + AccessCache.misses + " misses (" + rate + " hit rate), "
+                        + AccessCache.expired + " expired, " + AccessCache.invalidated + " invalidated"), false);
+                return 1;
+            })
+        );
+
         dispatcher.register(Commands.literal("setspmultiplier")
             .requires(source -> source.hasPermission(2))
             .then(Commands.argument("multiplier", DoubleArgumentType.doubleArg(0.0))
@@ -0,0 +1,31 @@
+package com.example.modmenu.mixin;
+
+import com.example.modmenu.store.logistics.NodeHealth;
+import com.example.modmenu.store.logistics.RuleWakeups;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(BlockEntity.class)
+public abstract class BlockEntityMixin {
+    @Shadow protected Level level;
+    @Shadow @Final protected BlockPos worldPosition;
+
+    // Inventory changes wake logistics rules that are backing off on this block
+    @Inject(method = "setChanged()V", at = @At("HEAD"))
+    private void onSetChanged(CallbackInfo ci) {
+        if (level != null) RuleWakeups.onBlockChanged(level, worldPosition);
+    }
+
+    // Covers removals that fire no block event (explosions, pistons, commands, other mods)
+    @Inject(method = "setRemoved()V", at = @At("HEAD"))
+    private void onSetRemoved(CallbackInfo ci) {
+        if (level != null) NodeHealth.onBlockChanged(level, worldPosition);
+    }
+}
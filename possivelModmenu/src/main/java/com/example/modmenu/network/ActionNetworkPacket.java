@@ -22,7 +22,6 @@ import net.minecraftforge.common.capabilities.ForgeCapabilities;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
 import net.minecraftforge.network.NetworkEvent;
 import net.minecraftforge.network.NetworkHooks;
-import net.minecraftforge.registries.ForgeRegistries;
 
 import java.util.*;
 import java.util.function.Supplier;
@@ -246,21 +245,15 @@ public class ActionNetworkPacket {
 
             if (buf.readBoolean()) nodeData.referencedNetworkId = buf.readUUID();
             if (buf.readBoolean()) nodeData.targetPortId = buf.readUUID();
-            int itemBufferSize = buf.readInt();
-            if (itemBufferSize > 1000) throw new RuntimeException("Too many items in buffer");
-            for (int i = 0; i < itemBufferSize; i++) {
-                ItemStack stack = buf.readItem();
-                if (net.minecraftforge.fml.loading.FMLEnvironment.dist == net.minecraftforge.api.distmarker.Dist.CLIENT) nodeData.virtualItemBuffer.add(stack);
-            }
+            VirtualItemBuffer itemBuffer = new VirtualItemBuffer();
+            itemBuffer.readBuf(buf, 1000);
             long energyBuffer = buf.readLong();
-            if (net.minecraftforge.fml.loading.FMLEnvironment.dist == net.minecraftforge.api.distmarker.Dist.CLIENT) nodeData.virtualEnergyBuffer = energyBuffer;
-            int fluidBufferSize = buf.readInt();
-            if (fluidBufferSize > 100) throw new RuntimeException("Too many fluids in buffer");
-            for (int i = 0; i < fluidBufferSize; i++) {
-                net.minecraft.nbt.CompoundTag fluidNbt = buf.readNbt();
-                if (fluidNbt != null && net.minecraftforge.fml.loading.FMLEnvironment.dist == net.minecraftforge.api.distmarker.Dist.CLIENT) {
-                    nodeData.virtualFluidBuffer.add(net.minecraftforge.fluids.FluidStack.loadFluidStackFromNBT(fluidNbt));
-                }
+            VirtualFluidBuffer fluidBuffer = new VirtualFluidBuffer();
+            fluidBuffer.readBuf(buf, 100);
+            if (net.minecraftforge.fml.loading.FMLEnvironment.dist == net.minecraftforge.api.distmarker.Dist.CLIENT) {
+                nodeData.virtualItemBuffer = itemBuffer;
+                nodeData.virtualEnergyBuffer = energyBuffer;
+                nodeData.virtualFluidBuffer = fluidBuffer;
             }
         }
         if (buf.readBoolean()) {
@@ -336,17 +329,9 @@ public class ActionNetworkPacket {
             if (nodeData.referencedNetworkId != null) buf.writeUUID(nodeData.referencedNetworkId);
             buf.writeBoolean(nodeData.targetPortId != null);
             if (nodeData.targetPortId != null) buf.writeUUID(nodeData.targetPortId);
-            buf.writeInt(nodeData.virtualItemBuffer.size());
-            for (ItemStack stack : nodeData.virtualItemBuffer) buf.writeItem(stack);
+            nodeData.virtualItemBuffer.writeBuf(buf, 1000);
             buf.writeLong(nodeData.virtualEnergyBuffer);
-            buf.writeInt(nodeData.virtualFluidBuffer.size());
-            for (net.minecraftforge.fluids.FluidStack fluid : nodeData.virtualFluidBuffer) {
-                if (fluid != null) {
-                    buf.writeNbt(fluid.writeToNBT(new net.minecraft.nbt.CompoundTag()));
-                } else {
-                    buf.writeNbt(new net.minecraft.nbt.CompoundTag());
-                }
-            }
+            nodeData.virtualFluidBuffer.writeBuf(buf, 100);
         }
         buf.writeBoolean(groupData != null);
         if (groupData != null) {
@@ -393,170 +378,134 @@ public class ActionNetworkPacket {
                     }
                     NetworkData net = new NetworkData();
                     net.networkName = LogisticsUtil.cleanName(stringData);
-                    data.getNetworks().add(net);
+                    data.addNetwork(net);
                 }
-                case DELETE_NETWORK -> data.getNetworks().removeIf(n -> n.networkId.equals(networkId));
+                case DELETE_NETWORK -> data.removeNetwork(networkId);
                 case ADD_PHYSICAL_NODE -> {
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            if (network.nodes.size() >= MAX_NODES_PER_NETWORK) {
-                                player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7cNetwork node limit reached!"), true);
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        if (network.nodes.size() >= MAX_NODES_PER_NETWORK) {
+                            player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7cNetwork node limit reached!"), true);
+                            return;
+                        }
+                        ResourceLocation dimLoc = ResourceLocation.tryParse(dimData);
+                        ServerLevel targetLevel = dimLoc != null ? player.getServer().getLevel(ResourceKey.create(Registries.DIMENSION, dimLoc)) : null;
+                        if (targetLevel == null) targetLevel = player.serverLevel();
+
+                        if (intData == 1) { // Bulk addition (BFS)
+                            addBulkPhysicalNodes(network, player, posData, targetLevel, dimData);
+                        } else { // Single addition
+                            if (network.nodes.stream().anyMatch(n -> posData.equals(n.pos))) {
+                                player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7cBlock already in network!"), true);
                                 return;
                             }
-                            ResourceLocation dimLoc = ResourceLocation.tryParse(dimData);
-                            ServerLevel targetLevel = dimLoc != null ? player.getServer().getLevel(ResourceKey.create(Registries.DIMENSION, dimLoc)) : null;
-                            if (targetLevel == null) targetLevel = player.serverLevel();
-
-                            if (intData == 1) { // Bulk addition (BFS)
-                                addBulkPhysicalNodes(network, player, posData, targetLevel, dimData);
-                            } else { // Single addition
-                                if (network.nodes.stream().anyMatch(n -> posData.equals(n.pos))) {
-                                    player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7cBlock already in network!"), true);
-                                    return;
-                                }
-                                if (addSinglePhysicalNode(network, player, posData, targetLevel, dimData)) {
-                                    player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7aAdded block to network!"), true);
-                                    player.level().playSound(null, player.getX(), player.getY(), player.getZ(), net.minecraft.sounds.SoundEvents.EXPERIENCE_ORB_PICKUP, net.minecraft.sounds.SoundSource.PLAYERS, 1.0f, 1.0f);
-                                }
+                            if (addSinglePhysicalNode(network, player, posData, targetLevel, dimData)) {
+                                player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7aAdded block to network!"), true);
+                                player.level().playSound(null, player.getX(), player.getY(), player.getZ(), net.minecraft.sounds.SoundEvents.EXPERIENCE_ORB_PICKUP, net.minecraft.sounds.SoundSource.PLAYERS, 1.0f, 1.0f);
                             }
-                            network.nodeMap = null;
-                            break;
                         }
                     }
                 }
                 case REMOVE_NODE -> {
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            network.nodes.removeIf(node -> node.nodeId.equals(targetId));
-                            network.rules.removeIf(rule -> rule.sourceNodeId.equals(targetId) || rule.destNodeId.equals(targetId));
-                            network.nodeMap = null;
-                            network.needsSorting = true;
-                            break;
-                        }
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        network.removeNode(targetId);
                     }
                 }
                 case ADD_UPDATE_RULE -> { // Add/Update Rule
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            boolean updated = false;
-                            for (int i = 0; i < network.rules.size(); i++) {
-                                if (network.rules.get(i).ruleId.equals(ruleData.ruleId)) {
-                                    network.rules.set(i, ruleData);
-                                    updated = true;
-                                    break;
-                                }
-                            }
-                            if (!updated) {
-                                if (network.rules.size() >= MAX_RULES_PER_NETWORK) {
-                                    player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7cNetwork rule limit reached!"), true);
-                                    return;
-                                }
-                                network.rules.add(ruleData);
-                            }
-                            network.needsSorting = true;
-                            break;
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        if (network.index().rule(ruleData.ruleId) == null && network.rules.size() >= MAX_RULES_PER_NETWORK) {
+                            player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7cNetwork rule limit reached!"), true);
+                            return;
                         }
+                        network.putRule(ruleData);
                     }
                 }
                 case REMOVE_RULE -> { // Remove Rule
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            network.rules.removeIf(rule -> rule.ruleId.equals(targetId));
-                            network.needsSorting = true;
-                            break;
-                        }
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        network.removeRule(targetId);
                     }
                 }
                 case TOGGLE_NETWORK_ACTIVE -> { // Toggle Network Active
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            network.active = !network.active;
-                            break;
-                        }
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        network.active = !network.active;
                     }
                 }
                 case ADD_VIRTUAL_NODE -> {
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            if (network.nodes.size() >= MAX_NODES_PER_NETWORK) {
-                                player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7cNetwork node limit reached!"), true);
-                                return;
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        if (network.nodes.size() >= MAX_NODES_PER_NETWORK) {
+                            player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7cNetwork node limit reached!"), true);
+                            return;
+                        }
+                        NetworkNode node = new NetworkNode();
+                        node.nodeType = stringData;
+                        node.chamberIndex = intData;
+                        node.guiX = (network.nodes.size() % 5) * 40 - 80;
+                        node.guiY = (network.nodes.size() / 5) * 40 - 80;
+
+                        if (node.nodeType.equals("PLAYER")) node.customName = "Player Inventory";
+                        else if (node.nodeType.equals("MARKET")) node.customName = "Market (Auto-Sell)";
+                        else if (node.nodeType.equals("CHAMBER")) {
+                            StorePriceManager.SkillData skillData = StorePriceManager.getSkills(player.getUUID());
+                            if (intData >= 0 && intData < skillData.chambers.size()) {
+                                StorePriceManager.ChamberData chamber = skillData.chambers.get(intData);
+                                node.customName = "Chamber: " + LogisticsUtil.cleanName(chamber.customName != null ? chamber.customName : chamber.mobId);
                             }
-                            NetworkNode node = new NetworkNode();
-                            node.nodeType = stringData;
-                            node.chamberIndex = intData;
-                            node.guiX = (network.nodes.size() % 5) * 40 - 80;
-                            node.guiY = (network.nodes.size() / 5) * 40 - 80;
-
-                            if (node.nodeType.equals("PLAYER")) node.customName = "Player Inventory";
-                            else if (node.nodeType.equals("MARKET")) node.customName = "Market (Auto-Sell)";
-                            else if (node.nodeType.equals("CHAMBER")) {
-                                StorePriceManager.SkillData skillData = StorePriceManager.getSkills(player.getUUID());
-                                if (intData >= 0 && intData < skillData.chambers.size()) {
-                                    StorePriceManager.ChamberData chamber = skillData.chambers.get(intData);
-                                    node.customName = "Chamber: " + LogisticsUtil.cleanName(chamber.customName != null ? chamber.customName : chamber.mobId);
-                                }
-                            } else if (node.nodeType.equals("PORT_INPUT")) {
-                                node.customName = LogisticsUtil.cleanName(stringData != null && !stringData.equals("PORT_INPUT") ? stringData : "Input Port");
-                            } else if (node.nodeType.equals("PORT_OUTPUT")) {
-                                node.customName = LogisticsUtil.cleanName(stringData != null && !stringData.equals("PORT_OUTPUT") ? stringData : "Output Port");
-                            } else if (node.nodeType.equals("SUB_NETWORK")) {
-                                node.referencedNetworkId = targetId;
-                                node.targetPortId = secondTargetId;
-                                NetworkData otherNet = NetworkTickHandler.findNetwork(player, targetId);
-                                if (otherNet != null) {
-                                    node.customName = "Net: " + otherNet.networkName;
-                                    NetworkNode port = LogisticsUtil.findNode(otherNet, secondTargetId);
-                                    if (port != null) node.customName += " (" + port.customName + ")";
-                                } else {
-                                    node.customName = "Sub-Network (Missing)";
-                                }
+                        } else if (node.nodeType.equals("PORT_INPUT")) {
+                            node.customName = LogisticsUtil.cleanName(stringData != null && !stringData.equals("PORT_INPUT") ? stringData : "Input Port");
+                        } else if (node.nodeType.equals("PORT_OUTPUT")) {
+                            node.customName = LogisticsUtil.cleanName(stringData != null && !stringData.equals("PORT_OUTPUT") ? stringData : "Output Port");
+                        } else if (node.nodeType.equals("SUB_NETWORK")) {
+                            node.referencedNetworkId = targetId;
+                            node.targetPortId = secondTargetId;
+                            NetworkData otherNet = NetworkTickHandler.findNetwork(player, targetId);
+                            if (otherNet != null) {
+                                node.customName = "Net: " + otherNet.networkName;
+                                NetworkNode port = LogisticsUtil.findNode(otherNet, secondTargetId);
+                                if (port != null) node.customName += " (" + port.customName + ")";
+                            } else {
+                                node.customName = "Sub-Network (Missing)";
                             }
-
-                            network.nodes.add(node);
-                            network.nodeMap = null;
-                            break;
                         }
+
+                        network.addNode(node);
                     }
                 }
                 case UPDATE_NODE -> { // Update Node
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            for (NetworkNode existing : network.nodes) {
-                                if (existing.nodeId.equals(nodeData.nodeId)) {
-                                    // SECURITY: Only allow updating cosmetic and configuration fields.
-                                    // Functional fields like pos, dimension, and virtual buffers must be immutable from the client.
-                                    existing.customName = LogisticsUtil.cleanName(nodeData.customName);
-                                    existing.guiX = nodeData.guiX;
-                                    existing.guiY = nodeData.guiY;
-                                    existing.iconItemId = nodeData.iconItemId;
-                                    existing.sideConfig = new HashMap<>(nodeData.sideConfig);
-                                    existing.slotConfig = new HashMap<>(nodeData.slotConfig);
-                                    network.nodeMap = null;
-                                    break;
-                                }
-                            }
-                            break;
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        NetworkNode existing = network.index().node(nodeData.nodeId);
+                        if (existing != null) {
+                            // SECURITY: Only allow updating cosmetic and configuration fields.
+                            // Functional fields like pos, dimension, and virtual buffers must be immutable from the client.
+                            existing.customName = LogisticsUtil.cleanName(nodeData.customName);
+                            existing.guiX = nodeData.guiX;
+                            existing.guiY = nodeData.guiY;
+                            existing.iconItemId = nodeData.iconItemId;
+                            existing.sideConfig = new HashMap<>(nodeData.sideConfig);
+                            existing.slotConfig = new HashMap<>(nodeData.slotConfig);
+                            network.markChanged(existing.nodeId);
+                            network.topologyVersion++;
                         }
                     }
                 }
                 case RENAME_NETWORK -> { // Rename Network
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            network.networkName = LogisticsUtil.cleanName(stringData);
-                            break;
-                        }
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        network.networkName = LogisticsUtil.cleanName(stringData);
                     }
                 }
                 case REQUEST_NODE_INVENTORY_PROBE -> { // Request Node Inventory Probe
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            for (NetworkNode node : network.nodes) {
-                                if (node.nodeId.equals(targetId)) {
-                                    probeAndSyncInventory(player, node);
-                                    return;
-                                }
-                            }
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        NetworkNode node = network.index().node(targetId);
+                        if (node != null) {
+                            probeAndSyncInventory(player, node);
+                            return;
                         }
                     }
                 }
@@ -565,183 +514,145 @@ public class ActionNetworkPacket {
                     if (testRuleCooldowns.getOrDefault(player.getUUID(), 0L) > now) return;
                     testRuleCooldowns.put(player.getUUID(), now + 500);
 
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            for (LogisticsRule rule : network.rules) {
-                                if (rule.ruleId.equals(targetId)) {
-                                    boolean moved = NetworkTickHandler.processRule(player, network, rule, true);
-                                    float pitch = moved ? 1.0f : 0.5f;
-                                    player.level().playSound(null, player.getX(), player.getY(), player.getZ(), net.minecraft.sounds.SoundEvents.NOTE_BLOCK_CHIME.get(), net.minecraft.sounds.SoundSource.PLAYERS, 1.0f, pitch);
-                                    break;
-                                }
-                            }
-                            break;
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        LogisticsRule rule = network.index().rule(targetId);
+                        if (rule != null) {
+                            boolean moved = NetworkTickHandler.processRule(player, network, rule, true);
+                            float pitch = moved ? 1.0f : 0.5f;
+                            player.level().playSound(null, player.getX(), player.getY(), player.getZ(), net.minecraft.sounds.SoundEvents.NOTE_BLOCK_CHIME.get(), net.minecraft.sounds.SoundSource.PLAYERS, 1.0f, pitch);
                         }
                     }
                 }
                 case OPEN_MACHINE_GUI -> { // Open Machine GUI
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            for (NetworkNode node : network.nodes) {
-                                if (node.nodeId.equals(targetId)) {
-                                    if (node.nodeType.equals("BLOCK") && node.pos != null) {
-                                        // SECURITY: Add distance check to prevent remote GUI access abuse
-                                        if (player.blockPosition().distSqr(node.pos) > 4096) { // 64 block range
-                                            player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7cTarget block is too far away!"), true);
-                                            return;
-                                        }
-
-                                        ResourceLocation dimLoc = ResourceLocation.tryParse(node.dimension);
-                                        ServerLevel targetLevel = dimLoc != null ? player.getServer().getLevel(ResourceKey.create(Registries.DIMENSION, dimLoc)) : null;
-                                        if (targetLevel == null) targetLevel = player.serverLevel();
-                                        net.minecraft.world.level.block.entity.BlockEntity be = targetLevel.getBlockEntity(node.pos);
-                                        if (be instanceof net.minecraft.world.MenuProvider mp) {
-                                            NetworkHooks.openScreen(player, mp, node.pos);
-                                        }
-                                    }
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        NetworkNode node = network.index().node(targetId);
+                        if (node != null) {
+                            if (node.nodeType.equals("BLOCK") && node.pos != null) {
+                                // SECURITY: Add distance check to prevent remote GUI access abuse
+                                if (player.blockPosition().distSqr(node.pos) > 4096) { // 64 block range
+                                    player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7cTarget block is too far away!"), true);
                                     return;
                                 }
+
+                                ResourceLocation dimLoc = ResourceLocation.tryParse(node.dimension);
+                                ServerLevel targetLevel = dimLoc != null ? player.getServer().getLevel(ResourceKey.create(Registries.DIMENSION, dimLoc)) : null;
+                                if (targetLevel == null) targetLevel = player.serverLevel();
+                                net.minecraft.world.level.block.entity.BlockEntity be = targetLevel.getBlockEntity(node.pos);
+                                if (be instanceof net.minecraft.world.MenuProvider mp) {
+                                    NetworkHooks.openScreen(player, mp, node.pos);
+                                }
                             }
+                            return;
                         }
                     }
                 }
                 case TOGGLE_CONNECTIONS_VISIBILITY -> { // Toggle Connections Visibility
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            network.showConnections = !network.showConnections;
-                            break;
-                        }
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        network.showConnections = !network.showConnections;
                     }
                 }
                 case SET_LINK_MODE -> { // Set Link Mode
                     data.linkingNetworkId = networkId;
                 }
                 case TOGGLE_SIMULATION -> { // Toggle Simulation
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            network.simulationActive = !network.simulationActive;
-                            break;
-                        }
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        network.simulationActive = !network.simulationActive;
                     }
                 }
                 case ADD_UPDATE_GROUP -> { // Add/Update Group
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            boolean updated = false;
-                            for (int i = 0; i < network.groups.size(); i++) {
-                                if (network.groups.get(i).groupId.equals(groupData.groupId)) {
-                                    network.groups.set(i, groupData);
-                                    updated = true;
-                                    break;
-                                }
-                            }
-                            if (!updated) network.groups.add(groupData);
-                            network.groupMap = null;
-                            break;
-                        }
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        network.putGroup(groupData);
                     }
                 }
                 case REMOVE_GROUP -> { // Remove Group
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            network.groups.removeIf(group -> group.groupId.equals(targetId));
-                            network.rules.removeIf(rule -> (rule.sourceIsGroup && rule.sourceNodeId.equals(targetId)) ||
-                                                          (rule.destIsGroup && rule.destNodeId.equals(targetId)));
-                            network.groupMap = null;
-                            network.needsSorting = true;
-                            break;
-                        }
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        network.removeGroup(targetId);
                     }
                 }
                 case REQUEST_GROUP_INVENTORY_PROBE -> { // Request Group Inventory Probe
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            for (NodeGroup group : network.groups) {
-                                if (group.groupId.equals(targetId)) {
-                                    probeAndSyncGroupInventory(player, network, group);
-                                    return;
-                                }
-                            }
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        NodeGroup group = network.index().group(targetId);
+                        if (group != null) {
+                            // This older request has no view of its own, so the group stands in for one
+                            InventoryView.sendPage(player, network, group, group.groupId, 0);
+                            return;
                         }
                     }
                 }
                 case ADD_UPDATE_TEMPLATE -> { // Add/Update Template
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            boolean updated = false;
-                            for (int i = 0; i < network.ruleTemplates.size(); i++) {
-                                if (network.ruleTemplates.get(i).templateId.equals(templateData.templateId)) {
-                                    network.ruleTemplates.set(i, templateData);
-                                    updated = true;
-                                    break;
-                                }
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        boolean updated = false;
+                        for (int i = 0; i < network.ruleTemplates.size(); i++) {
+                            if (network.ruleTemplates.get(i).templateId.equals(templateData.templateId)) {
+                                network.ruleTemplates.set(i, templateData);
+                                updated = true;
+                                break;
                             }
-                            if (!updated) network.ruleTemplates.add(templateData);
-                            break;
                         }
+                        if (!updated) network.ruleTemplates.add(templateData);
+                        network.markTemplatesChanged();
                     }
                 }
                 case REMOVE_TEMPLATE -> { // Remove Template
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            network.ruleTemplates.removeIf(t -> t.templateId.equals(targetId));
-                            break;
-                        }
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        network.ruleTemplates.removeIf(t -> t.templateId.equals(targetId));
+                        network.markTemplatesChanged();
                     }
                 }
                 case APPLY_TEMPLATE -> { // Apply Template
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            RuleTemplate template = network.ruleTemplates.stream()
-                                    .filter(t -> t.templateId.equals(secondTargetId))
-                                    .findFirst().orElse(null);
-                            if (template != null) {
-                                LogisticsRule newRule = template.rule.snapshot();
-                                newRule.ruleId = UUID.randomUUID();
-
-                                // Intelligent placement:
-                                // If source is permanent (PLAYER/MARKET), target becomes destination.
-                                // Otherwise target becomes source.
-                                boolean sourceIsPerm = LogisticsUtil.isPermanent(network, newRule.sourceNodeId, newRule.sourceIsGroup);
-                                boolean destIsPerm = LogisticsUtil.isPermanent(network, newRule.destNodeId, newRule.destIsGroup);
-
-                                if (sourceIsPerm && !destIsPerm) {
-                                    newRule.destNodeId = targetId;
-                                    newRule.destIsGroup = intData == 1;
-                                } else {
-                                    newRule.sourceNodeId = targetId;
-                                    newRule.sourceIsGroup = intData == 1;
-                                }
-
-                                network.rules.add(newRule);
-                                network.needsSorting = true;
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        RuleTemplate template = network.ruleTemplates.stream()
+                                .filter(t -> t.templateId.equals(secondTargetId))
+                                .findFirst().orElse(null);
+                        if (template != null) {
+                            LogisticsRule newRule = template.rule.snapshot();
+                            newRule.ruleId = UUID.randomUUID();
+
+                            // Intelligent placement:
+                            // If source is permanent (PLAYER/MARKET), target becomes destination.
+                            // Otherwise target becomes source.
+                            boolean sourceIsPerm = LogisticsUtil.isPermanent(network, newRule.sourceNodeId, newRule.sourceIsGroup);
+                            boolean destIsPerm = LogisticsUtil.isPermanent(network, newRule.destNodeId, newRule.destIsGroup);
+
+                            if (sourceIsPerm && !destIsPerm) {
+                                newRule.destNodeId = targetId;
+                                newRule.destIsGroup = intData == 1;
+                            } else {
+                                newRule.sourceNodeId = targetId;
+                                newRule.sourceIsGroup = intData == 1;
                             }
-                            break;
+
+                            network.addRule(newRule);
                         }
                     }
                 }
                 case PASTE_NODE_CONFIG -> { // Paste Node Config
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            for (NetworkNode node : network.nodes) {
-                                if (node.nodeId.equals(targetId)) {
-                                    node.iconItemId = nodeData.iconItemId;
-                                    node.sideConfig = new HashMap<>(nodeData.sideConfig);
-                                    node.slotConfig = new HashMap<>(nodeData.slotConfig);
-                                    break;
-                                }
-                            }
-                            break;
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        NetworkNode node = network.index().node(targetId);
+                        if (node != null) {
+                            node.iconItemId = nodeData.iconItemId;
+                            node.sideConfig = new HashMap<>(nodeData.sideConfig);
+                            node.slotConfig = new HashMap<>(nodeData.slotConfig);
+                            network.markChanged(node.nodeId);
                         }
                     }
                 }
                 case SET_OVERFLOW_TARGET -> { // Set Overflow Target
-                    for (NetworkData network : data.getNetworks()) {
-                        if (network.networkId.equals(networkId)) {
-                            network.overflowTargetId = targetId;
-                            network.overflowIsGroup = intData == 1;
-                            break;
-                        }
+                    NetworkData network = data.getNetwork(networkId);
+                    if (network != null) {
+                        network.overflowTargetId = targetId;
+                        network.overflowIsGroup = intData == 1;
                     }
                 }
                 case SET_VIEWED_NETWORK -> { // Set Viewed Network
@@ -756,132 +667,93 @@ public class ActionNetworkPacket {
                             return;
                         }
 
-                        for (NetworkData network : data.getNetworks()) {
-                            if (network.networkId.equals(networkId)) {
-                                if (network.nodes.size() + bp.nodes.size() > MAX_NODES_PER_NETWORK || network.rules.size() + bp.rules.size() > MAX_RULES_PER_NETWORK) {
-                                    player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7cNetwork would exceed limits after import!"), true);
-                                    return;
-                                }
-                                Map<UUID, UUID> idMap = new HashMap<>();
-
-                                // 1. Remap Nodes
-                                net.minecraft.core.BlockPos importPivot = player.blockPosition();
-                                String currentDim = player.level().dimension().location().toString();
-                                int importedBlockCount = 0;
-
-                                for (NetworkNode node : bp.nodes) {
-                                    if ("BLOCK".equals(node.nodeType) && node.pos != null) {
-                                        // Apply relative offset from player's position
-                                        node.pos = node.pos.offset(importPivot);
-                                        node.dimension = currentDim;
-                                        
-                                        // SECURITY: Validate ownership
-                                        if (!LogisticsUtil.canPlayerAccess(player, player.serverLevel(), node.pos)) {
-                                            continue; // Skip this node if no access
-                                        }
-                                        importedBlockCount++;
+                        NetworkData network = data.getNetwork(networkId);
+                        if (network != null) {
+                            if (network.nodes.size() + bp.nodes.size() > MAX_NODES_PER_NETWORK || network.rules.size() + bp.rules.size() > MAX_RULES_PER_NETWORK) {
+                                player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7cNetwork would exceed limits after import!"), true);
+                                return;
+                            }
+                            Map<UUID, UUID> idMap = new HashMap<>();
+
+                            // 1. Remap Nodes
+                            net.minecraft.core.BlockPos importPivot = player.blockPosition();
+                            String currentDim = player.level().dimension().location().toString();
+                            int importedBlockCount = 0;
+
+                            for (NetworkNode node : bp.nodes) {
+                                if ("BLOCK".equals(node.nodeType) && node.pos != null) {
+                                    // Apply relative offset from player's position
+                                    node.pos = node.pos.offset(importPivot);
+                                    node.dimension = currentDim;
+                                    
+                                    // SECURITY: Validate ownership
+                                    if (!LogisticsUtil.canPlayerAccess(player, player.serverLevel(), node.pos)) {
+                                        continue; // Skip this node if no access
                                     }
-
-                                    UUID oldId = node.nodeId;
-                                    node.nodeId = UUID.randomUUID();
-                                    idMap.put(oldId, node.nodeId);
-                                    network.nodes.add(node);
+                                    importedBlockCount++;
                                 }
 
-                                if (importedBlockCount > 0) {
-                                    player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7aBlueprint imported! Verified " + importedBlockCount + " blocks."), true);
-                                }
+                                UUID oldId = node.nodeId;
+                                node.nodeId = UUID.randomUUID();
+                                idMap.put(oldId, node.nodeId);
+                                network.addNode(node);
+                            }
 
-                                // 2. Remap Groups
-                                for (NodeGroup group : bp.groups) {
-                                    UUID oldId = group.groupId;
-                                    group.groupId = UUID.randomUUID();
-                                    idMap.put(oldId, group.groupId);
+                            if (importedBlockCount > 0) {
+                                player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7aBlueprint imported! Verified " + importedBlockCount + " blocks."), true);
+                            }
 
-                                    List<UUID> newMembers = new ArrayList<>();
-                                    for (UUID m : group.nodeIds) {
-                                        if (idMap.containsKey(m)) newMembers.add(idMap.get(m));
-                                    }
-                                    group.nodeIds = newMembers;
-                                    if (!group.nodeIds.isEmpty()) network.groups.add(group);
-                                }
+                            // 2. Remap Groups
+                            for (NodeGroup group : bp.groups) {
+                                UUID oldId = group.groupId;
+                                group.groupId = UUID.randomUUID();
+                                idMap.put(oldId, group.groupId);
 
-                                // 3. Remap and add Rules
-                                for (LogisticsRule rule : bp.rules) {
-                                    // Only add rule if both source and destination nodes/groups were successfully imported
-                                    if (!idMap.containsKey(rule.sourceNodeId) || !idMap.containsKey(rule.destNodeId)) continue;
+                                List<UUID> newMembers = new ArrayList<>();
+                                for (UUID m : group.nodeIds) {
+                                    if (idMap.containsKey(m)) newMembers.add(idMap.get(m));
+                                }
+                                group.nodeIds = newMembers;
+                                if (!group.nodeIds.isEmpty()) network.putGroup(group);
+                            }
 
-                                    rule.ruleId = UUID.randomUUID();
-                                    rule.sourceNodeId = idMap.get(rule.sourceNodeId);
-                                    rule.destNodeId = idMap.get(rule.destNodeId);
-                                    
-                                    if (rule.triggerNodeId != null && idMap.containsKey(rule.triggerNodeId)) {
-                                        rule.triggerNodeId = idMap.get(rule.triggerNodeId);
-                                    }
+                            // 3. Remap and add Rules
+                            for (LogisticsRule rule : bp.rules) {
+                                // Only add rule if both source and destination nodes/groups were successfully imported
+                                if (!idMap.containsKey(rule.sourceNodeId) || !idMap.containsKey(rule.destNodeId)) continue;
+
+                                rule.ruleId = UUID.randomUUID();
+                                rule.sourceNodeId = idMap.get(rule.sourceNodeId);
+                                rule.destNodeId = idMap.get(rule.destNodeId);
+                                
+                                if (rule.triggerNodeId != null && idMap.containsKey(rule.triggerNodeId)) {
+                                    rule.triggerNodeId = idMap.get(rule.triggerNodeId);
+                                }
 
-                                    // Update conditions
-                                    for (LogicCondition cond : rule.conditions) {
-                                        if (cond.targetId != null && idMap.containsKey(cond.targetId)) {
-                                            cond.targetId = idMap.get(cond.targetId);
-                                        }
+                                // Update conditions
+                                for (LogicCondition cond : rule.conditions) {
+                                    if (cond.targetId != null && idMap.containsKey(cond.targetId)) {
+                                        cond.targetId = idMap.get(cond.targetId);
                                     }
-
-                                    network.rules.add(rule);
                                 }
 
-                                // 4. Remap Overflow
-                                if (bp.overflowTargetId != null && idMap.containsKey(bp.overflowTargetId)) {
-                                    network.overflowTargetId = idMap.get(bp.overflowTargetId);
-                                    network.overflowIsGroup = bp.overflowIsGroup;
-                                }
+                                network.addRule(rule);
+                            }
 
-                                network.nodeMap = null;
-                                network.groupMap = null;
-                                network.needsSorting = true;
-                                break;
+                            // 4. Remap Overflow
+                            if (bp.overflowTargetId != null && idMap.containsKey(bp.overflowTargetId)) {
+                                network.overflowTargetId = idMap.get(bp.overflowTargetId);
+                                network.overflowIsGroup = bp.overflowIsGroup;
                             }
                         }
                     }
                 }
             }
             // Sync back
-            PacketHandler.sendToPlayer(new SyncNetworksPacket(data.getNetworks(), data.viewedNetworkId), player);
+            NetworkSync.sync(player, data);
         });
     }
 
-    private void probeAndSyncGroupInventory(ServerPlayer player, NetworkData network, NodeGroup group) {
-        Map<String, ItemStack> combined = new HashMap<>();
-        for (UUID id : group.nodeIds) {
-            NetworkNode node = LogisticsUtil.findNode(network, id);
-            if (node == null) continue;
-            
-            // Re-using the logic from probeAndSyncInventory but accumulating
-            List<ItemStack> items = LogisticsUtil.getItemsFromNode(player, node);
-            for (ItemStack stack : items) {
-                if (stack.isEmpty()) continue;
-                String key = ForgeRegistries.ITEMS.getKey(stack.getItem()).toString();
-                if (stack.hasTag()) key += stack.getTag().toString();
-                
-                if (combined.containsKey(key)) {
-                    combined.get(key).grow(stack.getCount());
-                } else {
-                    combined.put(key, stack.copy());
-                }
-            }
-        }
-        
-        List<ItemStack> finalItems = new ArrayList<>(combined.values());
-        List<Integer> slotX = new ArrayList<>();
-        List<Integer> slotY = new ArrayList<>();
-        for (int i = 0; i < finalItems.size(); i++) {
-            slotX.add((i % 9) * 18);
-            slotY.add((i / 9) * 18);
-        }
-        
-        PacketHandler.sendToPlayer(new SyncNodeInventoryPacket(group.groupId, finalItems, slotX, slotY, null), player);
-    }
-
-
     private void probeAndSyncInventory(ServerPlayer player, NetworkNode node) {
         java.util.List<net.minecraft.world.item.ItemStack> items = new java.util.ArrayList<>();
         java.util.List<Integer> slotX = new java.util.ArrayList<>();
@@ -993,7 +865,7 @@ public class ActionNetworkPacket {
         node.blockId = net.minecraftforge.registries.ForgeRegistries.BLOCKS.getKey(state.getBlock()).toString();
         node.customName = LogisticsUtil.cleanName(state.getBlock().getName().getString()) + " [" + pos.getX() + "," + pos.getY() + "," + pos.getZ() + "]";
 
-        network.nodes.add(node);
+        network.addNode(node);
         return true;
     }
 
@@ -1027,7 +899,7 @@ public class ActionNetworkPacket {
                 node.guiX = (network.nodes.size() % 5) * 40 - 80;
                 node.guiY = (network.nodes.size() / 5) * 40 - 80;
 
-                network.nodes.add(node);
+                network.addNode(node);
                 newNodeIds.add(node.nodeId);
             }
 
@@ -1045,8 +917,7 @@ public class ActionNetworkPacket {
             group.nodeIds.addAll(newNodeIds);
             group.guiX = -150;
             group.guiY = -150;
-            network.groups.add(group);
-            network.groupMap = null;
+            network.putGroup(group);
             player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7aBulk added " + newNodeIds.size() + " " + blockName + " blocks!"), true);
             player.level().playSound(null, player.getX(), player.getY(), player.getZ(), net.minecraft.sounds.SoundEvents.EXPERIENCE_ORB_PICKUP, net.minecraft.sounds.SoundSource.PLAYERS, 1.0f, 1.0f);
         }
@@ -36,7 +36,9 @@ public class AdminActionPacket {
                 switch (action) {
                     case ADD_ALL_EFFECTS -> StorePriceManager.addAllEffects();
                     case ADD_ALL_ENCHANTS -> StorePriceManager.addAllEnchantments();
-                    case RESET_DEFAULT_PRICES -> StorePriceManager.resetToDefaults(player.level());
+                    case RESET_DEFAULT_PRICES -> StorePriceManager.resetToDefaults(player.level()).thenRun(() -> {
+                        for (ServerPlayer p : player.server.getPlayerList().getPlayers()) StorePriceManager.syncPrices(p);
+                    });
                 }
                 StorePriceManager.sync(player);
             }
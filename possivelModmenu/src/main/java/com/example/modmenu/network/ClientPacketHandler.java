@@ -2,7 +2,6 @@ package com.example.modmenu.network;
 
 import com.example.modmenu.store.StorePriceManager;
 import com.example.modmenu.store.logistics.LogisticsCapability;
-import com.example.modmenu.store.logistics.NetworkData;
 import net.minecraft.client.Minecraft;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.resources.ResourceLocation;
@@ -14,11 +13,19 @@ public class ClientPacketHandler {
         Minecraft.getInstance().setScreen(new com.example.modmenu.client.ui.screen.LootRecalibrationScreen(entityId, drops, rerollCount));
     }
 
-    public static void handleSyncNetworks(List<NetworkData> networks, UUID viewedNetworkId) {
+    // Set while a resync is on its way; deltas arriving before it were built on the revisions we rejected
+    private static boolean awaitingNetworkResync = false;
+
+    public static void handleSyncNetworks(SyncNetworksPacket packet) {
         if (Minecraft.getInstance().player != null) {
             LogisticsCapability.getNetworks(Minecraft.getInstance().player).ifPresent(data -> {
-                data.setNetworks(networks);
-                data.viewedNetworkId = viewedNetworkId;
+                if (awaitingNetworkResync && !packet.isReset()) return;
+                if (packet.applyTo(data)) {
+                    awaitingNetworkResync = false;
+                } else {
+                    awaitingNetworkResync = true;
+                    PacketHandler.sendToServer(NetworkManagementPacket.requestSync());
+                }
             });
         }
     }
@@ -38,6 +45,17 @@ public class ClientPacketHandler {
         }
     }
 
+    public static void handleSyncInventoryPage(UUID viewId, UUID targetId, int page, int totalEntries, List<ItemStack> items, long[] totals) {
+        net.minecraft.client.gui.screens.Screen screen = Minecraft.getInstance().screen;
+        if (screen instanceof com.example.modmenu.client.ui.screen.PickItemFromNodeScreen pins) {
+            pins.handleInventoryPage(viewId, targetId, page, totalEntries, items, totals);
+        } else if (screen instanceof com.example.modmenu.client.ui.screen.RuleConfigScreen rcs) {
+            rcs.handleInventoryPage(viewId, targetId, page, totalEntries, items);
+        } else if (screen instanceof com.example.modmenu.client.ui.screen.FilterConfigScreen fcs) {
+            fcs.handleInventoryPage(viewId, targetId, page, totalEntries, items);
+        }
+    }
+
     public static void handleSyncSkills(StorePriceManager.SkillData data) {
         synchronized (StorePriceManager.clientSkills) {
             StorePriceManager.SkillData client = StorePriceManager.clientSkills;
@@ -3,9 +3,7 @@ package com.example.modmenu.network;
 import com.example.modmenu.store.logistics.*;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.world.item.ItemStack;
 import net.minecraftforge.network.NetworkEvent;
-import net.minecraftforge.registries.ForgeRegistries;
 
 import java.util.*;
 import java.util.function.Supplier;
@@ -19,6 +17,8 @@ public class GroupManagementPacket {
     private final UUID networkId;
     private UUID targetId;
     private NodeGroup groupData;
+    private UUID viewId;
+    private int page;
 
     public GroupManagementPacket(Type type, UUID networkId) {
         this.type = type;
@@ -37,9 +37,15 @@ public class GroupManagementPacket {
         return p;
     }
 
-    public static GroupManagementPacket probeInventory(UUID networkId, UUID groupId) {
+    /**
+     * Asks for one page of the group's combined contents. Page 0 takes a fresh snapshot for {@code viewId}; later
+     * pages read that snapshot.
+     */
+    public static GroupManagementPacket probeInventory(UUID networkId, UUID groupId, UUID viewId, int page) {
         GroupManagementPacket p = new GroupManagementPacket(Type.PROBE_INVENTORY, networkId);
         p.targetId = groupId;
+        p.viewId = viewId;
+        p.page = page;
         return p;
     }
 
@@ -51,6 +57,8 @@ public class GroupManagementPacket {
             this.groupData = new NodeGroup();
             this.groupData.loadNBT(buf.readNbt());
         }
+        if (buf.readBoolean()) this.viewId = buf.readUUID();
+        this.page = buf.readVarInt();
     }
 
     public void encode(FriendlyByteBuf buf) {
@@ -64,6 +72,9 @@ public class GroupManagementPacket {
             groupData.saveNBT(tag);
             buf.writeNbt(tag);
         }
+        buf.writeBoolean(viewId != null);
+        if (viewId != null) buf.writeUUID(viewId);
+        buf.writeVarInt(page);
     }
 
     public void handle(Supplier<NetworkEvent.Context> ctx) {
@@ -72,33 +83,18 @@ public class GroupManagementPacket {
             if (player == null) return;
 
             LogisticsCapability.getNetworks(player).ifPresent(data -> {
-                NetworkData network = data.getNetworks().stream().filter(n -> n.networkId.equals(networkId)).findFirst().orElse(null);
+                NetworkData network = data.getNetwork(networkId);
                 if (network == null) return;
 
                 switch (type) {
-                    case ADD_UPDATE -> {
-                        boolean updated = false;
-                        for (int i = 0; i < network.groups.size(); i++) {
-                            if (network.groups.get(i).groupId.equals(groupData.groupId)) {
-                                network.groups.set(i, groupData);
-                                updated = true;
-                                break;
-                            }
-                        }
-                        if (!updated) network.groups.add(groupData);
-                        network.groupMap = null;
-                    }
-                    case REMOVE -> {
-                        network.groups.removeIf(g -> g.groupId.equals(targetId));
-                        network.rules.removeIf(rule -> rule.sourceNodeId.equals(targetId) || rule.destNodeId.equals(targetId));
-                        network.groupMap = null;
-                        network.needsSorting = true;
-                    }
+                    case ADD_UPDATE -> network.putGroup(groupData);
+                    case REMOVE -> network.removeGroup(targetId);
                     case PROBE_INVENTORY -> {
-                        NodeGroup group = network.groups.stream().filter(g -> g.groupId.equals(targetId)).findFirst().orElse(null);
-                        if (group != null) {
-                            probeAndSyncGroupInventory(player, network, group);
+                        NodeGroup group = network.index().group(targetId);
+                        if (group != null && viewId != null) {
+                            InventoryView.sendPage(player, network, group, viewId, page);
                         }
+                        return;
                     }
                 }
                 LogisticsUtil.syncAndNotify(player, data);
@@ -106,39 +102,4 @@ public class GroupManagementPacket {
         });
         ctx.get().setPacketHandled(true);
     }
-
-    private void probeAndSyncGroupInventory(ServerPlayer player, NetworkData network, NodeGroup group) {
-        Map<String, ItemStack> combined = new HashMap<>();
-        for (UUID id : group.nodeIds) {
-            NetworkNode node = network.nodes.stream()
-                    .filter(java.util.Objects::nonNull)
-                    .filter(n -> n.nodeId.equals(id))
-                    .findFirst().orElse(null);
-            if (node == null) continue;
-            
-            // Re-using the logic from NodeManagementPacket.getItemsFromNode logic (which I didn't move yet but I'll implement it here)
-            List<ItemStack> items = LogisticsUtil.getItemsFromNode(player, node);
-            for (ItemStack stack : items) {
-                if (stack.isEmpty()) continue;
-                String key = ForgeRegistries.ITEMS.getKey(stack.getItem()).toString();
-                if (stack.hasTag()) key += stack.getTag().toString();
-                
-                if (combined.containsKey(key)) {
-                    combined.get(key).grow(stack.getCount());
-                } else {
-                    combined.put(key, stack.copy());
-                }
-            }
-        }
-        
-        List<ItemStack> finalItems = new ArrayList<>(combined.values());
-        List<Integer> slotX = new ArrayList<>();
-        List<Integer> slotY = new ArrayList<>();
-        for (int i = 0; i < finalItems.size(); i++) {
-            slotX.add((i % 9) * 18);
-            slotY.add((i / 9) * 18);
-        }
-        
-        PacketHandler.sendToPlayer(new SyncNodeInventoryPacket(group.groupId, finalItems, slotX, slotY, null), player);
-    }
 }
@@ -35,7 +35,7 @@ public class LogisticsBlueprintPacket {
             if (player == null) return;
 
             LogisticsCapability.getNetworks(player).ifPresent(data -> {
-                NetworkData network = data.getNetworks().stream().filter(n -> n.networkId.equals(networkId)).findFirst().orElse(null);
+                NetworkData network = data.getNetwork(networkId);
                 if (network == null) return;
 
                 LogisticsBlueprint bp = LogisticsBlueprint.deserialize(blueprintData);
@@ -74,7 +74,7 @@ public class LogisticsBlueprintPacket {
                         UUID oldId = node.nodeId;
                         node.nodeId = UUID.randomUUID();
                         idMap.put(oldId, node.nodeId);
-                        network.nodes.add(node);
+                        network.addNode(node);
                     }
 
                     if (importedBlockCount > 0) {
@@ -92,7 +92,7 @@ public class LogisticsBlueprintPacket {
                             if (idMap.containsKey(m)) newMembers.add(idMap.get(m));
                         }
                         group.nodeIds = newMembers;
-                        if (!group.nodeIds.isEmpty()) network.groups.add(group);
+                        if (!group.nodeIds.isEmpty()) network.putGroup(group);
                     }
 
                     // 3. Remap and add Rules
@@ -115,7 +115,7 @@ public class LogisticsBlueprintPacket {
                             }
                         }
 
-                        network.rules.add(rule);
+                        network.addRule(rule);
                     }
 
                     // 4. Remap Overflow
@@ -123,10 +123,6 @@ public class LogisticsBlueprintPacket {
                         network.overflowTargetId = idMap.get(bp.overflowTargetId);
                         network.overflowIsGroup = bp.overflowIsGroup;
                     }
-
-                    network.nodeMap = null;
-                    network.groupMap = null;
-                    network.needsSorting = true;
                 }
                 LogisticsUtil.syncAndNotify(player, data);
             });
@@ -64,9 +64,7 @@ public class NetworkControlPacket {
             if (player == null) return;
 
             LogisticsCapability.getNetworks(player).ifPresent(data -> {
-                NetworkData network = data.getNetworks().stream()
-                        .filter(n -> n.networkId.equals(networkId))
-                        .findFirst().orElse(null);
+                NetworkData network = data.getNetwork(networkId);
 
                 if (network == null && type != Type.SET_LINK_MODE) return;
 
@@ -12,7 +12,7 @@ import java.util.function.Supplier;
 
 public class NetworkManagementPacket {
     public enum Type {
-        CREATE, DELETE, RENAME, TOGGLE_ACTIVE, SET_VIEWED
+        CREATE, DELETE, RENAME, TOGGLE_ACTIVE, SET_VIEWED, REQUEST_SYNC
     }
 
     private final Type type;
@@ -45,6 +45,10 @@ public class NetworkManagementPacket {
         return new NetworkManagementPacket(Type.SET_VIEWED, networkId, null);
     }
 
+    public static NetworkManagementPacket requestSync() {
+        return new NetworkManagementPacket(Type.REQUEST_SYNC, null, null);
+    }
+
     public NetworkManagementPacket(FriendlyByteBuf buf) {
         this.type = buf.readEnum(Type.class);
         this.networkId = buf.readBoolean() ? buf.readUUID() : null;
@@ -73,26 +77,22 @@ public class NetworkManagementPacket {
                         }
                         NetworkData net = new NetworkData();
                         net.networkName = LogisticsUtil.cleanName(name);
-                        data.getNetworks().add(net);
+                        data.addNetwork(net);
                     }
-                    case DELETE -> data.getNetworks().removeIf(n -> n.networkId.equals(networkId));
+                    case DELETE -> data.removeNetwork(networkId);
                     case RENAME -> {
-                        for (NetworkData network : data.getNetworks()) {
-                            if (network.networkId.equals(networkId)) {
-                                network.networkName = LogisticsUtil.cleanName(name);
-                                break;
-                            }
-                        }
+                        NetworkData network = data.getNetwork(networkId);
+                        if (network != null) network.networkName = LogisticsUtil.cleanName(name);
                     }
                     case TOGGLE_ACTIVE -> {
-                        for (NetworkData network : data.getNetworks()) {
-                            if (network.networkId.equals(networkId)) {
-                                network.active = !network.active;
-                                break;
-                            }
-                        }
+                        NetworkData network = data.getNetwork(networkId);
+                        if (network != null) network.active = !network.active;
                     }
                     case SET_VIEWED -> data.viewedNetworkId = networkId;
+                    case REQUEST_SYNC -> {
+                        NetworkSync.resync(player, data);
+                        return;
+                    }
                 }
                 LogisticsUtil.syncAndNotify(player, data);
             });
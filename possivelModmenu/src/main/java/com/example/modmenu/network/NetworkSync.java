@@ -0,0 +1,234 @@
+package com.example.modmenu.network;
+
+import com.example.modmenu.store.logistics.LogisticsCapability;
+import com.example.modmenu.store.logistics.LogisticsRule;
+import com.example.modmenu.store.logistics.NetworkData;
+import com.example.modmenu.store.logistics.NetworkNode;
+import com.example.modmenu.store.logistics.PlayerNetworkData;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Server-side record of what each client holds of its logistics networks, used to send {@link SyncNetworksPacket}
+ * deltas instead of full copies. Only nodes, rules and groups that {@link NetworkData#markChanged} stamped since the
+ * last sync are encoded, plus the few the tick changes without stamping: ports, whose buffers other networks fill,
+ * and rules whose report changed. The last sent encoding of each entry is kept, so an entry that was stamped but
+ * encodes the same is not resent. Each network has a revision that the client must match for a delta to apply; on
+ * a mismatch the client asks for {@link #resync}.
+ */
+@Mod.EventBusSubscriber(modid = "modmenu")
+public class NetworkSync {
+    private static final int MAX_NETWORKS = 100;
+    private static final Map<UUID, ClientView> views = new HashMap<>();
+    private static final FriendlyByteBuf scratch = new FriendlyByteBuf(Unpooled.buffer());
+
+    private static class ClientView {
+        final Map<UUID, NetworkState> networks = new LinkedHashMap<>();
+        UUID viewedNetworkId;
+    }
+
+    private static class NetworkState {
+        int revision = 0;
+        NetworkData source; // The object the change revisions below refer to
+        long seen = -1; // source.changeRevision when the sections were last diffed
+        byte[] header;
+        boolean detailed = false;
+        byte[] details;
+        byte[] templates;
+        Map<UUID, byte[]> groups = new LinkedHashMap<>();
+        Map<UUID, byte[]> nodes = new LinkedHashMap<>();
+        Map<UUID, byte[]> rules = new LinkedHashMap<>();
+        Map<UUID, String> reports = new HashMap<>();
+    }
+
+    /**
+     * Sends whatever changed since the last sync; nothing at all if the client is up to date.
+     */
+    public static void sync(ServerPlayer player, PlayerNetworkData data) {
+        ClientView view = views.get(player.getUUID());
+        if (view == null) {
+            resync(player, data);
+            return;
+        }
+        SyncNetworksPacket packet = diff(view, data, false);
+        if (packet != null) PacketHandler.sendToPlayer(packet, player);
+    }
+
+    /**
+     * Forgets what the client holds and sends everything.
+     */
+    public static void resync(ServerPlayer player, PlayerNetworkData data) {
+        ClientView view = new ClientView();
+        views.put(player.getUUID(), view);
+        PacketHandler.sendToPlayer(diff(view, data, true), player);
+    }
+
+    private static SyncNetworksPacket diff(ClientView view, PlayerNetworkData data, boolean reset) {
+        List<NetworkData> networks = data.getNetworks();
+        if (networks.size() > MAX_NETWORKS) networks = networks.subList(0, MAX_NETWORKS);
+
+        Set<UUID> present = new HashSet<>();
+        List<UUID> order = new ArrayList<>();
+        for (NetworkData nd : networks) {
+            if (present.add(nd.networkId)) order.add(nd.networkId);
+        }
+        List<UUID> removed = new ArrayList<>();
+        view.networks.keySet().removeIf(id -> {
+            if (present.contains(id)) return false;
+            removed.add(id);
+            return true;
+        });
+
+        List<SyncNetworksPacket.NetworkDelta> deltas = new ArrayList<>();
+        for (NetworkData nd : networks) {
+            NetworkState state = view.networks.computeIfAbsent(nd.networkId, k -> new NetworkState());
+            SyncNetworksPacket.NetworkDelta delta = new SyncNetworksPacket.NetworkDelta(nd.networkId, state.revision);
+
+            boolean viewed = nd.networkId.equals(data.viewedNetworkId);
+            if (viewed && !state.detailed) {
+                state.detailed = true;
+                delta.resetDetails = true;
+            }
+            byte[] header = encode((buf, n) -> SyncNetworksPacket.writeHeader(buf, n, !state.detailed), nd);
+            if (!Arrays.equals(header, state.header)) delta.header = state.header = header;
+
+            // Networks out of view keep whatever detail the client last received; it is brought up to date when viewed again
+            if (viewed) {
+                // Stats and signals change every tick, so the details block is always encoded
+                byte[] details = encode(SyncNetworksPacket::writeDetails, nd);
+                if (!Arrays.equals(details, state.details)) delta.details = state.details = details;
+
+                if (state.source != nd) {
+                    // A different object (e.g. after a reload) has its own change revisions
+                    state.source = nd;
+                    state.seen = -1;
+                }
+                long seen = state.seen;
+                if (nd.templatesChangedSince(seen)) {
+                    byte[] templates = encode(SyncNetworksPacket::writeTemplates, nd);
+                    if (!Arrays.equals(templates, state.templates)) delta.templates = state.templates = templates;
+                }
+                state.groups = diffSection(state.groups, nd.groups, g -> g.groupId, g -> nd.changedSince(g.groupId, seen),
+                        SyncNetworksPacket::writeGroup, delta.groups);
+                state.nodes = diffSection(state.nodes, nd.nodes, n -> n.nodeId, n -> nd.changedSince(n.nodeId, seen) || isPort(n),
+                        SyncNetworksPacket::writeNode, delta.nodes);
+                state.rules = diffSection(state.rules, nd.rules, r -> r.ruleId, r -> reportChanged(state, r) || nd.changedSince(r.ruleId, seen),
+                        SyncNetworksPacket::writeRule, delta.rules);
+                state.reports.keySet().retainAll(state.rules.keySet());
+                state.seen = nd.changeRevision;
+            }
+
+            if (!delta.isEmpty()) {
+                delta.revision = ++state.revision;
+                deltas.add(delta);
+            }
+        }
+
+        // The client keeps surviving networks in place and appends new ones; only send the order if that is not enough
+        List<UUID> newOrder = new ArrayList<>(view.networks.keySet()).equals(order) ? null : order;
+        if (newOrder != null) {
+            Map<UUID, NetworkState> reordered = new LinkedHashMap<>();
+            for (UUID id : order) reordered.put(id, view.networks.get(id));
+            view.networks.clear();
+            view.networks.putAll(reordered);
+        }
+
+        boolean viewChanged = !Objects.equals(view.viewedNetworkId, data.viewedNetworkId);
+        view.viewedNetworkId = data.viewedNetworkId;
+        if (!reset && !viewChanged && deltas.isEmpty() && removed.isEmpty() && newOrder == null) return null;
+        return new SyncNetworksPacket(reset, data.viewedNetworkId, newOrder, removed, deltas);
+    }
+
+    private static boolean isPort(NetworkNode node) {
+        return "PORT_INPUT".equals(node.nodeType) || "PORT_OUTPUT".equals(node.nodeType);
+    }
+
+    /** Rule reports are written by the tick without stamping the rule; compares against the last one seen. */
+    private static boolean reportChanged(NetworkState state, LogisticsRule rule) {
+        return !Objects.equals(state.reports.put(rule.ruleId, rule.lastReport), rule.lastReport);
+    }
+
+    /**
+     * Records changed and removed entries of one list into {@code out} and returns the updated tracking map,
+     * whose key order matches what the client will hold after applying the section. Only entries the client does
+     * not have yet or that {@code dirty} accepts are encoded.
+     */
+    private static <T> Map<UUID, byte[]> diffSection(Map<UUID, byte[]> tracked, List<T> current, Function<T, UUID> id, Predicate<T> dirty,
+                                                     BiConsumer<FriendlyByteBuf, T> writer, SyncNetworksPacket.Section out) {
+        List<UUID> order = new ArrayList<>(current.size());
+        Set<UUID> present = new HashSet<>();
+        for (T entry : current) {
+            if (entry != null && present.add(id.apply(entry))) order.add(id.apply(entry));
+        }
+        tracked.keySet().removeIf(key -> {
+            if (present.contains(key)) return false;
+            out.removed.add(key);
+            return true;
+        });
+
+        Set<UUID> written = new HashSet<>();
+        for (T entry : current) {
+            if (entry == null) continue;
+            UUID key = id.apply(entry);
+            if (!written.add(key)) continue;
+            if (!dirty.test(entry) && tracked.containsKey(key)) continue;
+            byte[] bytes = encode(writer, entry);
+            if (!Arrays.equals(bytes, tracked.get(key))) {
+                tracked.put(key, bytes);
+                out.changed.add(bytes);
+            }
+        }
+
+        if (new ArrayList<>(tracked.keySet()).equals(order)) return tracked;
+        out.order = order;
+        Map<UUID, byte[]> reordered = new LinkedHashMap<>();
+        for (UUID key : order) reordered.put(key, tracked.get(key));
+        return reordered;
+    }
+
+    private static <T> byte[] encode(BiConsumer<FriendlyByteBuf, T> writer, T value) {
+        scratch.clear();
+        writer.accept(scratch, value);
+        byte[] bytes = new byte[scratch.readableBytes()];
+        scratch.readBytes(bytes);
+        return bytes;
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        views.remove(event.getEntity().getUUID());
+    }
+
+    // The client gets a fresh player (and capability) on respawn and dimension change
+    @SubscribeEvent
+    public static void onPlayerRespawn(PlayerEvent.PlayerRespawnEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            LogisticsCapability.getNetworks(player).ifPresent(data -> resync(player, data));
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            LogisticsCapability.getNetworks(player).ifPresent(data -> resync(player, data));
+        }
+    }
+}
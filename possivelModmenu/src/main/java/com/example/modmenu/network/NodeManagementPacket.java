@@ -129,7 +129,7 @@ public class NodeManagementPacket {
             if (player == null) return;
 
             LogisticsCapability.getNetworks(player).ifPresent(data -> {
-                NetworkData network = data.getNetworks().stream().filter(n -> n.networkId.equals(networkId)).findFirst().orElse(null);
+                NetworkData network = data.getNetwork(networkId);
                 if (network == null) return;
 
                 switch (type) {
@@ -154,7 +154,6 @@ public class NodeManagementPacket {
                                 player.level().playSound(null, player.getX(), player.getY(), player.getZ(), net.minecraft.sounds.SoundEvents.EXPERIENCE_ORB_PICKUP, net.minecraft.sounds.SoundSource.PLAYERS, 1.0f, 1.0f);
                             }
                         }
-                        network.nodeMap = null;
                     }
                     case ADD_VIRTUAL -> {
                         if (network.nodes.size() >= LogisticsUtil.MAX_NODES_PER_NETWORK) {
@@ -177,62 +176,43 @@ public class NodeManagementPacket {
                             }
                         }
 
-                        network.nodes.add(node);
-                        network.nodeMap = null;
-                    }
-                    case REMOVE -> {
-                        network.nodes.removeIf(node -> node.nodeId.equals(targetId));
-                        network.rules.removeIf(rule -> rule.sourceNodeId.equals(targetId) || rule.destNodeId.equals(targetId));
-                        network.nodeMap = null;
-                        network.needsSorting = true;
-                    }
-                    case UPDATE -> {
-                        for (int i = 0; i < network.nodes.size(); i++) {
-                            if (network.nodes.get(i).nodeId.equals(nodeData.nodeId)) {
-                                network.nodes.set(i, nodeData);
-                                network.nodeMap = null;
-                                break;
-                            }
-                        }
+                        network.addNode(node);
                     }
+                    case REMOVE -> network.removeNode(targetId);
+                    case UPDATE -> network.replaceNode(nodeData);
                     case PASTE_CONFIG -> {
-                        for (NetworkNode node : network.nodes) {
-                            if (node.nodeId.equals(targetId)) {
-                                node.iconItemId = nodeData.iconItemId;
-                                node.sideConfig = new HashMap<>(nodeData.sideConfig);
-                                node.slotConfig = new HashMap<>(nodeData.slotConfig);
-                                break;
-                            }
+                        NetworkNode node = network.index().node(targetId);
+                        if (node != null) {
+                            node.iconItemId = nodeData.iconItemId;
+                            node.sideConfig = new HashMap<>(nodeData.sideConfig);
+                            node.slotConfig = new HashMap<>(nodeData.slotConfig);
+                            network.markChanged(node.nodeId);
                         }
                     }
                     case PROBE_INVENTORY -> {
-                        NetworkNode node = network.nodes.stream().filter(n -> n.nodeId.equals(targetId)).findFirst().orElse(null);
+                        NetworkNode node = network.index().node(targetId);
                         if (node != null) {
                             probeAndSyncInventory(player, node);
                         }
                     }
                     case OPEN_GUI -> {
-                        for (NetworkNode node : network.nodes) {
-                            if (node.nodeId.equals(targetId)) {
-                                if (node.nodeType.equals("BLOCK") && node.pos != null) {
-                                    // SECURITY: Add distance check to prevent remote GUI access abuse
-                                    if (player.blockPosition().distSqr(node.pos) > 4096) { // 64 block range
-                                        player.displayClientMessage(Component.literal("\u00A7cTarget block is too far away!"), true);
-                                        return;
-                                    }
+                        NetworkNode node = network.index().node(targetId);
+                        if (node != null && node.nodeType.equals("BLOCK") && node.pos != null) {
+                            // SECURITY: Add distance check to prevent remote GUI access abuse
+                            if (player.blockPosition().distSqr(node.pos) > 4096) { // 64 block range
+                                player.displayClientMessage(Component.literal("\u00A7cTarget block is too far away!"), true);
+                                return;
+                            }
 
-                                    ResourceLocation dimLoc = ResourceLocation.tryParse(node.dimension);
-                                    if (dimLoc != null) {
-                                        ServerLevel level = player.getServer().getLevel(ResourceKey.create(Registries.DIMENSION, dimLoc));
-                                        if (level != null && level.hasChunkAt(node.pos) && LogisticsUtil.canPlayerAccess(player, level, node.pos)) {
-                                            net.minecraft.world.level.block.entity.BlockEntity be = level.getBlockEntity(node.pos);
-                                            if (be instanceof net.minecraft.world.MenuProvider mp) {
-                                                net.minecraftforge.network.NetworkHooks.openScreen(player, mp, node.pos);
-                                            }
-                                        }
+                            ResourceLocation dimLoc = ResourceLocation.tryParse(node.dimension);
+                            if (dimLoc != null) {
+                                ServerLevel level = player.getServer().getLevel(ResourceKey.create(Registries.DIMENSION, dimLoc));
+                                if (level != null && level.hasChunkAt(node.pos) && LogisticsUtil.canPlayerAccess(player, level, node.pos)) {
+                                    net.minecraft.world.level.block.entity.BlockEntity be = level.getBlockEntity(node.pos);
+                                    if (be instanceof net.minecraft.world.MenuProvider mp) {
+                                        net.minecraftforge.network.NetworkHooks.openScreen(player, mp, node.pos);
                                     }
                                 }
-                                break;
                             }
                         }
                     }
@@ -259,7 +239,7 @@ public class NodeManagementPacket {
         node.blockId = ForgeRegistries.BLOCKS.getKey(state.getBlock()).toString();
         node.customName = LogisticsUtil.cleanName(state.getBlock().getName().getString()) + " [" + pos.getX() + "," + pos.getY() + "," + pos.getZ() + "]";
 
-        network.nodes.add(node);
+        network.addNode(node);
         return true;
     }
 
@@ -293,7 +273,7 @@ public class NodeManagementPacket {
                 node.guiX = (network.nodes.size() % 5) * 40 - 80;
                 node.guiY = (network.nodes.size() / 5) * 40 - 80;
 
-                network.nodes.add(node);
+                network.addNode(node);
                 newNodeIds.add(node.nodeId);
             }
 
@@ -311,8 +291,7 @@ public class NodeManagementPacket {
             group.nodeIds.addAll(newNodeIds);
             group.guiX = -150;
             group.guiY = -150;
-            network.groups.add(group);
-            network.groupMap = null;
+            network.putGroup(group);
             player.displayClientMessage(Component.literal("\u00A7aBulk added " + newNodeIds.size() + " " + blockName + " blocks!"), true);
             player.level().playSound(null, player.getX(), player.getY(), player.getZ(), net.minecraft.sounds.SoundEvents.EXPERIENCE_ORB_PICKUP, net.minecraft.sounds.SoundSource.PLAYERS, 1.0f, 1.0f);
         }
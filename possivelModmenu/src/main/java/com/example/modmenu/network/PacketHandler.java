@@ -331,6 +331,18 @@ public class PacketHandler {
                 .encoder(UpdateFormulasPacket::encode)
                 .consumerMainThread(UpdateFormulasPacket::handle)
                 .add();
+
+        INSTANCE.messageBuilder(SyncInventoryPagePacket.class, packetId++, NetworkDirection.PLAY_TO_CLIENT)
+                .decoder(SyncInventoryPagePacket::new)
+                .encoder(SyncInventoryPagePacket::encode)
+                .consumerMainThread(SyncInventoryPagePacket::handle)
+                .add();
+
+        INSTANCE.messageBuilder(UpdateItemPricesPacket.class, packetId++, NetworkDirection.PLAY_TO_CLIENT)
+                .decoder(UpdateItemPricesPacket::new)
+                .encoder(UpdateItemPricesPacket::encode)
+                .consumerMainThread(UpdateItemPricesPacket::handle)
+                .add();
     }
 
     public static void sendToServer(Object msg) {
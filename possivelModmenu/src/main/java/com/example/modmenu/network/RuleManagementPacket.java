@@ -109,38 +109,24 @@ public class RuleManagementPacket {
             if (player == null) return;
 
             LogisticsCapability.getNetworks(player).ifPresent(data -> {
-                NetworkData network = data.getNetworks().stream().filter(n -> n.networkId.equals(networkId)).findFirst().orElse(null);
+                NetworkData network = data.getNetwork(networkId);
                 if (network == null) return;
 
                 switch (type) {
                     case ADD_UPDATE -> {
-                        boolean updated = false;
-                        for (int i = 0; i < network.rules.size(); i++) {
-                            if (network.rules.get(i).ruleId.equals(ruleData.ruleId)) {
-                                network.rules.set(i, ruleData);
-                                updated = true;
-                                break;
-                            }
-                        }
-                        if (!updated) {
-                            if (network.rules.size() >= LogisticsUtil.MAX_RULES_PER_NETWORK) {
-                                player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7cNetwork rule limit reached!"), true);
-                                return;
-                            }
-                            network.rules.add(ruleData);
+                        if (network.index().rule(ruleData.ruleId) == null && network.rules.size() >= LogisticsUtil.MAX_RULES_PER_NETWORK) {
+                            player.displayClientMessage(net.minecraft.network.chat.Component.literal("\u00A7cNetwork rule limit reached!"), true);
+                            return;
                         }
-                        network.needsSorting = true;
-                    }
-                    case REMOVE -> {
-                        network.rules.removeIf(rule -> rule.ruleId.equals(targetId));
-                        network.needsSorting = true;
+                        network.putRule(ruleData);
                     }
+                    case REMOVE -> network.removeRule(targetId);
                     case TEST -> {
                         long now = System.currentTimeMillis();
                         if (testRuleCooldowns.getOrDefault(player.getUUID(), 0L) > now) return;
                         testRuleCooldowns.put(player.getUUID(), now + 500);
 
-                        LogisticsRule rule = network.rules.stream().filter(r -> r.ruleId.equals(targetId)).findFirst().orElse(null);
+                        LogisticsRule rule = network.index().rule(targetId);
                         if (rule != null) {
                             boolean moved = NetworkTickHandler.processRule(player, network, rule, true);
                             float pitch = moved ? 1.0f : 0.5f;
@@ -150,9 +136,11 @@ public class RuleManagementPacket {
                     case ADD_UPDATE_TEMPLATE -> {
                         network.ruleTemplates.removeIf(t -> t.templateId.equals(templateData.templateId));
                         network.ruleTemplates.add(templateData);
+                        network.markTemplatesChanged();
                     }
                     case REMOVE_TEMPLATE -> {
                         network.ruleTemplates.removeIf(t -> t.templateId.equals(targetId));
+                        network.markTemplatesChanged();
                     }
                     case APPLY_TEMPLATE -> {
                         RuleTemplate template = network.ruleTemplates.stream().filter(t -> t.templateId.equals(templateData.templateId)).findFirst().orElse(null);
@@ -168,8 +156,7 @@ public class RuleManagementPacket {
                                 newRule.sourceNodeId = targetId;
                                 newRule.sourceIsGroup = isGroup;
                             }
-                            network.rules.add(newRule);
-                            network.needsSorting = true;
+                            network.addRule(newRule);
                         }
                     }
                 }
@@ -0,0 +1,62 @@
+package com.example.modmenu.network;
+
+import com.example.modmenu.store.logistics.InventoryView;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+public class SyncInventoryPagePacket {
+    private final UUID viewId;
+    private final UUID targetId;
+    private final int page;
+    private final int totalEntries;
+    private final List<ItemStack> items;
+    private final long[] totals;
+
+    public SyncInventoryPagePacket(UUID viewId, UUID targetId, int page, int totalEntries, List<ItemStack> items, long[] totals) {
+        this.viewId = viewId;
+        this.targetId = targetId;
+        this.page = page;
+        this.totalEntries = totalEntries;
+        this.items = items;
+        this.totals = totals;
+    }
+
+    public SyncInventoryPagePacket(FriendlyByteBuf buf) {
+        this.viewId = buf.readUUID();
+        this.targetId = buf.readUUID();
+        this.page = buf.readVarInt();
+        this.totalEntries = buf.readVarInt();
+        int size = Math.min(buf.readVarInt(), InventoryView.PAGE_SIZE);
+        this.items = new ArrayList<>(size);
+        this.totals = new long[size];
+        for (int i = 0; i < size; i++) {
+            this.items.add(buf.readItem());
+            this.totals[i] = buf.readVarLong();
+        }
+    }
+
+    public void encode(FriendlyByteBuf buf) {
+        buf.writeUUID(viewId);
+        buf.writeUUID(targetId);
+        buf.writeVarInt(page);
+        buf.writeVarInt(totalEntries);
+        buf.writeVarInt(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            buf.writeItem(items.get(i));
+            buf.writeVarLong(totals[i]);
+        }
+    }
+
+    public void handle(Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> {
+            ClientPacketHandler.handleSyncInventoryPage(viewId, targetId, page, totalEntries, items, totals);
+        });
+        ctx.get().setPacketHandled(true);
+    }
+}
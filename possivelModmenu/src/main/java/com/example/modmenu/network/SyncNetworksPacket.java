@@ -1,150 +1,451 @@
 package com.example.modmenu.network;
 
 import com.example.modmenu.store.logistics.*;
-import net.minecraft.core.BlockPos;
+import io.netty.buffer.Unpooled;
 import net.minecraft.core.Direction;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraftforge.network.NetworkEvent;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
+/**
+ * Changes to a player's logistics networks since the last packet, built by {@link NetworkSync}.
+ * Nodes, rules and groups travel as individually encoded entries; only the viewed network carries them, the
+ * others are sent as a header with placeholder counts. Each network delta names the revision it applies on top of;
+ * a client holding a different revision rejects the whole packet and asks for a resync. A resync is simply a
+ * delta against an empty view ({@code reset}).
+ */
 public class SyncNetworksPacket {
-    private final List<NetworkData> networks;
-    private final UUID viewedNetworkId;
+    private static final int MAX_NETWORKS = 100;
+
+    public static class Section {
+        public final List<byte[]> changed = new ArrayList<>();
+        public final List<UUID> removed = new ArrayList<>();
+        public List<UUID> order; // Null unless the resulting order differs from "kept in place, new appended"
+
+        boolean isEmpty() {
+            return changed.isEmpty() && removed.isEmpty() && order == null;
+        }
+
+        void write(FriendlyByteBuf buf) {
+            buf.writeInt(changed.size());
+            for (byte[] entry : changed) buf.writeByteArray(entry);
+            writeIds(buf, removed);
+            buf.writeBoolean(order != null);
+            if (order != null) writeIds(buf, order);
+        }
+
+        static Section read(FriendlyByteBuf buf, int limit) {
+            Section section = new Section();
+            int size = Math.min(buf.readInt(), limit);
+            for (int i = 0; i < size; i++) section.changed.add(buf.readByteArray());
+            section.removed.addAll(readIds(buf, limit));
+            if (buf.readBoolean()) section.order = readIds(buf, limit);
+            return section;
+        }
 
-    public SyncNetworksPacket(List<NetworkData> networks) {
-        this(networks, null);
+        <T> List<T> apply(List<T> current, Function<T, UUID> id, Function<FriendlyByteBuf, T> reader) {
+            Map<UUID, T> entries = new LinkedHashMap<>();
+            for (T entry : current) {
+                if (entry != null) entries.put(id.apply(entry), entry);
+            }
+            for (UUID removedId : removed) entries.remove(removedId);
+            for (byte[] bytes : changed) {
+                T entry = reader.apply(new FriendlyByteBuf(Unpooled.wrappedBuffer(bytes)));
+                entries.put(id.apply(entry), entry);
+            }
+            List<T> result = new ArrayList<>(entries.size());
+            if (order != null) {
+                for (UUID orderedId : order) {
+                    T entry = entries.get(orderedId);
+                    if (entry != null) result.add(entry);
+                }
+            } else {
+                result.addAll(entries.values());
+            }
+            return result;
+        }
     }
 
-    public SyncNetworksPacket(List<NetworkData> networks, UUID viewedNetworkId) {
-        this.networks = networks;
+    public static class NetworkDelta {
+        public final UUID networkId;
+        public final int baseRevision;
+        public int revision;
+        public byte[] header;
+        public boolean resetDetails;
+        public byte[] details;
+        public byte[] templates;
+        public Section groups = new Section();
+        public Section nodes = new Section();
+        public Section rules = new Section();
+
+        public NetworkDelta(UUID networkId, int baseRevision) {
+            this.networkId = networkId;
+            this.baseRevision = baseRevision;
+        }
+
+        boolean isEmpty() {
+            return header == null && !resetDetails && details == null && templates == null
+                    && groups.isEmpty() && nodes.isEmpty() && rules.isEmpty();
+        }
+
+        NetworkData applyTo(NetworkData old) {
+            NetworkData nd = old != null ? copyOf(old) : new NetworkData();
+            nd.networkId = networkId;
+            if (resetDetails) {
+                nd.nodes = new ArrayList<>();
+                nd.rules = new ArrayList<>();
+                nd.groups = new ArrayList<>();
+            }
+            if (header != null) readHeader(wrap(header), nd);
+            if (details != null) readDetails(wrap(details), nd);
+            if (templates != null) readTemplates(wrap(templates), nd);
+            if (!groups.isEmpty()) nd.groups = groups.apply(nd.groups, g -> g.groupId, SyncNetworksPacket::readGroup);
+            if (!nodes.isEmpty()) nd.nodes = nodes.apply(nd.nodes, n -> n.nodeId, SyncNetworksPacket::readNode);
+            if (!rules.isEmpty()) nd.rules = rules.apply(nd.rules, r -> r.ruleId, SyncNetworksPacket::readRule);
+            nd.syncRevision = revision;
+            return nd;
+        }
+    }
+
+    private final boolean reset;
+    private final UUID viewedNetworkId;
+    private final List<UUID> order;
+    private final List<UUID> removedNetworks;
+    private final List<NetworkDelta> deltas;
+
+    public SyncNetworksPacket(boolean reset, UUID viewedNetworkId, List<UUID> order, List<UUID> removedNetworks, List<NetworkDelta> deltas) {
+        this.reset = reset;
         this.viewedNetworkId = viewedNetworkId;
+        this.order = order;
+        this.removedNetworks = removedNetworks;
+        this.deltas = deltas;
     }
 
     public SyncNetworksPacket(FriendlyByteBuf buf) {
+        this.reset = buf.readBoolean();
         this.viewedNetworkId = buf.readBoolean() ? buf.readUUID() : null;
-        int netSize = buf.readInt();
-        if (netSize > 100) netSize = 100; // Safety limit
-        this.networks = new ArrayList<>(Math.max(0, netSize));
-        for (int i = 0; i < netSize; i++) {
-            NetworkData nd = new NetworkData();
-            nd.networkId = buf.readUUID();
-            nd.networkName = buf.readUtf();
-            nd.active = buf.readBoolean();
-
-            boolean isFullSync = buf.readBoolean();
-            if (isFullSync) {
-                nd.tickBudget = buf.readInt();
-                nd.showConnections = buf.readBoolean();
-                nd.simulationActive = buf.readBoolean();
-                nd.lastReport = buf.readUtf();
-                nd.itemsMovedLastMin = buf.readLong();
-                nd.energyMovedLastMin = buf.readLong();
-                nd.fluidsMovedLastMin = buf.readLong();
-                if (buf.readBoolean()) nd.overflowTargetId = buf.readUUID();
-                nd.overflowIsGroup = buf.readBoolean();
-
-                int sigSize = Math.min(buf.readInt(), 100);
-                nd.recentSignals = new ArrayList<>(Math.max(0, sigSize));
-                for (int j = 0; j < sigSize; j++) {
-                    nd.recentSignals.add(new LogisticsSignal(buf.readUtf(), buf.readUUID(), buf.readUUID()));
-                }
+        this.order = buf.readBoolean() ? readIds(buf, MAX_NETWORKS) : null;
+        this.removedNetworks = readIds(buf, MAX_NETWORKS);
+        int size = Math.min(buf.readInt(), MAX_NETWORKS);
+        this.deltas = new ArrayList<>(Math.max(0, size));
+        for (int i = 0; i < size; i++) {
+            NetworkDelta delta = new NetworkDelta(buf.readUUID(), buf.readInt());
+            delta.revision = buf.readInt();
+            delta.header = readOptionalBytes(buf);
+            delta.resetDetails = buf.readBoolean();
+            delta.details = readOptionalBytes(buf);
+            delta.templates = readOptionalBytes(buf);
+            delta.groups = Section.read(buf, 100);
+            delta.nodes = Section.read(buf, 1000);
+            delta.rules = Section.read(buf, 500);
+            deltas.add(delta);
+        }
+    }
 
-                int varSize = Math.min(buf.readInt(), 200);
-                for (int j = 0; j < varSize; j++) {
-                    nd.variables.put(buf.readUtf(), buf.readDouble());
-                }
+    public void encode(FriendlyByteBuf buf) {
+        buf.writeBoolean(reset);
+        buf.writeBoolean(viewedNetworkId != null);
+        if (viewedNetworkId != null) buf.writeUUID(viewedNetworkId);
+        buf.writeBoolean(order != null);
+        if (order != null) writeIds(buf, order);
+        writeIds(buf, removedNetworks);
+        buf.writeInt(deltas.size());
+        for (NetworkDelta delta : deltas) {
+            buf.writeUUID(delta.networkId);
+            buf.writeInt(delta.baseRevision);
+            buf.writeInt(delta.revision);
+            writeOptionalBytes(buf, delta.header);
+            buf.writeBoolean(delta.resetDetails);
+            writeOptionalBytes(buf, delta.details);
+            writeOptionalBytes(buf, delta.templates);
+            delta.groups.write(buf);
+            delta.nodes.write(buf);
+            delta.rules.write(buf);
+        }
+    }
 
-                int historySize = Math.min(buf.readInt(), 100);
-                for (int j = 0; j < historySize; j++) {
-                    MovementRecord rec = new MovementRecord();
-                    rec.timestamp = buf.readLong();
-                    rec.itemId = buf.readUtf();
-                    rec.itemName = buf.readUtf();
-                    rec.count = buf.readInt();
-                    rec.sourceNodeId = buf.readUUID();
-                    rec.destNodeId = buf.readUUID();
-                    rec.type = buf.readUtf();
-                    nd.movementHistory.add(rec);
-                }
+    public boolean isReset() {
+        return reset;
+    }
 
-                int groupSize = Math.min(buf.readInt(), 100);
-                for (int j = 0; j < groupSize; j++) {
-                    NodeGroup group = new NodeGroup();
-                    group.groupId = buf.readUUID();
-                    group.name = buf.readUtf();
-                    group.guiX = buf.readInt();
-                    group.guiY = buf.readInt();
-                    group.expanded = buf.readBoolean();
-                    int members = Math.min(buf.readInt(), 1000);
-                    for (int k = 0; k < members; k++) group.nodeIds.add(buf.readUUID());
-                    nd.groups.add(group);
-                }
+    /**
+     * Applies the packet to the client's copy. Returns false, leaving the data untouched, if any network delta
+     * was built on a revision the client does not have.
+     */
+    public boolean applyTo(PlayerNetworkData data) {
+        Map<UUID, NetworkData> networks = new LinkedHashMap<>();
+        if (!reset) {
+            for (NetworkData nd : data.getNetworks()) networks.put(nd.networkId, nd);
+        }
+        for (UUID id : removedNetworks) networks.remove(id);
+        for (NetworkDelta delta : deltas) {
+            NetworkData old = networks.get(delta.networkId);
+            if ((old != null ? old.syncRevision : 0) != delta.baseRevision) return false;
+            networks.put(delta.networkId, delta.applyTo(old));
+        }
 
-                int nodeSize = Math.min(buf.readInt(), 1000);
-                for (int j = 0; j < nodeSize; j++) {
-                    NetworkNode node = new NetworkNode();
-                    node.nodeId = buf.readUUID();
-                    node.nodeType = buf.readUtf();
-                    node.chamberIndex = buf.readInt();
-                    if (buf.readBoolean()) node.pos = buf.readBlockPos();
-                    if (buf.readBoolean()) node.dimension = buf.readUtf();
-                    if (buf.readBoolean()) node.blockId = buf.readUtf();
-                    if (buf.readBoolean()) node.iconItemId = buf.readUtf();
-                    if (buf.readBoolean()) node.customName = buf.readUtf();
-                    node.guiX = buf.readInt();
-                    node.guiY = buf.readInt();
-                    int sideSize = Math.min(buf.readInt(), 6);
-                    for (int k = 0; k < sideSize; k++) {
-                        node.sideConfig.put(buf.readEnum(Direction.class), buf.readUtf());
-                    }
-                    int slotSize = Math.min(buf.readInt(), 1000);
-                    for (int k = 0; k < slotSize; k++) {
-                        node.slotConfig.put(buf.readInt(), buf.readUtf());
-                    }
-                    node.isMissing = buf.readBoolean();
-
-                    if (buf.readBoolean()) node.referencedNetworkId = buf.readUUID();
-                    if (buf.readBoolean()) node.targetPortId = buf.readUUID();
-                    int itemBufSize = Math.min(buf.readInt(), 100);
-                    for (int k = 0; k < itemBufSize; k++) node.virtualItemBuffer.add(buf.readItem());
-                    node.virtualEnergyBuffer = buf.readLong();
-                    int fluidBufSize = Math.min(buf.readInt(), 100);
-                    for (int k = 0; k < fluidBufSize; k++) {
-                        net.minecraft.nbt.CompoundTag fTag = buf.readNbt();
-                        if (fTag != null) node.virtualFluidBuffer.add(net.minecraftforge.fluids.FluidStack.loadFluidStackFromNBT(fTag));
-                    }
-                    nd.nodes.add(node);
-                }
+        List<NetworkData> result = new CopyOnWriteArrayList<>();
+        if (order != null) {
+            for (UUID id : order) {
+                NetworkData nd = networks.get(id);
+                if (nd != null) result.add(nd);
+            }
+        } else {
+            result.addAll(networks.values());
+        }
+        data.setNetworks(result);
+        data.viewedNetworkId = viewedNetworkId;
+        return true;
+    }
 
-                int ruleSize = Math.min(buf.readInt(), 500);
-                for (int j = 0; j < ruleSize; j++) {
-                    nd.rules.add(readRule(buf));
-                }
+    // Screens detect changes by object identity, so a changed network is a new object sharing the untouched parts
+    private static NetworkData copyOf(NetworkData old) {
+        NetworkData nd = new NetworkData();
+        nd.networkId = old.networkId;
+        nd.networkName = old.networkName;
+        nd.active = old.active;
+        nd.nodes = old.nodes;
+        nd.groups = old.groups;
+        nd.rules = old.rules;
+        nd.ruleTemplates = old.ruleTemplates;
+        nd.tickBudget = old.tickBudget;
+        nd.showConnections = old.showConnections;
+        nd.simulationActive = old.simulationActive;
+        nd.lastReport = old.lastReport;
+        nd.itemsMovedLastMin = old.itemsMovedLastMin;
+        nd.energyMovedLastMin = old.energyMovedLastMin;
+        nd.fluidsMovedLastMin = old.fluidsMovedLastMin;
+        nd.signalsCoalescedLastMin = old.signalsCoalescedLastMin;
+        nd.signalsDroppedLastMin = old.signalsDroppedLastMin;
+        nd.overflowTargetId = old.overflowTargetId;
+        nd.overflowIsGroup = old.overflowIsGroup;
+        nd.recentSignals = old.recentSignals;
+        nd.variables = old.variables;
+        nd.movementHistory = old.movementHistory;
+        return nd;
+    }
 
-                int templateSize = Math.min(buf.readInt(), 100);
-                for (int j = 0; j < templateSize; j++) {
-                    RuleTemplate template = new RuleTemplate();
-                    template.templateId = buf.readUUID();
-                    template.name = buf.readUtf();
-                    template.rule = readRule(buf);
-                    nd.ruleTemplates.add(template);
-                }
-            } else {
-                int nodeCount = Math.min(buf.readInt(), 1000);
-                for (int j = 0; j < nodeCount; j++) nd.nodes.add(null);
-                int ruleCount = Math.min(buf.readInt(), 500);
-                for (int j = 0; j < ruleCount; j++) nd.rules.add(null);
-            }
-            this.networks.add(nd);
+    private static FriendlyByteBuf wrap(byte[] bytes) {
+        return new FriendlyByteBuf(Unpooled.wrappedBuffer(bytes));
+    }
+
+    private static void writeOptionalBytes(FriendlyByteBuf buf, byte[] bytes) {
+        buf.writeBoolean(bytes != null);
+        if (bytes != null) buf.writeByteArray(bytes);
+    }
+
+    private static byte[] readOptionalBytes(FriendlyByteBuf buf) {
+        return buf.readBoolean() ? buf.readByteArray() : null;
+    }
+
+    private static void writeIds(FriendlyByteBuf buf, List<UUID> ids) {
+        buf.writeInt(ids.size());
+        for (UUID id : ids) buf.writeUUID(id);
+    }
+
+    private static List<UUID> readIds(FriendlyByteBuf buf, int limit) {
+        int size = Math.min(buf.readInt(), limit);
+        List<UUID> ids = new ArrayList<>(Math.max(0, size));
+        for (int i = 0; i < size; i++) ids.add(buf.readUUID());
+        return ids;
+    }
+
+    // Summary networks (not being viewed) carry placeholder counts instead of their nodes and rules
+    static void writeHeader(FriendlyByteBuf buf, NetworkData nd, boolean withCounts) {
+        buf.writeUtf(nd.networkName != null ? nd.networkName : "Unnamed Network");
+        buf.writeBoolean(nd.active);
+        buf.writeBoolean(withCounts);
+        if (withCounts) {
+            buf.writeInt(nd.nodes.size());
+            buf.writeInt(nd.rules.size());
+        }
+    }
+
+    static void readHeader(FriendlyByteBuf buf, NetworkData nd) {
+        nd.networkName = buf.readUtf();
+        nd.active = buf.readBoolean();
+        if (buf.readBoolean()) {
+            int nodeCount = Math.min(buf.readInt(), 1000);
+            nd.nodes = new ArrayList<>();
+            for (int j = 0; j < nodeCount; j++) nd.nodes.add(null);
+            int ruleCount = Math.min(buf.readInt(), 500);
+            nd.rules = new ArrayList<>();
+            for (int j = 0; j < ruleCount; j++) nd.rules.add(null);
         }
     }
 
-    private LogisticsRule readRule(FriendlyByteBuf buf) {
+    static void writeDetails(FriendlyByteBuf buf, NetworkData nd) {
+        buf.writeInt(nd.tickBudget);
+        buf.writeBoolean(nd.showConnections);
+        buf.writeBoolean(nd.simulationActive);
+        buf.writeUtf(nd.lastReport != null ? nd.lastReport : "");
+        buf.writeLong(nd.itemsMovedLastMin);
+        buf.writeLong(nd.energyMovedLastMin);
+        buf.writeLong(nd.fluidsMovedLastMin);
+        buf.writeLong(nd.signalsCoalescedLastMin);
+        buf.writeLong(nd.signalsDroppedLastMin);
+        buf.writeBoolean(nd.overflowTargetId != null);
+        if (nd.overflowTargetId != null) buf.writeUUID(nd.overflowTargetId);
+        buf.writeBoolean(nd.overflowIsGroup);
+
+        buf.writeInt(nd.recentSignals.size());
+        for (LogisticsSignal sig : nd.recentSignals) {
+            buf.writeUtf(sig.type);
+            buf.writeUUID(sig.sourceNodeId != null ? sig.sourceNodeId : UUID.randomUUID());
+            buf.writeUUID(sig.sourceRuleId != null ? sig.sourceRuleId : UUID.randomUUID());
+        }
+
+        nd.variables.writeBuf(buf, 200);
+
+        nd.movementHistory.summarize(System.currentTimeMillis());
+        nd.movementHistory.writeBuf(buf);
+    }
+
+    static void readDetails(FriendlyByteBuf buf, NetworkData nd) {
+        nd.tickBudget = buf.readInt();
+        nd.showConnections = buf.readBoolean();
+        nd.simulationActive = buf.readBoolean();
+        nd.lastReport = buf.readUtf();
+        nd.itemsMovedLastMin = buf.readLong();
+        nd.energyMovedLastMin = buf.readLong();
+        nd.fluidsMovedLastMin = buf.readLong();
+        nd.signalsCoalescedLastMin = buf.readLong();
+        nd.signalsDroppedLastMin = buf.readLong();
+        nd.overflowTargetId = buf.readBoolean() ? buf.readUUID() : null;
+        nd.overflowIsGroup = buf.readBoolean();
+
+        int sigSize = Math.min(buf.readInt(), 100);
+        nd.recentSignals = new ArrayList<>(Math.max(0, sigSize));
+        for (int j = 0; j < sigSize; j++) {
+            nd.recentSignals.add(new LogisticsSignal(buf.readUtf(), buf.readUUID(), buf.readUUID()));
+        }
+
+        nd.variables = new NetworkVariables();
+        nd.variables.readBuf(buf, 200);
+
+        nd.movementHistory = new MovementLog();
+        nd.movementHistory.readBuf(buf);
+    }
+
+    static void writeTemplates(FriendlyByteBuf buf, NetworkData nd) {
+        buf.writeInt(nd.ruleTemplates.size());
+        for (RuleTemplate template : nd.ruleTemplates) {
+            buf.writeUUID(template.templateId);
+            buf.writeUtf(template.name);
+            writeRule(buf, template.rule);
+        }
+    }
+
+    static void readTemplates(FriendlyByteBuf buf, NetworkData nd) {
+        int templateSize = Math.min(buf.readInt(), 100);
+        nd.ruleTemplates = new ArrayList<>(Math.max(0, templateSize));
+        for (int j = 0; j < templateSize; j++) {
+            RuleTemplate template = new RuleTemplate();
+            template.templateId = buf.readUUID();
+            template.name = buf.readUtf();
+            template.rule = readRule(buf);
+            nd.ruleTemplates.add(template);
+        }
+    }
+
+    static void writeGroup(FriendlyByteBuf buf, NodeGroup group) {
+        buf.writeUUID(group.groupId);
+        buf.writeUtf(group.name != null ? group.name : "Unnamed Group");
+        buf.writeInt(group.guiX);
+        buf.writeInt(group.guiY);
+        buf.writeBoolean(group.expanded);
+        buf.writeInt(group.nodeIds.size());
+        for (UUID id : group.nodeIds) buf.writeUUID(id);
+    }
+
+    static NodeGroup readGroup(FriendlyByteBuf buf) {
+        NodeGroup group = new NodeGroup();
+        group.groupId = buf.readUUID();
+        group.name = buf.readUtf();
+        group.guiX = buf.readInt();
+        group.guiY = buf.readInt();
+        group.expanded = buf.readBoolean();
+        int members = Math.min(buf.readInt(), 1000);
+        for (int k = 0; k < members; k++) group.nodeIds.add(buf.readUUID());
+        return group;
+    }
+
+    static void writeNode(FriendlyByteBuf buf, NetworkNode node) {
+        buf.writeUUID(node.nodeId);
+        buf.writeUtf(node.nodeType);
+        buf.writeInt(node.chamberIndex);
+        buf.writeBoolean(node.pos != null);
+        if (node.pos != null) buf.writeBlockPos(node.pos);
+        buf.writeBoolean(node.dimension != null);
+        if (node.dimension != null) buf.writeUtf(node.dimension);
+        buf.writeBoolean(node.blockId != null);
+        if (node.blockId != null) buf.writeUtf(node.blockId);
+        buf.writeBoolean(node.iconItemId != null);
+        if (node.iconItemId != null) buf.writeUtf(node.iconItemId);
+        buf.writeBoolean(node.customName != null);
+        if (node.customName != null) buf.writeUtf(node.customName);
+        buf.writeInt(node.guiX);
+        buf.writeInt(node.guiY);
+        buf.writeInt(node.sideConfig.size());
+        for (Map.Entry<Direction, String> entry : node.sideConfig.entrySet()) {
+            buf.writeEnum(entry.getKey());
+            buf.writeUtf(entry.getValue());
+        }
+        buf.writeInt(node.slotConfig.size());
+        for (Map.Entry<Integer, String> entry : node.slotConfig.entrySet()) {
+            buf.writeInt(entry.getKey());
+            buf.writeUtf(entry.getValue());
+        }
+        buf.writeBoolean(node.isMissing);
+
+        buf.writeBoolean(node.referencedNetworkId != null);
+        if (node.referencedNetworkId != null) buf.writeUUID(node.referencedNetworkId);
+        buf.writeBoolean(node.targetPortId != null);
+        if (node.targetPortId != null) buf.writeUUID(node.targetPortId);
+        node.virtualItemBuffer.writeBuf(buf, 100);
+        buf.writeLong(node.virtualEnergyBuffer);
+        node.virtualFluidBuffer.writeBuf(buf, 100);
+    }
+
+    static NetworkNode readNode(FriendlyByteBuf buf) {
+        NetworkNode node = new NetworkNode();
+        node.nodeId = buf.readUUID();
+        node.nodeType = buf.readUtf();
+        node.chamberIndex = buf.readInt();
+        if (buf.readBoolean()) node.pos = buf.readBlockPos();
+        if (buf.readBoolean()) node.dimension = buf.readUtf();
+        if (buf.readBoolean()) node.blockId = buf.readUtf();
+        if (buf.readBoolean()) node.iconItemId = buf.readUtf();
+        if (buf.readBoolean()) node.customName = buf.readUtf();
+        node.guiX = buf.readInt();
+        node.guiY = buf.readInt();
+        int sideSize = Math.min(buf.readInt(), 6);
+        for (int k = 0; k < sideSize; k++) {
+            node.sideConfig.put(buf.readEnum(Direction.class), buf.readUtf());
+        }
+        int slotSize = Math.min(buf.readInt(), 1000);
+        for (int k = 0; k < slotSize; k++) {
+            node.slotConfig.put(buf.readInt(), buf.readUtf());
+        }
+        node.isMissing = buf.readBoolean();
+
+        if (buf.readBoolean()) node.referencedNetworkId = buf.readUUID();
+        if (buf.readBoolean()) node.targetPortId = buf.readUUID();
+        node.virtualItemBuffer.readBuf(buf, 100);
+        node.virtualEnergyBuffer = buf.readLong();
+        node.virtualFluidBuffer.readBuf(buf, 100);
+        return node;
+    }
+
+    static LogisticsRule readRule(FriendlyByteBuf buf) {
         LogisticsRule rule = new LogisticsRule();
         rule.ruleId = buf.readUUID();
         rule.sourceNodeId = buf.readUUID();
@@ -210,126 +511,7 @@ public class SyncNetworksPacket {
         return rule;
     }
 
-    public void encode(FriendlyByteBuf buf) {
-        buf.writeBoolean(viewedNetworkId != null);
-        if (viewedNetworkId != null) buf.writeUUID(viewedNetworkId);
-        buf.writeInt(networks.size());
-        for (NetworkData nd : networks) {
-            buf.writeUUID(nd.networkId);
-            buf.writeUtf(nd.networkName != null ? nd.networkName : "Unnamed Network");
-            buf.writeBoolean(nd.active);
-
-            boolean isFullSync = nd.networkId.equals(viewedNetworkId);
-            buf.writeBoolean(isFullSync);
-
-            if (isFullSync) {
-                buf.writeInt(nd.tickBudget);
-                buf.writeBoolean(nd.showConnections);
-                buf.writeBoolean(nd.simulationActive);
-                buf.writeUtf(nd.lastReport != null ? nd.lastReport : "");
-                buf.writeLong(nd.itemsMovedLastMin);
-                buf.writeLong(nd.energyMovedLastMin);
-                buf.writeLong(nd.fluidsMovedLastMin);
-                buf.writeBoolean(nd.overflowTargetId != null);
-                if (nd.overflowTargetId != null) buf.writeUUID(nd.overflowTargetId);
-                buf.writeBoolean(nd.overflowIsGroup);
-
-                buf.writeInt(nd.recentSignals.size());
-                for (LogisticsSignal sig : nd.recentSignals) {
-                    buf.writeUtf(sig.type);
-                    buf.writeUUID(sig.sourceNodeId != null ? sig.sourceNodeId : UUID.randomUUID());
-                    buf.writeUUID(sig.sourceRuleId != null ? sig.sourceRuleId : UUID.randomUUID());
-                }
-
-                buf.writeInt(nd.variables.size());
-                for (java.util.Map.Entry<String, Double> entry : nd.variables.entrySet()) {
-                    buf.writeUtf(entry.getKey());
-                    buf.writeDouble(entry.getValue());
-                }
-
-                buf.writeInt(nd.movementHistory.size());
-                for (MovementRecord rec : nd.movementHistory) {
-                    buf.writeLong(rec.timestamp);
-                    buf.writeUtf(rec.itemId != null ? rec.itemId : "");
-                    buf.writeUtf(rec.itemName != null ? rec.itemName : "");
-                    buf.writeInt(rec.count);
-                    buf.writeUUID(rec.sourceNodeId);
-                    buf.writeUUID(rec.destNodeId);
-                    buf.writeUtf(rec.type != null ? rec.type : "");
-                }
-
-                buf.writeInt(nd.groups.size());
-                for (NodeGroup group : nd.groups) {
-                    buf.writeUUID(group.groupId);
-                    buf.writeUtf(group.name != null ? group.name : "Unnamed Group");
-                    buf.writeInt(group.guiX);
-                    buf.writeInt(group.guiY);
-                    buf.writeBoolean(group.expanded);
-                    buf.writeInt(group.nodeIds.size());
-                    for (UUID id : group.nodeIds) buf.writeUUID(id);
-                }
-
-                buf.writeInt(nd.nodes.size());
-                for (NetworkNode node : nd.nodes) {
-                    buf.writeUUID(node.nodeId);
-                    buf.writeUtf(node.nodeType);
-                    buf.writeInt(node.chamberIndex);
-                    buf.writeBoolean(node.pos != null);
-                    if (node.pos != null) buf.writeBlockPos(node.pos);
-                    buf.writeBoolean(node.dimension != null);
-                    if (node.dimension != null) buf.writeUtf(node.dimension);
-                    buf.writeBoolean(node.blockId != null);
-                    if (node.blockId != null) buf.writeUtf(node.blockId);
-                    buf.writeBoolean(node.iconItemId != null);
-                    if (node.iconItemId != null) buf.writeUtf(node.iconItemId);
-                    buf.writeBoolean(node.customName != null);
-                    if (node.customName != null) buf.writeUtf(node.customName);
-                    buf.writeInt(node.guiX);
-                    buf.writeInt(node.guiY);
-                    buf.writeInt(node.sideConfig.size());
-                    for (Map.Entry<Direction, String> entry : node.sideConfig.entrySet()) {
-                        buf.writeEnum(entry.getKey());
-                        buf.writeUtf(entry.getValue());
-                    }
-                    buf.writeInt(node.slotConfig.size());
-                    for (Map.Entry<Integer, String> entry : node.slotConfig.entrySet()) {
-                        buf.writeInt(entry.getKey());
-                        buf.writeUtf(entry.getValue());
-                    }
-                    buf.writeBoolean(node.isMissing);
-
-                    buf.writeBoolean(node.referencedNetworkId != null);
-                    if (node.referencedNetworkId != null) buf.writeUUID(node.referencedNetworkId);
-                    buf.writeBoolean(node.targetPortId != null);
-                    if (node.targetPortId != null) buf.writeUUID(node.targetPortId);
-                    buf.writeInt(node.virtualItemBuffer.size());
-                    for (net.minecraft.world.item.ItemStack stack : node.virtualItemBuffer) buf.writeItem(stack);
-                    buf.writeLong(node.virtualEnergyBuffer);
-                    buf.writeInt(node.virtualFluidBuffer.size());
-                    for (net.minecraftforge.fluids.FluidStack fluid : node.virtualFluidBuffer) {
-                        buf.writeNbt(fluid.writeToNBT(new net.minecraft.nbt.CompoundTag()));
-                    }
-                }
-
-                buf.writeInt(nd.rules.size());
-                for (LogisticsRule rule : nd.rules) {
-                    writeRule(buf, rule);
-                }
-
-                buf.writeInt(nd.ruleTemplates.size());
-                for (RuleTemplate template : nd.ruleTemplates) {
-                    buf.writeUUID(template.templateId);
-                    buf.writeUtf(template.name);
-                    writeRule(buf, template.rule);
-                }
-            } else {
-                buf.writeInt(nd.nodes.size());
-                buf.writeInt(nd.rules.size());
-            }
-        }
-    }
-
-    private void writeRule(FriendlyByteBuf buf, LogisticsRule rule) {
+    static void writeRule(FriendlyByteBuf buf, LogisticsRule rule) {
         buf.writeUUID(rule.ruleId);
         buf.writeUUID(rule.sourceNodeId != null ? rule.sourceNodeId : UUID.randomUUID());
         buf.writeBoolean(rule.sourceIsGroup);
@@ -389,8 +571,8 @@ public class SyncNetworksPacket {
 
     public void handle(Supplier<NetworkEvent.Context> ctx) {
         ctx.get().enqueueWork(() -> {
-            ClientPacketHandler.handleSyncNetworks(this.networks, this.viewedNetworkId);
+            ClientPacketHandler.handleSyncNetworks(this);
         });
         ctx.get().setPacketHandled(true);
     }
-}
\ No newline at end of file
+}
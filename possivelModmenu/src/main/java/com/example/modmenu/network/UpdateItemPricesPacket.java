@@ -0,0 +1,39 @@
+package com.example.modmenu.network;
+
+import com.example.modmenu.store.StorePriceManager;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Item prices that changed on the server, merged into the client's tables instead of replacing them.
+ */
+public class UpdateItemPricesPacket {
+    private final Map<String, BigDecimal> buyPrices;
+    private final Map<String, BigDecimal> sellPrices;
+
+    public UpdateItemPricesPacket(Map<String, BigDecimal> buy, Map<String, BigDecimal> sell) {
+        this.buyPrices = buy;
+        this.sellPrices = sell;
+    }
+
+    public UpdateItemPricesPacket(FriendlyByteBuf buf) {
+        this.buyPrices = buf.readMap(FriendlyByteBuf::readUtf, b -> new BigDecimal(b.readUtf()));
+        this.sellPrices = buf.readMap(FriendlyByteBuf::readUtf, b -> new BigDecimal(b.readUtf()));
+    }
+
+    public void encode(FriendlyByteBuf buf) {
+        buf.writeMap(buyPrices, FriendlyByteBuf::writeUtf, (b, v) -> b.writeUtf(v.toString()));
+        buf.writeMap(sellPrices, FriendlyByteBuf::writeUtf, (b, v) -> b.writeUtf(v.toString()));
+    }
+
+    public void handle(Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> {
+            StorePriceManager.updateClientPrices(buyPrices, sellPrices);
+        });
+        ctx.get().setPacketHandled(true);
+    }
+}
@@ -111,6 +111,164 @@ public class GsonAdapters {
         }
     }
 
+    /**
+     * Network variables as a plain name → value object, the shape the old {@code Map<String, Double>} field had.
+     */
+    public static class NetworkVariablesAdapter extends TypeAdapter<com.example.modmenu.store.logistics.NetworkVariables> {
+        @Override
+        public void write(JsonWriter out, com.example.modmenu.store.logistics.NetworkVariables value) throws IOException {
+            out.beginObject();
+            if (value != null) {
+                java.util.Map<String, Double> entries = new java.util.LinkedHashMap<>();
+                value.forEach(entries::put);
+                for (java.util.Map.Entry<String, Double> entry : entries.entrySet()) out.name(entry.getKey()).value(entry.getValue());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public com.example.modmenu.store.logistics.NetworkVariables read(JsonReader in) throws IOException {
+            com.example.modmenu.store.logistics.NetworkVariables vars = new com.example.modmenu.store.logistics.NetworkVariables();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return vars;
+            }
+            in.beginObject();
+            while (in.hasNext()) vars.put(in.nextName(), in.nextDouble());
+            in.endObject();
+            return vars;
+        }
+    }
+
+    /**
+     * Virtual item buffers as the legacy list of stacks.
+     */
+    public static class VirtualItemBufferAdapter extends TypeAdapter<com.example.modmenu.store.logistics.VirtualItemBuffer> {
+        private final ItemStackAdapter stacks = new ItemStackAdapter();
+
+        @Override
+        public void write(JsonWriter out, com.example.modmenu.store.logistics.VirtualItemBuffer value) throws IOException {
+            out.beginArray();
+            if (value != null) {
+                for (ItemStack stack : value.stacks()) stacks.write(out, stack);
+            }
+            out.endArray();
+        }
+
+        @Override
+        public com.example.modmenu.store.logistics.VirtualItemBuffer read(JsonReader in) throws IOException {
+            com.example.modmenu.store.logistics.VirtualItemBuffer buffer = new com.example.modmenu.store.logistics.VirtualItemBuffer();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return buffer;
+            }
+            in.beginArray();
+            while (in.hasNext()) {
+                ItemStack stack = stacks.read(in);
+                buffer.add(stack, stack.getCount());
+            }
+            in.endArray();
+            return buffer;
+        }
+    }
+
+    /**
+     * Virtual fluid buffers as the legacy list of fluid stacks.
+     */
+    public static class VirtualFluidBufferAdapter extends TypeAdapter<com.example.modmenu.store.logistics.VirtualFluidBuffer> {
+        private final FluidStackAdapter stacks = new FluidStackAdapter();
+
+        @Override
+        public void write(JsonWriter out, com.example.modmenu.store.logistics.VirtualFluidBuffer value) throws IOException {
+            out.beginArray();
+            if (value != null) {
+                for (net.minecraftforge.fluids.FluidStack stack : value.stacks()) stacks.write(out, stack);
+            }
+            out.endArray();
+        }
+
+        @Override
+        public com.example.modmenu.store.logistics.VirtualFluidBuffer read(JsonReader in) throws IOException {
+            com.example.modmenu.store.logistics.VirtualFluidBuffer buffer = new com.example.modmenu.store.logistics.VirtualFluidBuffer();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return buffer;
+            }
+            in.beginArray();
+            while (in.hasNext()) {
+                net.minecraftforge.fluids.FluidStack stack = stacks.read(in);
+                buffer.add(stack, stack.getAmount());
+            }
+            in.endArray();
+            return buffer;
+        }
+    }
+
+    /**
+     * Movement history as the legacy list of record objects, newest first, with the fields of
+     * {@link com.example.modmenu.store.logistics.MovementLog#saveNBT()}.
+     */
+    public static class MovementLogAdapter extends TypeAdapter<com.example.modmenu.store.logistics.MovementLog> {
+        @Override
+        public void write(JsonWriter out, com.example.modmenu.store.logistics.MovementLog value) throws IOException {
+            out.beginArray();
+            if (value != null) {
+                net.minecraft.nbt.ListTag list = value.saveNBT();
+                for (int i = 0; i < list.size(); i++) {
+                    CompoundTag tag = list.getCompound(i);
+                    out.beginObject();
+                    out.name("timestamp").value(tag.getLong("timestamp"));
+                    out.name("itemId").value(tag.getString("itemId"));
+                    out.name("itemName").value(tag.getString("itemName"));
+                    out.name("count").value(tag.getInt("count"));
+                    if (tag.hasUUID("sourceNodeId")) out.name("sourceNodeId").value(tag.getUUID("sourceNodeId").toString());
+                    if (tag.hasUUID("destNodeId")) out.name("destNodeId").value(tag.getUUID("destNodeId").toString());
+                    out.name("type").value(tag.getString("type"));
+                    out.endObject();
+                }
+            }
+            out.endArray();
+        }
+
+        @Override
+        public com.example.modmenu.store.logistics.MovementLog read(JsonReader in) throws IOException {
+            net.minecraft.nbt.ListTag list = new net.minecraft.nbt.ListTag();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return com.example.modmenu.store.logistics.MovementLog.loadNBT(list);
+            }
+            in.beginArray();
+            while (in.hasNext()) {
+                CompoundTag tag = new CompoundTag();
+                in.beginObject();
+                while (in.hasNext()) {
+                    String name = in.nextName();
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                        continue;
+                    }
+                    switch (name) {
+                        case "timestamp" -> tag.putLong("timestamp", in.nextLong());
+                        case "count" -> tag.putInt("count", in.nextInt());
+                        case "itemId", "itemName", "type" -> tag.putString(name, in.nextString());
+                        case "sourceNodeId", "destNodeId" -> {
+                            try {
+                                tag.putUUID(name, java.util.UUID.fromString(in.nextString()));
+                            } catch (IllegalArgumentException e) {
+                                // Skip a malformed id, keep the record
+                            }
+                        }
+                        default -> in.skipValue();
+                    }
+                }
+                in.endObject();
+                list.add(tag);
+            }
+            in.endArray();
+            return com.example.modmenu.store.logistics.MovementLog.loadNBT(list);
+        }
+    }
+
     public static class OptionalAdapterFactory implements TypeAdapterFactory {
         @Override
         @SuppressWarnings("unchecked")
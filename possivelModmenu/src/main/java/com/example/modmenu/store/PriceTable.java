@@ -0,0 +1,107 @@
+package com.example.modmenu.store;
+
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.ItemTags;
+import net.minecraft.world.item.Item;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * One of the item price maps of {@link StorePriceManager}, flattened into an array indexed by item registry id.
+ * {@code tag:} prices are applied to the items in those tags when the array is built, so a lookup is a single array
+ * read. The array is rebuilt on the next lookup after {@link #invalidate()} or a tag reload.
+ */
+@Mod.EventBusSubscriber(modid = "modmenu")
+public class PriceTable {
+    private static volatile int generation = 0;
+    private static volatile Index index;
+
+    private record Index(String[] ids, int generation) {}
+
+    private record Built(BigDecimal[] prices, int version, int generation) {}
+
+    private final Map<String, BigDecimal> prices;
+    private volatile int version = 0;
+    private volatile Built built;
+
+    public PriceTable(Map<String, BigDecimal> prices) {
+        this.prices = prices;
+    }
+
+    /** Call after changing the backing map. */
+    public void invalidate() {
+        version++;
+    }
+
+    /** Price of the item, from its own entry or else the first matching {@code tag:} entry, or null if it has none. */
+    public BigDecimal get(Item item) {
+        Built b = built;
+        if (b == null || b.version != version || b.generation != generation) b = build();
+        int i = BuiltInRegistries.ITEM.getId(item);
+        return i >= 0 && i < b.prices.length ? b.prices[i] : null;
+    }
+
+    /** Registry id of the item as a string, without allocating one per call. */
+    public static String id(Item item) {
+        String[] ids = index().ids;
+        int i = BuiltInRegistries.ITEM.getId(item);
+        if (i >= 0 && i < ids.length && ids[i] != null) return ids[i];
+        return BuiltInRegistries.ITEM.getKey(item).toString();
+    }
+
+    private Built build() {
+        // Read the version first: a change made while building leaves the result stale and it is built again
+        int v = version;
+        int g = generation;
+        String[] ids = index().ids;
+        BigDecimal[] table = new BigDecimal[ids.length];
+
+        // Like the old lookup, the first tag entry in map order that contains the item wins
+        for (Map.Entry<String, BigDecimal> entry : prices.entrySet()) {
+            if (!entry.getKey().startsWith("tag:")) continue;
+            ResourceLocation loc = ResourceLocation.tryParse(entry.getKey().substring(4));
+            if (loc == null) continue;
+            for (Holder<Item> holder : BuiltInRegistries.ITEM.getTagOrEmpty(ItemTags.create(loc))) {
+                int i = BuiltInRegistries.ITEM.getId(holder.value());
+                if (i >= 0 && i < table.length && table[i] == null) table[i] = entry.getValue();
+            }
+        }
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == null) continue;
+            BigDecimal price = prices.get(ids[i]);
+            if (price != null) table[i] = price;
+        }
+
+        Built b = new Built(table, v, g);
+        built = b;
+        return b;
+    }
+
+    private static Index index() {
+        Index idx = index;
+        if (idx != null && idx.generation == generation) return idx;
+        // Registry ids can be remapped when joining a server, which is followed by a tag sync
+        int g = generation;
+        int size = 0;
+        for (Item item : BuiltInRegistries.ITEM) size = Math.max(size, BuiltInRegistries.ITEM.getId(item) + 1);
+        String[] ids = new String[size];
+        for (Item item : BuiltInRegistries.ITEM) {
+            int i = BuiltInRegistries.ITEM.getId(item);
+            if (i >= 0) ids[i] = BuiltInRegistries.ITEM.getKey(item).toString();
+        }
+        idx = new Index(ids, g);
+        index = idx;
+        return idx;
+    }
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        generation++;
+    }
+}
@@ -513,6 +513,7 @@ public class SkillManager {
                     chamber.storedLoot.sort((a, b) -> ForgeRegistries.ITEMS.getKey(a.getItem()).toString().compareTo(ForgeRegistries.ITEMS.getKey(b.getItem()).toString()));
                 }
                 chamber.updateVersion++;
+                com.example.modmenu.store.logistics.RuleWakeups.wake(chamber);
             }
         }
     }
@@ -844,6 +845,7 @@ public class SkillManager {
 
         if (acc == null) {
             chamber.updateVersion++;
+            com.example.modmenu.store.logistics.RuleWakeups.wake(chamber);
         }
     }
 
@@ -988,6 +990,7 @@ public class SkillManager {
         if (changed) {
             loot.removeIf(ItemStack::isEmpty);
             chamber.updateVersion++;
+            com.example.modmenu.store.logistics.RuleWakeups.wake(chamber);
         }
     }
 
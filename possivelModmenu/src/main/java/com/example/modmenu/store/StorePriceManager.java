@@ -6,6 +6,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
 import com.example.modmenu.store.pricing.PricingEngine;
+import com.example.modmenu.store.pricing.PricingSnapshot;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.effect.MobEffect;
 import net.minecraft.world.item.Item;
@@ -42,6 +43,7 @@ public class StorePriceManager {
     private static File WORLD_DATA_DIR;
     private static File PLAYER_DATA_DIR;
     private static final PricingEngine pricingEngine = new PricingEngine();
+    private static java.util.concurrent.CompletableFuture<Void> pricing;
     
     public static final BigDecimal BD_100 = BigDecimal.valueOf(100);
     public static final BigDecimal BD_1000 = BigDecimal.valueOf(1000);
@@ -53,6 +55,8 @@ public class StorePriceManager {
     
     private static final Map<String, BigDecimal> itemBuyPrices = new ConcurrentHashMap<>();
     private static final Map<String, BigDecimal> itemSellPrices = new ConcurrentHashMap<>();
+    private static final PriceTable buyTable = new PriceTable(itemBuyPrices);
+    private static final PriceTable sellTable = new PriceTable(itemSellPrices);
     private static final Map<String, Long> totalSoldVolume = new ConcurrentHashMap<>(); // Dynamic Economy
     private static final Map<String, BigDecimal> enchantPrices = new ConcurrentHashMap<>();
     private static final Map<String, BigDecimal> effectBasePrices = new ConcurrentHashMap<>();
@@ -85,6 +89,8 @@ public class StorePriceManager {
     public static final Set<String> clientUnlockedHouses = ConcurrentHashMap.newKeySet();
     public static final Map<String, BigDecimal> clientBuyPrices = new ConcurrentHashMap<>();
     public static final Map<String, BigDecimal> clientSellPrices = new ConcurrentHashMap<>();
+    private static final PriceTable clientBuyTable = new PriceTable(clientBuyPrices);
+    private static final PriceTable clientSellTable = new PriceTable(clientSellPrices);
     public static final Map<String, Long> clientSoldVolume = new ConcurrentHashMap<>();
     public static final Map<String, BigDecimal> clientEnchantPrices = new ConcurrentHashMap<>();
     public static final Map<String, BigDecimal> clientEffectPrices = new ConcurrentHashMap<>();
@@ -96,6 +102,15 @@ public class StorePriceManager {
         if (volume != null) { clientSoldVolume.clear(); clientSoldVolume.putAll(volume); }
         if (enchants != null) { clientEnchantPrices.clear(); clientEnchantPrices.putAll(enchants); }
         if (effects != null) { clientEffectPrices.clear(); clientEffectPrices.putAll(effects); }
+        clientBuyTable.invalidate();
+        clientSellTable.invalidate();
+    }
+
+    public static void updateClientPrices(Map<String, BigDecimal> buy, Map<String, BigDecimal> sell) {
+        clientBuyPrices.putAll(buy);
+        clientSellPrices.putAll(sell);
+        clientBuyTable.invalidate();
+        clientSellTable.invalidate();
     }
 
     public static void clearClientData() {
@@ -109,6 +124,8 @@ public class StorePriceManager {
         clientUnlockedHouses.clear();
         clientBuyPrices.clear();
         clientSellPrices.clear();
+        clientBuyTable.invalidate();
+        clientSellTable.invalidate();
         clientSoldVolume.clear();
         clientEnchantPrices.clear();
         clientEffectPrices.clear();
@@ -716,6 +733,9 @@ public class StorePriceManager {
         sp.effects = effectBasePrices;
         sp.edited = editedPrices;
         atomicWrite(PRICES_FILE, sp);
+        // Every change to the server price maps is saved, so this keeps the price tables current
+        buyTable.invalidate();
+        sellTable.invalidate();
     }
 
     private static void loadPrices() {
@@ -772,6 +792,8 @@ public class StorePriceManager {
         }
         DefaultPrices.populate(itemBuyPrices);
         DefaultPrices.populate(itemSellPrices);
+        buyTable.invalidate();
+        sellTable.invalidate();
         initEffectPrices();
     }
 
@@ -795,12 +817,13 @@ public class StorePriceManager {
         }
     }
 
-    public static void resetToDefaults(net.minecraft.world.level.Level level) {
+    public static java.util.concurrent.CompletableFuture<Void> resetToDefaults(net.minecraft.world.level.Level level) {
         editedPrices.clear();
-        itemBuyPrices.clear();
-        itemSellPrices.clear();
-        enchantPrices.clear();
-        addAllItems(level);
+        // Item prices are replaced when the new table is published; enchantments are refilled at the same time
+        return addAllItems(level).thenRun(() -> {
+            enchantPrices.clear();
+            addAllEnchantments();
+        });
     }
 
     public static void addAllEffects() {
@@ -1114,23 +1137,9 @@ public class StorePriceManager {
     }
 
     public static BigDecimal getPrice(Item item, UUID uuid) {
-        String id = ForgeRegistries.ITEMS.getKey(item).toString();
-        Map<String, BigDecimal> buyPrices = (net.minecraftforge.api.distmarker.Dist.CLIENT == net.minecraftforge.fml.loading.FMLEnvironment.dist && !clientBuyPrices.isEmpty()) ? clientBuyPrices : itemBuyPrices;
-        
-        BigDecimal price = BigDecimal.valueOf(100);
-        if (buyPrices.containsKey(id)) {
-            price = buyPrices.get(id);
-        } else {
-            for (Map.Entry<String, BigDecimal> entry : buyPrices.entrySet()) {
-                if (entry.getKey().startsWith("tag:")) {
-                    String tagId = entry.getKey().substring(4);
-                    if (hasTag(item, tagId)) {
-                        price = entry.getValue();
-                        break;
-                    }
-                }
-            }
-        }
+        PriceTable buyPrices = (net.minecraftforge.api.distmarker.Dist.CLIENT == net.minecraftforge.fml.loading.FMLEnvironment.dist && !clientBuyPrices.isEmpty()) ? clientBuyTable : buyTable;
+        BigDecimal price = buyPrices.get(item);
+        if (price == null) price = BD_100;
         return applyBuyDiscounts(price, getSkillsForContext(uuid));
     }
 
@@ -1155,25 +1164,9 @@ public class StorePriceManager {
     }
 
     public static BigDecimal getSellPrice(Item item, UUID uuid) {
-        String id = ForgeRegistries.ITEMS.getKey(item).toString();
-        Map<String, BigDecimal> sellPrices = (net.minecraftforge.api.distmarker.Dist.CLIENT == net.minecraftforge.fml.loading.FMLEnvironment.dist && !clientSellPrices.isEmpty()) ? clientSellPrices : itemSellPrices;
-        
-        BigDecimal baseSellPrice = BigDecimal.valueOf(10);
-        if (sellPrices.containsKey(id)) {
-            baseSellPrice = sellPrices.get(id);
-        } else {
-            for (Map.Entry<String, BigDecimal> entry : sellPrices.entrySet()) {
-                if (entry.getKey().startsWith("tag:")) {
-                    String tagId = entry.getKey().substring(4);
-                    if (hasTag(item, tagId)) {
-                        baseSellPrice = entry.getValue();
-                        break;
-                    }
-                }
-            }
-        }
-
-        if (baseSellPrice.compareTo(BigDecimal.ZERO) <= 0) baseSellPrice = BigDecimal.valueOf(10);
+        PriceTable sellPrices = (net.minecraftforge.api.distmarker.Dist.CLIENT == net.minecraftforge.fml.loading.FMLEnvironment.dist && !clientSellPrices.isEmpty()) ? clientSellTable : sellTable;
+        BigDecimal baseSellPrice = sellPrices.get(item);
+        if (baseSellPrice == null || baseSellPrice.compareTo(BigDecimal.ZERO) <= 0) baseSellPrice = BigDecimal.TEN;
 
         SkillData skills = getSkillsForContext(uuid);
         if (skills != null) {
@@ -1186,7 +1179,7 @@ public class StorePriceManager {
 
         // Dynamic Economy Algorithm (Supply and Demand)
         Map<String, Long> volumes = (net.minecraftforge.fml.loading.FMLEnvironment.dist == net.minecraftforge.api.distmarker.Dist.CLIENT) ? clientSoldVolume : totalSoldVolume;
-        long volume = volumes.getOrDefault(id, 0L);
+        long volume = volumes.getOrDefault(PriceTable.id(item), 0L);
         if (volume > 1000) {
             // Drop price exponentially: P = P0 * 0.95 ^ (volume / 1000)
             double factor = Math.pow(0.95, volume / 1000.0);
@@ -1786,12 +1779,61 @@ public class StorePriceManager {
         }
     }
 
-    public static void addAllItems(net.minecraft.world.level.Level level) {
-        if (level == null) return;
+    /**
+     * Recomputes all item prices on the pricing workers. The game data is captured here, on the server thread; the
+     * current prices keep being served until the new table is published, again on the server thread, when the
+     * returned future completes. A recalculation already in progress is returned instead of starting another.
+     */
+    public static java.util.concurrent.CompletableFuture<Void> addAllItems(net.minecraft.world.level.Level level) {
+        if (level == null || level.getServer() == null) return java.util.concurrent.CompletableFuture.completedFuture(null);
+        if (pricing != null && !pricing.isDone()) return pricing;
+
+        PricingSnapshot snapshot = PricingSnapshot.capture(level, GSON.toJson(formulas));
+        pricing = pricingEngine.computeAllPrices(snapshot).thenAcceptAsync(StorePriceManager::publishPrices, level.getServer());
+        return pricing;
+    }
+
+    /**
+     * Reprices the items affected by recipe changes (after {@code /reload}) and sends only the changed prices to
+     * clients. Returns the number of item prices that changed.
+     */
+    public static java.util.concurrent.CompletableFuture<Integer> repriceChangedItems(net.minecraft.world.level.Level level) {
+        net.minecraft.server.MinecraftServer server = level.getServer();
+        if (server == null) return java.util.concurrent.CompletableFuture.completedFuture(0);
+
+        PricingSnapshot snapshot = PricingSnapshot.capture(level, GSON.toJson(formulas));
+        Map<String, BigDecimal> before = pricingEngine.getPrices();
+        return pricingEngine.repriceChanged(snapshot).thenApplyAsync(after -> {
+            Map<String, BigDecimal> buy = new HashMap<>();
+            Map<String, BigDecimal> sell = new HashMap<>();
+            for (Map.Entry<String, BigDecimal> entry : after.entrySet()) {
+                String id = entry.getKey();
+                if (editedPrices.contains(id) || entry.getValue().equals(before.get(id))) continue;
+                BigDecimal price = entry.getValue();
+                buy.put(id, price);
+                sell.put(id, idToSellPrice(id, price));
+            }
+            if (buy.isEmpty()) return 0;
+
+            itemBuyPrices.putAll(buy);
+            itemSellPrices.putAll(sell);
+            savePrices();
+            for (net.minecraft.server.level.ServerPlayer player : server.getPlayerList().getPlayers()) {
+                com.example.modmenu.network.PacketHandler.sendToPlayer(new com.example.modmenu.network.UpdateItemPricesPacket(buy, sell), player);
+            }
+            return buy.size();
+        }, server);
+    }
+
+    public static boolean isPricing() {
+        return pricingEngine.isRunning();
+    }
 
-        pricingEngine.computeAllPrices(level);
-        Map<String, BigDecimal> newPrices = pricingEngine.getPrices();
+    public static float getPricingProgress() {
+        return pricingEngine.getProgress();
+    }
 
+    private static void publishPrices(Map<String, BigDecimal> newPrices) {
         // Keep edited prices
         Map<String, BigDecimal> savedEditedBuy = new HashMap<>();
         Map<String, BigDecimal> savedEditedSell = new HashMap<>();
@@ -0,0 +1,144 @@
+package com.example.modmenu.store.logistics;
+
+import com.example.modmenu.Config;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Results of {@link LogisticsUtil#canPlayerAccess}, per player, dimension and block position.
+ * The check posts a synthetic interact event to every protection mod, so answers are reused for
+ * {@link Config#logisticsAccessCacheTicks} ticks. Breaking or placing a block, unloading its chunk or level, and the
+ * player logging out drop the affected answers early; claim changes that fire no event are picked up on expiry.
+ */
+@Mod.EventBusSubscriber(modid = "modmenu")
+public class AccessCache {
+    private static final Map<ResourceKey<Level>, Long2ObjectMap<Long2ObjectMap<Map<UUID, Entry>>>> CACHE = new HashMap<>();
+
+    public static long hits = 0;
+    public static long misses = 0;
+    public static long expired = 0;
+    public static long invalidated = 0;
+
+    private record Entry(boolean allowed, long expiresAt) {}
+
+    /** Cached answer, or null if there is none that is still fresh. */
+    public static Boolean get(UUID player, ServerLevel level, BlockPos pos) {
+        Map<UUID, Entry> players = players(level.dimension(), pos, false);
+        Entry entry = players != null ? players.get(player) : null;
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (level.getServer().getTickCount() >= entry.expiresAt()) {
+            players.remove(player);
+            expired++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.allowed();
+    }
+
+    public static void put(UUID player, ServerLevel level, BlockPos pos, boolean allowed) {
+        if (Config.logisticsAccessCacheTicks <= 0) return;
+        long expiresAt = level.getServer().getTickCount() + Config.logisticsAccessCacheTicks;
+        players(level.dimension(), pos, true).put(player, new Entry(allowed, expiresAt));
+    }
+
+    private static Map<UUID, Entry> players(ResourceKey<Level> dim, BlockPos pos, boolean create) {
+        long chunkKey = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        if (!create) {
+            Long2ObjectMap<Long2ObjectMap<Map<UUID, Entry>>> chunks = CACHE.get(dim);
+            Long2ObjectMap<Map<UUID, Entry>> chunk = chunks != null ? chunks.get(chunkKey) : null;
+            return chunk != null ? chunk.get(pos.asLong()) : null;
+        }
+        return CACHE.computeIfAbsent(dim, k -> new Long2ObjectOpenHashMap<>())
+                .computeIfAbsent(chunkKey, k -> new Long2ObjectOpenHashMap<>())
+                .computeIfAbsent(pos.asLong(), k -> new HashMap<>(2));
+    }
+
+    /** Number of cached answers, including expired ones not yet evicted. */
+    public static int size() {
+        int size = 0;
+        for (Long2ObjectMap<Long2ObjectMap<Map<UUID, Entry>>> chunks : CACHE.values()) {
+            for (Long2ObjectMap<Map<UUID, Entry>> chunk : chunks.values()) {
+                for (Map<UUID, Entry> players : chunk.values()) size += players.size();
+            }
+        }
+        return size;
+    }
+
+    private static void invalidate(LevelAccessor level, BlockPos pos) {
+        if (CACHE.isEmpty() || !(level instanceof ServerLevel serverLevel)) return;
+        Long2ObjectMap<Long2ObjectMap<Map<UUID, Entry>>> chunks = CACHE.get(serverLevel.dimension());
+        if (chunks == null) return;
+        long chunkKey = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        Long2ObjectMap<Map<UUID, Entry>> chunk = chunks.get(chunkKey);
+        Map<UUID, Entry> players = chunk != null ? chunk.remove(pos.asLong()) : null;
+        if (players == null) return;
+        invalidated += players.size();
+        if (chunk.isEmpty()) chunks.remove(chunkKey);
+    }
+
+    @SubscribeEvent
+    public static void onBlockBreak(BlockEvent.BreakEvent event) {
+        invalidate(event.getLevel(), event.getPos());
+    }
+
+    @SubscribeEvent
+    public static void onBlockPlace(BlockEvent.EntityPlaceEvent event) {
+        invalidate(event.getLevel(), event.getPos());
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (!(event.getLevel() instanceof ServerLevel level)) return;
+        Long2ObjectMap<Long2ObjectMap<Map<UUID, Entry>>> chunks = CACHE.get(level.dimension());
+        Long2ObjectMap<Map<UUID, Entry>> chunk = chunks != null ? chunks.remove(event.getChunk().getPos().toLong()) : null;
+        if (chunk != null) {
+            for (Map<UUID, Entry> players : chunk.values()) invalidated += players.size();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        UUID player = event.getEntity().getUUID();
+        for (Long2ObjectMap<Long2ObjectMap<Map<UUID, Entry>>> chunks : CACHE.values()) {
+            chunks.values().removeIf(chunk -> {
+                chunk.values().removeIf(players -> {
+                    if (players.remove(player) != null) invalidated++;
+                    return players.isEmpty();
+                });
+                return chunk.isEmpty();
+            });
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) CACHE.remove(level.dimension());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        CACHE.clear();
+        hits = misses = expired = invalidated = 0;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.modmenu.store.logistics;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.ForgeCapabilities;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Long-lived cache of block capability handles used by logistics nodes.
+ * Entries are bucketed per dimension and chunk, keyed by packed block position, and hold the
+ * {@link LazyOptional} per capability and side. An entry is dropped when its block entity is removed,
+ * its chunk or level unloads, or any of its cached handles is invalidated.
+ */
+@Mod.EventBusSubscriber(modid = "modmenu")
+public class CapabilityCache {
+    private static final List<Capability<?>> CACHED_CAPS = List.of(ForgeCapabilities.ITEM_HANDLER, ForgeCapabilities.ENERGY, ForgeCapabilities.FLUID_HANDLER);
+    private static final int SIDE_SLOTS = 8; // 6 directions, unsided, and the handler found by searching all sides
+    private static final int UNSIDED = 6;
+    private static final int ANY_SIDE = 7;
+
+    private static final Map<ResourceKey<Level>, Long2ObjectMap<Long2ObjectMap<Entry>>> CACHE = new HashMap<>();
+
+    private static class Entry {
+        final BlockEntity blockEntity;
+        final LazyOptional<?>[] handles = new LazyOptional<?>[CACHED_CAPS.size() * SIDE_SLOTS];
+        // Slots known to have no handler; reset with the entry when any of its handles is invalidated
+        long absent;
+
+        Entry(BlockEntity blockEntity) {
+            this.blockEntity = blockEntity;
+        }
+    }
+
+    /**
+     * Resolves a capability of the block entity at {@code pos}, reusing a cached handle when it is still valid.
+     * When {@code searchAllSides} is set and the requested side has no handler, the other sides are probed.
+     * Handles are cached under the face they came from; the result of a search is also kept in its own slot, so
+     * a later lookup of the requested side alone does not see another face's handler.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T get(ServerLevel level, BlockPos pos, Capability<T> cap, Direction side, boolean searchAllSides) {
+        int capIndex = CACHED_CAPS.indexOf(cap);
+        if (capIndex < 0) {
+            BlockEntity be = level.getBlockEntity(pos);
+            return be != null ? be.getCapability(cap, side).orElse(null) : null;
+        }
+        int slot = slot(capIndex, side);
+        int anySlot = capIndex * SIDE_SLOTS + ANY_SIDE;
+
+        ResourceKey<Level> dimension = level.dimension();
+        long chunkKey = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        long posKey = pos.asLong();
+
+        Long2ObjectMap<Long2ObjectMap<Entry>> chunks = CACHE.computeIfAbsent(dimension, k -> new Long2ObjectOpenHashMap<>());
+        Long2ObjectMap<Entry> chunk = chunks.get(chunkKey);
+        Entry entry = chunk != null ? chunk.get(posKey) : null;
+
+        if (entry != null) {
+            if (entry.blockEntity.isRemoved()) {
+                remove(dimension, chunkKey, posKey, entry);
+                entry = null;
+            } else {
+                LazyOptional<?> cached = entry.handles[slot];
+                if (cached != null && cached.isPresent()) return ((LazyOptional<T>) cached).orElse(null);
+                if (searchAllSides && (entry.absent & (1L << slot)) != 0) {
+                    LazyOptional<?> any = entry.handles[anySlot];
+                    if (any != null && any.isPresent()) return ((LazyOptional<T>) any).orElse(null);
+                }
+            }
+        }
+
+        BlockEntity be = level.getBlockEntity(pos);
+        if (be == null) return null;
+        if (entry != null && entry.blockEntity != be) entry = null;
+
+        LazyOptional<T> optional = be.getCapability(cap, side);
+        if (optional.isPresent()) {
+            entry = entry(dimension, chunks, chunkKey, posKey, entry, be);
+            store(dimension, chunkKey, posKey, entry, slot, optional);
+            return optional.orElse(null);
+        }
+        if (!searchAllSides) return null;
+
+        // Fixed probe order, so the handler found does not depend on which absent side was asked for
+        for (Direction d : Direction.values()) {
+            if (d == side) continue;
+            optional = be.getCapability(cap, d);
+            if (!optional.isPresent()) continue;
+            entry = entry(dimension, chunks, chunkKey, posKey, entry, be);
+            entry.absent |= 1L << slot;
+            store(dimension, chunkKey, posKey, entry, slot(capIndex, d), optional);
+            store(dimension, chunkKey, posKey, entry, anySlot, optional);
+            return optional.orElse(null);
+        }
+        return null;
+    }
+
+    private static int slot(int capIndex, Direction side) {
+        return capIndex * SIDE_SLOTS + (side == null ? UNSIDED : side.ordinal());
+    }
+
+    private static Entry entry(ResourceKey<Level> dimension, Long2ObjectMap<Long2ObjectMap<Entry>> chunks, long chunkKey, long posKey, Entry entry, BlockEntity be) {
+        if (entry != null) return entry;
+        entry = new Entry(be);
+        chunks.computeIfAbsent(chunkKey, k -> new Long2ObjectOpenHashMap<>()).put(posKey, entry);
+        return entry;
+    }
+
+    /** Stores a handle, registering the invalidation listener only the first time the entry holds it. */
+    private static void store(ResourceKey<Level> dimension, long chunkKey, long posKey, Entry entry, int slot, LazyOptional<?> optional) {
+        boolean listening = false;
+        for (LazyOptional<?> handle : entry.handles) {
+            if (handle == optional) {
+                listening = true;
+                break;
+            }
+        }
+        entry.handles[slot] = optional;
+        if (!listening) optional.addListener(invalidated -> remove(dimension, chunkKey, posKey, entry));
+    }
+
+    private static void remove(ResourceKey<Level> dimension, long chunkKey, long posKey, Entry expected) {
+        Long2ObjectMap<Long2ObjectMap<Entry>> chunks = CACHE.get(dimension);
+        if (chunks == null) return;
+        Long2ObjectMap<Entry> chunk = chunks.get(chunkKey);
+        if (chunk == null || chunk.get(posKey) != expected) return;
+        chunk.remove(posKey);
+        if (chunk.isEmpty()) chunks.remove(chunkKey);
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (!(event.getLevel() instanceof ServerLevel level)) return;
+        Long2ObjectMap<Long2ObjectMap<Entry>> chunks = CACHE.get(level.dimension());
+        if (chunks != null) chunks.remove(event.getChunk().getPos().toLong());
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) CACHE.remove(level.dimension());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        CACHE.clear();
+    }
+}
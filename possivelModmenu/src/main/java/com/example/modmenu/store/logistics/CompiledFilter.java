@@ -0,0 +1,192 @@
+package com.example.modmenu.store.logistics;
+
+import it.unimi.dsi.fastutil.objects.Reference2BooleanOpenHashMap;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.ItemTags;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.common.ForgeHooks;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Pre-resolved form of a {@link LogisticsFilter}, obtained through {@link LogisticsFilter#compiled()}.
+ * Item ids and tags are resolved once; filters whose outcome depends only on the item (ID, TAG, item-level
+ * SEMANTIC checks) remember the answer per {@link Item}, so the slot loops pay a single map lookup per stack.
+ * NBT filters keep the sample flattened into key/value pairs. Compiled filters are dropped when tags reload.
+ *
+ * Filters with the same content share one instance (see {@link #of}), so per-tick memos can key on the compiled
+ * filter by identity and rules with equal filters still share their entries and the per-item answers.
+ */
+@Mod.EventBusSubscriber(modid = "modmenu")
+public class CompiledFilter {
+    private static final int MAX_INTERNED = 1024;
+    private static int generation = 0;
+    // Only touched from the thread ticking the networks; emptied lazily when the generation moves on
+    private static final Map<Key, CompiledFilter> interned = new HashMap<>();
+    private static int internedGeneration = 0;
+
+    private record Key(String matchType, List<String> values, CompoundTag nbtSample, boolean blacklist, boolean fuzzyNbt) {}
+
+    public final int builtGeneration;
+    private final String matchType;
+    private final boolean blacklist;
+    private final Set<Item> items = new HashSet<>();
+    private final List<Pattern> idPatterns = new ArrayList<>();
+    private final List<TagKey<Item>> tags = new ArrayList<>();
+    private final List<String> semantics = new ArrayList<>();
+    private final boolean itemOnly;
+    private final Reference2BooleanOpenHashMap<Item> memo = new Reference2BooleanOpenHashMap<>();
+    // NBT: null sample means "no tag at all"; otherwise every sample key must match the stack's tag.
+    // The exact mode always compared partially as well, so fuzzyNbt and exact share this path
+    private final boolean requireNoTag;
+    private final String[] nbtKeys;
+    private final Tag[] nbtValues;
+
+    public static int generation() {
+        return generation;
+    }
+
+    /** The shared compiled form of every filter with the same content as {@code filter}. */
+    static CompiledFilter of(LogisticsFilter filter) {
+        if (internedGeneration != generation || interned.size() >= MAX_INTERNED) {
+            interned.clear();
+            internedGeneration = generation;
+        }
+        Key key = new Key(filter.matchType != null ? filter.matchType : "ALL", new ArrayList<>(filter.matchValues),
+                filter.nbtSample != null ? filter.nbtSample.copy() : null, filter.blacklist, filter.fuzzyNbt);
+        return interned.computeIfAbsent(key, k -> new CompiledFilter(filter));
+    }
+
+    CompiledFilter(LogisticsFilter filter) {
+        this.builtGeneration = generation;
+        this.matchType = filter.matchType != null ? filter.matchType : "ALL";
+        this.blacklist = filter.blacklist;
+
+        for (String value : filter.matchValues) {
+            if (value == null || value.isEmpty()) continue;
+            switch (matchType) {
+                case "ID" -> {
+                    if (value.contains("*")) idPatterns.add(wildcard(value));
+                    else resolveItem(value);
+                }
+                case "NBT" -> resolveItem(value);
+                case "TAG" -> {
+                    ResourceLocation loc = exactLocation(value);
+                    if (loc != null) tags.add(ItemTags.create(loc));
+                }
+                case "SEMANTIC" -> semantics.add(value);
+            }
+        }
+        // IS_FUEL can depend on stack NBT and IS_DAMAGED always does; everything else is a property of the item
+        this.itemOnly = !matchType.equals("NBT") && !semantics.contains("IS_FUEL") && !semantics.contains("IS_DAMAGED");
+
+        CompoundTag sample = filter.nbtSample;
+        this.requireNoTag = sample == null;
+        if (sample != null) {
+            this.nbtKeys = sample.getAllKeys().toArray(new String[0]);
+            this.nbtValues = new Tag[nbtKeys.length];
+            for (int i = 0; i < nbtKeys.length; i++) nbtValues[i] = sample.get(nbtKeys[i]);
+        } else {
+            this.nbtKeys = new String[0];
+            this.nbtValues = new Tag[0];
+        }
+    }
+
+    public boolean test(ItemStack stack) {
+        if (matchType.equals("ALL")) return !blacklist;
+        if (itemOnly) {
+            Item item = stack.getItem();
+            if (memo.containsKey(item)) return memo.getBoolean(item);
+            boolean result = blacklist != matches(stack);
+            memo.put(item, result);
+            return result;
+        }
+        return blacklist != matches(stack);
+    }
+
+    private boolean matches(ItemStack stack) {
+        switch (matchType) {
+            case "ID" -> {
+                if (items.contains(stack.getItem())) return true;
+                if (idPatterns.isEmpty()) return false;
+                String itemId = ForgeRegistries.ITEMS.getKey(stack.getItem()).toString();
+                for (Pattern pattern : idPatterns) {
+                    if (pattern.matcher(itemId).matches()) return true;
+                }
+                return false;
+            }
+            case "TAG" -> {
+                for (TagKey<Item> tag : tags) {
+                    if (stack.is(tag)) return true;
+                }
+                return false;
+            }
+            case "NBT" -> {
+                return items.contains(stack.getItem()) && matchesNbt(stack);
+            }
+            case "SEMANTIC" -> {
+                for (String semantic : semantics) {
+                    boolean match = switch (semantic) {
+                        case "IS_FOOD" -> stack.getItem().isEdible();
+                        case "IS_FUEL" -> ForgeHooks.getBurnTime(stack, null) > 0;
+                        case "IS_ORE" -> stack.getTags().anyMatch(t -> t.location().toString().contains("ores"));
+                        case "IS_DAMAGED" -> stack.isDamaged();
+                        default -> false;
+                    };
+                    if (match) return true;
+                }
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesNbt(ItemStack stack) {
+        if (requireNoTag) return !stack.hasTag();
+        CompoundTag tag = stack.getTag();
+        if (tag == null) return false;
+        for (int i = 0; i < nbtKeys.length; i++) {
+            if (!NbtUtils.compareNbt(nbtValues[i], tag.get(nbtKeys[i]), true)) return false;
+        }
+        return true;
+    }
+
+    private void resolveItem(String id) {
+        ResourceLocation loc = exactLocation(id);
+        if (loc != null && ForgeRegistries.ITEMS.containsKey(loc)) items.add(ForgeRegistries.ITEMS.getValue(loc));
+    }
+
+    // Values were compared against the full "namespace:path" string, so "stone" must not resolve to minecraft:stone
+    private static ResourceLocation exactLocation(String value) {
+        ResourceLocation loc = ResourceLocation.tryParse(value);
+        return loc != null && loc.toString().equals(value) ? loc : null;
+    }
+
+    private static Pattern wildcard(String value) {
+        try {
+            return Pattern.compile(value.replace(".", "\\.").replace("*", ".*"));
+        } catch (Exception e) {
+            return Pattern.compile("INVALID_REGEX");
+        }
+    }
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        generation++;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.modmenu.store.logistics;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Order in which one rule evaluation offers its destinations to each source. The order is fixed once per evaluation,
+ * exactly like the single sort this replaces: BALANCED sorts by fill level (stable, so ties keep list order),
+ * ROUND_ROBIN rotates the list, everything else keeps list order. Every source walks that same order.
+ *
+ * A destination that took nothing while completely full is unlinked for the rest of the evaluation, unless it is
+ * itself drained as a source, so later sources only walk destinations that can still take something. Unlinked
+ * positions are skipped through a path-compressed "next live position" array, so a walk costs the number of live
+ * destinations rather than the length of the list.
+ */
+public class DestinationQueue {
+    private final List<NetworkNode> nodes;
+    private final ToDoubleFunction<NetworkNode> fullness;
+    private final int[] order; // Offer order, as positions in nodes
+    private final int[] positionOf; // Position in nodes -> position in order
+    private final int[] nextLive; // Union-find style: a live position points to itself, an unlinked one past itself
+    private final boolean[] excluded;
+    private Map<NetworkNode, Integer> indexOf;
+    private int cursor;
+    private int last = -1;
+
+    /**
+     * @param startIndex first destination for ROUND_ROBIN order; ignored when {@code balanced}
+     */
+    public DestinationQueue(List<NetworkNode> nodes, boolean balanced, int startIndex, ToDoubleFunction<NetworkNode> fullness) {
+        this.nodes = nodes;
+        this.fullness = fullness;
+        int n = nodes.size();
+        this.order = new int[n];
+        this.positionOf = new int[n];
+        this.nextLive = new int[n + 1];
+        this.excluded = new boolean[n];
+
+        if (balanced) {
+            double[] keys = new double[n];
+            Integer[] sorted = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = fullness.applyAsDouble(nodes.get(i));
+                sorted[i] = i;
+            }
+            Arrays.sort(sorted, (a, b) -> Double.compare(keys[a], keys[b]));
+            for (int k = 0; k < n; k++) order[k] = sorted[k];
+        } else {
+            int start = n > 0 ? Math.floorMod(startIndex, n) : 0;
+            for (int k = 0; k < n; k++) order[k] = (start + k) % n;
+        }
+        for (int k = 0; k < n; k++) positionOf[order[k]] = k;
+        for (int k = 0; k <= n; k++) nextLive[k] = k;
+    }
+
+    /** Starts the walk over the destinations for the next source. */
+    public void beginSource() {
+        cursor = find(0);
+        last = -1;
+    }
+
+    /** Next destination for the current source, or null once all were offered. */
+    public NetworkNode next() {
+        if (cursor >= order.length) return null;
+        int k = cursor;
+        cursor = find(k + 1);
+        last = order[k];
+        return nodes.get(last);
+    }
+
+    /** Position in the original list of the destination last returned by {@link #next()}. */
+    public int lastIndex() {
+        return last;
+    }
+
+    /** The last destination accepted nothing. */
+    public void rejected() {
+        if (last < 0 || excluded[last]) return;
+        if (fullness.applyAsDouble(nodes.get(last)) >= 1.0) {
+            excluded[last] = true;
+            int k = positionOf[last];
+            nextLive[k] = k + 1;
+        }
+    }
+
+    /** {@code source} was drained, so if it is also a destination it may have room again. */
+    public void sourceDone(NetworkNode source) {
+        if (indexOf == null) {
+            indexOf = new IdentityHashMap<>();
+            for (int i = 0; i < nodes.size(); i++) indexOf.put(nodes.get(i), i);
+        }
+        Integer i = indexOf.get(source);
+        if (i == null || !excluded[i]) return;
+        excluded[i] = false;
+        // Compressed links may jump over the position, so relink everything; this only happens for drained sources
+        for (int k = 0; k < order.length; k++) nextLive[k] = excluded[order[k]] ? k + 1 : k;
+    }
+
+    private int find(int k) {
+        int root = k;
+        while (nextLive[root] != root) root = nextLive[root];
+        while (nextLive[k] != root) {
+            int next = nextLive[k];
+            nextLive[k] = root;
+            k = next;
+        }
+        return root;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.modmenu.store.logistics;
+
+import com.example.modmenu.network.PacketHandler;
+import com.example.modmenu.network.SyncInventoryPagePacket;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Combined contents of a node group as shown in the network manager, sent to the client a page at a time.
+ * Stacks are merged by item and NBT into one entry with a long total and sorted largest first. Page 0 scans the
+ * member nodes again and the result is kept per player and view, so further pages requested while scrolling come
+ * from the same snapshot without touching the inventories. A view is one screen on the client, so a picker and a
+ * preview of the same group page independently.
+ */
+@Mod.EventBusSubscriber(modid = "modmenu")
+public class InventoryView {
+    public static final int PAGE_SIZE = 81;
+    private static final int MAX_VIEWS = 4; // Per player; the oldest is dropped beyond this
+
+    private static final Map<UUID, Map<UUID, View>> VIEWS = new HashMap<>();
+
+    private record Key(Item item, CompoundTag tag) {}
+
+    private static final class Entry {
+        final ItemStack type;
+        final String id;
+        long total;
+
+        Entry(ItemStack type) {
+            this.type = type;
+            this.id = String.valueOf(ForgeRegistries.ITEMS.getKey(type.getItem()));
+        }
+    }
+
+    private record View(UUID targetId, List<Entry> entries) {}
+
+    /**
+     * Sends one page of {@code viewId}. Only page 0 starts a snapshot; a later page is only answered from a view the
+     * player already has for the same group, and ignored otherwise. Pages past the end come back empty.
+     */
+    public static void sendPage(ServerPlayer player, NetworkData network, NodeGroup group, UUID viewId, int page) {
+        if (viewId == null) return;
+        Map<UUID, View> views = VIEWS.computeIfAbsent(player.getUUID(), k -> new LinkedHashMap<>());
+        View view = views.get(viewId);
+        if (page > 0 && (view == null || !view.targetId().equals(group.groupId))) return;
+        if (page <= 0) {
+            page = 0;
+            view = new View(group.groupId, aggregate(player, network, group));
+            views.remove(viewId);
+            if (views.size() >= MAX_VIEWS) views.remove(views.keySet().iterator().next());
+            views.put(viewId, view);
+        }
+
+        int total = view.entries().size();
+        // The page comes from the client; clamped before multiplying so it cannot overflow
+        page = Math.min(page, (total + PAGE_SIZE - 1) / PAGE_SIZE);
+        int from = Math.min(page * PAGE_SIZE, total);
+        int to = Math.min(from + PAGE_SIZE, total);
+        List<ItemStack> items = new ArrayList<>(to - from);
+        long[] counts = new long[to - from];
+        for (int i = from; i < to; i++) {
+            Entry e = view.entries().get(i);
+            items.add(e.type);
+            counts[i - from] = e.total;
+        }
+        PacketHandler.sendToPlayer(new SyncInventoryPagePacket(viewId, group.groupId, page, total, items, counts), player);
+    }
+
+    private static List<Entry> aggregate(ServerPlayer player, NetworkData network, NodeGroup group) {
+        Map<Key, Entry> combined = new HashMap<>();
+        for (UUID id : group.nodeIds) {
+            NetworkNode node = LogisticsUtil.findNode(network, id);
+            if (node == null) continue;
+            LogisticsUtil.forEachItemInNode(player, node, stack -> {
+                Entry entry = combined.get(new Key(stack.getItem(), stack.getTag()));
+                if (entry == null) {
+                    // The key must not share the live stack's tag
+                    ItemStack type = stack.copyWithCount(1);
+                    entry = new Entry(type);
+                    combined.put(new Key(type.getItem(), type.getTag()), entry);
+                }
+                entry.total += stack.getCount();
+            });
+        }
+        List<Entry> entries = new ArrayList<>(combined.values());
+        entries.sort((a, b) -> a.total != b.total ? Long.compare(b.total, a.total) : a.id.compareTo(b.id));
+        return entries;
+    }
+
+    /**
+     * Client side of one view: collects its pages in order, dropping stale or repeated ones, and says which page to
+     * ask for next.
+     */
+    public static final class Pages {
+        public final UUID viewId = UUID.randomUUID();
+        private final List<ItemStack> items = new ArrayList<>();
+        private UUID targetId;
+        private int totalEntries = 0;
+        private int requestedPage = 0;
+
+        /** Forgets what was loaded; page 0 for {@code targetId} (null for none) is what gets accepted next. */
+        public void reset(UUID targetId) {
+            this.targetId = targetId;
+            items.clear();
+            totalEntries = 0;
+            requestedPage = 0;
+        }
+
+        /** Adds a received page. Returns false if it does not belong to this view or is not the next page. */
+        public boolean accept(UUID viewId, UUID targetId, int page, int totalEntries, List<ItemStack> pageItems) {
+            if (!this.viewId.equals(viewId) || !targetId.equals(this.targetId)) return false;
+            if (page == 0) {
+                items.clear();
+                requestedPage = 0;
+            } else if (page * PAGE_SIZE != items.size()) {
+                return false;
+            }
+            this.totalEntries = totalEntries;
+            items.addAll(pageItems);
+            return true;
+        }
+
+        public List<ItemStack> items() {
+            return items;
+        }
+
+        /** The page to ask for next, or -1 if everything is loaded or that page was already asked for. */
+        public int nextPage() {
+            if (items.size() >= totalEntries) return -1;
+            int next = items.size() / PAGE_SIZE;
+            if (next <= requestedPage) return -1;
+            requestedPage = next;
+            return next;
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        VIEWS.remove(event.getEntity().getUUID());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        VIEWS.clear();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.modmenu.store.logistics;
+
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.items.IItemHandler;
+
+import java.util.List;
+
+/**
+ * Remembers which slots of a node's inventory hold items with a given capability (batteries, tanks), so ENERGY and
+ * FLUIDS rules with item scanning only query those. A slot is re-examined when the stack object in it or its count
+ * changes; item capabilities are attached when a stack is created, so an unchanged stack keeps its answer.
+ */
+public class ItemCapabilitySlots<T> {
+    private final Capability<T> capability;
+    private ItemStack[] seen = new ItemStack[0];
+    private int[] counts = new int[0];
+    private boolean[] bearing = new boolean[0];
+
+    public ItemCapabilitySlots(Capability<T> capability) {
+        this.capability = capability;
+    }
+
+    /**
+     * Adds the capability of every stack in {@code inv} that has one to {@code out}, in slot order.
+     */
+    public void collect(IItemHandler inv, List<? super T> out) {
+        int slots = inv.getSlots();
+        if (seen.length != slots) {
+            seen = new ItemStack[slots];
+            counts = new int[slots];
+            bearing = new boolean[slots];
+        }
+        for (int i = 0; i < slots; i++) {
+            ItemStack stack = inv.getStackInSlot(i);
+            if (stack != seen[i] || stack.getCount() != counts[i]) {
+                seen[i] = stack;
+                counts[i] = stack.getCount();
+                LazyOptional<T> cap = stack.isEmpty() ? LazyOptional.empty() : stack.getCapability(capability);
+                bearing[i] = cap.isPresent();
+                cap.ifPresent(out::add);
+            } else if (bearing[i]) {
+                stack.getCapability(capability).ifPresent(out::add);
+            }
+        }
+    }
+}
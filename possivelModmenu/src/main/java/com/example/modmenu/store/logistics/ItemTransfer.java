@@ -0,0 +1,147 @@
+package com.example.modmenu.store.logistics;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemHandlerHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Moves items between two handlers for one item rule invocation with as few capability calls as possible.
+ * Source slots are read once and grouped by item. Each group then walks the destination slots, those already
+ * holding the item first and empty ones after, with one simulated insert per slot; whatever that promises is pulled
+ * from as many source slots as needed and inserted with one real call. A destination slot that turned out full is
+ * not asked again for the rest of the invocation.
+ *
+ * Handlers that do not honour their simulation never void items: a rejected remainder goes back into the source,
+ * and into the network buffer if the source will not take it either.
+ */
+public final class ItemTransfer {
+    public interface Listener {
+        void moved(ItemStack type, int count);
+    }
+
+    private static final class Group {
+        final ItemStack type;
+        final IntArrayList slots = new IntArrayList(4);
+        final IntArrayList counts = new IntArrayList(4);
+        int available = 0;
+
+        Group(ItemStack type) {
+            this.type = type;
+        }
+    }
+
+    private ItemTransfer() {}
+
+    /**
+     * Moves up to {@code limit} items matching {@code filter} from {@code sourceSlots} into {@code destSlots}.
+     * Returns the number moved; {@code listener} is told the amount per item type.
+     */
+    public static int run(IItemHandler source, int[] sourceSlots, IItemHandler dest, int[] destSlots, Predicate<ItemStack> filter,
+                          int limit, VirtualItemBuffer spill, Listener listener) {
+        List<Group> groups = new ArrayList<>();
+        for (int slot : sourceSlots) {
+            ItemStack stack = source.getStackInSlot(slot);
+            if (stack.isEmpty() || !filter.test(stack)) continue;
+            Group group = null;
+            for (Group g : groups) {
+                if (ItemHandlerHelper.canItemStacksStack(g.type, stack)) {
+                    group = g;
+                    break;
+                }
+            }
+            if (group == null) {
+                group = new Group(stack.copyWithCount(1));
+                groups.add(group);
+            }
+            group.slots.add(slot);
+            group.counts.add(stack.getCount());
+            group.available += stack.getCount();
+        }
+        if (groups.isEmpty() || destSlots.length == 0) return 0;
+
+        ItemStack[] destStacks = new ItemStack[destSlots.length];
+        boolean[] full = new boolean[destSlots.length];
+        for (int d = 0; d < destSlots.length; d++) destStacks[d] = dest.getStackInSlot(destSlots[d]);
+
+        int moved = 0;
+        for (Group group : groups) {
+            if (moved >= limit) break;
+            int want = Math.min(group.available, limit - moved);
+            int groupMoved = 0;
+            passes:
+            for (int pass = 0; pass < 2; pass++) {
+                for (int d = 0; d < destSlots.length; d++) {
+                    if (groupMoved >= want) break passes;
+                    if (full[d]) continue;
+                    ItemStack existing = destStacks[d];
+                    boolean stacking = !existing.isEmpty();
+                    if (pass == 0 ? !stacking || !ItemHandlerHelper.canItemStacksStack(existing, group.type) : stacking) continue;
+
+                    int remaining = want - groupMoved;
+                    ItemStack simulated = dest.insertItem(destSlots[d], group.type.copyWithCount(remaining), true);
+                    int accept = remaining - simulated.getCount();
+                    if (accept <= 0) {
+                        // Empty slots may only reject this item (filtered slots), so only stacked ones are closed
+                        if (stacking) full[d] = true;
+                        continue;
+                    }
+
+                    ItemStack pulled = pull(source, group, accept, spill);
+                    if (pulled.isEmpty()) break passes;
+                    int got = pulled.getCount();
+                    ItemStack rest = dest.insertItem(destSlots[d], pulled, false);
+                    if (!rest.isEmpty()) {
+                        full[d] = true;
+                        giveBack(source, group, rest, spill);
+                    }
+                    groupMoved += got - rest.getCount();
+                    destStacks[d] = dest.getStackInSlot(destSlots[d]);
+                    if (got < accept) break passes; // Source ran dry
+                }
+            }
+            if (groupMoved > 0) {
+                moved += groupMoved;
+                listener.moved(group.type, groupMoved);
+            }
+        }
+        return moved;
+    }
+
+    private static ItemStack pull(IItemHandler source, Group group, int amount, VirtualItemBuffer spill) {
+        ItemStack result = ItemStack.EMPTY;
+        for (int i = 0; i < group.slots.size() && amount > 0; i++) {
+            int count = group.counts.getInt(i);
+            if (count <= 0) continue;
+            int slot = group.slots.getInt(i);
+            int request = Math.min(amount, count);
+            ItemStack extracted = source.extractItem(slot, request, false);
+            group.counts.set(i, extracted.getCount() < request ? 0 : count - extracted.getCount());
+            if (extracted.isEmpty()) continue;
+            if (!ItemHandlerHelper.canItemStacksStack(extracted, group.type)) {
+                // The slot changed under us; return what came out
+                ItemStack rest = source.insertItem(slot, extracted, false);
+                if (!rest.isEmpty()) spill.add(rest, rest.getCount());
+                group.counts.set(i, 0);
+                continue;
+            }
+            if (result.isEmpty()) result = extracted;
+            else result.grow(extracted.getCount());
+            amount -= extracted.getCount();
+        }
+        group.available -= result.getCount();
+        return result;
+    }
+
+    private static void giveBack(IItemHandler source, Group group, ItemStack rest, VirtualItemBuffer spill) {
+        for (int i = 0; i < group.slots.size() && !rest.isEmpty(); i++) {
+            rest = source.insertItem(group.slots.getInt(i), rest, false);
+        }
+        if (!rest.isEmpty()) rest = ItemHandlerHelper.insertItem(source, rest, false);
+        if (!rest.isEmpty()) spill.add(rest, rest.getCount());
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.modmenu.store.logistics;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.nbt.CompoundTag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Register-machine form of a rule's conditions or of its SET_VARIABLE / MATH action.
+ * Operator strings are turned into opcodes, variable names into {@link NetworkVariables} slots and condition
+ * targets into resolved node lists when the owning {@link RulePlan} is compiled. Identical resource queries in
+ * one program share a register, so each is counted at most once per evaluation. Running a program allocates nothing.
+ */
+public class LogicProgram {
+    public interface Host {
+        long count(Query query);
+
+        void variableChanged(String name);
+    }
+
+    /** Sum of one resource over a fixed set of nodes. */
+    public static final class Query {
+        public final List<NetworkNode> nodes;
+        public final RulePlan.ResourceType type;
+        public final LogisticsFilter filter;
+
+        Query(List<NetworkNode> nodes, RulePlan.ResourceType type, LogisticsFilter filter) {
+            this.nodes = nodes;
+            this.type = type;
+            this.filter = filter;
+        }
+    }
+
+    // Each instruction is four ints: opcode, a, b, c
+    private static final int LOAD_VAR = 0;   // r[a] = var[b]
+    private static final int COUNT = 1;      // r[a] = count(queries[b])
+    private static final int REQUIRE_LT = 2; // stop with false unless r[a] < r[b]
+    private static final int REQUIRE_GT = 3;
+    private static final int REQUIRE_EQ = 4;
+    private static final int FAIL = 5;
+    private static final int MOV = 6;        // r[a] = r[b]
+    private static final int ADD = 7;        // r[a] = r[b] + r[c]
+    private static final int SUB = 8;
+    private static final int MUL = 9;
+    private static final int DIV = 10;       // r[a] = r[c] != 0 ? r[b] / r[c] : 0
+    private static final int STORE = 11;     // var[a] = r[b]
+
+    private final NetworkVariables variables;
+    private final int[] code;
+    private final double[] registers;
+    private final Query[] queries;
+
+    /** Value written by the last STORE of the most recent run. */
+    public double result;
+
+    private LogicProgram(Compiler c) {
+        this.variables = c.variables;
+        this.code = c.code.toIntArray();
+        this.registers = c.registers.toDoubleArray();
+        this.queries = c.queries.toArray(new Query[0]);
+    }
+
+    /**
+     * Runs the program; returns false as soon as a condition fails.
+     */
+    public boolean run(Host host) {
+        int[] c = code;
+        double[] r = registers;
+        for (int pc = 0; pc < c.length; pc += 4) {
+            int a = c[pc + 1];
+            int b = c[pc + 2];
+            switch (c[pc]) {
+                case LOAD_VAR -> r[a] = variables.get(b);
+                case COUNT -> r[a] = host.count(queries[b]);
+                case REQUIRE_LT -> {
+                    if (!(r[a] < r[b])) return false;
+                }
+                case REQUIRE_GT -> {
+                    if (!(r[a] > r[b])) return false;
+                }
+                case REQUIRE_EQ -> {
+                    if (!(Math.abs(r[a] - r[b]) < 0.001)) return false;
+                }
+                case FAIL -> {
+                    return false;
+                }
+                case MOV -> r[a] = r[b];
+                case ADD -> r[a] = r[b] + r[c[pc + 3]];
+                case SUB -> r[a] = r[b] - r[c[pc + 3]];
+                case MUL -> r[a] = r[b] * r[c[pc + 3]];
+                case DIV -> r[a] = r[c[pc + 3]] != 0 ? r[b] / r[c[pc + 3]] : 0;
+                case STORE -> {
+                    result = r[b];
+                    if (variables.set(a, r[b])) host.variableChanged(variables.name(a));
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compiles a rule's condition list, or returns null if it has none.
+     */
+    public static LogicProgram conditions(NetworkData network, List<LogicCondition> conditions) {
+        if (conditions.isEmpty()) return null;
+        Compiler c = new Compiler(network);
+        for (LogicCondition cond : conditions) {
+            int current;
+            if ("VARIABLE".equals(cond.type)) {
+                current = c.loadVar(cond.variableName);
+            } else {
+                List<NetworkNode> nodes = new ArrayList<>();
+                if (cond.isGroup) {
+                    NodeGroup group = network.index().group(cond.targetId);
+                    if (group != null) {
+                        for (UUID id : group.nodeIds) {
+                            NetworkNode n = LogisticsUtil.findNode(network, id);
+                            if (n != null) nodes.add(n);
+                        }
+                    }
+                } else {
+                    NetworkNode n = LogisticsUtil.findNode(network, cond.targetId);
+                    if (n != null) nodes.add(n);
+                }
+                RulePlan.ResourceType type = RulePlan.ResourceType.parse(cond.type);
+                current = c.count(Arrays.asList(cond.targetId, cond.isGroup), nodes, type, cond.filter);
+            }
+            int threshold = cond.compareToVariable ? c.loadVar(cond.compareVariableName) : c.constant(cond.value);
+            switch (cond.operator) {
+                case "LESS" -> c.emit(REQUIRE_LT, current, threshold, 0);
+                case "GREATER" -> c.emit(REQUIRE_GT, current, threshold, 0);
+                case "EQUAL" -> c.emit(REQUIRE_EQ, current, threshold, 0);
+                default -> c.emit(FAIL, 0, 0, 0);
+            }
+        }
+        return new LogicProgram(c);
+    }
+
+    /**
+     * Compiles the SET_VARIABLE or MATH action of a rule, or returns null for transfer actions.
+     */
+    public static LogicProgram action(NetworkData network, LogisticsRule rule, RulePlan.Action action, RulePlan.ResourceType type) {
+        Compiler c = new Compiler(network);
+        int value;
+        if (action == RulePlan.Action.SET_VARIABLE) {
+            if (rule.sourceNodeId != null) {
+                NetworkNode src = LogisticsUtil.findNode(network, rule.sourceNodeId);
+                value = src != null
+                        ? c.count(Arrays.asList(rule.sourceNodeId, false), List.of(src), type, rule.filter)
+                        : c.constant(0);
+            } else {
+                value = c.constant(rule.constantValue);
+            }
+        } else if (action == RulePlan.Action.MATH) {
+            int v1 = c.loadVar(rule.variableName);
+            int v2 = rule.secondaryVariableName != null && !rule.secondaryVariableName.isEmpty()
+                    ? c.loadVar(rule.secondaryVariableName)
+                    : c.constant(rule.constantValue);
+            value = c.register();
+            switch (rule.variableOp) {
+                case "ADD" -> c.emit(ADD, value, v1, v2);
+                case "SUB" -> c.emit(SUB, value, v1, v2);
+                case "MUL" -> c.emit(MUL, value, v1, v2);
+                case "DIV" -> c.emit(DIV, value, v1, v2);
+                default -> c.emit(MOV, value, v2, 0); // SET
+            }
+        } else {
+            return null;
+        }
+        c.emit(STORE, network.variables.slot(rule.variableName), value, 0);
+        return new LogicProgram(c);
+    }
+
+    private static final class Compiler {
+        final NetworkVariables variables;
+        final IntArrayList code = new IntArrayList();
+        final DoubleArrayList registers = new DoubleArrayList();
+        final List<Query> queries = new ArrayList<>();
+        final Map<List<Object>, Integer> queryRegisters = new HashMap<>();
+
+        Compiler(NetworkData network) {
+            this.variables = network.variables;
+        }
+
+        void emit(int op, int a, int b, int c) {
+            code.add(op);
+            code.add(a);
+            code.add(b);
+            code.add(c);
+        }
+
+        int register() {
+            registers.add(0);
+            return registers.size() - 1;
+        }
+
+        int constant(double value) {
+            registers.add(value);
+            return registers.size() - 1;
+        }
+
+        int loadVar(String name) {
+            int r = register();
+            emit(LOAD_VAR, r, variables.slot(name), 0);
+            return r;
+        }
+
+        int count(List<Object> target, List<NetworkNode> nodes, RulePlan.ResourceType type, LogisticsFilter filter) {
+            if (nodes.isEmpty()) return constant(0);
+            CompoundTag filterTag = null;
+            if (type == RulePlan.ResourceType.ITEMS && filter != null) {
+                filterTag = new CompoundTag();
+                filter.saveNBT(filterTag);
+            }
+            List<Object> key = Arrays.asList(target, type, filterTag);
+            Integer existing = queryRegisters.get(key);
+            if (existing != null) return existing;
+            int r = register();
+            queries.add(new Query(Collections.unmodifiableList(nodes), type, filter));
+            emit(COUNT, r, queries.size() - 1, 0);
+            queryRegisters.put(key, r);
+            return r;
+        }
+    }
+}
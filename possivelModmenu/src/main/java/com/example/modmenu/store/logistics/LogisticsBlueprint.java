@@ -43,6 +43,8 @@ public class LogisticsBlueprint {
             .registerTypeAdapter(net.minecraft.world.item.ItemStack.class, new com.example.modmenu.store.GsonAdapters.ItemStackAdapter())
             .registerTypeAdapter(net.minecraft.nbt.CompoundTag.class, new com.example.modmenu.store.GsonAdapters.CompoundTagAdapter())
             .registerTypeAdapter(net.minecraftforge.fluids.FluidStack.class, new com.example.modmenu.store.GsonAdapters.FluidStackAdapter())
+            .registerTypeAdapter(VirtualItemBuffer.class, new com.example.modmenu.store.GsonAdapters.VirtualItemBufferAdapter())
+            .registerTypeAdapter(VirtualFluidBuffer.class, new com.example.modmenu.store.GsonAdapters.VirtualFluidBufferAdapter())
             .create();
 
     public String serialize() {
@@ -11,17 +11,15 @@ public class LogisticsFilter {
     public CompoundTag nbtSample;
     public boolean blacklist = false;
     public boolean fuzzyNbt = false;
-    private transient java.util.Map<String, java.util.regex.Pattern> patternCache = new java.util.HashMap<>();
+    private transient CompiledFilter compiled;
 
-    public java.util.regex.Pattern getOrCreatePattern(String regexStr) {
-        if (patternCache == null) patternCache = new java.util.HashMap<>();
-        return patternCache.computeIfAbsent(regexStr, r -> {
-            try {
-                return java.util.regex.Pattern.compile(r.replace(".", "\\.").replace("*", ".*"));
-            } catch (Exception e) {
-                return java.util.regex.Pattern.compile("INVALID_REGEX");
-            }
-        });
+    /**
+     * Compiled matcher for this filter. Filters are replaced, never edited in place, when a rule is updated,
+     * so the cached form only has to be rebuilt after a tag reload. Equal filters get the same instance.
+     */
+    public CompiledFilter compiled() {
+        if (compiled == null || compiled.builtGeneration != CompiledFilter.generation()) compiled = CompiledFilter.of(this);
+        return compiled;
     }
 
     public LogisticsFilter snapshot() {
@@ -0,0 +1,72 @@
+package com.example.modmenu.store.logistics;
+
+import com.example.modmenu.Config;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wall-clock fair-share scheduler for logistics networks.
+ * Every server tick gets a fixed time slice (see {@link Config#logisticsTickSliceMicros}). The slice is split
+ * evenly between players and then between each player's active networks. Each network accumulates its share
+ * as credit and pays back the nanoseconds it actually spent, so expensive networks run less often instead of
+ * stretching the tick, and unused credit carries over (capped) to later ticks. The visiting order rotates
+ * every tick so no player or network is always served first or last.
+ */
+public class LogisticsScheduler {
+    private static int cursor = 0;
+
+    public record Task(ServerPlayer player, NetworkData network) {}
+
+    @FunctionalInterface
+    public interface NetworkRunner {
+        void run(ServerPlayer player, NetworkData network, long deadlineNanos);
+    }
+
+    /**
+     * @param tasksByPlayer active networks, one inner list per player
+     */
+    public static void run(List<List<Task>> tasksByPlayer, NetworkRunner runner) {
+        int players = 0;
+        for (List<Task> tasks : tasksByPlayer) if (!tasks.isEmpty()) players++;
+        if (players == 0) return;
+
+        long slice = Config.logisticsTickSliceMicros * 1000L;
+        long maxCredit = slice * Math.max(1, Config.logisticsMaxCreditSlices);
+        long playerShare = slice / players;
+
+        List<Task> order = new ArrayList<>();
+        for (List<Task> tasks : tasksByPlayer) {
+            if (tasks.isEmpty()) continue;
+            long quantum = Math.max(1, playerShare / tasks.size());
+            for (Task task : tasks) {
+                NetworkData network = task.network();
+                network.schedulerCreditNanos = Math.min(network.schedulerCreditNanos + quantum, maxCredit);
+                order.add(task);
+            }
+        }
+
+        int size = order.size();
+        int start = cursor % size;
+        cursor = (start + 1) % size;
+
+        long tickDeadline = System.nanoTime() + slice;
+        for (int i = 0; i < size; i++) {
+            long now = System.nanoTime();
+            if (now >= tickDeadline) break;
+
+            Task task = order.get((start + i) % size);
+            NetworkData network = task.network();
+            if (network.schedulerCreditNanos <= 0) continue;
+
+            long deadline = Math.min(tickDeadline, now + network.schedulerCreditNanos);
+            runner.run(task.player(), network, deadline);
+
+            long spent = System.nanoTime() - now;
+            // Debt is floored so a one-off spike (e.g. a chunk loading mid-transfer) cannot park a network for minutes
+            network.schedulerCreditNanos = Math.max(network.schedulerCreditNanos - spent, -maxCredit);
+            network.lastTickNanos = spent;
+        }
+    }
+}
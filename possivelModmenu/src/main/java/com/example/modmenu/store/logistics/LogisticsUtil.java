@@ -1,7 +1,6 @@
 package com.example.modmenu.store.logistics;
 
-import com.example.modmenu.network.PacketHandler;
-import com.example.modmenu.network.SyncNetworksPacket;
+import com.example.modmenu.network.NetworkSync;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.server.level.ServerLevel;
@@ -26,7 +25,15 @@ public class LogisticsUtil {
     public static boolean canPlayerAccess(ServerPlayer player, ServerLevel level, BlockPos pos) {
         if (level == null || pos == null) return false;
         if (!level.hasChunkAt(pos)) return false;
-        
+
+        Boolean cached = AccessCache.get(player.getUUID(), level, pos);
+        if (cached != null) return cached;
+        boolean allowed = checkAccess(player, level, pos);
+        AccessCache.put(player.getUUID(), level, pos, allowed);
+        return allowed;
+    }
+
+    private static boolean checkAccess(ServerPlayer player, ServerLevel level, BlockPos pos) {
         IS_PERMISSION_CHECK.set(true);
         try {
             // Ownership check: use mayInteract and fire a dummy interact event for protection mods
@@ -62,7 +69,7 @@ public class LogisticsUtil {
     }
 
     public static void syncAndNotify(ServerPlayer player, PlayerNetworkData data) {
-        PacketHandler.sendToPlayer(new SyncNetworksPacket(data.getNetworks(), data.viewedNetworkId), player);
+        NetworkSync.sync(player, data);
     }
 
     public static LogisticsRule readRule(net.minecraft.network.FriendlyByteBuf buf) {
@@ -201,6 +208,15 @@ public class LogisticsUtil {
 
     public static java.util.List<net.minecraft.world.item.ItemStack> getItemsFromNode(ServerPlayer player, NetworkNode node) {
         java.util.List<net.minecraft.world.item.ItemStack> items = new java.util.ArrayList<>();
+        forEachItemInNode(player, node, s -> items.add(s.copy()));
+        return items;
+    }
+
+    /**
+     * Visits every non-empty stack the player can see in the node. The stacks are the live ones; callers must copy
+     * anything they keep.
+     */
+    public static void forEachItemInNode(ServerPlayer player, NetworkNode node, java.util.function.Consumer<net.minecraft.world.item.ItemStack> visitor) {
         if (node.nodeType.equals("BLOCK")) {
             if (node.pos != null && node.dimension != null) {
                 net.minecraft.resources.ResourceLocation dimLoc = net.minecraft.resources.ResourceLocation.tryParse(node.dimension);
@@ -212,7 +228,7 @@ public class LogisticsUtil {
                             be.getCapability(net.minecraftforge.common.capabilities.ForgeCapabilities.ITEM_HANDLER).ifPresent(handler -> {
                                 for (int i = 0; i < handler.getSlots(); i++) {
                                     net.minecraft.world.item.ItemStack s = handler.getStackInSlot(i);
-                                    if (!s.isEmpty()) items.add(s.copy());
+                                    if (!s.isEmpty()) visitor.accept(s);
                                 }
                             });
                         }
@@ -222,27 +238,22 @@ public class LogisticsUtil {
         } else if (node.nodeType.equals("PLAYER")) {
             for (int i = 0; i < player.getInventory().getContainerSize(); i++) {
                 net.minecraft.world.item.ItemStack s = player.getInventory().getItem(i);
-                if (!s.isEmpty()) items.add(s.copy());
+                if (!s.isEmpty()) visitor.accept(s);
             }
         } else if (node.nodeType.equals("CHAMBER")) {
             com.example.modmenu.store.StorePriceManager.SkillData skillData = com.example.modmenu.store.StorePriceManager.getSkills(player.getUUID());
             if (node.chamberIndex >= 0 && node.chamberIndex < skillData.chambers.size()) {
                 com.example.modmenu.store.StorePriceManager.ChamberData chamber = skillData.chambers.get(node.chamberIndex);
                 for (net.minecraft.world.item.ItemStack s : chamber.storedLoot) {
-                    if (!s.isEmpty()) items.add(s.copy());
+                    if (!s.isEmpty()) visitor.accept(s);
                 }
             }
         }
-        return items;
     }
 
     public static NetworkNode findNode(NetworkData network, java.util.UUID nodeId) {
         if (network == null || nodeId == null) return null;
-        if (network.nodeMap != null) return network.nodeMap.get(nodeId);
-        for (NetworkNode node : network.nodes) {
-            if (node.nodeId.equals(nodeId)) return node;
-        }
-        return null;
+        return network.index().node(nodeId);
     }
 
     public static boolean isPermanent(NetworkData network, java.util.UUID id, boolean isGroup) {
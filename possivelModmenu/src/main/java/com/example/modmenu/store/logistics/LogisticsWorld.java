@@ -0,0 +1,42 @@
+package com.example.modmenu.store.logistics;
+
+import net.minecraft.core.Direction;
+import net.minecraftforge.energy.IEnergyStorage;
+import net.minecraftforge.fluids.capability.IFluidHandler;
+import net.minecraftforge.items.IItemHandler;
+
+import java.util.UUID;
+
+/**
+ * Everything the logistics tick needs from the game, seen from one network owner.
+ * Rule evaluation, filtering, distribution and the virtual buffers only talk to the world through this interface;
+ * {@link ServerLogisticsWorld} backs it with a running server, while benchmarks back it with in-memory inventories.
+ * Methods return null when an endpoint is unavailable (unloaded chunk, no access, no capability).
+ */
+public interface LogisticsWorld {
+    long gameTime();
+
+    UUID ownerId();
+
+    /** Another network of the same owner, for SUB_NETWORK nodes. */
+    NetworkData findNetwork(UUID networkId);
+
+    IItemHandler blockItems(NetworkNode node, Direction side);
+
+    IFluidHandler blockFluids(NetworkNode node, Direction side, boolean searchAllSides);
+
+    IEnergyStorage blockEnergy(NetworkNode node, Direction side, boolean searchAllSides);
+
+    IItemHandler playerInventory();
+
+    IItemHandler chamber(NetworkNode node, boolean isSource);
+
+    /** Sell-only sink; never a source. */
+    IItemHandler market();
+
+    /** Whether a BLOCK node's block is gone or unreachable. */
+    boolean isMissing(NetworkNode node);
+
+    /** Whether a BLOCK node's chunk and dimension are loaded. */
+    boolean isLoaded(NetworkNode node);
+}
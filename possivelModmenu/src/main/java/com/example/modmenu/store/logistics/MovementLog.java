@@ -0,0 +1,354 @@
+package com.example.modmenu.store.logistics;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.level.material.Fluid;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Flight recorder of a network's most recent transfers, plus per-rule and per-node throughput.
+ * Records live in a fixed ring of primitive columns; the moved resource is stored as an index into a small
+ * dictionary of ids and display names, filled once per item or fluid, so recording a transfer allocates nothing.
+ * Throughput is counted in one-second buckets as transfers happen and reported as the last full second, in the
+ * units of what was moved (items, FE or mB).
+ */
+public class MovementLog {
+    public static final int CAPACITY = 50;
+    private static final int MAX_DICTIONARY = CAPACITY * 4;
+    private static final int MAX_TRACKED_RATES = 512;
+    private static final RulePlan.ResourceType[] TYPES = RulePlan.ResourceType.values();
+    private static final UUID NONE = new UUID(0, 0);
+
+    private final long[] timestamps = new long[CAPACITY];
+    private final int[] resources = new int[CAPACITY];
+    private final int[] counts = new int[CAPACITY];
+    private final byte[] types = new byte[CAPACITY];
+    private final UUID[] sources = new UUID[CAPACITY];
+    private final UUID[] destinations = new UUID[CAPACITY];
+    private int head = 0; // Slot the next record goes to
+    private int size = 0;
+
+    private final List<String> ids = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private final Object2IntOpenHashMap<Object> interned = new Object2IntOpenHashMap<>(); // Item, Fluid, resource type or id
+
+    private final Map<UUID, Rate> ruleCounters = new HashMap<>();
+    private final Map<UUID, Rate> nodeCounters = new HashMap<>();
+
+    // Throughput per second as of the last sync; what the client reads
+    public final Map<UUID, Long> ruleRates = new HashMap<>();
+    public final Map<UUID, Long> nodeRates = new HashMap<>();
+
+    private static class Rate {
+        long second;
+        long current;
+        long previous;
+
+        void add(long nowSecond, long amount) {
+            roll(nowSecond);
+            current += amount;
+        }
+
+        long perSecond(long nowSecond) {
+            roll(nowSecond);
+            return previous;
+        }
+
+        private void roll(long nowSecond) {
+            if (nowSecond == second) return;
+            previous = nowSecond == second + 1 ? current : 0;
+            current = 0;
+            second = nowSecond;
+        }
+    }
+
+    public MovementLog() {
+        interned.defaultReturnValue(-1);
+    }
+
+    /**
+     * Records a transfer. {@code resource} is the moved {@link Item} or {@link Fluid}, or null for energy.
+     */
+    public void record(long timestamp, RulePlan.ResourceType type, Object resource, int count, UUID ruleId, UUID src, UUID dst) {
+        int slot = head;
+        timestamps[slot] = timestamp;
+        resources[slot] = intern(type, resource);
+        counts[slot] = count;
+        types[slot] = (byte) type.ordinal();
+        sources[slot] = src;
+        destinations[slot] = dst;
+        head = (head + 1) % CAPACITY;
+        if (size < CAPACITY) size++;
+
+        long second = timestamp / 1000;
+        count(ruleCounters, ruleId, second, count);
+        count(nodeCounters, src, second, count);
+        count(nodeCounters, dst, second, count);
+    }
+
+    private static void count(Map<UUID, Rate> counters, UUID id, long second, long amount) {
+        if (id == null) return;
+        Rate rate = counters.get(id);
+        if (rate == null) {
+            if (counters.size() >= MAX_TRACKED_RATES) counters.values().removeIf(r -> r.second < second - 1);
+            rate = new Rate();
+            rate.second = second;
+            counters.put(id, rate);
+        }
+        rate.add(second, amount);
+    }
+
+    private int intern(RulePlan.ResourceType type, Object resource) {
+        Object key = resource != null ? resource : type;
+        int index = interned.getInt(key);
+        if (index >= 0) return index;
+        if (ids.size() >= MAX_DICTIONARY) compact();
+
+        String id;
+        String name;
+        if (resource instanceof Item item) {
+            id = String.valueOf(ForgeRegistries.ITEMS.getKey(item));
+            name = item.getDescription().getString();
+        } else if (resource instanceof Fluid fluid) {
+            id = String.valueOf(ForgeRegistries.FLUIDS.getKey(fluid));
+            name = fluid.getFluidType().getDescription().getString();
+        } else if (type == RulePlan.ResourceType.ENERGY) {
+            id = "energy";
+            name = "Forge Energy";
+        } else {
+            id = String.valueOf(resource);
+            name = id;
+        }
+        return add(key, id, name);
+    }
+
+    private int add(Object key, String id, String name) {
+        ids.add(id);
+        names.add(name);
+        interned.put(key, ids.size() - 1);
+        return ids.size() - 1;
+    }
+
+    /** Drops dictionary entries no record refers to any more. */
+    private void compact() {
+        Object[] keyOf = new Object[ids.size()];
+        for (Object2IntMap.Entry<Object> e : interned.object2IntEntrySet()) keyOf[e.getIntValue()] = e.getKey();
+
+        int[] remap = new int[ids.size()];
+        Arrays.fill(remap, -1);
+        List<String> oldIds = new ArrayList<>(ids);
+        List<String> oldNames = new ArrayList<>(names);
+        ids.clear();
+        names.clear();
+        interned.clear();
+        for (int i = 0; i < size; i++) {
+            int slot = slot(i);
+            int old = resources[slot];
+            if (remap[old] < 0) remap[old] = add(keyOf[old] != null ? keyOf[old] : oldIds.get(old), oldIds.get(old), oldNames.get(old));
+            resources[slot] = remap[old];
+        }
+    }
+
+    private int slot(int i) {
+        return Math.floorMod(head - 1 - i, CAPACITY);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Record accessors; index 0 is the newest record. */
+    public long timestamp(int i) {
+        return timestamps[slot(i)];
+    }
+
+    public String itemId(int i) {
+        return ids.get(resources[slot(i)]);
+    }
+
+    public String itemName(int i) {
+        return names.get(resources[slot(i)]);
+    }
+
+    public int count(int i) {
+        return counts[slot(i)];
+    }
+
+    public RulePlan.ResourceType type(int i) {
+        return TYPES[types[slot(i)]];
+    }
+
+    public UUID source(int i) {
+        return sources[slot(i)];
+    }
+
+    public UUID destination(int i) {
+        return destinations[slot(i)];
+    }
+
+    public long ruleRate(UUID ruleId) {
+        return ruleRates.getOrDefault(ruleId, 0L);
+    }
+
+    public long nodeRate(UUID nodeId) {
+        return nodeRates.getOrDefault(nodeId, 0L);
+    }
+
+    /** Refreshes {@link #ruleRates} and {@link #nodeRates} from the live counters. */
+    public void summarize(long nowMillis) {
+        long second = nowMillis / 1000;
+        summarize(ruleCounters, ruleRates, second);
+        summarize(nodeCounters, nodeRates, second);
+    }
+
+    private static void summarize(Map<UUID, Rate> counters, Map<UUID, Long> out, long second) {
+        out.clear();
+        counters.entrySet().removeIf(e -> {
+            long rate = e.getValue().perSecond(second);
+            if (rate > 0) out.put(e.getKey(), rate);
+            return e.getValue().current == 0 && rate == 0;
+        });
+    }
+
+    private void append(long timestamp, String id, String name, int count, RulePlan.ResourceType type, UUID src, UUID dst) {
+        int index = interned.getInt(id);
+        if (index < 0) index = add(id, id, name);
+        int slot = head;
+        timestamps[slot] = timestamp;
+        resources[slot] = index;
+        counts[slot] = count;
+        types[slot] = (byte) type.ordinal();
+        sources[slot] = src;
+        destinations[slot] = dst;
+        head = (head + 1) % CAPACITY;
+        if (size < CAPACITY) size++;
+    }
+
+    public MovementLog snapshot() {
+        MovementLog snap = new MovementLog();
+        for (int i = size - 1; i >= 0; i--) {
+            snap.append(timestamp(i), itemId(i), itemName(i), count(i), type(i), source(i), destination(i));
+        }
+        snap.ruleRates.putAll(ruleRates);
+        snap.nodeRates.putAll(nodeRates);
+        return snap;
+    }
+
+    /**
+     * Sends the records (newest first) with the dictionary entries they use, and the throughput summary.
+     */
+    public void writeBuf(FriendlyByteBuf buf) {
+        int[] remap = new int[ids.size()];
+        Arrays.fill(remap, -1);
+        List<Integer> used = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int res = resources[slot(i)];
+            if (remap[res] < 0) {
+                remap[res] = used.size();
+                used.add(res);
+            }
+        }
+        buf.writeVarInt(used.size());
+        for (int res : used) {
+            buf.writeUtf(ids.get(res));
+            buf.writeUtf(names.get(res));
+        }
+        buf.writeVarInt(size);
+        for (int i = 0; i < size; i++) {
+            int slot = slot(i);
+            buf.writeLong(timestamps[slot]);
+            buf.writeVarInt(remap[resources[slot]]);
+            buf.writeVarInt(counts[slot]);
+            buf.writeByte(types[slot]);
+            buf.writeUUID(sources[slot] != null ? sources[slot] : NONE);
+            buf.writeUUID(destinations[slot] != null ? destinations[slot] : NONE);
+        }
+        writeRates(buf, ruleRates);
+        writeRates(buf, nodeRates);
+    }
+
+    public void readBuf(FriendlyByteBuf buf) {
+        int dictSize = Math.min(buf.readVarInt(), CAPACITY);
+        String[] dictIds = new String[dictSize];
+        String[] dictNames = new String[dictSize];
+        for (int i = 0; i < dictSize; i++) {
+            dictIds[i] = buf.readUtf();
+            dictNames[i] = buf.readUtf();
+        }
+        int count = Math.min(buf.readVarInt(), CAPACITY);
+        long[] ts = new long[count];
+        int[] res = new int[count];
+        int[] amounts = new int[count];
+        byte[] kinds = new byte[count];
+        UUID[] srcs = new UUID[count];
+        UUID[] dsts = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            ts[i] = buf.readLong();
+            res[i] = buf.readVarInt();
+            amounts[i] = buf.readVarInt();
+            kinds[i] = buf.readByte();
+            srcs[i] = buf.readUUID();
+            dsts[i] = buf.readUUID();
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            if (res[i] < 0 || res[i] >= dictSize) continue;
+            RulePlan.ResourceType type = kinds[i] >= 0 && kinds[i] < TYPES.length ? TYPES[kinds[i]] : RulePlan.ResourceType.ITEMS;
+            append(ts[i], dictIds[res[i]], dictNames[res[i]], amounts[i], type, srcs[i], dsts[i]);
+        }
+        readRates(buf, ruleRates);
+        readRates(buf, nodeRates);
+    }
+
+    private static void writeRates(FriendlyByteBuf buf, Map<UUID, Long> rates) {
+        buf.writeVarInt(rates.size());
+        for (Map.Entry<UUID, Long> e : rates.entrySet()) {
+            buf.writeUUID(e.getKey());
+            buf.writeVarLong(e.getValue());
+        }
+    }
+
+    private static void readRates(FriendlyByteBuf buf, Map<UUID, Long> rates) {
+        int n = Math.min(buf.readVarInt(), MAX_TRACKED_RATES);
+        for (int i = 0; i < n; i++) rates.put(buf.readUUID(), buf.readVarLong());
+    }
+
+    /** Same tag layout as the per-record list older saves used. */
+    public ListTag saveNBT() {
+        ListTag list = new ListTag();
+        for (int i = 0; i < size; i++) {
+            CompoundTag tag = new CompoundTag();
+            tag.putLong("timestamp", timestamp(i));
+            tag.putString("itemId", itemId(i));
+            tag.putString("itemName", itemName(i));
+            tag.putInt("count", count(i));
+            if (source(i) != null) tag.putUUID("sourceNodeId", source(i));
+            if (destination(i) != null) tag.putUUID("destNodeId", destination(i));
+            tag.putString("type", type(i).name());
+            list.add(tag);
+        }
+        return list;
+    }
+
+    public static MovementLog loadNBT(ListTag list) {
+        MovementLog log = new MovementLog();
+        for (int i = Math.min(list.size(), CAPACITY) - 1; i >= 0; i--) {
+            CompoundTag tag = list.getCompound(i);
+            log.append(tag.getLong("timestamp"), tag.getString("itemId"), tag.getString("itemName"), tag.getInt("count"),
+                    RulePlan.ResourceType.parse(tag.getString("type")),
+                    tag.hasUUID("sourceNodeId") ? tag.getUUID("sourceNodeId") : null,
+                    tag.hasUUID("destNodeId") ? tag.getUUID("destNodeId") : null);
+        }
+        return log;
+    }
+}
@@ -2,8 +2,6 @@ package com.example.modmenu.store.logistics;
 
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
-import net.minecraft.world.item.ItemStack;
-import net.minecraftforge.fluids.FluidStack;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,7 +15,7 @@ public class NetworkData {
     public List<NodeGroup> groups = new ArrayList<>();
     public List<LogisticsRule> rules = new ArrayList<>();
     public List<RuleTemplate> ruleTemplates = new ArrayList<>();
-    public List<MovementRecord> movementHistory = new ArrayList<>();
+    public MovementLog movementHistory = new MovementLog();
     public UUID overflowTargetId;
     public boolean overflowIsGroup = false;
     public int tickBudget = 100; // Rules per tick
@@ -27,28 +25,36 @@ public class NetworkData {
     public String lastReport = "";
 
     // Virtual Buffers (Phase 1)
-    public List<net.minecraft.world.item.ItemStack> virtualItemBuffer = new ArrayList<>();
+    public VirtualItemBuffer virtualItemBuffer = new VirtualItemBuffer();
     public long virtualEnergyBuffer = 0;
-    public List<net.minecraftforge.fluids.FluidStack> virtualFluidBuffer = new ArrayList<>();
+    public VirtualFluidBuffer virtualFluidBuffer = new VirtualFluidBuffer();
 
     // Phase 4: Variables
-    public java.util.Map<String, Double> variables = new java.util.HashMap<>();
+    public NetworkVariables variables = new NetworkVariables();
 
     // Phase 2: Signals
-    public transient List<LogisticsSignal> pendingSignals = new ArrayList<>();
+    public transient SignalBus signals = new SignalBus();
     public List<LogisticsSignal> recentSignals = new ArrayList<>();
-    public transient Map<String, List<UUID>> signalSubscriptions = null;
 
     // Optimization transient fields
-    public transient List<LogisticsRule> sortedRules = null;
-    public transient boolean needsSorting = true;
-    public transient Map<UUID, NetworkNode> nodeMap = null;
-    public transient Map<UUID, NodeGroup> groupMap = null;
+    private transient NetworkIndex index = null;
+    public transient int topologyVersion = 0;
+    public transient Map<UUID, RulePlan> rulePlans = new java.util.HashMap<>();
+    public transient int ruleCursor = 0;
+    public transient long schedulerCreditNanos = 0;
+    public transient long lastTickNanos = 0;
+    public transient NodeHealth.Tracking health = null;
+    public transient int syncRevision = 0; // Client: revision of the last applied SyncNetworksPacket delta
+    public transient long changeRevision = 0; // Server: bumped by every markChanged, read by NetworkSync
+    private transient Map<UUID, Long> changedAt = new java.util.HashMap<>();
+    private transient long templatesChangedAt = 0;
     
     // Stats
     public long itemsMovedLastMin = 0;
     public long energyMovedLastMin = 0;
     public long fluidsMovedLastMin = 0;
+    public long signalsCoalescedLastMin = 0;
+    public long signalsDroppedLastMin = 0;
     public transient long itemsMovedThisMin = 0;
     public transient long energyMovedThisMin = 0;
     public transient long fluidsMovedThisMin = 0;
@@ -58,6 +64,133 @@ public class NetworkData {
         this.networkId = UUID.randomUUID();
     }
 
+    /**
+     * Lookup index over nodes, groups and rules. Server code must change those lists through the mutators below
+     * so the index stays current; direct list edits are only fine before the index is first used (loading, sync).
+     */
+    public NetworkIndex index() {
+        if (index == null) index = NetworkIndex.build(this);
+        return index;
+    }
+
+    /**
+     * Records that the node, group or rule with this id changed, so the next sync resends it. The mutators below do
+     * this themselves; code that edits an entry in place must call it.
+     */
+    public void markChanged(UUID id) {
+        changedAt.put(id, ++changeRevision);
+    }
+
+    /** Call after editing {@link #ruleTemplates}. */
+    public void markTemplatesChanged() {
+        templatesChangedAt = ++changeRevision;
+    }
+
+    /** True if the entry was marked changed after {@code revision}, an earlier value of {@link #changeRevision}. */
+    public boolean changedSince(UUID id, long revision) {
+        Long at = changedAt.get(id);
+        return at != null && at > revision;
+    }
+
+    public boolean templatesChangedSince(long revision) {
+        return templatesChangedAt > revision;
+    }
+
+    public void addNode(NetworkNode node) {
+        nodes.add(node);
+        if (index != null) index.addNode(node);
+        markChanged(node.nodeId);
+        topologyVersion++;
+    }
+
+    public boolean replaceNode(NetworkNode node) {
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i).nodeId.equals(node.nodeId)) {
+                nodes.set(i, node);
+                if (index != null) index.addNode(node);
+                markChanged(node.nodeId);
+                topologyVersion++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes a node and every rule that reads from or writes to it.
+     */
+    public void removeNode(UUID nodeId) {
+        if (!nodes.removeIf(node -> node.nodeId.equals(nodeId))) return;
+        if (index != null) index.removeNode(nodeId);
+        changedAt.remove(nodeId);
+        removeRulesIf(rule -> nodeId.equals(rule.sourceNodeId) || nodeId.equals(rule.destNodeId));
+        topologyVersion++;
+    }
+
+    public void putGroup(NodeGroup group) {
+        boolean updated = false;
+        for (int i = 0; i < groups.size(); i++) {
+            if (groups.get(i).groupId.equals(group.groupId)) {
+                groups.set(i, group);
+                updated = true;
+                break;
+            }
+        }
+        if (!updated) groups.add(group);
+        if (index != null) index.putGroup(group);
+        markChanged(group.groupId);
+        topologyVersion++;
+    }
+
+    /**
+     * Removes a group and every rule that uses it as source or destination.
+     */
+    public void removeGroup(UUID groupId) {
+        if (!groups.removeIf(group -> group.groupId.equals(groupId))) return;
+        if (index != null) index.removeGroup(groupId);
+        changedAt.remove(groupId);
+        removeRulesIf(rule -> (rule.sourceIsGroup && groupId.equals(rule.sourceNodeId)) || (rule.destIsGroup && groupId.equals(rule.destNodeId)));
+        topologyVersion++;
+    }
+
+    public void addRule(LogisticsRule rule) {
+        rules.add(rule);
+        if (index != null) index.addRule(rule);
+        markChanged(rule.ruleId);
+    }
+
+    /**
+     * Replaces the rule with the same id, or appends it. Returns false if it was appended.
+     */
+    public boolean putRule(LogisticsRule rule) {
+        for (int i = 0; i < rules.size(); i++) {
+            LogisticsRule old = rules.get(i);
+            if (old.ruleId.equals(rule.ruleId)) {
+                rules.set(i, rule);
+                if (index != null) index.replaceRule(old, rule);
+                markChanged(rule.ruleId);
+                return true;
+            }
+        }
+        addRule(rule);
+        return false;
+    }
+
+    public void removeRule(UUID ruleId) {
+        removeRulesIf(rule -> rule.ruleId.equals(ruleId));
+    }
+
+    public void removeRulesIf(java.util.function.Predicate<LogisticsRule> filter) {
+        rules.removeIf(rule -> {
+            if (!filter.test(rule)) return false;
+            if (index != null) index.removeRule(rule);
+            changedAt.remove(rule.ruleId);
+            RulePlan plan = rulePlans.remove(rule.ruleId);
+            if (plan != null) RuleWakeups.unwatch(plan);
+            return true;
+        });
+    }
+
     public NetworkData snapshot() {
         NetworkData snap = new NetworkData();
         snap.networkId = this.networkId;
@@ -66,7 +199,7 @@ public class NetworkData {
         for (NodeGroup group : this.groups) snap.groups.add(group.snapshot());
         for (LogisticsRule rule : this.rules) snap.rules.add(rule.snapshot());
         for (RuleTemplate template : this.ruleTemplates) snap.ruleTemplates.add(template.snapshot());
-        for (MovementRecord record : this.movementHistory) snap.movementHistory.add(record.snapshot());
+        snap.movementHistory = this.movementHistory.snapshot();
         snap.overflowTargetId = this.overflowTargetId;
         snap.overflowIsGroup = this.overflowIsGroup;
         snap.tickBudget = this.tickBudget;
@@ -75,15 +208,17 @@ public class NetworkData {
         snap.simulationActive = this.simulationActive;
         snap.lastReport = this.lastReport;
 
-        for (ItemStack stack : this.virtualItemBuffer) snap.virtualItemBuffer.add(stack.copy());
+        snap.virtualItemBuffer = this.virtualItemBuffer.snapshot();
         snap.virtualEnergyBuffer = this.virtualEnergyBuffer;
-        for (FluidStack fluid : this.virtualFluidBuffer) snap.virtualFluidBuffer.add(fluid.copy());
+        snap.virtualFluidBuffer = this.virtualFluidBuffer.snapshot();
         snap.variables.putAll(this.variables);
         for (LogisticsSignal sig : this.recentSignals) snap.recentSignals.add(sig);
 
         snap.itemsMovedLastMin = this.itemsMovedLastMin;
         snap.energyMovedLastMin = this.energyMovedLastMin;
         snap.fluidsMovedLastMin = this.fluidsMovedLastMin;
+        snap.signalsCoalescedLastMin = this.signalsCoalescedLastMin;
+        snap.signalsDroppedLastMin = this.signalsDroppedLastMin;
         return snap;
     }
 
@@ -123,13 +258,7 @@ public class NetworkData {
         }
         nbt.put("ruleTemplates", templateList);
 
-        ListTag historyList = new ListTag();
-        for (MovementRecord record : movementHistory) {
-            CompoundTag tag = new CompoundTag();
-            record.saveNBT(tag);
-            historyList.add(tag);
-        }
-        nbt.put("movementHistory", historyList);
+        nbt.put("movementHistory", movementHistory.saveNBT());
 
         if (overflowTargetId != null) nbt.putUUID("overflowTargetId", overflowTargetId);
         nbt.putBoolean("overflowIsGroup", overflowIsGroup);
@@ -139,21 +268,11 @@ public class NetworkData {
         nbt.putBoolean("simulationActive", simulationActive);
         nbt.putString("lastReport", lastReport != null ? lastReport : "");
 
-        ListTag vItems = new ListTag();
-        for (ItemStack stack : virtualItemBuffer) vItems.add(stack.save(new CompoundTag()));
-        nbt.put("virtualItemBuffer", vItems);
+        nbt.put("virtualItemBuffer", virtualItemBuffer.saveNBT());
         nbt.putLong("virtualEnergyBuffer", virtualEnergyBuffer);
-        ListTag vFluids = new ListTag();
-        for (FluidStack fluid : virtualFluidBuffer) {
-            CompoundTag tag = new CompoundTag();
-            fluid.writeToNBT(tag);
-            vFluids.add(tag);
-        }
-        nbt.put("virtualFluidBuffer", vFluids);
+        nbt.put("virtualFluidBuffer", virtualFluidBuffer.saveNBT());
 
-        CompoundTag varNbt = new CompoundTag();
-        for (java.util.Map.Entry<String, Double> entry : variables.entrySet()) varNbt.putDouble(entry.getKey(), entry.getValue());
-        nbt.put("variables", varNbt);
+        nbt.put("variables", variables.saveNBT());
 
         ListTag sigList = new ListTag();
         for (LogisticsSignal sig : recentSignals) {
@@ -166,6 +285,8 @@ public class NetworkData {
         nbt.putLong("itemsMovedLastMin", itemsMovedLastMin);
         nbt.putLong("energyMovedLastMin", energyMovedLastMin);
         nbt.putLong("fluidsMovedLastMin", fluidsMovedLastMin);
+        nbt.putLong("signalsCoalescedLastMin", signalsCoalescedLastMin);
+        nbt.putLong("signalsDroppedLastMin", signalsDroppedLastMin);
     }
 
     public static NetworkData loadNBT(CompoundTag nbt) {
@@ -185,8 +306,7 @@ public class NetworkData {
         ListTag templateList = nbt.getList("ruleTemplates", 10);
         for (int i = 0; i < templateList.size(); i++) net.ruleTemplates.add(RuleTemplate.loadNBT(templateList.getCompound(i)));
 
-        ListTag historyList = nbt.getList("movementHistory", 10);
-        for (int i = 0; i < historyList.size(); i++) net.movementHistory.add(MovementRecord.loadNBT(historyList.getCompound(i)));
+        net.movementHistory = MovementLog.loadNBT(nbt.getList("movementHistory", 10));
 
         if (nbt.hasUUID("overflowTargetId")) net.overflowTargetId = nbt.getUUID("overflowTargetId");
         net.overflowIsGroup = nbt.getBoolean("overflowIsGroup");
@@ -196,14 +316,11 @@ public class NetworkData {
         net.simulationActive = nbt.getBoolean("simulationActive");
         net.lastReport = nbt.getString("lastReport");
 
-        ListTag vItems = nbt.getList("virtualItemBuffer", 10);
-        for (int i = 0; i < vItems.size(); i++) net.virtualItemBuffer.add(ItemStack.of(vItems.getCompound(i)));
+        net.virtualItemBuffer.loadNBT(nbt.getList("virtualItemBuffer", 10));
         net.virtualEnergyBuffer = nbt.getLong("virtualEnergyBuffer");
-        ListTag vFluids = nbt.getList("virtualFluidBuffer", 10);
-        for (int i = 0; i < vFluids.size(); i++) net.virtualFluidBuffer.add(FluidStack.loadFluidStackFromNBT(vFluids.getCompound(i)));
+        net.virtualFluidBuffer.loadNBT(nbt.getList("virtualFluidBuffer", 10));
 
-        CompoundTag varNbt = nbt.getCompound("variables");
-        for (String key : varNbt.getAllKeys()) net.variables.put(key, varNbt.getDouble(key));
+        net.variables.loadNBT(nbt.getCompound("variables"));
 
         ListTag sigList = nbt.getList("recentSignals", 10);
         for (int i = 0; i < sigList.size(); i++) net.recentSignals.add(LogisticsSignal.loadNBT(sigList.getCompound(i)));
@@ -211,6 +328,8 @@ public class NetworkData {
         net.itemsMovedLastMin = nbt.getLong("itemsMovedLastMin");
         net.energyMovedLastMin = nbt.getLong("energyMovedLastMin");
         net.fluidsMovedLastMin = nbt.getLong("fluidsMovedLastMin");
+        net.signalsCoalescedLastMin = nbt.getLong("signalsCoalescedLastMin");
+        net.signalsDroppedLastMin = nbt.getLong("signalsDroppedLastMin");
         
         return net;
     }
@@ -0,0 +1,163 @@
+package com.example.modmenu.store.logistics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * UUID lookup tables and precomputed adjacency for one {@link NetworkData}.
+ * Built once on first use and then kept current by the mutators on {@code NetworkData}
+ * ({@code addNode}, {@code putRule}, {@code removeGroup}, ...), so lookups, rule chaining and
+ * signal dispatch never scan the node, group or rule lists.
+ */
+public class NetworkIndex {
+    private final Map<UUID, NetworkNode> nodes = new HashMap<>();
+    private final Map<UUID, NodeGroup> groups = new HashMap<>();
+    private final Map<UUID, LogisticsRule> rules = new HashMap<>();
+    private final List<LogisticsRule> sortedRules = new ArrayList<>();
+    // Position of each rule in NetworkData.rules; only ever compared, so removals leave gaps
+    private final Map<UUID, Integer> ruleOrder = new HashMap<>();
+    private int nextRuleOrder = 0;
+    // Rule chaining: rules keyed by their source node/group id
+    private final Map<UUID, List<LogisticsRule>> rulesBySource = new HashMap<>();
+    // SIGNAL-triggered rules keyed by the signal type they listen for
+    private final Map<String, List<LogisticsRule>> signalSubscribers = new HashMap<>();
+
+    static NetworkIndex build(NetworkData network) {
+        NetworkIndex index = new NetworkIndex();
+        for (NetworkNode node : network.nodes) if (node != null) index.addNode(node);
+        for (NodeGroup group : network.groups) if (group != null) index.putGroup(group);
+        for (LogisticsRule rule : network.rules) if (rule != null) index.addRule(rule);
+        return index;
+    }
+
+    public NetworkNode node(UUID id) {
+        return id != null ? nodes.get(id) : null;
+    }
+
+    public NodeGroup group(UUID id) {
+        return id != null ? groups.get(id) : null;
+    }
+
+    public LogisticsRule rule(UUID id) {
+        return id != null ? rules.get(id) : null;
+    }
+
+    /** All rules, highest priority first; insertion order within a priority. Read-only. */
+    public List<LogisticsRule> sortedRules() {
+        return Collections.unmodifiableList(sortedRules);
+    }
+
+    /** Rules whose source is the given node or group, in {@code NetworkData.rules} order. */
+    public List<LogisticsRule> rulesFromSource(UUID sourceId) {
+        List<LogisticsRule> list = rulesBySource.get(sourceId);
+        return list != null ? list : List.of();
+    }
+
+    /** Rules whose source is any of the given ids, each once, in {@code NetworkData.rules} order. */
+    public List<LogisticsRule> rulesFromSources(Collection<UUID> sourceIds) {
+        if (sourceIds.size() == 1) return rulesFromSource(sourceIds.iterator().next());
+        List<LogisticsRule> merged = new ArrayList<>();
+        for (UUID id : sourceIds) merged.addAll(rulesFromSource(id));
+        merged.sort(Comparator.comparingInt(this::order));
+        return merged;
+    }
+
+    private int order(LogisticsRule rule) {
+        return ruleOrder.getOrDefault(rule.ruleId, Integer.MAX_VALUE);
+    }
+
+    public List<LogisticsRule> signalSubscribers(String signalType) {
+        List<LogisticsRule> list = signalSubscribers.get(signalType);
+        return list != null ? list : List.of();
+    }
+
+    void addNode(NetworkNode node) {
+        nodes.put(node.nodeId, node);
+    }
+
+    void removeNode(UUID id) {
+        nodes.remove(id);
+    }
+
+    void putGroup(NodeGroup group) {
+        groups.put(group.groupId, group);
+    }
+
+    void removeGroup(UUID id) {
+        groups.remove(id);
+    }
+
+    void addRule(LogisticsRule rule) {
+        rules.put(rule.ruleId, rule);
+        ruleOrder.put(rule.ruleId, nextRuleOrder++);
+        sortedRules.add(insertionPoint(rule.priority), rule);
+        link(rule);
+    }
+
+    void replaceRule(LogisticsRule old, LogisticsRule rule) {
+        unlink(old);
+        rules.put(rule.ruleId, rule);
+        // The replacement takes the old rule's place in the list
+        Integer order = ruleOrder.remove(old.ruleId);
+        ruleOrder.put(rule.ruleId, order != null ? order : nextRuleOrder++);
+        int pos = sortedRules.indexOf(old);
+        if (pos >= 0 && old.priority == rule.priority) {
+            sortedRules.set(pos, rule);
+        } else {
+            if (pos >= 0) sortedRules.remove(pos);
+            sortedRules.add(insertionPoint(rule.priority), rule);
+        }
+        link(rule);
+    }
+
+    void removeRule(LogisticsRule rule) {
+        rules.remove(rule.ruleId);
+        ruleOrder.remove(rule.ruleId);
+        sortedRules.remove(rule);
+        unlink(rule);
+    }
+
+    // First position whose priority is lower than the given one, keeping equal priorities in insertion order
+    private int insertionPoint(int priority) {
+        int lo = 0, hi = sortedRules.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedRules.get(mid).priority >= priority) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private void link(LogisticsRule rule) {
+        if (rule.sourceNodeId != null) insertInOrder(rulesBySource.computeIfAbsent(rule.sourceNodeId, k -> new ArrayList<>()), rule);
+        if ("SIGNAL".equals(rule.triggerType) && rule.signalFilter != null && !rule.signalFilter.isEmpty()) {
+            insertInOrder(signalSubscribers.computeIfAbsent(rule.signalFilter, k -> new ArrayList<>()), rule);
+        }
+    }
+
+    // New rules go last; a replaced one goes back where the old one was
+    private void insertInOrder(List<LogisticsRule> list, LogisticsRule rule) {
+        int order = order(rule);
+        int pos = list.size();
+        while (pos > 0 && order(list.get(pos - 1)) > order) pos--;
+        list.add(pos, rule);
+    }
+
+    private void unlink(LogisticsRule rule) {
+        if (rule.sourceNodeId != null) removeFrom(rulesBySource, rule.sourceNodeId, rule);
+        if (rule.signalFilter != null) removeFrom(signalSubscribers, rule.signalFilter, rule);
+    }
+
+    private static <K> void removeFrom(Map<K, List<LogisticsRule>> map, K key, LogisticsRule rule) {
+        List<LogisticsRule> list = map.get(key);
+        if (list == null) return;
+        list.remove(rule);
+        if (list.isEmpty()) map.remove(key);
+    }
+}
@@ -23,9 +23,13 @@ public class NetworkNode {
     // Phase 3: Network-in-Network
     public java.util.UUID referencedNetworkId;
     public java.util.UUID targetPortId;
-    public java.util.List<net.minecraft.world.item.ItemStack> virtualItemBuffer = new java.util.ArrayList<>();
+    public VirtualItemBuffer virtualItemBuffer = new VirtualItemBuffer();
     public long virtualEnergyBuffer = 0;
-    public java.util.List<net.minecraftforge.fluids.FluidStack> virtualFluidBuffer = new java.util.ArrayList<>();
+    public VirtualFluidBuffer virtualFluidBuffer = new VirtualFluidBuffer();
+
+    // Item-held batteries and tanks in this node's inventory, for rules with scanItems
+    public transient ItemCapabilitySlots<net.minecraftforge.energy.IEnergyStorage> energyItemSlots;
+    public transient ItemCapabilitySlots<net.minecraftforge.fluids.capability.IFluidHandlerItem> fluidItemSlots;
 
     public NetworkNode() {
         this.nodeId = UUID.randomUUID();
@@ -49,9 +53,9 @@ public class NetworkNode {
         
         snap.referencedNetworkId = this.referencedNetworkId;
         snap.targetPortId = this.targetPortId;
-        for (net.minecraft.world.item.ItemStack stack : this.virtualItemBuffer) snap.virtualItemBuffer.add(stack.copy());
+        snap.virtualItemBuffer = this.virtualItemBuffer.snapshot();
         snap.virtualEnergyBuffer = this.virtualEnergyBuffer;
-        for (net.minecraftforge.fluids.FluidStack fluid : this.virtualFluidBuffer) snap.virtualFluidBuffer.add(fluid.copy());
+        snap.virtualFluidBuffer = this.virtualFluidBuffer.snapshot();
 
         return snap;
     }
@@ -84,19 +88,11 @@ public class NetworkNode {
         if (referencedNetworkId != null) nbt.putUUID("referencedNetworkId", referencedNetworkId);
         if (targetPortId != null) nbt.putUUID("targetPortId", targetPortId);
         
-        net.minecraft.nbt.ListTag items = new net.minecraft.nbt.ListTag();
-        for (net.minecraft.world.item.ItemStack stack : virtualItemBuffer) items.add(stack.save(new net.minecraft.nbt.CompoundTag()));
-        nbt.put("virtualItemBuffer", items);
+        nbt.put("virtualItemBuffer", virtualItemBuffer.saveNBT());
         
         nbt.putLong("virtualEnergyBuffer", virtualEnergyBuffer);
         
-        net.minecraft.nbt.ListTag fluids = new net.minecraft.nbt.ListTag();
-        for (net.minecraftforge.fluids.FluidStack fluid : virtualFluidBuffer) {
-            net.minecraft.nbt.CompoundTag fNbt = new net.minecraft.nbt.CompoundTag();
-            fluid.writeToNBT(fNbt);
-            fluids.add(fNbt);
-        }
-        nbt.put("virtualFluidBuffer", fluids);
+        nbt.put("virtualFluidBuffer", virtualFluidBuffer.saveNBT());
     }
 
     public static NetworkNode loadNBT(net.minecraft.nbt.CompoundTag nbt) {
@@ -130,13 +126,11 @@ public class NetworkNode {
         if (nbt.hasUUID("referencedNetworkId")) node.referencedNetworkId = nbt.getUUID("referencedNetworkId");
         if (nbt.hasUUID("targetPortId")) node.targetPortId = nbt.getUUID("targetPortId");
         
-        net.minecraft.nbt.ListTag items = nbt.getList("virtualItemBuffer", 10);
-        for (int i = 0; i < items.size(); i++) node.virtualItemBuffer.add(net.minecraft.world.item.ItemStack.of(items.getCompound(i)));
+        node.virtualItemBuffer.loadNBT(nbt.getList("virtualItemBuffer", 10));
         
         node.virtualEnergyBuffer = nbt.getLong("virtualEnergyBuffer");
         
-        net.minecraft.nbt.ListTag fluids = nbt.getList("virtualFluidBuffer", 10);
-        for (int i = 0; i < fluids.size(); i++) node.virtualFluidBuffer.add(net.minecraftforge.fluids.FluidStack.loadFluidStackFromNBT(fluids.getCompound(i)));
+        node.virtualFluidBuffer.loadNBT(nbt.getList("virtualFluidBuffer", 10));
         
         return node;
     }
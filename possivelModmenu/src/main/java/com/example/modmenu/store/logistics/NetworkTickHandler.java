@@ -1,75 +1,57 @@
 package com.example.modmenu.store.logistics;
 
+import com.example.modmenu.Config;
 import com.example.modmenu.store.SkillManager;
-import com.example.modmenu.store.StorePriceManager;
-import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
-import net.minecraft.core.registries.Registries;
-import net.minecraft.resources.ResourceKey;
-import net.minecraft.resources.ResourceLocation;
-import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraftforge.common.capabilities.ForgeCapabilities;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.items.IItemHandler;
 import net.minecraftforge.items.ItemHandlerHelper;
-import net.minecraftforge.items.wrapper.PlayerMainInvWrapper;
 import net.minecraftforge.items.wrapper.CombinedInvWrapper;
 import net.minecraftforge.items.wrapper.PlayerArmorInvWrapper;
 import net.minecraftforge.items.wrapper.PlayerOffhandInvWrapper;
-import net.minecraftforge.registries.ForgeRegistries;
 import net.minecraftforge.energy.IEnergyStorage;
 import net.minecraftforge.fluids.capability.IFluidHandler;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.capability.IFluidHandler.FluidAction;
 
-import java.math.BigDecimal;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Mod.EventBusSubscriber(modid = "modmenu")
 public class NetworkTickHandler {
 
-    private static final Map<UUID, Integer> networkRuleIndex = new ConcurrentHashMap<>();
-    private static final Map<UUID, Long> ruleCooldowns = new ConcurrentHashMap<>();
-    private static final Map<UUID, Integer> ruleSuccessStreak = new ConcurrentHashMap<>();
-    private static final Map<UUID, Integer> groupDistributionIndex = new ConcurrentHashMap<>();
-    private static final Object NULL_CAP = new Object();
-    private static final UUID BUFFER_NODE_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
     private static final UUID TRASH_NODE_ID = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    // Rules reading a player inventory cannot be woken by a change, so they never sleep longer than this
+    private static final long UNWATCHED_BACKOFF_CAP = 20;
+    private static final int MAX_RECENT_SIGNALS = 50;
 
-    private static class TickContext {
-        final Map<ResourceKey<Level>, Map<BlockPos, Map<Direction, Map<String, Object>>>> capabilityCache = new HashMap<>();
+    private static class TickContext implements LogicProgram.Host {
+        final LogisticsWorld world;
+        final NetworkData network;
         final Set<UUID> rulesInChain = new HashSet<>();
+        final ResourceCountMemo counts;
         double budgetUsed = 0;
 
-        boolean isCached(Level level, BlockPos pos, Direction side, String type) {
-            Map<String, Object> sideMap = capabilityCache.getOrDefault(level.dimension(), Collections.emptyMap())
-                    .getOrDefault(pos, Collections.emptyMap())
-                    .get(side);
-            return sideMap != null && sideMap.containsKey(type);
+        TickContext(LogisticsWorld world, NetworkData network) {
+            this.world = world;
+            this.network = network;
+            this.counts = new ResourceCountMemo(network);
         }
 
-        @SuppressWarnings("unchecked")
-        <T> T getCache(Level level, BlockPos pos, Direction side, String type) {
-            Map<String, Object> sideMap = capabilityCache.getOrDefault(level.dimension(), Collections.emptyMap())
-                    .getOrDefault(pos, Collections.emptyMap())
-                    .get(side);
-            if (sideMap == null) return null;
-            Object cached = sideMap.get(type);
-            return cached == NULL_CAP ? null : (T) cached;
+        @Override
+        public long count(LogicProgram.Query query) {
+            long total = 0;
+            for (NetworkNode node : query.nodes) total += getResourceCount(world, network, node, query.type, query.filter, this);
+            return total;
         }
 
-        void putCache(Level level, BlockPos pos, Direction side, String type, Object cap) {
-            capabilityCache.computeIfAbsent(level.dimension(), k -> new HashMap<>())
-                    .computeIfAbsent(pos, k -> new HashMap<>())
-                    .computeIfAbsent(side, k -> new HashMap<>())
-                    .put(type, cap == null ? NULL_CAP : cap);
+        @Override
+        public void variableChanged(String name) {
+            RuleWakeups.wakeVariable(network, name);
         }
     }
 
@@ -80,182 +62,210 @@ public class NetworkTickHandler {
         net.minecraft.server.MinecraftServer server = net.minecraftforge.server.ServerLifecycleHooks.getCurrentServer();
         if (server == null) return;
 
+        List<List<LogisticsScheduler.Task>> tasksByPlayer = new ArrayList<>();
         for (ServerPlayer player : server.getPlayerList().getPlayers()) {
             player.getCapability(LogisticsCapability.PLAYER_NETWORKS).ifPresent(data -> {
-                List<NetworkData> activeNetworks = data.getNetworks().stream()
-                        .filter(n -> n.active && !n.rules.isEmpty())
-                        .toList();
-                
-                if (activeNetworks.isEmpty()) return;
-
-                int globalBudget = 10000;
-                int processedThisTick = 0;
-
-                for (NetworkData network : activeNetworks) {
-                    if (processedThisTick >= globalBudget) break;
-                    
-                    long now = server.getTickCount();
-                    if (now - network.lastStatsReset > 1200) {
-                        network.itemsMovedLastMin = network.itemsMovedThisMin;
-                        network.energyMovedLastMin = network.energyMovedThisMin;
-                        network.fluidsMovedLastMin = network.fluidsMovedThisMin;
-                        network.itemsMovedThisMin = 0;
-                        network.energyMovedThisMin = 0;
-                        network.fluidsMovedThisMin = 0;
-                        network.lastStatsReset = now;
-                    }
-
-                    TickContext ctx = new TickContext();
-                    processedThisTick += tickNetwork(player, network, globalBudget - processedThisTick, ctx);
+                List<LogisticsScheduler.Task> tasks = new ArrayList<>();
+                for (NetworkData network : data.getNetworks()) {
+                    if (network.active && !network.rules.isEmpty()) tasks.add(new LogisticsScheduler.Task(player, network));
                 }
+                if (!tasks.isEmpty()) tasksByPlayer.add(tasks);
             });
         }
+
+        long now = server.getTickCount();
+        LogisticsScheduler.run(tasksByPlayer, (player, network, deadlineNanos) -> {
+            if (now - network.lastStatsReset > 1200) {
+                network.itemsMovedLastMin = network.itemsMovedThisMin;
+                network.energyMovedLastMin = network.energyMovedThisMin;
+                network.fluidsMovedLastMin = network.fluidsMovedThisMin;
+                network.itemsMovedThisMin = 0;
+                network.energyMovedThisMin = 0;
+                network.fluidsMovedThisMin = 0;
+                network.signalsCoalescedLastMin = network.signals.coalescedThisMin;
+                network.signalsDroppedLastMin = network.signals.droppedThisMin;
+                network.signals.coalescedThisMin = 0;
+                network.signals.droppedThisMin = 0;
+                network.lastStatsReset = now;
+            }
+            tickNetwork(new ServerLogisticsWorld(player), network, deadlineNanos);
+        });
     }
 
-    private static void recordMovement(NetworkData network, String itemId, String itemName, int count, UUID src, UUID dst, String type) {
-        if (network.movementHistory == null) network.movementHistory = new ArrayList<>();
-        network.movementHistory.add(0, new MovementRecord(System.currentTimeMillis(), itemId, itemName, count, src, dst, type));
-        while (network.movementHistory.size() > 50) {
-            network.movementHistory.remove(network.movementHistory.size() - 1);
-        }
+    private static void recordMovement(NetworkData network, LogisticsRule rule, RulePlan.ResourceType type, Object resource, int count, UUID src, UUID dst) {
+        network.movementHistory.record(System.currentTimeMillis(), type, resource, count, rule.ruleId, src, dst);
     }
 
     public static void fireSignal(NetworkData network, String type, UUID srcNode, UUID srcRule) {
-        if (network.pendingSignals == null) network.pendingSignals = new ArrayList<>();
-        network.pendingSignals.add(new LogisticsSignal(type, srcNode, srcRule));
+        if (type == null || type.isEmpty()) return;
+        if (network.index().signalSubscribers(type).isEmpty()) {
+            // Nobody listens, so there is nothing to dispatch; the client still visualizes it
+            recordSignal(network, type, srcNode, srcRule);
+            return;
+        }
+        network.signals.fire(type, srcNode, srcRule);
     }
 
-    private static void rebuildSubscriptions(NetworkData network) {
-        network.signalSubscriptions = new HashMap<>();
-        for (LogisticsRule rule : network.rules) {
-            if (rule.active && "SIGNAL".equals(rule.triggerType) && rule.signalFilter != null && !rule.signalFilter.isEmpty()) {
-                network.signalSubscriptions.computeIfAbsent(rule.signalFilter, k -> new ArrayList<>()).add(rule.ruleId);
+    /**
+     * Adds a signal to the history the client visualizes. A repeat of a listed signal (same type and source node)
+     * replaces it, so a burst of transfers keeps one entry per node instead of flushing the history.
+     */
+    private static void recordSignal(NetworkData network, String type, UUID sourceNodeId, UUID sourceRuleId) {
+        List<LogisticsSignal> recent = network.recentSignals;
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            LogisticsSignal sig = recent.get(i);
+            if (type.equals(sig.type) && java.util.Objects.equals(sourceNodeId, sig.sourceNodeId)) {
+                recent.remove(i);
+                break;
             }
         }
+        recent.add(new LogisticsSignal(type, sourceNodeId, sourceRuleId));
+        if (recent.size() > MAX_RECENT_SIGNALS) recent.remove(0);
     }
 
-    private static double processSignal(ServerPlayer player, NetworkData network, LogisticsSignal signal, double budget, TickContext ctx) {
-        if (signal.type == null || signal.type.isEmpty()) return 0;
-        if (network.signalSubscriptions == null) rebuildSubscriptions(network);
-        List<UUID> ruleIds = network.signalSubscriptions.get(signal.type);
-        if (ruleIds == null) return 0;
-
+    private static double processSignal(LogisticsWorld world, NetworkData network, String type, UUID sourceNodeId, double budget, long deadlineNanos, TickContext ctx) {
         double used = 0;
-        for (UUID ruleId : ruleIds) {
-            if (used >= budget) break;
-            LogisticsRule rule = findRule(network, ruleId);
-            if (rule == null || !rule.active) continue;
+        List<LogisticsRule> subscribers = network.index().signalSubscribers(type);
+        for (int r = 0; r < subscribers.size(); r++) {
+            if (used >= budget || System.nanoTime() >= deadlineNanos) break;
+            LogisticsRule rule = subscribers.get(r);
+            if (!rule.active) continue;
             
-            if (rule.triggerNodeId != null && !rule.triggerNodeId.equals(signal.sourceNodeId)) continue;
+            if (rule.triggerNodeId != null && !rule.triggerNodeId.equals(sourceNodeId)) continue;
 
+            RulePlan plan = RulePlan.of(network, rule);
             ctx.budgetUsed = 0;
-            processRule(player, network, rule, true, ctx, 0);
+            long start = System.nanoTime();
+            processRule(world, network, plan, true, ctx, 0);
+            plan.recordCost(System.nanoTime() - start);
             used += ctx.budgetUsed;
         }
         return used;
     }
 
-    private static LogisticsRule findRule(NetworkData network, UUID ruleId) {
-        for (LogisticsRule rule : network.rules) {
-            if (rule.ruleId.equals(ruleId)) return rule;
-        }
-        return null;
+    /**
+     * Runs one scheduling slot of a network: pending signals first, then ALWAYS rules from the cursor on.
+     */
+    public static void tickNetwork(LogisticsWorld world, NetworkData network, long deadlineNanos) {
+        tickNetwork(world, network, deadlineNanos, new TickContext(world, network));
     }
 
-    private static int tickNetwork(ServerPlayer player, NetworkData network, int remainingBudget, TickContext ctx) {
+    private static void tickNetwork(LogisticsWorld world, NetworkData network, long deadlineNanos, TickContext ctx) {
+        // Time is the real limit (see LogisticsScheduler); the rule count only guards against runaway chains
         int ruleParallelism = 1000;
-        int networkBudget = Math.min(network.tickBudget + ruleParallelism, remainingBudget);
-        if (networkBudget <= 0) return 0;
-
-        if (network.nodeMap == null) {
-            network.nodeMap = new HashMap<>();
-            for (NetworkNode node : network.nodes) {
-                if (node != null) network.nodeMap.put(node.nodeId, node);
-            }
-        }
-        if (network.groupMap == null) {
-            network.groupMap = new HashMap<>();
-            for (NodeGroup group : network.groups) {
-                if (group != null) network.groupMap.put(group.groupId, group);
-            }
-        }
-        if (network.sortedRules == null || network.needsSorting) {
-            network.sortedRules = new ArrayList<>();
-            for (LogisticsRule rule : network.rules) {
-                if (rule != null) network.sortedRules.add(rule);
-            }
-            network.sortedRules.sort((a, b) -> Integer.compare(b.priority, a.priority));
-            network.needsSorting = false;
-            network.signalSubscriptions = null; // Force rebuild
-        }
+        int networkBudget = network.tickBudget + ruleParallelism;
 
-        if (player.level().getGameTime() % 100 == 0) {
-            for (NetworkNode node : network.nodes) {
-                if (node != null) validateNode(player, node);
-            }
-        }
+        if (NodeHealth.validatePending(world, network)) unparkRules(world, network);
 
         double budgetUsed = 0;
 
         // Phase 2: Signal Processing
-        if (network.pendingSignals != null && !network.pendingSignals.isEmpty()) {
-            List<LogisticsSignal> signalsToProcess = new ArrayList<>(network.pendingSignals);
-            
-            // Phase 5: Maintain recent signal history for client visualization
-            network.recentSignals.addAll(signalsToProcess);
-            while (network.recentSignals.size() > 50) network.recentSignals.remove(0);
-
-            network.pendingSignals.clear();
-
-            for (LogisticsSignal signal : signalsToProcess) {
-                if (budgetUsed >= networkBudget) break;
-                budgetUsed += processSignal(player, network, signal, networkBudget - budgetUsed, ctx);
-            }
-        }
-
-        int startIndex = networkRuleIndex.getOrDefault(network.networkId, 0);
-        int totalRules = network.sortedRules.size();
-
+        SignalBus bus = network.signals;
+        if (!bus.isEmpty()) {
+            // Signals fired while dispatching wait for the next slot, so a signal graph cannot fan out within one tick
+            int batch = bus.size();
+            for (int s = 0; s < batch; s++) {
+                // Out of time: the rest stays queued for the network's next slot
+                if (budgetUsed >= networkBudget || System.nanoTime() >= deadlineNanos) break;
+                String type = bus.peekType();
+                UUID sourceNodeId = bus.peekNode();
+                UUID sourceRuleId = bus.peekRule();
+                bus.pop();
+
+                // Phase 5: Maintain recent signal history for client visualization
+                recordSignal(network, type, sourceNodeId, sourceRuleId);
+                budgetUsed += processSignal(world, network, type, sourceNodeId, networkBudget - budgetUsed, deadlineNanos, ctx);
+            }
+        }
+
+        List<LogisticsRule> sortedRules = network.index().sortedRules();
+        int startIndex = network.ruleCursor;
+        int totalRules = sortedRules.size();
+        if (totalRules == 0) return;
+
+        boolean ranAny = false;
         int i = 0;
         for (; i < totalRules && budgetUsed < networkBudget; i++) {
+            long ruleStart = System.nanoTime();
+            if (ruleStart >= deadlineNanos) break;
+
             int currentIndex = (startIndex + i) % totalRules;
-            LogisticsRule rule = network.sortedRules.get(currentIndex);
+            LogisticsRule rule = sortedRules.get(currentIndex);
+            if (!rule.active) continue;
 
-            if (rule.active && "ALWAYS".equals(rule.triggerType)) {
-                long now = player.level().getGameTime();
-                if (ruleCooldowns.getOrDefault(rule.ruleId, 0L) > now) continue;
+            RulePlan plan = RulePlan.of(network, rule);
+            if (plan.trigger == RulePlan.Trigger.ALWAYS) {
+                long now = world.gameTime();
+                if (plan.parked || plan.cooldownUntil > now) continue;
+                // Defer a rule known to overrun what is left of the slot; the cursor resumes here next time
+                if (ranAny && ruleStart + plan.avgCostNanos > deadlineNanos) break;
 
                 ctx.budgetUsed = 0;
-                boolean moved = processRule(player, network, rule, false, ctx, 0);
+                boolean moved = processRule(world, network, plan, false, ctx, 0);
+                plan.recordCost(System.nanoTime() - ruleStart);
                 budgetUsed += ctx.budgetUsed;
+                ranAny = true;
 
-                if (moved) {
-                    long cooldown = switch(rule.speedMode) {
-                        case "SLOW" -> 5;
-                        case "NORMAL" -> 2;
-                        default -> 0;
-                    };
-                    if (cooldown > 0) ruleCooldowns.put(rule.ruleId, now + cooldown);
+                if (!moved && endpointsUnloaded(world, network, plan)) {
+                    plan.parked = true;
+                    rule.lastReport = "[PARKED] Endpoints unloaded";
                 }
+                if (moved && plan.speed.cooldown > 0) plan.cooldownUntil = now + plan.speed.cooldown;
                 
-                if (moved && rule.mode.equals("PRIORITY")) {
-                    networkRuleIndex.put(network.networkId, currentIndex);
-                    return (int)Math.ceil(budgetUsed);
+                if (moved && plan.isPriority()) {
+                    network.ruleCursor = currentIndex;
+                    return;
                 }
             }
         }
 
-        networkRuleIndex.put(network.networkId, (startIndex + i) % totalRules);
-        return (int)Math.ceil(budgetUsed);
+        network.ruleCursor = (startIndex + i) % totalRules;
+    }
+
+    /**
+     * A transfer rule cannot move anything while all of its sources, or all of its destinations, are BLOCK nodes in
+     * unloaded chunks. Unloaded destinations only count when there is no overflow target to fall back on.
+     */
+    private static boolean endpointsUnloaded(LogisticsWorld world, NetworkData network, RulePlan plan) {
+        if (!plan.action.isTransfer()) return false;
+        return allUnloaded(world, plan.sources) || (network.overflowTargetId == null && allUnloaded(world, plan.destinations));
+    }
+
+    private static boolean allUnloaded(LogisticsWorld world, List<NetworkNode> nodes) {
+        if (nodes.isEmpty()) return false;
+        for (NetworkNode node : nodes) {
+            if (!node.nodeType.equals("BLOCK") || world.isLoaded(node)) return false;
+        }
+        return true;
+    }
+
+    private static void unparkRules(LogisticsWorld world, NetworkData network) {
+        for (RulePlan plan : network.rulePlans.values()) {
+            if (!plan.parked || endpointsUnloaded(world, network, plan)) continue;
+            plan.parked = false;
+            plan.idleStreak = 0;
+            plan.cooldownUntil = 0;
+            RuleWakeups.unwatch(plan);
+            plan.rule.lastReport = "[SEARCH] Endpoints loaded";
+        }
     }
 
     public static boolean processRule(ServerPlayer player, NetworkData network, LogisticsRule rule, boolean skipCooldownCheck) {
-        return processRule(player, network, rule, skipCooldownCheck, new TickContext(), 0);
+        return processRule(new ServerLogisticsWorld(player), network, rule, skipCooldownCheck);
+    }
+
+    public static boolean processRule(LogisticsWorld world, NetworkData network, LogisticsRule rule, boolean skipCooldownCheck) {
+        return processRule(world, network, RulePlan.of(network, rule), skipCooldownCheck, new TickContext(world, network), 0);
     }
 
-    private static void finishRule(NetworkData network, LogisticsRule rule, boolean movedAnything, TickContext ctx, ServerPlayer player, long now, int depth) {
+    private static void finishRule(LogisticsWorld world, NetworkData network, RulePlan plan, boolean movedAnything, TickContext ctx, long now, int depth) {
+        LogisticsRule rule = plan.rule;
         if (movedAnything) {
-            ruleSuccessStreak.put(rule.ruleId, ruleSuccessStreak.getOrDefault(rule.ruleId, 0) + 1);
+            plan.successStreak = Math.max(plan.successStreak, 0) + 1;
+            if (plan.idleStreak > 0) {
+                plan.idleStreak = 0;
+                RuleWakeups.unwatch(plan);
+            }
             
             // Phase 2: Signal Emission
             if (rule.emitSignalOnSuccess != null && !rule.emitSignalOnSuccess.isEmpty()) {
@@ -263,58 +273,70 @@ public class NetworkTickHandler {
             }
             
             // Legacy/Smart Chaining
-            for (LogisticsRule r : network.rules) {
-                boolean isNextInChain = false;
-                if (rule.destIsGroup) {
-                    NodeGroup group = findGroup(network, rule.destNodeId);
-                    if (group != null && group.nodeIds.contains(r.sourceNodeId)) isNextInChain = true;
-                } else if (rule.destNodeId != null) {
-                    if (rule.destNodeId.equals(r.sourceNodeId)) isNextInChain = true;
-                }
-
-                if (depth < 10 && r.active && isNextInChain && !ctx.rulesInChain.contains(r.ruleId) && "ALWAYS".equals(r.triggerType)) {
+            if (depth < 10 && !plan.destNodeIds.isEmpty()) {
+                // Successors run in rule list order, however many destination nodes they start from
+                for (LogisticsRule r : network.index().rulesFromSources(plan.destNodeIds)) {
+                    if (!r.active || ctx.rulesInChain.contains(r.ruleId)) continue;
+                    RulePlan next = RulePlan.of(network, r);
+                    if (next.trigger != RulePlan.Trigger.ALWAYS) continue;
                     ctx.rulesInChain.add(r.ruleId);
-                    processRule(player, network, r, true, ctx, depth + 1);
+                    processRule(world, network, next, true, ctx, depth + 1);
                 }
             }
         } else {
             // Auto-Healing: Try overflow redirection
-            if (network.overflowTargetId != null && !rule.ruleAction.equals("SET_VARIABLE") && !rule.ruleAction.equals("MATH")) {
-                handleOverflow(player, network, rule, ctx, now);
+            if (network.overflowTargetId != null && plan.action.isTransfer()) {
+                handleOverflow(world, network, plan, ctx, now);
             }
 
             if (rule.lastReport.isEmpty() || rule.lastReport.contains("Moved")) {
                 rule.lastReport = "[SEARCH] No Transfer";
             }
-            ruleSuccessStreak.put(rule.ruleId, -1);
+            plan.successStreak = -1;
             long wait = depth > 0 ? 0 : 1;
-            ruleCooldowns.put(rule.ruleId, now + wait);
+            backOff(world, network, plan, now, wait, depth);
         }
     }
 
-    private static void handleOverflow(ServerPlayer player, NetworkData network, LogisticsRule rule, TickContext ctx, long now) {
+    private static void backOff(LogisticsWorld world, NetworkData network, RulePlan plan, long now, long baseWait, int depth) {
+        if (depth > 0 || plan.trigger != RulePlan.Trigger.ALWAYS) {
+            plan.cooldownUntil = now + baseWait;
+            return;
+        }
+        plan.idleStreak++;
+        // Register for wake-ups once the rule is clearly idle; registering on every single miss would churn
+        if (plan.idleStreak >= 2 && !plan.watching) RuleWakeups.watch(world, network, plan);
+
+        long cap = Config.logisticsMaxIdleBackoffTicks;
+        if (!plan.fullyWatched) cap = Math.min(cap, UNWATCHED_BACKOFF_CAP);
+        long wait = Math.min(Math.max(baseWait, 1) << Math.min(plan.idleStreak - 1, 16), cap);
+        plan.cooldownUntil = now + Math.max(wait, baseWait);
+    }
+
+    private static void handleOverflow(LogisticsWorld world, NetworkData network, RulePlan plan, TickContext ctx, long now) {
         // Implementation moved from processRule
-        List<NetworkNode> sources = resolveSources(network, rule);
+        List<NetworkNode> sources = plan.sources;
         List<NetworkNode> overflowDestinations = resolveOverflowDestinations(network);
 
         if (!overflowDestinations.isEmpty() && !sources.isEmpty()) {
+            LogisticsRule rule = plan.rule;
             boolean movedAnything = false;
-            int maxToMove = calculateMaxToMove(rule);
+            int maxToMove = plan.maxToMove;
             
+            DestinationQueue queue = new DestinationQueue(overflowDestinations, false, 0, n -> getFullness(world, network, n, plan.type, ctx));
             for (NetworkNode sourceNode : sources) {
-                for (NetworkNode destNode : overflowDestinations) {
+                queue.beginSource();
+                NetworkNode destNode;
+                while ((destNode = queue.next()) != null) {
                     if (sourceNode.nodeId.equals(destNode.nodeId)) continue;
-                    int moved = 0;
-                    if (rule.type.equals("ENERGY")) {
-                        moved = processEnergyRule(player, network, rule, sourceNode, destNode, ctx, maxToMove);
-                    } else if (rule.type.equals("FLUIDS")) {
-                        moved = processFluidRule(player, network, rule, sourceNode, destNode, ctx, maxToMove);
-                    } else {
-                        moved = processItemRule(player, network, rule, sourceNode, destNode, ctx, maxToMove);
-                    }
+                    int moved = transfer(world, network, plan, sourceNode, destNode, ctx, maxToMove);
 
-                    if (moved > 0) {
+                    if (moved <= 0) {
+                        queue.rejected();
+                    } else {
                         movedAnything = true;
+                        RuleWakeups.wakeNode(world, network, sourceNode);
+                        RuleWakeups.wakeNode(world, network, destNode);
                         rule.lastReport = "[OVERFLOW] " + rule.lastReport.replace("[ACTIVE] ", "");
                         break;
                     }
@@ -324,50 +346,6 @@ public class NetworkTickHandler {
         }
     }
 
-    private static List<NetworkNode> resolveSources(NetworkData network, LogisticsRule rule) {
-        List<NetworkNode> sources = new ArrayList<>();
-        if (rule.ruleAction.equals("INSERT")) {
-            NetworkNode bufferNode = new NetworkNode();
-            bufferNode.nodeId = BUFFER_NODE_ID;
-            bufferNode.nodeType = "BUFFER";
-            sources.add(bufferNode);
-        } else if (rule.sourceIsGroup) {
-            NodeGroup group = findGroup(network, rule.sourceNodeId);
-            if (group != null) {
-                for (UUID id : group.nodeIds) {
-                    NetworkNode n = LogisticsUtil.findNode(network, id);
-                    if (n != null) sources.add(n);
-                }
-            }
-        } else {
-            NetworkNode n = LogisticsUtil.findNode(network, rule.sourceNodeId);
-            if (n != null) sources.add(n);
-        }
-        return sources;
-    }
-
-    private static List<NetworkNode> resolveDestinations(NetworkData network, LogisticsRule rule) {
-        List<NetworkNode> destinations = new ArrayList<>();
-        if (rule.ruleAction.equals("EXTRACT")) {
-            NetworkNode bufferNode = new NetworkNode();
-            bufferNode.nodeId = BUFFER_NODE_ID;
-            bufferNode.nodeType = "BUFFER";
-            destinations.add(bufferNode);
-        } else if (rule.destIsGroup) {
-            NodeGroup group = findGroup(network, rule.destNodeId);
-            if (group != null) {
-                for (UUID id : group.nodeIds) {
-                    NetworkNode n = LogisticsUtil.findNode(network, id);
-                    if (n != null) destinations.add(n);
-                }
-            }
-        } else {
-            NetworkNode n = LogisticsUtil.findNode(network, rule.destNodeId);
-            if (n != null) destinations.add(n);
-        }
-        return destinations;
-    }
-
     private static List<NetworkNode> resolveOverflowDestinations(NetworkData network) {
         List<NetworkNode> overflowDestinations = new ArrayList<>();
         if (network.overflowTargetId != null) {
@@ -387,71 +365,48 @@ public class NetworkTickHandler {
         return overflowDestinations;
     }
 
-    private static int calculateMaxToMove(LogisticsRule rule) {
-        int maxToMove = rule.amountPerTick == -1 || rule.speedMode.equals("INSTANT") ? Integer.MAX_VALUE : rule.amountPerTick;
-        if (rule.type.equals("ENERGY") || rule.type.equals("FLUIDS")) {
-            if (rule.speedMode.equals("HYPER")) maxToMove *= 100;
-        } else {
-            if (rule.speedMode.equals("HYPER")) maxToMove *= 10;
-        }
-        return maxToMove;
+    private static int transfer(LogisticsWorld world, NetworkData network, RulePlan plan, NetworkNode sourceNode, NetworkNode destNode, TickContext ctx, int amountLimit) {
+        return switch (plan.type) {
+            case ENERGY -> processEnergyRule(world, network, plan.rule, sourceNode, destNode, ctx, amountLimit);
+            case FLUIDS -> processFluidRule(world, network, plan.rule, sourceNode, destNode, ctx, amountLimit);
+            case ITEMS -> processItemRule(world, network, plan.rule, sourceNode, destNode, ctx, amountLimit);
+        };
     }
 
-    public static boolean processRule(ServerPlayer player, NetworkData network, LogisticsRule rule, boolean skipCooldownCheck, TickContext ctx, int depth) {
+    private static boolean processRule(LogisticsWorld world, NetworkData network, RulePlan plan, boolean skipCooldownCheck, TickContext ctx, int depth) {
         if (depth > 20) return false;
+        LogisticsRule rule = plan.rule;
         ctx.budgetUsed += 1.0;
-        long now = player.level().getGameTime();
-        if (!skipCooldownCheck && ruleCooldowns.getOrDefault(rule.ruleId, 0L) > now) return false;
+        long now = world.gameTime();
+        if (!skipCooldownCheck && plan.cooldownUntil > now) return false;
+        plan.lastEvalTick = now;
 
         // Phase 3: Condition Evaluation (Moved up for efficiency)
-        if (!rule.conditions.isEmpty()) {
-            if (!checkConditions(player, network, rule, ctx)) {
+        if (plan.conditions != null) {
+            if (!plan.conditions.run(ctx)) {
                 rule.lastReport = "[BLOCKED] Conditions not met";
-                ruleCooldowns.put(rule.ruleId, now + 5);
+                backOff(world, network, plan, now, 5, depth);
                 return false;
             }
         }
 
         // Phase 4: Handle SET_VARIABLE and MATH
-        if (rule.ruleAction.equals("SET_VARIABLE")) {
-            double value = 0;
-            if (rule.sourceNodeId != null) {
-                NetworkNode src = LogisticsUtil.findNode(network, rule.sourceNodeId);
-                if (src != null) value = getResourceCount(player, network, src, rule.type, rule.filter, ctx);
-            } else {
-                value = rule.constantValue;
-            }
-            network.variables.put(rule.variableName, value);
-            rule.lastReport = "[ACTIVE] Var '" + rule.variableName + "' = " + String.format("%.2f", value);
-            finishRule(network, rule, true, ctx, player, now, depth);
+        if (plan.variableAction != null) {
+            plan.variableAction.run(ctx);
+            double value = plan.variableAction.result;
+            rule.lastReport = plan.action == RulePlan.Action.MATH
+                    ? "[ACTIVE] Math result: " + String.format("%.2f", value)
+                    : "[ACTIVE] Var '" + rule.variableName + "' = " + String.format("%.2f", value);
+            finishRule(world, network, plan, true, ctx, now, depth);
             return true;
         }
 
-        if (rule.ruleAction.equals("MATH")) {
-            double v1 = network.variables.getOrDefault(rule.variableName, 0.0);
-            double v2 = rule.secondaryVariableName != null && !rule.secondaryVariableName.isEmpty() 
-                    ? network.variables.getOrDefault(rule.secondaryVariableName, 0.0) 
-                    : rule.constantValue;
-            
-            double result = switch (rule.variableOp) {
-                case "ADD" -> v1 + v2;
-                case "SUB" -> v1 - v2;
-                case "MUL" -> v1 * v2;
-                case "DIV" -> v2 != 0 ? v1 / v2 : 0;
-                default -> v2; // SET
-            };
-            network.variables.put(rule.variableName, result);
-            rule.lastReport = "[ACTIVE] Math result: " + String.format("%.2f", result);
-            finishRule(network, rule, true, ctx, player, now, depth);
-            return true;
-        }
-
-        List<NetworkNode> sources = resolveSources(network, rule);
-        List<NetworkNode> destinations = resolveDestinations(network, rule);
+        List<NetworkNode> sources = plan.sources;
+        List<NetworkNode> destinations = plan.destinations;
 
         if (sources.isEmpty() || destinations.isEmpty()) {
             rule.lastReport = "[ERROR] Nodes missing";
-            ruleCooldowns.put(rule.ruleId, now + 2);
+            backOff(world, network, plan, now, 2, depth);
             return false;
         }
 
@@ -459,11 +414,11 @@ public class NetworkTickHandler {
         if (rule.sourceIsGroup && rule.minAmount > 0) {
             long total = 0;
             for (NetworkNode sn : sources) {
-                total += getResourceCount(player, network, sn, rule.type, rule.filter, ctx);
+                total += getResourceCount(world, network, sn, plan.type, rule.filter, ctx);
             }
             if (total < rule.minAmount) {
                 rule.lastReport = "[SEARCH] Group < Min (" + total + ")";
-                ruleCooldowns.put(rule.ruleId, now + 5);
+                backOff(world, network, plan, now, 5, depth);
                 return false;
             }
         }
@@ -471,85 +426,75 @@ public class NetworkTickHandler {
         if (rule.destIsGroup && rule.maxAmount != Integer.MAX_VALUE) {
             long total = 0;
             for (NetworkNode dn : destinations) {
-                total += getResourceCount(player, network, dn, rule.type, rule.filter, ctx);
+                total += getResourceCount(world, network, dn, plan.type, rule.filter, ctx);
             }
             if (total >= rule.maxAmount) {
                 rule.lastReport = "[FULL] Group @ Max (" + total + ")";
-                ruleCooldowns.put(rule.ruleId, now + 5);
+                backOff(world, network, plan, now, 5, depth);
                 return false;
             }
         }
 
-        int maxToMove = calculateMaxToMove(rule);
+        int maxToMove = plan.maxToMove;
         int totalMovedCount = 0;
         boolean movedAnything = false;
 
         // Phase 3: Maintenance Mode - Strict limit
         if (rule.maintenanceMode && rule.maxAmount != Integer.MAX_VALUE) {
             long currentTotal = 0;
-            for (NetworkNode dn : destinations) currentTotal += getResourceCount(player, network, dn, rule.type, rule.filter, ctx);
+            for (NetworkNode dn : destinations) currentTotal += getResourceCount(world, network, dn, plan.type, rule.filter, ctx);
             if (currentTotal >= rule.maxAmount) {
                 rule.lastReport = "[FULL] Stock OK (" + currentTotal + ")";
-                ruleCooldowns.put(rule.ruleId, now + 20);
+                backOff(world, network, plan, now, 20, depth);
                 return false;
             }
             maxToMove = (int) Math.min(maxToMove, rule.maxAmount - currentTotal);
         }
 
-        List<NetworkNode> sortedDestinations = new ArrayList<>(destinations);
-        if (rule.destIsGroup) {
-            if (rule.distributionMode.equals("BALANCED")) {
-                sortedDestinations.sort(Comparator.comparingDouble(n -> getFullness(player, network, n, rule.type, ctx)));
-            } else if (rule.distributionMode.equals("ROUND_ROBIN")) {
-                int startIdx = groupDistributionIndex.getOrDefault(rule.ruleId, 0) % destinations.size();
-                sortedDestinations = new ArrayList<>();
-                for (int i = 0; i < destinations.size(); i++) {
-                    sortedDestinations.add(destinations.get((startIdx + i) % destinations.size()));
-                }
-            }
-        }
+        boolean balanced = rule.destIsGroup && plan.distribution == RulePlan.Distribution.BALANCED;
+        int startIndex = rule.destIsGroup && plan.distribution == RulePlan.Distribution.ROUND_ROBIN ? plan.distributionIndex : 0;
+        DestinationQueue queue = new DestinationQueue(destinations, balanced, startIndex, n -> getFullness(world, network, n, plan.type, ctx));
 
         outer: for (NetworkNode sourceNode : sources) {
-            for (int d = 0; d < sortedDestinations.size(); d++) {
-                NetworkNode destNode = sortedDestinations.get(d);
+            queue.beginSource();
+            boolean drained = false;
+            NetworkNode destNode;
+            while ((destNode = queue.next()) != null) {
                 if (sourceNode == destNode) continue;
 
                 int currentLimit = maxToMove - totalMovedCount;
                 if (currentLimit <= 0) break outer;
 
-                int moved = 0;
-                if (rule.type.equals("ENERGY")) {
-                    moved = processEnergyRule(player, network, rule, sourceNode, destNode, ctx, currentLimit);
-                } else if (rule.type.equals("FLUIDS")) {
-                    moved = processFluidRule(player, network, rule, sourceNode, destNode, ctx, currentLimit);
-                } else {
-                    moved = processItemRule(player, network, rule, sourceNode, destNode, ctx, currentLimit);
-                }
+                int moved = transfer(world, network, plan, sourceNode, destNode, ctx, currentLimit);
 
                 if (moved > 0) {
                     totalMovedCount += moved;
                     movedAnything = true;
+                    drained = true;
                     
                     // Phase 2: Automatic Signals
-                    String typePrefix = rule.type.equals("ITEMS") ? "ITEM" : (rule.type.equals("FLUIDS") ? "FLUID" : "ENERGY");
-                    fireSignal(network, typePrefix + "_REMOVED", sourceNode.nodeId, rule.ruleId);
-                    fireSignal(network, typePrefix + "_ADDED", destNode.nodeId, rule.ruleId);
+                    fireSignal(network, plan.type.removedSignal, sourceNode.nodeId, rule.ruleId);
+                    fireSignal(network, plan.type.addedSignal, destNode.nodeId, rule.ruleId);
+                    RuleWakeups.wakeNode(world, network, sourceNode);
+                    RuleWakeups.wakeNode(world, network, destNode);
 
-                    if (rule.destIsGroup && rule.distributionMode.equals("ROUND_ROBIN")) {
-                        int originalIdx = destinations.indexOf(destNode);
-                        groupDistributionIndex.put(rule.ruleId, (originalIdx + 1) % destinations.size());
+                    if (rule.destIsGroup && plan.distribution == RulePlan.Distribution.ROUND_ROBIN) {
+                        plan.distributionIndex = (queue.lastIndex() + 1) % destinations.size();
                     }
+                } else {
+                    queue.rejected();
                 }
             }
+            if (drained) queue.sourceDone(sourceNode);
         }
 
-        finishRule(network, rule, movedAnything, ctx, player, now, depth);
+        finishRule(world, network, plan, movedAnything, ctx, now, depth);
         return movedAnything;
     }
 
-    private static int processItemRule(ServerPlayer player, NetworkData network, LogisticsRule rule, NetworkNode sourceNode, NetworkNode destNode, TickContext ctx, int amountLimit) {
-        IItemHandler sourceHandler = resolveItemHandler(player, network, sourceNode, rule.sourceSide, true, ctx);
-        IItemHandler destHandler = resolveItemHandler(player, network, destNode, rule.destSide, false, ctx);
+    private static int processItemRule(LogisticsWorld world, NetworkData network, LogisticsRule rule, NetworkNode sourceNode, NetworkNode destNode, TickContext ctx, int amountLimit) {
+        IItemHandler sourceHandler = resolveItemHandler(world, network, sourceNode, rule.sourceSide, true, ctx);
+        IItemHandler destHandler = resolveItemHandler(world, network, destNode, rule.destSide, false, ctx);
 
         if (sourceHandler == null || destHandler == null) {
             rule.lastReport = "[ERROR] No Item Cap";
@@ -559,7 +504,7 @@ public class NetworkTickHandler {
         int amountToMove = amountLimit;
 
         if (!rule.sourceIsGroup && rule.minAmount > 0) {
-            int currentInSource = countItems(sourceHandler, rule.filter, sourceNode, rule.sourceSlots);
+            int currentInSource = countItems(sourceHandler, rule.filter, sourceNode, rule.sourceSide, rule.sourceSlots, ctx);
             if (currentInSource < rule.minAmount) {
                 rule.lastReport = "[SEARCH] Source < Min";
                 return 0;
@@ -567,7 +512,7 @@ public class NetworkTickHandler {
         }
 
         if (!rule.destIsGroup && rule.maxAmount != Integer.MAX_VALUE) {
-            int currentInDest = countItems(destHandler, rule.filter, destNode, rule.destSlots);
+            int currentInDest = countItems(destHandler, rule.filter, destNode, rule.destSide, rule.destSlots, ctx);
             if (currentInDest >= rule.maxAmount) {
                 rule.lastReport = "[FULL] Dest @ Max";
                 return 0;
@@ -577,45 +522,39 @@ public class NetworkTickHandler {
 
         if (amountToMove <= 0) return 0;
 
-        int totalAccepted = 0;
-        for (int slot = 0; slot < sourceHandler.getSlots() && amountToMove > 0; slot++) {
-            if (!isSlotTargeted(slot, rule.sourceSlots)) continue;
-            if (sourceNode.slotConfig.getOrDefault(slot, "BOTH").equals("IN") || sourceNode.slotConfig.getOrDefault(slot, "BOTH").equals("OFF")) continue;
-
-            ItemStack stack = sourceHandler.getStackInSlot(slot);
-            if (stack.isEmpty() || !matchesFilter(stack, rule.filter)) continue;
-
-            ItemStack extracted = sourceHandler.extractItem(slot, amountToMove, true);
-            if (extracted.isEmpty()) continue;
-
-            int accepted = 0;
-            for (int dSlot = 0; dSlot < destHandler.getSlots() && !extracted.isEmpty(); dSlot++) {
-                if (!isSlotTargeted(dSlot, rule.destSlots)) continue;
-                if (destNode.slotConfig.getOrDefault(dSlot, "BOTH").equals("OUT") || destNode.slotConfig.getOrDefault(dSlot, "BOTH").equals("OFF")) continue;
-                
-                ItemStack remainder = destHandler.insertItem(dSlot, extracted, true);
-                int moveCount = extracted.getCount() - remainder.getCount();
-                if (moveCount > 0) {
-                    destHandler.insertItem(dSlot, sourceHandler.extractItem(slot, moveCount, false), false);
-                    accepted += moveCount;
-                    extracted.shrink(moveCount);
-                }
+        int[] sourceSlots = transferSlots(sourceHandler, sourceNode, rule.sourceSlots, "IN");
+        int[] destSlots = transferSlots(destHandler, destNode, rule.destSlots, "OUT");
+        int[] total = {0};
+        ItemTransfer.run(sourceHandler, sourceSlots, destHandler, destSlots, rule.filter.compiled()::test, amountToMove, network.virtualItemBuffer, (type, accepted) -> {
+            ctx.counts.itemsMoved(sourceNode, rule.sourceSide, type, -accepted);
+            ctx.counts.itemsMoved(destNode, rule.destSide, type, accepted);
+            total[0] += accepted;
+            network.itemsMovedThisMin += accepted;
+            String speedNote = "";
+            if (total[0] < amountLimit && amountLimit != Integer.MAX_VALUE) {
+                speedNote = " (Limited by nodes)";
             }
+            rule.lastReport = "[ACTIVE] Moved " + total[0] + "x " + type.getHoverName().getString() + speedNote;
+            network.lastReport = rule.lastReport;
+            recordMovement(network, rule, RulePlan.ResourceType.ITEMS, type.getItem(), accepted, sourceNode.nodeId, destNode.nodeId);
+        });
+        return total[0];
+    }
 
-            if (accepted > 0) {
-                amountToMove -= accepted;
-                totalAccepted += accepted;
-                network.itemsMovedThisMin += accepted;
-                String speedNote = "";
-                if (totalAccepted < amountLimit && totalAccepted > 0 && amountLimit != Integer.MAX_VALUE) {
-                    speedNote = " (Limited by nodes)";
-                }
-                rule.lastReport = "[ACTIVE] Moved " + totalAccepted + "x " + stack.getHoverName().getString() + speedNote;
-                network.lastReport = rule.lastReport;
-                recordMovement(network, ForgeRegistries.ITEMS.getKey(stack.getItem()).toString(), stack.getHoverName().getString(), accepted, sourceNode.nodeId, destNode.nodeId, "ITEMS");
-            }
+    /**
+     * Slots of a node's handler a rule may use: targeted by the rule and not blocked in that direction by the node.
+     */
+    private static int[] transferSlots(IItemHandler handler, NetworkNode node, List<Integer> targetedSlots, String blockedMode) {
+        int slots = handler.getSlots();
+        int[] result = new int[slots];
+        int n = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (!isSlotTargeted(slot, targetedSlots)) continue;
+            String mode = node.slotConfig.isEmpty() ? "BOTH" : node.slotConfig.getOrDefault(slot, "BOTH");
+            if (mode.equals(blockedMode) || mode.equals("OFF")) continue;
+            result[n++] = slot;
         }
-        return totalAccepted;
+        return n == slots ? result : Arrays.copyOf(result, n);
     }
 
     private static boolean isSlotTargeted(int slot, List<Integer> targetedSlots) {
@@ -626,19 +565,24 @@ public class NetworkTickHandler {
     public static NetworkData findNetwork(ServerPlayer player, UUID networkId) {
         if (networkId == null) return null;
         return player.getCapability(LogisticsCapability.PLAYER_NETWORKS)
-                .map(data -> data.getNetworks().stream()
-                        .filter(n -> n.networkId.equals(networkId))
-                        .findFirst().orElse(null))
+                .map(data -> data.getNetwork(networkId))
                 .orElse(null);
     }
 
 
     private static NodeGroup findGroup(NetworkData network, UUID groupId) {
-        if (network.groupMap != null) return network.groupMap.get(groupId);
-        for (NodeGroup group : network.groups) {
-            if (group.groupId.equals(groupId)) return group;
-        }
-        return null;
+        return network.index().group(groupId);
+    }
+
+    private static int countItems(IItemHandler handler, LogisticsFilter filter, NetworkNode node, String side, List<Integer> specificSlots, TickContext ctx) {
+        boolean allSlots = specificSlots == null || specificSlots.isEmpty() || specificSlots.contains(-1);
+        if (!allSlots) return countItems(handler, filter, node, specificSlots);
+        CompiledFilter compiled = filter.compiled();
+        long memo = ctx.counts.count(node, RulePlan.ResourceType.ITEMS, side, compiled);
+        if (memo >= 0) return (int) memo;
+        int count = countItems(handler, filter, node, specificSlots);
+        ctx.counts.putCount(node, RulePlan.ResourceType.ITEMS, side, compiled, count);
+        return count;
     }
 
     private static int countItems(IItemHandler handler, LogisticsFilter filter, NetworkNode node, List<Integer> specificSlots) {
@@ -652,11 +596,11 @@ public class NetworkTickHandler {
         return count;
     }
 
-    private static int processEnergyRule(ServerPlayer player, NetworkData network, LogisticsRule rule, NetworkNode srcNode, NetworkNode dstNode, TickContext ctx, int amountLimit) {
+    private static int processEnergyRule(LogisticsWorld world, NetworkData network, LogisticsRule rule, NetworkNode srcNode, NetworkNode dstNode, TickContext ctx, int amountLimit) {
         int amountToMove = amountLimit;
 
-        List<IEnergyStorage> sources = resolveAllEnergyHandlers(player, network, srcNode, rule.sourceSide, rule.sourceSlots, ctx, rule.scanItems);
-        List<IEnergyStorage> destinations = resolveAllEnergyHandlers(player, network, dstNode, rule.destSide, rule.destSlots, ctx, rule.scanItems);
+        List<IEnergyStorage> sources = resolveAllEnergyHandlers(world, network, srcNode, rule.sourceSide, rule.sourceSlots, ctx, rule.scanItems);
+        List<IEnergyStorage> destinations = resolveAllEnergyHandlers(world, network, dstNode, rule.destSide, rule.destSlots, ctx, rule.scanItems);
 
         if (!rule.sourceIsGroup && rule.minAmount > 0) {
             int total = 0;
@@ -689,10 +633,12 @@ public class NetworkTickHandler {
                 int accepted = dst.receiveEnergy(toExtract, false);
                 if (accepted > 0) {
                     src.extractEnergy(accepted, false);
+                    ctx.counts.energyMoved(srcNode, rule.scanItems || !rule.sourceSlots.contains(-1));
+                    ctx.counts.energyMoved(dstNode, rule.scanItems || !rule.destSlots.contains(-1));
                     totalExtracted += accepted;
                     amountToMove -= accepted;
                     toExtract -= accepted;
-                    recordMovement(network, "energy", "Forge Energy", accepted, srcNode.nodeId, dstNode.nodeId, "ENERGY");
+                    recordMovement(network, rule, RulePlan.ResourceType.ENERGY, null, accepted, srcNode.nodeId, dstNode.nodeId);
                     if (amountToMove <= 0 || toExtract <= 0) break;
                 }
             }
@@ -711,33 +657,32 @@ public class NetworkTickHandler {
         return totalExtracted;
     }
 
-    private static List<IEnergyStorage> resolveAllEnergyHandlers(ServerPlayer player, NetworkData network, NetworkNode node, String side, List<Integer> slots, TickContext ctx, boolean scanItems) {
+    private static List<IEnergyStorage> resolveAllEnergyHandlers(LogisticsWorld world, NetworkData network, NetworkNode node, String side, List<Integer> slots, TickContext ctx, boolean scanItems) {
         List<IEnergyStorage> list = new ArrayList<>();
         if (slots.contains(-1)) {
-            IEnergyStorage blockCap = resolveEnergyHandler(player, network, node, side, -1, ctx);
+            IEnergyStorage blockCap = resolveEnergyHandler(world, network, node, side, -1, ctx);
             if (blockCap != null) list.add(blockCap);
             if (scanItems) {
-                IItemHandler inv = resolveItemHandler(player, network, node, "AUTO", false, ctx);
+                IItemHandler inv = resolveItemHandler(world, network, node, "AUTO", false, ctx);
                 if (inv != null) {
-                    for (int i = 0; i < inv.getSlots(); i++) {
-                        inv.getStackInSlot(i).getCapability(ForgeCapabilities.ENERGY).ifPresent(list::add);
-                    }
+                    if (node.energyItemSlots == null) node.energyItemSlots = new ItemCapabilitySlots<>(ForgeCapabilities.ENERGY);
+                    node.energyItemSlots.collect(inv, list);
                 }
             }
         } else {
             for (int s : slots) {
-                IEnergyStorage cap = resolveEnergyHandler(player, network, node, side, s, ctx);
+                IEnergyStorage cap = resolveEnergyHandler(world, network, node, side, s, ctx);
                 if (cap != null) list.add(cap);
             }
         }
         return list;
     }
 
-    private static int processFluidRule(ServerPlayer player, NetworkData network, LogisticsRule rule, NetworkNode srcNode, NetworkNode dstNode, TickContext ctx, int amountLimit) {
+    private static int processFluidRule(LogisticsWorld world, NetworkData network, LogisticsRule rule, NetworkNode srcNode, NetworkNode dstNode, TickContext ctx, int amountLimit) {
         int amountToMove = amountLimit;
 
-        List<IFluidHandler> sources = resolveAllFluidHandlers(player, network, srcNode, rule.sourceSide, rule.sourceSlots, ctx, rule.scanItems);
-        List<IFluidHandler> destinations = resolveAllFluidHandlers(player, network, dstNode, rule.destSide, rule.destSlots, ctx, rule.scanItems);
+        List<IFluidHandler> sources = resolveAllFluidHandlers(world, network, srcNode, rule.sourceSide, rule.sourceSlots, ctx, rule.scanItems);
+        List<IFluidHandler> destinations = resolveAllFluidHandlers(world, network, dstNode, rule.destSide, rule.destSlots, ctx, rule.scanItems);
 
         if (!rule.sourceIsGroup && rule.minAmount > 0) {
             int total = 0;
@@ -780,12 +725,14 @@ public class NetworkTickHandler {
                 if (accepted > 0) {
                     FluidStack realDrained = src.drain(accepted, IFluidHandler.FluidAction.EXECUTE);
                     dst.fill(realDrained, IFluidHandler.FluidAction.EXECUTE);
+                    ctx.counts.fluidMoved(srcNode, rule.sourceSide, -accepted, rule.scanItems || !rule.sourceSlots.contains(-1));
+                    ctx.counts.fluidMoved(dstNode, rule.destSide, accepted, rule.scanItems || !rule.destSlots.contains(-1));
                     
                     totalMoved += accepted;
                     amountToMove -= accepted;
                     toMoveFromThisSrc -= accepted;
                     fluidName = realDrained.getDisplayName().getString();
-                    recordMovement(network, ForgeRegistries.FLUIDS.getKey(realDrained.getFluid()).toString(), fluidName, accepted, srcNode.nodeId, dstNode.nodeId, "FLUIDS");
+                    recordMovement(network, rule, RulePlan.ResourceType.FLUIDS, realDrained.getFluid(), accepted, srcNode.nodeId, dstNode.nodeId);
                     
                     if (amountToMove <= 0 || toMoveFromThisSrc <= 0) break;
                 }
@@ -805,22 +752,21 @@ public class NetworkTickHandler {
         return totalMoved;
     }
 
-    private static List<IFluidHandler> resolveAllFluidHandlers(ServerPlayer player, NetworkData network, NetworkNode node, String side, List<Integer> slots, TickContext ctx, boolean scanItems) {
+    private static List<IFluidHandler> resolveAllFluidHandlers(LogisticsWorld world, NetworkData network, NetworkNode node, String side, List<Integer> slots, TickContext ctx, boolean scanItems) {
         List<IFluidHandler> list = new ArrayList<>();
         if (slots.contains(-1)) {
-            IFluidHandler blockCap = resolveFluidHandler(player, network, node, side, -1, ctx);
+            IFluidHandler blockCap = resolveFluidHandler(world, network, node, side, -1, ctx);
             if (blockCap != null) list.add(blockCap);
             if (scanItems) {
-                IItemHandler inv = resolveItemHandler(player, network, node, "AUTO", false, ctx);
+                IItemHandler inv = resolveItemHandler(world, network, node, "AUTO", false, ctx);
                 if (inv != null) {
-                    for (int i = 0; i < inv.getSlots(); i++) {
-                        inv.getStackInSlot(i).getCapability(ForgeCapabilities.FLUID_HANDLER_ITEM).ifPresent(list::add);
-                    }
+                    if (node.fluidItemSlots == null) node.fluidItemSlots = new ItemCapabilitySlots<>(ForgeCapabilities.FLUID_HANDLER_ITEM);
+                    node.fluidItemSlots.collect(inv, list);
                 }
             }
         } else {
             for (int s : slots) {
-                IFluidHandler cap = resolveFluidHandler(player, network, node, side, s, ctx);
+                IFluidHandler cap = resolveFluidHandler(world, network, node, side, s, ctx);
                 if (cap != null) list.add(cap);
             }
         }
@@ -834,7 +780,7 @@ public class NetworkTickHandler {
         return null;
     }
 
-    private static IEnergyStorage resolveEnergyHandler(ServerPlayer player, NetworkData network, NetworkNode node, String sideStr, int slotIdx, TickContext ctx) {
+    private static IEnergyStorage resolveEnergyHandler(LogisticsWorld world, NetworkData network, NetworkNode node, String sideStr, int slotIdx, TickContext ctx) {
         if (node.nodeType.equals("BUFFER")) return new VirtualBufferEnergyHandler(network);
         if (node.nodeType.equals("TRASH")) return new TrashEnergyHandler();
         
@@ -843,7 +789,7 @@ public class NetworkTickHandler {
             return new NodeBufferEnergyHandler(node);
         }
         if (node.nodeType.equals("SUB_NETWORK")) {
-            NetworkData otherNet = findNetwork(player, node.referencedNetworkId);
+            NetworkData otherNet = world.findNetwork(node.referencedNetworkId);
             if (otherNet != null) {
                 NetworkNode targetPort = LogisticsUtil.findNode(otherNet, node.targetPortId);
                 if (targetPort != null) {
@@ -854,7 +800,7 @@ public class NetworkTickHandler {
         }
 
         if (slotIdx != -1) {
-            IItemHandler inv = resolveItemHandler(player, network, node, "AUTO", false, ctx);
+            IItemHandler inv = resolveItemHandler(world, network, node, "AUTO", false, ctx);
             if (inv != null && slotIdx < inv.getSlots()) {
                 ItemStack stack = inv.getStackInSlot(slotIdx);
                 if (!stack.isEmpty()) {
@@ -866,53 +812,30 @@ public class NetworkTickHandler {
 
         if (!node.nodeType.equals("BLOCK")) return null;
         Direction side = sideStr.equals("AUTO") ? resolveDirection(node, "ENERGY") : Direction.byName(sideStr.toLowerCase());
-        
-        IEnergyStorage cached = ctx.getCache(player.level(), node.pos, side, "ENERGY");
-        if (cached != null) return cached;
-
-        ResourceLocation dimLoc = ResourceLocation.tryParse(node.dimension);
-        if (dimLoc == null) return null;
-        ServerLevel level = player.serverLevel().getServer().getLevel(ResourceKey.create(Registries.DIMENSION, dimLoc));
-        if (level == null || !level.hasChunkAt(node.pos)) return null;
-        
-        // SECURITY: Verify access on every tick to ensure logistics rules respect land claims
-        if (!LogisticsUtil.canPlayerAccess(player, level, node.pos)) return null;
-
-        BlockEntity be = level.getBlockEntity(node.pos);
-        if (be == null) return null;
-        IEnergyStorage cap = be.getCapability(ForgeCapabilities.ENERGY, side).orElse(null); 
-        if (cap == null && sideStr.equals("AUTO")) { 
-            for (Direction d : Direction.values()) { 
-                if (d == side) continue; 
-                cap = be.getCapability(ForgeCapabilities.ENERGY, d).orElse(null); 
-                if (cap != null) break; 
-            } 
-        } 
-        if (cap != null) ctx.putCache(level, node.pos, side, "ENERGY", cap);
-        return cap;
+        return world.blockEnergy(node, side, sideStr.equals("AUTO"));
     }
 
-    private static IFluidHandler resolveFluidHandler(ServerPlayer player, NetworkData network, NetworkNode node, String sideStr, int slotIdx, TickContext ctx) {
-        if (node.nodeType.equals("BUFFER")) return new VirtualBufferFluidHandler(network);
+    private static IFluidHandler resolveFluidHandler(LogisticsWorld world, NetworkData network, NetworkNode node, String sideStr, int slotIdx, TickContext ctx) {
+        if (node.nodeType.equals("BUFFER")) return network.virtualFluidBuffer;
         if (node.nodeType.equals("TRASH")) return new TrashFluidHandler();
 
         // Phase 3: Ports & Sub-Networks
         if (node.nodeType.equals("PORT_INPUT") || node.nodeType.equals("PORT_OUTPUT")) {
-            return new NodeBufferFluidHandler(node);
+            return node.virtualFluidBuffer;
         }
         if (node.nodeType.equals("SUB_NETWORK")) {
-            NetworkData otherNet = findNetwork(player, node.referencedNetworkId);
+            NetworkData otherNet = world.findNetwork(node.referencedNetworkId);
             if (otherNet != null) {
                 NetworkNode targetPort = LogisticsUtil.findNode(otherNet, node.targetPortId);
                 if (targetPort != null) {
-                    return new NodeBufferFluidHandler(targetPort);
+                    return targetPort.virtualFluidBuffer;
                 }
             }
             return null;
         }
 
         if (slotIdx != -1) {
-            IItemHandler inv = resolveItemHandler(player, network, node, "AUTO", false, ctx);
+            IItemHandler inv = resolveItemHandler(world, network, node, "AUTO", false, ctx);
             if (inv != null && slotIdx < inv.getSlots()) {
                 ItemStack stack = inv.getStackInSlot(slotIdx);
                 if (!stack.isEmpty()) {
@@ -924,205 +847,62 @@ public class NetworkTickHandler {
 
         if (!node.nodeType.equals("BLOCK")) return null;
         Direction side = sideStr.equals("AUTO") ? resolveDirection(node, "FLUIDS") : Direction.byName(sideStr.toLowerCase());
-        
-        IFluidHandler cached = ctx.getCache(player.level(), node.pos, side, "FLUIDS");
-        if (cached != null) return cached;
-
-        ResourceLocation dimLoc = ResourceLocation.tryParse(node.dimension);
-        if (dimLoc == null) return null;
-        ServerLevel level = player.serverLevel().getServer().getLevel(ResourceKey.create(Registries.DIMENSION, dimLoc));
-        if (level == null || !level.hasChunkAt(node.pos)) return null;
-        
-        // SECURITY: Verify access on every tick to ensure logistics rules respect land claims
-        if (!LogisticsUtil.canPlayerAccess(player, level, node.pos)) return null;
-
-        BlockEntity be = level.getBlockEntity(node.pos);
-        if (be == null) return null;
-        IFluidHandler cap = be.getCapability(ForgeCapabilities.FLUID_HANDLER, side).orElse(null); 
-        if (cap == null && sideStr.equals("AUTO")) { 
-            for (Direction d : Direction.values()) { 
-                if (d == side) continue; 
-                cap = be.getCapability(ForgeCapabilities.FLUID_HANDLER, d).orElse(null); 
-                if (cap != null) break; 
-            } 
-        } 
-        if (cap != null) ctx.putCache(level, node.pos, side, "FLUIDS", cap);
-        return cap;
+        return world.blockFluids(node, side, sideStr.equals("AUTO"));
     }
 
-    private static IItemHandler resolveItemHandler(ServerPlayer player, NetworkData network, NetworkNode node, String sideStr, boolean isSource, TickContext ctx) {
-        if (node.nodeType.equals("BUFFER")) return new VirtualBufferItemHandler(network);
+    private static IItemHandler resolveItemHandler(LogisticsWorld world, NetworkData network, NetworkNode node, String sideStr, boolean isSource, TickContext ctx) {
+        if (node.nodeType.equals("BUFFER")) return network.virtualItemBuffer;
         if (node.nodeType.equals("TRASH")) return new TrashItemHandler();
         
         // Phase 3: Ports & Sub-Networks
         if (node.nodeType.equals("PORT_INPUT") || node.nodeType.equals("PORT_OUTPUT")) {
-            return new NodeBufferItemHandler(node);
+            return node.virtualItemBuffer;
         }
         if (node.nodeType.equals("SUB_NETWORK")) {
-            NetworkData otherNet = findNetwork(player, node.referencedNetworkId);
+            NetworkData otherNet = world.findNetwork(node.referencedNetworkId);
             if (otherNet != null) {
                 NetworkNode targetPort = LogisticsUtil.findNode(otherNet, node.targetPortId);
                 if (targetPort != null) {
-                    return new NodeBufferItemHandler(targetPort);
+                    return targetPort.virtualItemBuffer;
                 }
             }
             return null;
         }
 
-        Direction side = sideStr.equals("AUTO") ? resolveDirection(node, "ITEMS") : Direction.byName(sideStr.toLowerCase());
-
-        if (node.nodeType.equals("BLOCK") && node.pos != null) {
-            IItemHandler cached = ctx.getCache(player.level(), node.pos, side, "ITEMS");
-            if (cached != null) return cached;
-        }
-
         switch (node.nodeType) {
             case "BLOCK" -> {
-                if (node.pos == null || node.dimension == null) return null;
-                
-                ResourceLocation dimLoc = ResourceLocation.tryParse(node.dimension);
-                if (dimLoc == null) return null;
-                
-                ServerLevel level = player.serverLevel().getServer().getLevel(ResourceKey.create(Registries.DIMENSION, dimLoc));
-                if (level == null || !level.hasChunkAt(node.pos)) return null;
-
-                // SECURITY: Verify access on every tick to ensure logistics rules respect land claims
-                if (!LogisticsUtil.canPlayerAccess(player, level, node.pos)) return null;
-                
-                BlockEntity be = level.getBlockEntity(node.pos);
-                if (be == null) return null;
-                IItemHandler cap = be.getCapability(ForgeCapabilities.ITEM_HANDLER, side).orElse(null); 
-                if (cap != null) ctx.putCache(level, node.pos, side, "ITEMS", cap);
-                return cap;
+                Direction side = sideStr.equals("AUTO") ? resolveDirection(node, "ITEMS") : Direction.byName(sideStr.toLowerCase());
+                return world.blockItems(node, side);
             }
             case "PLAYER" -> {
-                return new PlayerMainInvWrapper(player.getInventory());
+                return world.playerInventory();
             }
             case "CHAMBER" -> {
-                if (node.chamberIndex < 0) return null;
-                StorePriceManager.SkillData skillData = StorePriceManager.getSkills(player.getUUID());
-                if (node.chamberIndex >= skillData.chambers.size()) return null;
-                
-                StorePriceManager.ChamberData chamber = skillData.chambers.get(node.chamberIndex);
-                return new ChamberItemHandler(chamber, isSource);
+                return world.chamber(node, isSource);
             }
             case "MARKET" -> {
                 if (isSource) return null;
-                return new MarketItemHandler(player.getUUID());
+                return world.market();
             }
         }
         return null;
     }
 
     private static boolean matchesFilter(ItemStack stack, LogisticsFilter filter) {
-        if (filter.matchType.equals("ALL")) return !filter.blacklist;
-
-        boolean match = false;
-        String itemId = ForgeRegistries.ITEMS.getKey(stack.getItem()).toString();
-
-        for (String finalVal : filter.matchValues) {
-            if (finalVal.isEmpty()) continue;
-
-            boolean currentMatch = false;
-            switch (filter.matchType) {
-                case "ID" -> {
-                    if (finalVal.contains("*")) {
-                        currentMatch = filter.getOrCreatePattern(finalVal).matcher(itemId).matches();
-                    } else {
-                        currentMatch = itemId.equals(finalVal);
-                    }
-                }
-                case "TAG" -> currentMatch = stack.getTags().anyMatch(t -> t.location().toString().equals(finalVal));
-                case "NBT" -> {
-                    boolean idMatch = itemId.equals(finalVal);
-                    boolean nbtMatch = false;
-                    if (filter.nbtSample == null) nbtMatch = !stack.hasTag();
-                    else if (stack.hasTag()) {
-                        if (filter.fuzzyNbt) {
-                            nbtMatch = true;
-                            for (String key : filter.nbtSample.getAllKeys()) {
-                                if (!net.minecraft.nbt.NbtUtils.compareNbt(filter.nbtSample.get(key), stack.getTag().get(key), true)) {
-                                    nbtMatch = false;
-                                    break;
-                                }
-                            }
-                        } else {
-                            nbtMatch = net.minecraft.nbt.NbtUtils.compareNbt(filter.nbtSample, stack.getTag(), true);
-                        }
-                    }
-                    currentMatch = idMatch && nbtMatch;
-                }
-                case "SEMANTIC" -> {
-                    currentMatch = switch (finalVal) {
-                        case "IS_FOOD" -> stack.getItem().isEdible();
-                        case "IS_FUEL" -> net.minecraftforge.common.ForgeHooks.getBurnTime(stack, null) > 0;
-                        case "IS_ORE" -> stack.getTags().anyMatch(t -> t.location().toString().contains("ores"));
-                        case "IS_DAMAGED" -> stack.isDamaged();
-                        default -> false;
-                    };
-                }
-            }
-            if (currentMatch) {
-                match = true;
-                break;
-            }
-        }
-
-        return filter.blacklist != match;
+        return filter.compiled().test(stack);
     }
 
-    private static void validateNode(ServerPlayer player, NetworkNode node) {
-        if (!node.nodeType.equals("BLOCK")) {
-            node.isMissing = false;
-            return;
+    private static double getFullness(LogisticsWorld world, NetworkData network, NetworkNode node, RulePlan.ResourceType type, TickContext ctx) {
+        if (type != RulePlan.ResourceType.ENERGY) {
+            double memo = ctx.counts.fullness(node, type);
+            if (!Double.isNaN(memo)) return memo;
         }
-        
-        if (node.pos == null || node.dimension == null) {
-            node.isMissing = true;
-            return;
-        }
-
-        ResourceLocation dimLoc = ResourceLocation.tryParse(node.dimension);
-        if (dimLoc == null) {
-            node.isMissing = true;
-            return;
-        }
-
-        ServerLevel level = player.serverLevel().getServer().getLevel(ResourceKey.create(Registries.DIMENSION, dimLoc));
-        if (level == null) {
-            node.isMissing = true;
-            return;
-        }
-
-        if (!level.hasChunkAt(node.pos)) {
-            node.isMissing = true;
-            return; 
-        }
-
-        BlockEntity be = level.getBlockEntity(node.pos);
-        if (be == null) {
-            node.isMissing = true;
-            return;
-        }
-
-        if (node.blockId != null) {
-            String currentId = ForgeRegistries.BLOCKS.getKey(level.getBlockState(node.pos).getBlock()).toString();
-            if (!currentId.equals(node.blockId)) {
-                node.isMissing = true;
-                return;
-            }
-        }
-
-        node.isMissing = false;
-    }
-
-    private static double getFullness(ServerPlayer player, NetworkData network, NetworkNode node, String type, TickContext ctx) {
-        if (type.equals("ENERGY")) {
-            IEnergyStorage energy = resolveEnergyHandler(player, network, node, "AUTO", -1, ctx);
+        if (type == RulePlan.ResourceType.ENERGY) {
+            IEnergyStorage energy = resolveEnergyHandler(world, network, node, "AUTO", -1, ctx);
             if (energy == null || energy.getMaxEnergyStored() == 0) return 1.0;
             return (double) energy.getEnergyStored() / energy.getMaxEnergyStored();
-        } else if (type.equals("FLUIDS")) {
-            IFluidHandler fluids = resolveFluidHandler(player, network, node, "AUTO", -1, ctx);
+        } else if (type == RulePlan.ResourceType.FLUIDS) {
+            IFluidHandler fluids = resolveFluidHandler(world, network, node, "AUTO", -1, ctx);
             if (fluids == null) return 1.0;
             long totalCap = 0;
             long totalUsed = 0;
@@ -1130,10 +910,11 @@ public class NetworkTickHandler {
                 totalCap += fluids.getTankCapacity(i);
                 totalUsed += fluids.getFluidInTank(i).getAmount();
             }
+            ctx.counts.putFullness(node, type, totalUsed, totalCap);
             if (totalCap == 0) return 1.0;
             return (double) totalUsed / totalCap;
         } else {
-            IItemHandler items = resolveItemHandler(player, network, node, "AUTO", false, ctx);
+            IItemHandler items = resolveItemHandler(world, network, node, "AUTO", false, ctx);
             if (items == null || items.getSlots() == 0) return 1.0;
             long totalCount = 0;
             long totalMax = 0;
@@ -1141,149 +922,30 @@ public class NetworkTickHandler {
                 totalCount += items.getStackInSlot(i).getCount();
                 totalMax += items.getSlotLimit(i);
             }
+            ctx.counts.putFullness(node, type, totalCount, totalMax);
             if (totalMax == 0) return 1.0;
             return (double) totalCount / totalMax;
         }
     }
 
-    private static boolean checkConditions(ServerPlayer player, NetworkData network, LogisticsRule rule, TickContext ctx) {
-        for (LogicCondition cond : rule.conditions) {
-            double current = 0;
-            if (cond.type.equals("VARIABLE")) {
-                current = network.variables.getOrDefault(cond.variableName, 0.0);
-            } else if (cond.isGroup) {
-                NodeGroup g = findGroup(network, cond.targetId);
-                if (g != null) {
-                    for (UUID id : g.nodeIds) {
-                        NetworkNode n = LogisticsUtil.findNode(network, id);
-                        if (n != null) current += getResourceCount(player, network, n, cond.type, cond.filter, ctx);
-                    }
-                }
-            } else {
-                NetworkNode n = LogisticsUtil.findNode(network, cond.targetId);
-                if (n != null) current = getResourceCount(player, network, n, cond.type, cond.filter, ctx);
-            }
-
-            double threshold = cond.value;
-            if (cond.compareToVariable) {
-                threshold = network.variables.getOrDefault(cond.compareVariableName, 0.0);
-            }
-
-            boolean met = switch (cond.operator) {
-                case "LESS" -> current < threshold;
-                case "GREATER" -> current > threshold;
-                case "EQUAL" -> Math.abs(current - threshold) < 0.001;
-                default -> false;
-            };
-            if (!met) return false;
-        }
-        return true;
-    }
-
-    private static long getResourceCount(ServerPlayer player, NetworkData network, NetworkNode node, String type, LogisticsFilter filter, TickContext ctx) {
-        if (type.equals("ENERGY")) {
-            IEnergyStorage energy = resolveEnergyHandler(player, network, node, "AUTO", -1, ctx);
+    private static long getResourceCount(LogisticsWorld world, NetworkData network, NetworkNode node, RulePlan.ResourceType type, LogisticsFilter filter, TickContext ctx) {
+        if (type == RulePlan.ResourceType.ENERGY) {
+            IEnergyStorage energy = resolveEnergyHandler(world, network, node, "AUTO", -1, ctx);
             return energy != null ? energy.getEnergyStored() : 0;
-        } else if (type.equals("FLUIDS")) {
-            List<IFluidHandler> fluids = resolveAllFluidHandlers(player, network, node, "AUTO", List.of(-1), ctx, true);
+        } else if (type == RulePlan.ResourceType.FLUIDS) {
+            long memo = ctx.counts.count(node, type, "AUTO", null);
+            if (memo >= 0) return memo;
+            List<IFluidHandler> fluids = resolveAllFluidHandlers(world, network, node, "AUTO", List.of(-1), ctx, true);
             long total = 0;
             for (IFluidHandler fh : fluids) {
                 for (int i = 0; i < fh.getTanks(); i++) total += fh.getFluidInTank(i).getAmount();
             }
+            ctx.counts.putCount(node, type, "AUTO", null, total);
             return total;
         } else {
-            IItemHandler items = resolveItemHandler(player, network, node, "AUTO", true, ctx);
-            return items != null ? countItems(items, filter, node, List.of(-1)) : 0;
-        }
-    }
-
-    private static class ChamberItemHandler implements IItemHandler {
-        private final StorePriceManager.ChamberData chamber;
-        private final boolean isSource;
-
-        public ChamberItemHandler(StorePriceManager.ChamberData chamber, boolean isSource) {
-            this.chamber = chamber;
-            this.isSource = isSource;
-        }
-
-        @Override public int getSlots() { return isSource ? chamber.storedLoot.size() : 1; }
-        
-        @Override 
-        public ItemStack getStackInSlot(int slot) { 
-            if (!isSource) return ItemStack.EMPTY;
-            synchronized(chamber.storedLoot) {
-                return slot < chamber.storedLoot.size() ? chamber.storedLoot.get(slot) : ItemStack.EMPTY;
-            }
-        }
-
-        @Override
-        public ItemStack insertItem(int slot, ItemStack stack, boolean simulate) {
-            if (isSource) return stack;
-            if (!chamber.barteringMode || !chamber.mobId.contains("piglin")) return stack;
-            
-            if (!simulate) {
-                boolean merged = false;
-                for (ItemStack existing : chamber.inputBuffer) {
-                    if (ItemStack.isSameItemSameTags(existing, stack)) {
-                        existing.grow(stack.getCount());
-                        merged = true;
-                        break;
-                    }
-                }
-                if (!merged) chamber.inputBuffer.add(stack.copy());
-            }
-            return ItemStack.EMPTY;
-        }
-
-        @Override
-        public ItemStack extractItem(int slot, int amount, boolean simulate) {
-            if (!isSource) return ItemStack.EMPTY;
-            synchronized (chamber.storedLoot) {
-                if (slot >= chamber.storedLoot.size()) return ItemStack.EMPTY;
-                ItemStack existing = chamber.storedLoot.get(slot);
-                int toExtract = Math.min(amount, existing.getCount());
-                ItemStack result = existing.copy();
-                result.setCount(toExtract);
-                if (!simulate) {
-                    existing.shrink(toExtract);
-                    if (existing.isEmpty()) chamber.storedLoot.remove(slot);
-                    chamber.updateVersion++;
-                }
-                return result;
-            }
-        }
-
-        @Override public int getSlotLimit(int slot) { return Integer.MAX_VALUE; }
-        @Override public boolean isItemValid(int slot, ItemStack stack) { return !isSource; }
-    }
-
-    private static class MarketItemHandler implements IItemHandler {
-        private final UUID playerUuid;
-
-        public MarketItemHandler(UUID playerUuid) {
-            this.playerUuid = playerUuid;
-        }
-
-        @Override public int getSlots() { return 1; }
-        @Override public ItemStack getStackInSlot(int slot) { return ItemStack.EMPTY; }
-
-        @Override
-        public ItemStack insertItem(int slot, ItemStack stack, boolean simulate) {
-            if (stack.isEmpty()) return stack;
-            BigDecimal price = StorePriceManager.getSellPrice(stack.getItem(), playerUuid);
-            if (price.compareTo(BigDecimal.ZERO) <= 0) return stack;
-
-            if (!simulate) {
-                BigDecimal gain = price.multiply(BigDecimal.valueOf(stack.getCount()));
-                StorePriceManager.addMoney(playerUuid, gain);
-                StorePriceManager.recordSale(stack.getItem(), BigDecimal.valueOf(stack.getCount()));
-            }
-            return ItemStack.EMPTY;
+            IItemHandler items = resolveItemHandler(world, network, node, "AUTO", true, ctx);
+            return items != null ? countItems(items, filter, node, "AUTO", List.of(-1), ctx) : 0;
         }
-
-        @Override public ItemStack extractItem(int slot, int amount, boolean simulate) { return ItemStack.EMPTY; }
-        @Override public int getSlotLimit(int slot) { return Integer.MAX_VALUE; }
-        @Override public boolean isItemValid(int slot, ItemStack stack) { return true; }
     }
 
     private static class TrashItemHandler implements IItemHandler {
@@ -1314,44 +976,6 @@ public class NetworkTickHandler {
         @Override public FluidStack drain(int maxDrain, FluidAction action) { return FluidStack.EMPTY; }
     }
 
-    private static class VirtualBufferItemHandler implements IItemHandler {
-        private final NetworkData network;
-        public VirtualBufferItemHandler(NetworkData network) { this.network = network; }
-        @Override public int getSlots() { return network.virtualItemBuffer.size() + 1; }
-        @Override public ItemStack getStackInSlot(int slot) { 
-            return slot < network.virtualItemBuffer.size() ? network.virtualItemBuffer.get(slot) : ItemStack.EMPTY; 
-        }
-        @Override public ItemStack insertItem(int slot, ItemStack stack, boolean simulate) {
-            if (stack.isEmpty()) return stack;
-            if (!simulate) {
-                boolean merged = false;
-                for (ItemStack existing : network.virtualItemBuffer) {
-                    if (ItemStack.isSameItemSameTags(existing, stack)) {
-                        existing.grow(stack.getCount());
-                        merged = true;
-                        break;
-                    }
-                }
-                if (!merged) network.virtualItemBuffer.add(stack.copy());
-            }
-            return ItemStack.EMPTY;
-        }
-        @Override public ItemStack extractItem(int slot, int amount, boolean simulate) {
-            if (slot >= network.virtualItemBuffer.size()) return ItemStack.EMPTY;
-            ItemStack existing = network.virtualItemBuffer.get(slot);
-            int toExtract = Math.min(amount, existing.getCount());
-            ItemStack result = existing.copy();
-            result.setCount(toExtract);
-            if (!simulate) {
-                existing.shrink(toExtract);
-                if (existing.isEmpty()) network.virtualItemBuffer.remove(slot);
-            }
-            return result;
-        }
-        @Override public int getSlotLimit(int slot) { return Integer.MAX_VALUE; }
-        @Override public boolean isItemValid(int slot, ItemStack stack) { return true; }
-    }
-
     private static class VirtualBufferEnergyHandler implements IEnergyStorage {
         private final NetworkData network;
         public VirtualBufferEnergyHandler(NetworkData network) { this.network = network; }
@@ -1372,98 +996,6 @@ public class NetworkTickHandler {
         @Override public boolean canReceive() { return true; }
     }
 
-    private static class VirtualBufferFluidHandler implements IFluidHandler {
-        private final NetworkData network;
-        public VirtualBufferFluidHandler(NetworkData network) { this.network = network; }
-        @Override public int getTanks() { return network.virtualFluidBuffer.size() + 1; }
-        @Override public FluidStack getFluidInTank(int tank) { 
-            return tank < network.virtualFluidBuffer.size() ? network.virtualFluidBuffer.get(tank) : FluidStack.EMPTY; 
-        }
-        @Override public int getTankCapacity(int tank) { return Integer.MAX_VALUE; }
-        @Override public boolean isFluidValid(int tank, FluidStack stack) { return true; }
-        @Override public int fill(FluidStack resource, FluidAction action) {
-            if (resource.isEmpty()) return 0;
-            if (action.execute()) {
-                boolean merged = false;
-                for (FluidStack existing : network.virtualFluidBuffer) {
-                    if (existing.isFluidEqual(resource)) {
-                        existing.grow(resource.getAmount());
-                        merged = true;
-                        break;
-                    }
-                }
-                if (!merged) network.virtualFluidBuffer.add(resource.copy());
-            }
-            return resource.getAmount();
-        }
-        @Override public FluidStack drain(FluidStack resource, FluidAction action) {
-            for (int i = 0; i < network.virtualFluidBuffer.size(); i++) {
-                FluidStack existing = network.virtualFluidBuffer.get(i);
-                if (existing.isFluidEqual(resource)) {
-                    int toDrain = Math.min(resource.getAmount(), existing.getAmount());
-                    FluidStack result = existing.copy();
-                    result.setAmount(toDrain);
-                    if (action.execute()) {
-                        existing.shrink(toDrain);
-                        if (existing.isEmpty()) network.virtualFluidBuffer.remove(i);
-                    }
-                    return result;
-                }
-            }
-            return FluidStack.EMPTY;
-        }
-        @Override public FluidStack drain(int maxDrain, FluidAction action) {
-            if (network.virtualFluidBuffer.isEmpty()) return FluidStack.EMPTY;
-            FluidStack existing = network.virtualFluidBuffer.get(0);
-            int toDrain = Math.min(maxDrain, existing.getAmount());
-            FluidStack result = existing.copy();
-            result.setAmount(toDrain);
-            if (action.execute()) {
-                existing.shrink(toDrain);
-                if (existing.isEmpty()) network.virtualFluidBuffer.remove(0);
-            }
-            return result;
-        }
-    }
-
-    private static class NodeBufferItemHandler implements IItemHandler {
-        private final NetworkNode node;
-        public NodeBufferItemHandler(NetworkNode node) { this.node = node; }
-        @Override public int getSlots() { return node.virtualItemBuffer.size() + 1; }
-        @Override public ItemStack getStackInSlot(int slot) { 
-            return slot < node.virtualItemBuffer.size() ? node.virtualItemBuffer.get(slot) : ItemStack.EMPTY; 
-        }
-        @Override public ItemStack insertItem(int slot, ItemStack stack, boolean simulate) {
-            if (stack.isEmpty()) return stack;
-            if (!simulate) {
-                boolean merged = false;
-                for (ItemStack existing : node.virtualItemBuffer) {
-                    if (ItemStack.isSameItemSameTags(existing, stack)) {
-                        existing.grow(stack.getCount());
-                        merged = true;
-                        break;
-                    }
-                }
-                if (!merged) node.virtualItemBuffer.add(stack.copy());
-            }
-            return ItemStack.EMPTY;
-        }
-        @Override public ItemStack extractItem(int slot, int amount, boolean simulate) {
-            if (slot >= node.virtualItemBuffer.size()) return ItemStack.EMPTY;
-            ItemStack existing = node.virtualItemBuffer.get(slot);
-            int toExtract = Math.min(amount, existing.getCount());
-            ItemStack result = existing.copy();
-            result.setCount(toExtract);
-            if (!simulate) {
-                existing.shrink(toExtract);
-                if (existing.isEmpty()) node.virtualItemBuffer.remove(slot);
-            }
-            return result;
-        }
-        @Override public int getSlotLimit(int slot) { return Integer.MAX_VALUE; }
-        @Override public boolean isItemValid(int slot, ItemStack stack) { return true; }
-    }
-
     private static class NodeBufferEnergyHandler implements IEnergyStorage {
         private final NetworkNode node;
         public NodeBufferEnergyHandler(NetworkNode node) { this.node = node; }
@@ -1483,58 +1015,4 @@ public class NetworkTickHandler {
         @Override public boolean canExtract() { return true; }
         @Override public boolean canReceive() { return true; }
     }
-
-    private static class NodeBufferFluidHandler implements IFluidHandler {
-        private final NetworkNode node;
-        public NodeBufferFluidHandler(NetworkNode node) { this.node = node; }
-        @Override public int getTanks() { return node.virtualFluidBuffer.size() + 1; }
-        @Override public FluidStack getFluidInTank(int tank) { 
-            return tank < node.virtualFluidBuffer.size() ? node.virtualFluidBuffer.get(tank) : FluidStack.EMPTY; 
-        }
-        @Override public int getTankCapacity(int tank) { return Integer.MAX_VALUE; }
-        @Override public boolean isFluidValid(int tank, FluidStack stack) { return true; }
-        @Override public int fill(FluidStack resource, FluidAction action) {
-            if (resource.isEmpty()) return 0;
-            if (action.execute()) {
-                boolean merged = false;
-                for (FluidStack existing : node.virtualFluidBuffer) {
-                    if (existing.isFluidEqual(resource)) {
-                        existing.grow(resource.getAmount());
-                        merged = true;
-                        break;
-                    }
-                }
-                if (!merged) node.virtualFluidBuffer.add(resource.copy());
-            }
-            return resource.getAmount();
-        }
-        @Override public FluidStack drain(FluidStack resource, FluidAction action) {
-            for (int i = 0; i < node.virtualFluidBuffer.size(); i++) {
-                FluidStack existing = node.virtualFluidBuffer.get(i);
-                if (existing.isFluidEqual(resource)) {
-                    int toDrain = Math.min(resource.getAmount(), existing.getAmount());
-                    FluidStack result = existing.copy();
-                    result.setAmount(toDrain);
-                    if (action.execute()) {
-                        existing.shrink(toDrain);
-                        if (existing.isEmpty()) node.virtualFluidBuffer.remove(i);
-                    }
-                    return result;
-                }
-            }
-            return FluidStack.EMPTY;
-        }
-        @Override public FluidStack drain(int maxDrain, FluidAction action) {
-            if (node.virtualFluidBuffer.isEmpty()) return FluidStack.EMPTY;
-            FluidStack existing = node.virtualFluidBuffer.get(0);
-            int toDrain = Math.min(maxDrain, existing.getAmount());
-            FluidStack result = existing.copy();
-            result.setAmount(toDrain);
-            if (action.execute()) {
-                existing.shrink(toDrain);
-                if (existing.isEmpty()) node.virtualFluidBuffer.remove(0);
-            }
-            return result;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+package com.example.modmenu.store.logistics;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Network variables stored in numbered slots.
+ * Compiled logic ({@link LogicProgram}) resolves each name to a slot once and then reads and writes by index.
+ * A slot can exist without a value (a condition references a variable nobody has set yet); such slots read as 0
+ * and are neither saved nor synced, so the stored name → value form is unchanged.
+ */
+public class NetworkVariables {
+    private final Object2IntOpenHashMap<String> slots = new Object2IntOpenHashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private double[] values = new double[8];
+    private boolean[] defined = new boolean[8];
+    private int definedCount = 0;
+
+    public NetworkVariables() {
+        slots.defaultReturnValue(-1);
+    }
+
+    /** Slot for a name, allocated on first use. */
+    public int slot(String name) {
+        if (name == null) name = "";
+        int slot = slots.getInt(name);
+        if (slot >= 0) return slot;
+        slot = names.size();
+        names.add(name);
+        slots.put(name, slot);
+        if (slot == values.length) {
+            values = Arrays.copyOf(values, slot * 2);
+            defined = Arrays.copyOf(defined, slot * 2);
+        }
+        return slot;
+    }
+
+    public String name(int slot) {
+        return names.get(slot);
+    }
+
+    public double get(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Returns true if the value changed (including a previously unset variable becoming set).
+     */
+    public boolean set(int slot, double value) {
+        boolean changed = !defined[slot] || values[slot] != value;
+        if (!defined[slot]) {
+            defined[slot] = true;
+            definedCount++;
+        }
+        values[slot] = value;
+        return changed;
+    }
+
+    public double get(String name) {
+        int slot = slots.getInt(name);
+        return slot >= 0 ? values[slot] : 0;
+    }
+
+    public void put(String name, double value) {
+        set(slot(name), value);
+    }
+
+    /** Number of variables that hold a value. */
+    public int size() {
+        return definedCount;
+    }
+
+    public void forEach(ObjDoubleConsumer<String> action) {
+        for (int i = 0; i < names.size(); i++) {
+            if (defined[i]) action.accept(names.get(i), values[i]);
+        }
+    }
+
+    public void putAll(NetworkVariables other) {
+        other.forEach(this::put);
+    }
+
+    public CompoundTag saveNBT() {
+        CompoundTag nbt = new CompoundTag();
+        forEach(nbt::putDouble);
+        return nbt;
+    }
+
+    public void loadNBT(CompoundTag nbt) {
+        for (String key : nbt.getAllKeys()) put(key, nbt.getDouble(key));
+    }
+
+    /**
+     * Writes at most {@code limit} variables in slot order.
+     */
+    public void writeBuf(FriendlyByteBuf buf, int limit) {
+        int size = Math.min(definedCount, limit);
+        buf.writeInt(size);
+        int written = 0;
+        for (int i = 0; i < names.size() && written < size; i++) {
+            if (!defined[i]) continue;
+            buf.writeUtf(names.get(i));
+            buf.writeDouble(values[i]);
+            written++;
+        }
+    }
+
+    public void readBuf(FriendlyByteBuf buf, int limit) {
+        int size = buf.readInt();
+        if (size > limit) throw new RuntimeException("Too many network variables");
+        for (int i = 0; i < size; i++) put(buf.readUtf(), buf.readDouble());
+    }
+}
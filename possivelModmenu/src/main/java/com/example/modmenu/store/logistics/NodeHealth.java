@@ -0,0 +1,192 @@
+package com.example.modmenu.store.logistics;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps {@link NetworkNode#isMissing} current from world events instead of re-probing every node on a timer.
+ * Each network registers the chunks its BLOCK nodes live in; chunk loads and unloads, block breaks and placements,
+ * removed block entities and levels coming or going queue the affected nodes, and the network re-checks exactly
+ * those in its next tick slot. Checks are deferred because the events fire before the world reflects the change.
+ * Every node is checked once when a network is first ticked and whenever its node list changes.
+ */
+@Mod.EventBusSubscriber(modid = "modmenu")
+public class NodeHealth {
+    private static final Map<ResourceKey<Level>, Long2ObjectMap<Set<NetworkData>>> CHUNK_WATCHERS = new HashMap<>();
+
+    /** Per-network registration, held in {@link NetworkData#health}. */
+    public static class Tracking {
+        int topologyVersion;
+        final Map<ResourceKey<Level>, Long2ObjectMap<List<NetworkNode>>> nodesByChunk = new HashMap<>();
+        final Set<NetworkNode> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Re-checks the nodes whose surroundings changed since the last call. Called at the start of a network's tick slot.
+     * Returns false if there was nothing to check.
+     */
+    public static boolean validatePending(LogisticsWorld world, NetworkData network) {
+        Tracking tracking = network.health;
+        if (tracking == null || tracking.topologyVersion != network.topologyVersion) tracking = register(network);
+        if (tracking.pending.isEmpty()) return false;
+        for (NetworkNode node : tracking.pending) {
+            boolean missing = node.nodeType.equals("BLOCK") && world.isMissing(node);
+            if (missing == node.isMissing) continue;
+            node.isMissing = missing;
+            network.markChanged(node.nodeId);
+        }
+        tracking.pending.clear();
+        return true;
+    }
+
+    private static Tracking register(NetworkData network) {
+        Tracking old = network.health;
+        if (old != null) unregister(network, old);
+
+        Tracking tracking = new Tracking();
+        tracking.topologyVersion = network.topologyVersion;
+        for (NetworkNode node : network.nodes) {
+            if (node == null) continue;
+            tracking.pending.add(node);
+            if (!node.nodeType.equals("BLOCK") || node.pos == null || node.dimension == null) continue;
+            ResourceKey<Level> dim = dimensionKey(node.dimension);
+            if (dim == null) continue;
+            long chunkKey = ChunkPos.asLong(node.pos.getX() >> 4, node.pos.getZ() >> 4);
+            tracking.nodesByChunk.computeIfAbsent(dim, k -> new Long2ObjectOpenHashMap<>())
+                    .computeIfAbsent(chunkKey, k -> new ArrayList<>(1)).add(node);
+        }
+        // Nodes that were already registered keep their state unless something happened to them since
+        if (old != null) tracking.pending.removeIf(node -> !old.pending.contains(node) && wasRegistered(old, node));
+
+        tracking.nodesByChunk.forEach((dim, chunks) -> {
+            Long2ObjectMap<Set<NetworkData>> watchers = CHUNK_WATCHERS.computeIfAbsent(dim, k -> new Long2ObjectOpenHashMap<>());
+            for (long chunkKey : chunks.keySet()) watchers.computeIfAbsent(chunkKey, k -> weakSet()).add(network);
+        });
+        network.health = tracking;
+        return tracking;
+    }
+
+    private static boolean wasRegistered(Tracking old, NetworkNode node) {
+        if (!node.nodeType.equals("BLOCK") || node.pos == null || node.dimension == null) return false;
+        ResourceKey<Level> dim = dimensionKey(node.dimension);
+        Long2ObjectMap<List<NetworkNode>> chunks = dim != null ? old.nodesByChunk.get(dim) : null;
+        List<NetworkNode> nodes = chunks != null ? chunks.get(ChunkPos.asLong(node.pos.getX() >> 4, node.pos.getZ() >> 4)) : null;
+        if (nodes == null) return false;
+        for (NetworkNode n : nodes) {
+            if (n == node) return true;
+        }
+        return false;
+    }
+
+    private static void unregister(NetworkData network, Tracking tracking) {
+        tracking.nodesByChunk.forEach((dim, chunks) -> {
+            Long2ObjectMap<Set<NetworkData>> watchers = CHUNK_WATCHERS.get(dim);
+            if (watchers == null) return;
+            for (long chunkKey : chunks.keySet()) {
+                Set<NetworkData> networks = watchers.get(chunkKey);
+                if (networks == null) continue;
+                networks.remove(network);
+                if (networks.isEmpty()) watchers.remove(chunkKey);
+            }
+        });
+    }
+
+    private static void markChunk(ResourceKey<Level> dim, long chunkKey) {
+        Long2ObjectMap<Set<NetworkData>> watchers = CHUNK_WATCHERS.get(dim);
+        Set<NetworkData> networks = watchers != null ? watchers.get(chunkKey) : null;
+        if (networks == null) return;
+        for (NetworkData network : networks) {
+            Tracking tracking = network.health;
+            if (tracking == null) continue;
+            Long2ObjectMap<List<NetworkNode>> chunks = tracking.nodesByChunk.get(dim);
+            List<NetworkNode> nodes = chunks != null ? chunks.get(chunkKey) : null;
+            if (nodes != null) tracking.pending.addAll(nodes);
+        }
+    }
+
+    /**
+     * Called from the {@code BlockEntity#setRemoved} mixin as well as the block events below.
+     */
+    public static void onBlockChanged(LevelAccessor level, BlockPos pos) {
+        if (CHUNK_WATCHERS.isEmpty() || !(level instanceof ServerLevel serverLevel)) return;
+        if (!serverLevel.getServer().isSameThread()) return;
+        markChunk(serverLevel.dimension(), ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+    }
+
+    @SubscribeEvent
+    public static void onBlockBreak(BlockEvent.BreakEvent event) {
+        onBlockChanged(event.getLevel(), event.getPos());
+    }
+
+    @SubscribeEvent
+    public static void onBlockPlace(BlockEvent.EntityPlaceEvent event) {
+        onBlockChanged(event.getLevel(), event.getPos());
+    }
+
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        if (!(event.getChunk() instanceof LevelChunk) || !(event.getLevel() instanceof ServerLevel level)) return;
+        if (!level.getServer().isSameThread()) return;
+        markChunk(level.dimension(), event.getChunk().getPos().toLong());
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (!(event.getLevel() instanceof ServerLevel level)) return;
+        markChunk(level.dimension(), event.getChunk().getPos().toLong());
+    }
+
+    @SubscribeEvent
+    public static void onLevelLoad(LevelEvent.Load event) {
+        if (event.getLevel() instanceof ServerLevel level) markLevel(level.dimension());
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) markLevel(level.dimension());
+    }
+
+    private static void markLevel(ResourceKey<Level> dim) {
+        Long2ObjectMap<Set<NetworkData>> watchers = CHUNK_WATCHERS.get(dim);
+        if (watchers == null) return;
+        for (long chunkKey : new ArrayList<>(watchers.keySet())) markChunk(dim, chunkKey);
+    }
+
+    private static ResourceKey<Level> dimensionKey(String dimension) {
+        ResourceLocation loc = ResourceLocation.tryParse(dimension);
+        return loc != null ? ResourceKey.create(Registries.DIMENSION, loc) : null;
+    }
+
+    private static Set<NetworkData> weakSet() {
+        return Collections.newSetFromMap(new WeakHashMap<>());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        CHUNK_WATCHERS.clear();
+    }
+}
@@ -13,19 +13,51 @@ public class PlayerNetworkData {
             .registerTypeAdapter(net.minecraft.world.item.ItemStack.class, new com.example.modmenu.store.GsonAdapters.ItemStackAdapter())
             .registerTypeAdapter(net.minecraft.nbt.CompoundTag.class, new com.example.modmenu.store.GsonAdapters.CompoundTagAdapter())
             .registerTypeAdapter(net.minecraftforge.fluids.FluidStack.class, new com.example.modmenu.store.GsonAdapters.FluidStackAdapter())
+            .registerTypeAdapter(NetworkVariables.class, new com.example.modmenu.store.GsonAdapters.NetworkVariablesAdapter())
+            .registerTypeAdapter(VirtualItemBuffer.class, new com.example.modmenu.store.GsonAdapters.VirtualItemBufferAdapter())
+            .registerTypeAdapter(VirtualFluidBuffer.class, new com.example.modmenu.store.GsonAdapters.VirtualFluidBufferAdapter())
+            .registerTypeAdapter(MovementLog.class, new com.example.modmenu.store.GsonAdapters.MovementLogAdapter())
             .create();
 
     private List<NetworkData> networks = new CopyOnWriteArrayList<>();
+    private transient java.util.Map<java.util.UUID, NetworkData> byId = null; // Rebuilt on demand, null when stale
     public int updateVersion = 0;
     public transient java.util.UUID linkingNetworkId = null;
     public transient java.util.UUID viewedNetworkId = null;
 
+    /**
+     * The networks in display order. Add and remove through {@link #addNetwork} and {@link #removeNetwork} (or
+     * replace the whole list with {@link #setNetworks}) so that {@link #getNetwork} stays in step.
+     */
     public List<NetworkData> getNetworks() {
         return networks;
     }
 
+    public NetworkData getNetwork(java.util.UUID networkId) {
+        if (networkId == null) return null;
+        java.util.Map<java.util.UUID, NetworkData> index = byId;
+        if (index == null) {
+            index = new java.util.HashMap<>();
+            for (NetworkData network : networks) index.putIfAbsent(network.networkId, network);
+            byId = index;
+        }
+        return index.get(networkId);
+    }
+
+    public void addNetwork(NetworkData network) {
+        networks.add(network);
+        if (byId != null) byId.putIfAbsent(network.networkId, network);
+    }
+
+    public boolean removeNetwork(java.util.UUID networkId) {
+        boolean removed = networks.removeIf(n -> n.networkId.equals(networkId));
+        if (removed) byId = null;
+        return removed;
+    }
+
     public void setNetworks(List<NetworkData> networks) {
         this.networks = networks;
+        this.byId = null;
         this.updateVersion++;
     }
 
@@ -59,6 +91,7 @@ public class PlayerNetworkData {
                 e.printStackTrace();
             }
         }
+        this.byId = null;
         this.updateVersion = nbt.getInt("updateVersion");
     }
     
@@ -67,5 +100,6 @@ public class PlayerNetworkData {
         for (NetworkData nd : other.networks) {
             this.networks.add(nd.snapshot());
         }
+        this.byId = null;
     }
 }
@@ -0,0 +1,170 @@
+package com.example.modmenu.store.logistics;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resource totals read during one tick slot of a network, so that conditions, min/max checks and BALANCED sorting
+ * looking at the same inventory share a single slot walk. Transfers made in the same slot adjust the totals they
+ * touch instead of discarding them, which keeps the numbers exact without rescanning.
+ *
+ * Entries are keyed by the storage behind a node rather than the node itself (block position, the network buffer,
+ * the player inventory), so two nodes on one chest see each other's transfers. Within that, an entry belongs to the
+ * side it was read through, with AUTO resolved from the node's side configuration, and to the node's slot
+ * configuration, so nodes that see the block differently never share totals. Totals read through one side are
+ * dropped when a transfer goes through another side, since sided views may expose different slots. Nodes whose
+ * handlers do not simply hold what they are given (trash, market, chamber, sub-network ports) are never memoized.
+ */
+public class ResourceCountMemo {
+    private record BlockView(String dimension, BlockPos pos) {}
+
+    private static final class Entry {
+        final RulePlan.ResourceType type;
+        final String side;
+        final Map<Integer, String> slots;
+        final CompiledFilter filter; // Interned by content (CompiledFilter.of); null for fluid totals and fullness
+        final boolean fullness;
+        long amount;
+        long capacity;
+
+        Entry(RulePlan.ResourceType type, String side, Map<Integer, String> slots, CompiledFilter filter, boolean fullness, long amount, long capacity) {
+            this.type = type;
+            this.side = side;
+            this.slots = slots;
+            this.filter = filter;
+            this.fullness = fullness;
+            this.amount = amount;
+            this.capacity = capacity;
+        }
+    }
+
+    private final NetworkData network;
+    private final Map<Object, List<Entry>> byView = new HashMap<>();
+
+    public ResourceCountMemo(NetworkData network) {
+        this.network = network;
+    }
+
+    public static boolean isMemoizable(NetworkNode node) {
+        return switch (node.nodeType) {
+            case "BLOCK", "BUFFER", "PORT_INPUT", "PORT_OUTPUT", "PLAYER" -> true;
+            default -> false;
+        };
+    }
+
+    private Object view(NetworkNode node) {
+        return switch (node.nodeType) {
+            case "BLOCK" -> node.pos != null ? new BlockView(node.dimension, node.pos) : node;
+            case "BUFFER" -> network; // Every BUFFER node shares the network's buffers
+            case "PLAYER" -> "PLAYER";
+            default -> node;
+        };
+    }
+
+    /** The side a read actually goes through: AUTO resolves to the side configured for the type, as handlers do. */
+    private static String side(NetworkNode node, RulePlan.ResourceType type, String side) {
+        if (!side.equals("AUTO") || !node.nodeType.equals("BLOCK")) return side;
+        for (Map.Entry<Direction, String> entry : node.sideConfig.entrySet()) {
+            if (entry.getValue().equals(type.name())) return entry.getKey().name();
+        }
+        return side;
+    }
+
+    private static Map<Integer, String> slots(NetworkNode node) {
+        return node.slotConfig.isEmpty() ? Map.of() : new HashMap<>(node.slotConfig);
+    }
+
+    private static boolean sameView(Entry e, NetworkNode node, String side) {
+        return e.side.equals(side) && e.slots.equals(node.slotConfig);
+    }
+
+    private Entry find(NetworkNode node, RulePlan.ResourceType type, String side, CompiledFilter filter, boolean fullness) {
+        List<Entry> entries = byView.get(view(node));
+        if (entries == null) return null;
+        String resolved = side(node, type, side);
+        for (Entry e : entries) {
+            if (e.type == type && e.fullness == fullness && e.filter == filter && sameView(e, node, resolved)) return e;
+        }
+        return null;
+    }
+
+    /** Memoized total, or -1 if unknown. */
+    public long count(NetworkNode node, RulePlan.ResourceType type, String side, CompiledFilter filter) {
+        Entry e = find(node, type, side, filter, false);
+        return e != null ? e.amount : -1;
+    }
+
+    public void putCount(NetworkNode node, RulePlan.ResourceType type, String side, CompiledFilter filter, long amount) {
+        if (!isMemoizable(node)) return;
+        byView.computeIfAbsent(view(node), k -> new ArrayList<>(2)).add(new Entry(type, side(node, type, side), slots(node), filter, false, amount, 0));
+    }
+
+    /** Memoized fill ratio, or NaN if unknown. */
+    public double fullness(NetworkNode node, RulePlan.ResourceType type) {
+        Entry e = find(node, type, "AUTO", null, true);
+        if (e == null) return Double.NaN;
+        return e.capacity == 0 ? 1.0 : (double) e.amount / e.capacity;
+    }
+
+    public void putFullness(NetworkNode node, RulePlan.ResourceType type, long amount, long capacity) {
+        if (!isMemoizable(node)) return;
+        byView.computeIfAbsent(view(node), k -> new ArrayList<>(2)).add(new Entry(type, side(node, type, "AUTO"), slots(node), null, true, amount, capacity));
+    }
+
+    /**
+     * Records {@code delta} items like {@code stack} leaving (negative) or entering a node through {@code side}.
+     */
+    public void itemsMoved(NetworkNode node, String side, ItemStack stack, long delta) {
+        // Fluid totals include fluid held by items in the inventory
+        invalidate(node, RulePlan.ResourceType.FLUIDS);
+        List<Entry> entries = entriesAfterMove(node, RulePlan.ResourceType.ITEMS, side);
+        if (entries == null) return;
+        for (Entry e : entries) {
+            if (e.type != RulePlan.ResourceType.ITEMS) continue;
+            if (e.fullness || e.filter == null || e.filter.test(stack)) e.amount += delta;
+        }
+    }
+
+    /**
+     * Records {@code delta} mB moved through {@code side}. {@code touchedItems} means item containers took part,
+     * which can change the items themselves (a bucket becoming a water bucket), so item totals are dropped.
+     */
+    public void fluidMoved(NetworkNode node, String side, long delta, boolean touchedItems) {
+        if (touchedItems) invalidate(node, RulePlan.ResourceType.ITEMS);
+        List<Entry> entries = entriesAfterMove(node, RulePlan.ResourceType.FLUIDS, side);
+        if (entries == null) return;
+        for (Entry e : entries) {
+            if (e.type == RulePlan.ResourceType.FLUIDS) e.amount += delta;
+        }
+    }
+
+    /** Energy totals are read directly; only items charged in place can go stale. */
+    public void energyMoved(NetworkNode node, boolean touchedItems) {
+        if (touchedItems) invalidate(node, RulePlan.ResourceType.ITEMS);
+        if (node.nodeType.equals("SUB_NETWORK")) byView.clear();
+    }
+
+    private List<Entry> entriesAfterMove(NetworkNode node, RulePlan.ResourceType type, String side) {
+        if (node.nodeType.equals("SUB_NETWORK")) {
+            // The target port may also be a node of this network, under a different key
+            byView.clear();
+            return null;
+        }
+        if (!isMemoizable(node)) return null;
+        List<Entry> entries = byView.get(view(node));
+        String resolved = side(node, type, side);
+        if (entries != null) entries.removeIf(e -> e.type == type && !sameView(e, node, resolved));
+        return entries;
+    }
+
+    private void invalidate(NetworkNode node, RulePlan.ResourceType type) {
+        List<Entry> entries = byView.get(view(node));
+        if (entries != null) entries.removeIf(e -> e.type == type);
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.modmenu.store.logistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Compiled, tick-ready form of a {@link LogisticsRule}.
+ * String modes are parsed once into enums and source/destination nodes are resolved against the
+ * network topology at compile time. Runtime counters (cooldown, streak, round-robin cursor) live here
+ * instead of in static maps, so they disappear together with the rule or network.
+ */
+public class RulePlan {
+    public static final UUID BUFFER_NODE_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    public enum Mode {
+        ROUND_ROBIN, PRIORITY;
+
+        static Mode parse(String s) {
+            return "PRIORITY".equals(s) ? PRIORITY : ROUND_ROBIN;
+        }
+    }
+
+    public enum Speed {
+        SLOW(5), NORMAL(2), FAST(0), HYPER(0), INSTANT(0);
+
+        public final long cooldown;
+
+        Speed(long cooldown) {
+            this.cooldown = cooldown;
+        }
+
+        static Speed parse(String s) {
+            if (s == null) return FAST;
+            return switch (s) {
+                case "SLOW" -> SLOW;
+                case "NORMAL" -> NORMAL;
+                case "HYPER" -> HYPER;
+                case "INSTANT" -> INSTANT;
+                default -> FAST;
+            };
+        }
+    }
+
+    public enum Distribution {
+        BALANCED, ROUND_ROBIN, OVERFLOW;
+
+        static Distribution parse(String s) {
+            if ("BALANCED".equals(s)) return BALANCED;
+            if ("ROUND_ROBIN".equals(s)) return ROUND_ROBIN;
+            return OVERFLOW;
+        }
+    }
+
+    public enum ResourceType {
+        ITEMS("ITEM"), ENERGY("ENERGY"), FLUIDS("FLUID");
+
+        public final String signalPrefix;
+        public final String addedSignal;
+        public final String removedSignal;
+
+        ResourceType(String signalPrefix) {
+            this.signalPrefix = signalPrefix;
+            this.addedSignal = signalPrefix + "_ADDED";
+            this.removedSignal = signalPrefix + "_REMOVED";
+        }
+
+        public static ResourceType parse(String s) {
+            if ("ENERGY".equals(s)) return ENERGY;
+            if ("FLUIDS".equals(s)) return FLUIDS;
+            return ITEMS;
+        }
+    }
+
+    public enum Action {
+        MOVE, EXTRACT, INSERT, SET_VARIABLE, MATH;
+
+        static Action parse(String s) {
+            if (s == null) return MOVE;
+            return switch (s) {
+                case "EXTRACT" -> EXTRACT;
+                case "INSERT" -> INSERT;
+                case "SET_VARIABLE" -> SET_VARIABLE;
+                case "MATH" -> MATH;
+                default -> MOVE;
+            };
+        }
+
+        public boolean isTransfer() {
+            return this != SET_VARIABLE && this != MATH;
+        }
+    }
+
+    public enum Trigger {
+        ALWAYS, SIGNAL, NONE;
+
+        static Trigger parse(String s) {
+            if ("ALWAYS".equals(s)) return ALWAYS;
+            if ("SIGNAL".equals(s)) return SIGNAL;
+            return NONE;
+        }
+    }
+
+    public final LogisticsRule rule;
+    public final int topologyVersion;
+
+    public final Mode mode;
+    public final Speed speed;
+    public final Distribution distribution;
+    public final ResourceType type;
+    public final Action action;
+    public final Trigger trigger;
+
+    public final List<NetworkNode> sources;
+    public final List<NetworkNode> destinations;
+    public final Set<UUID> destNodeIds;
+    public final Set<String> variableReads;
+    public final LogicProgram conditions;
+    public final LogicProgram variableAction;
+    public final int maxToMove;
+
+    // Runtime state, carried across recompiles of the same rule
+    public long cooldownUntil = 0;
+    public int successStreak = 0;
+    public int distributionIndex = 0;
+    public long lastCostNanos = 0;
+    public long avgCostNanos = 0;
+
+    // Idle backoff: consecutive evaluations that moved nothing, and wake-up registration (see RuleWakeups)
+    public int idleStreak = 0;
+    public long lastEvalTick = 0;
+    public boolean watching = false;
+    public boolean fullyWatched = false;
+    public List<Object> wakeKeys = List.of();
+
+    // Every source or every destination sits in an unloaded chunk; skipped until NodeHealth sees one of them change
+    public boolean parked = false;
+
+    private RulePlan(NetworkData network, LogisticsRule rule) {
+        this.rule = rule;
+        this.topologyVersion = network.topologyVersion;
+        this.mode = Mode.parse(rule.mode);
+        this.speed = Speed.parse(rule.speedMode);
+        this.distribution = Distribution.parse(rule.distributionMode);
+        this.type = ResourceType.parse(rule.type);
+        this.action = Action.parse(rule.ruleAction);
+        this.trigger = Trigger.parse(rule.triggerType);
+
+        this.sources = action == Action.INSERT
+                ? List.of(createBufferNode())
+                : resolveEndpoint(network, rule.sourceNodeId, rule.sourceIsGroup);
+        this.destinations = action == Action.EXTRACT
+                ? List.of(createBufferNode())
+                : resolveEndpoint(network, rule.destNodeId, rule.destIsGroup);
+
+        Set<UUID> ids = new LinkedHashSet<>();
+        if (rule.destIsGroup) {
+            NodeGroup group = findGroup(network, rule.destNodeId);
+            if (group != null) ids.addAll(group.nodeIds);
+        } else if (rule.destNodeId != null) {
+            ids.add(rule.destNodeId);
+        }
+        this.destNodeIds = Collections.unmodifiableSet(ids);
+
+        Set<String> vars = new HashSet<>();
+        for (LogicCondition cond : rule.conditions) {
+            if ("VARIABLE".equals(cond.type) && cond.variableName != null) vars.add(cond.variableName);
+            if (cond.compareToVariable && cond.compareVariableName != null) vars.add(cond.compareVariableName);
+        }
+        this.variableReads = Collections.unmodifiableSet(vars);
+        this.conditions = LogicProgram.conditions(network, rule.conditions);
+        this.variableAction = LogicProgram.action(network, rule, action, type);
+
+        int max = rule.amountPerTick == -1 || speed == Speed.INSTANT ? Integer.MAX_VALUE : rule.amountPerTick;
+        if (speed == Speed.HYPER) {
+            max = type == ResourceType.ITEMS ? max * 10 : max * 100;
+        }
+        this.maxToMove = max;
+    }
+
+    /**
+     * Returns the plan for a rule, recompiling it if the rule object was replaced or the network topology changed.
+     */
+    public static RulePlan of(NetworkData network, LogisticsRule rule) {
+        RulePlan plan = network.rulePlans.get(rule.ruleId);
+        if (plan != null && plan.rule == rule && plan.topologyVersion == network.topologyVersion) return plan;
+
+        RulePlan compiled = new RulePlan(network, rule);
+        if (plan != null) {
+            // Idle state is dropped: the edit or topology change may be exactly what the rule was waiting for
+            RuleWakeups.unwatch(plan);
+            if (plan.idleStreak == 0) compiled.cooldownUntil = plan.cooldownUntil;
+            compiled.successStreak = plan.successStreak;
+            compiled.distributionIndex = plan.distributionIndex;
+            compiled.avgCostNanos = plan.avgCostNanos;
+        }
+        network.rulePlans.put(rule.ruleId, compiled);
+        return compiled;
+    }
+
+    public void recordCost(long nanos) {
+        lastCostNanos = nanos;
+        avgCostNanos = avgCostNanos == 0 ? nanos : avgCostNanos + ((nanos - avgCostNanos) >> 3);
+    }
+
+    /**
+     * Makes an idle rule eligible again. Repeated wakes are spaced by up to 8 ticks while the rule stays idle,
+     * so a block that changes every tick (a running furnace) cannot pin a no-op rule to full polling rate.
+     */
+    public void wake() {
+        long earliest = lastEvalTick + Math.min(idleStreak, 8);
+        if (cooldownUntil > earliest) cooldownUntil = earliest;
+    }
+
+    public boolean isPriority() {
+        return mode == Mode.PRIORITY;
+    }
+
+    private static List<NetworkNode> resolveEndpoint(NetworkData network, UUID id, boolean isGroup) {
+        List<NetworkNode> nodes = new ArrayList<>();
+        if (isGroup) {
+            NodeGroup group = findGroup(network, id);
+            if (group != null) {
+                for (UUID memberId : group.nodeIds) {
+                    NetworkNode n = LogisticsUtil.findNode(network, memberId);
+                    if (n != null) nodes.add(n);
+                }
+            }
+        } else {
+            NetworkNode n = LogisticsUtil.findNode(network, id);
+            if (n != null) nodes.add(n);
+        }
+        return Collections.unmodifiableList(nodes);
+    }
+
+    private static NodeGroup findGroup(NetworkData network, UUID groupId) {
+        return network.index().group(groupId);
+    }
+
+    private static NetworkNode createBufferNode() {
+        NetworkNode bufferNode = new NetworkNode();
+        bufferNode.nodeId = BUFFER_NODE_ID;
+        bufferNode.nodeType = "BUFFER";
+        return bufferNode;
+    }
+}
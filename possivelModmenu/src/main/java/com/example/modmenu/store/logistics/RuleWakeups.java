@@ -0,0 +1,211 @@
+package com.example.modmenu.store.logistics;
+
+import com.example.modmenu.store.StorePriceManager;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.GlobalPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+
+/**
+ * Wake-up index for idle logistics rules.
+ * A rule that keeps finding nothing to move backs off exponentially and registers the inventories it touches here.
+ * Any change to one of them (a block entity's {@code setChanged}, a chamber loot update, a transfer into a virtual
+ * buffer or port) makes the rule eligible again right away instead of waiting out its backoff.
+ * Watcher sets are weak so plans of unloaded or deleted networks simply fall out.
+ */
+@Mod.EventBusSubscriber(modid = "modmenu")
+public class RuleWakeups {
+    private static final Map<ResourceKey<Level>, Long2ObjectMap<Set<RulePlan>>> BLOCK_WATCHERS = new HashMap<>();
+    private static final Map<Object, Set<RulePlan>> OBJECT_WATCHERS = new WeakHashMap<>();
+
+    /**
+     * Registers a plan for wake-ups on every endpoint it reads or writes.
+     * Sets {@link RulePlan#fullyWatched} to false if some endpoint (e.g. a player inventory) cannot signal changes.
+     */
+    public static void watch(LogisticsWorld world, NetworkData network, RulePlan plan) {
+        if (plan.watching) return;
+        List<Object> keys = new ArrayList<>();
+        boolean complete = true;
+        for (NetworkNode node : plan.sources) complete &= collectKeys(world, network, node, keys);
+        for (NetworkNode node : plan.destinations) complete &= collectKeys(world, network, node, keys);
+        for (LogicCondition cond : plan.rule.conditions) {
+            if ("VARIABLE".equals(cond.type)) continue;
+            if (cond.isGroup) {
+                NodeGroup group = network.index().group(cond.targetId);
+                if (group == null) continue;
+                for (UUID id : group.nodeIds) {
+                    NetworkNode n = LogisticsUtil.findNode(network, id);
+                    if (n != null) complete &= collectKeys(world, network, n, keys);
+                }
+            } else {
+                NetworkNode n = LogisticsUtil.findNode(network, cond.targetId);
+                if (n != null) complete &= collectKeys(world, network, n, keys);
+            }
+        }
+
+        for (Object key : keys) {
+            if (key instanceof GlobalPos gp) {
+                BLOCK_WATCHERS.computeIfAbsent(gp.dimension(), k -> new Long2ObjectOpenHashMap<>())
+                        .computeIfAbsent(gp.pos().asLong(), k -> weakSet()).add(plan);
+            } else {
+                OBJECT_WATCHERS.computeIfAbsent(key, k -> weakSet()).add(plan);
+            }
+        }
+        plan.wakeKeys = keys;
+        plan.fullyWatched = complete;
+        plan.watching = true;
+    }
+
+    public static void unwatch(RulePlan plan) {
+        if (!plan.watching) return;
+        for (Object key : plan.wakeKeys) {
+            if (key instanceof GlobalPos gp) {
+                Long2ObjectMap<Set<RulePlan>> positions = BLOCK_WATCHERS.get(gp.dimension());
+                if (positions == null) continue;
+                long posKey = gp.pos().asLong();
+                Set<RulePlan> plans = positions.get(posKey);
+                if (plans != null) {
+                    plans.remove(plan);
+                    if (plans.isEmpty()) positions.remove(posKey);
+                }
+            } else {
+                Set<RulePlan> plans = OBJECT_WATCHERS.get(key);
+                if (plans != null) {
+                    plans.remove(plan);
+                    if (plans.isEmpty()) OBJECT_WATCHERS.remove(key);
+                }
+            }
+        }
+        plan.wakeKeys = List.of();
+        plan.watching = false;
+    }
+
+    /**
+     * Called from the {@code BlockEntity#setChanged} mixin; must stay cheap for unwatched positions.
+     */
+    public static void onBlockChanged(Level level, BlockPos pos) {
+        if (BLOCK_WATCHERS.isEmpty() || !(level instanceof ServerLevel serverLevel)) return;
+        if (!serverLevel.getServer().isSameThread()) return;
+        Long2ObjectMap<Set<RulePlan>> positions = BLOCK_WATCHERS.get(level.dimension());
+        if (positions == null) return;
+        Set<RulePlan> plans = positions.get(pos.asLong());
+        if (plans != null) wakeAll(plans);
+    }
+
+    /**
+     * Wakes rules watching a non-block resource such as a {@link StorePriceManager.ChamberData} or a port node.
+     */
+    public static void wake(Object key) {
+        Set<RulePlan> plans = OBJECT_WATCHERS.get(key);
+        if (plans != null) wakeAll(plans);
+    }
+
+    /**
+     * Wakes rules touching a node after the network itself moved something into or out of it.
+     */
+    public static void wakeNode(LogisticsWorld world, NetworkData network, NetworkNode node) {
+        if (node.nodeType.equals("BLOCK")) {
+            if (node.pos == null || node.dimension == null) return;
+            ResourceKey<Level> dim = dimensionKey(node.dimension);
+            if (dim == null) return;
+            Long2ObjectMap<Set<RulePlan>> positions = BLOCK_WATCHERS.get(dim);
+            Set<RulePlan> plans = positions != null ? positions.get(node.pos.asLong()) : null;
+            if (plans != null) wakeAll(plans);
+            return;
+        }
+        List<Object> keys = new ArrayList<>(1);
+        collectKeys(world, network, node, keys);
+        for (Object key : keys) wake(key);
+    }
+
+    /**
+     * Wakes rules of a network whose conditions read a variable that just changed value.
+     */
+    public static void wakeVariable(NetworkData network, String name) {
+        for (RulePlan plan : network.rulePlans.values()) {
+            if (plan.idleStreak > 0 && plan.variableReads.contains(name)) plan.wake();
+        }
+    }
+
+    private static void wakeAll(Set<RulePlan> plans) {
+        for (RulePlan plan : plans) plan.wake();
+    }
+
+    private static boolean collectKeys(LogisticsWorld world, NetworkData network, NetworkNode node, List<Object> keys) {
+        switch (node.nodeType) {
+            case "BLOCK" -> {
+                if (node.pos == null || node.dimension == null) return true;
+                ResourceKey<Level> dim = dimensionKey(node.dimension);
+                if (dim != null) keys.add(GlobalPos.of(dim, node.pos));
+                return true;
+            }
+            case "BUFFER" -> {
+                keys.add(network);
+                return true;
+            }
+            case "PORT_INPUT", "PORT_OUTPUT" -> {
+                keys.add(node);
+                return true;
+            }
+            case "SUB_NETWORK" -> {
+                NetworkData other = world.findNetwork(node.referencedNetworkId);
+                NetworkNode port = other != null ? LogisticsUtil.findNode(other, node.targetPortId) : null;
+                if (port != null) keys.add(port);
+                return true;
+            }
+            case "CHAMBER" -> {
+                StorePriceManager.SkillData skillData = StorePriceManager.getSkills(world.ownerId());
+                if (node.chamberIndex >= 0 && node.chamberIndex < skillData.chambers.size()) {
+                    keys.add(skillData.chambers.get(node.chamberIndex));
+                }
+                return true;
+            }
+            case "TRASH", "MARKET" -> {
+                // Sinks never change state
+                return true;
+            }
+            default -> {
+                // PLAYER inventories have no change hook
+                return false;
+            }
+        }
+    }
+
+    private static ResourceKey<Level> dimensionKey(String dimension) {
+        ResourceLocation loc = ResourceLocation.tryParse(dimension);
+        return loc != null ? ResourceKey.create(Registries.DIMENSION, loc) : null;
+    }
+
+    private static Set<RulePlan> weakSet() {
+        return Collections.newSetFromMap(new WeakHashMap<>());
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) BLOCK_WATCHERS.remove(level.dimension());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        BLOCK_WATCHERS.clear();
+        OBJECT_WATCHERS.clear();
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.modmenu.store.logistics;
+
+import com.example.modmenu.store.StorePriceManager;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.ForgeCapabilities;
+import net.minecraftforge.energy.IEnergyStorage;
+import net.minecraftforge.fluids.capability.IFluidHandler;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.wrapper.PlayerMainInvWrapper;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * {@link LogisticsWorld} of an online player. One instance is created per network slot, so dimension lookups and
+ * claim checks are made once per position per slot; capability handles themselves come from {@link CapabilityCache}.
+ */
+public class ServerLogisticsWorld implements LogisticsWorld {
+    private final ServerPlayer player;
+    private final Map<String, ServerLevel> levels = new HashMap<>();
+    private final Map<ResourceKey<Level>, Map<BlockPos, Boolean>> accessChecks = new HashMap<>();
+
+    public ServerLogisticsWorld(ServerPlayer player) {
+        this.player = player;
+    }
+
+    @Override
+    public long gameTime() {
+        return player.level().getGameTime();
+    }
+
+    @Override
+    public UUID ownerId() {
+        return player.getUUID();
+    }
+
+    @Override
+    public NetworkData findNetwork(UUID networkId) {
+        return NetworkTickHandler.findNetwork(player, networkId);
+    }
+
+    @Override
+    public IItemHandler blockItems(NetworkNode node, Direction side) {
+        return resolveBlockCapability(node, ForgeCapabilities.ITEM_HANDLER, side, false);
+    }
+
+    @Override
+    public IFluidHandler blockFluids(NetworkNode node, Direction side, boolean searchAllSides) {
+        return resolveBlockCapability(node, ForgeCapabilities.FLUID_HANDLER, side, searchAllSides);
+    }
+
+    @Override
+    public IEnergyStorage blockEnergy(NetworkNode node, Direction side, boolean searchAllSides) {
+        return resolveBlockCapability(node, ForgeCapabilities.ENERGY, side, searchAllSides);
+    }
+
+    @Override
+    public IItemHandler playerInventory() {
+        return new PlayerMainInvWrapper(player.getInventory());
+    }
+
+    @Override
+    public IItemHandler chamber(NetworkNode node, boolean isSource) {
+        if (node.chamberIndex < 0) return null;
+        StorePriceManager.SkillData skillData = StorePriceManager.getSkills(player.getUUID());
+        if (node.chamberIndex >= skillData.chambers.size()) return null;
+
+        StorePriceManager.ChamberData chamber = skillData.chambers.get(node.chamberIndex);
+        return new ChamberItemHandler(chamber, isSource);
+    }
+
+    @Override
+    public IItemHandler market() {
+        return new MarketItemHandler(player.getUUID());
+    }
+
+    @Override
+    public boolean isMissing(NetworkNode node) {
+        if (node.pos == null || node.dimension == null) return true;
+
+        ServerLevel level = resolveLevel(node.dimension);
+        if (level == null || !level.hasChunkAt(node.pos)) return true;
+        if (level.getBlockEntity(node.pos) == null) return true;
+
+        if (node.blockId != null) {
+            String currentId = ForgeRegistries.BLOCKS.getKey(level.getBlockState(node.pos).getBlock()).toString();
+            return !currentId.equals(node.blockId);
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isLoaded(NetworkNode node) {
+        if (node.pos == null || node.dimension == null) return true; // Broken rather than unloaded
+        ServerLevel level = resolveLevel(node.dimension);
+        return level != null && level.hasChunkAt(node.pos);
+    }
+
+    private ServerLevel resolveLevel(String dimension) {
+        return levels.computeIfAbsent(dimension, d -> {
+            ResourceLocation dimLoc = ResourceLocation.tryParse(d);
+            if (dimLoc == null) return null;
+            return player.serverLevel().getServer().getLevel(ResourceKey.create(Registries.DIMENSION, dimLoc));
+        });
+    }
+
+    private boolean canAccess(ServerLevel level, BlockPos pos) {
+        return accessChecks.computeIfAbsent(level.dimension(), k -> new HashMap<>())
+                .computeIfAbsent(pos, p -> LogisticsUtil.canPlayerAccess(player, level, p));
+    }
+
+    private <T> T resolveBlockCapability(NetworkNode node, Capability<T> cap, Direction side, boolean searchAllSides) {
+        if (node.pos == null || node.dimension == null) return null;
+        ServerLevel level = resolveLevel(node.dimension);
+        if (level == null || !level.hasChunkAt(node.pos)) return null;
+
+        // SECURITY: Verify access on every tick to ensure logistics rules respect land claims
+        if (!canAccess(level, node.pos)) return null;
+
+        return CapabilityCache.get(level, node.pos, cap, side, searchAllSides);
+    }
+
+    private static class ChamberItemHandler implements IItemHandler {
+        private final StorePriceManager.ChamberData chamber;
+        private final boolean isSource;
+
+        public ChamberItemHandler(StorePriceManager.ChamberData chamber, boolean isSource) {
+            this.chamber = chamber;
+            this.isSource = isSource;
+        }
+
+        @Override public int getSlots() { return isSource ? chamber.storedLoot.size() : 1; }
+        
+        @Override 
+        public ItemStack getStackInSlot(int slot) { 
+            if (!isSource) return ItemStack.EMPTY;
+            synchronized(chamber.storedLoot) {
+                return slot < chamber.storedLoot.size() ? chamber.storedLoot.get(slot) : ItemStack.EMPTY;
+            }
+        }
+
+        @Override
+        public ItemStack insertItem(int slot, ItemStack stack, boolean simulate) {
+            if (isSource) return stack;
+            if (!chamber.barteringMode || !chamber.mobId.contains("piglin")) return stack;
+            
+            if (!simulate) {
+                boolean merged = false;
+                for (ItemStack existing : chamber.inputBuffer) {
+                    if (ItemStack.isSameItemSameTags(existing, stack)) {
+                        existing.grow(stack.getCount());
+                        merged = true;
+                        break;
+                    }
+                }
+                if (!merged) chamber.inputBuffer.add(stack.copy());
+            }
+            return ItemStack.EMPTY;
+        }
+
+        @Override
+        public ItemStack extractItem(int slot, int amount, boolean simulate) {
+            if (!isSource) return ItemStack.EMPTY;
+            synchronized (chamber.storedLoot) {
+                if (slot >= chamber.storedLoot.size()) return ItemStack.EMPTY;
+                ItemStack existing = chamber.storedLoot.get(slot);
+                int toExtract = Math.min(amount, existing.getCount());
+                ItemStack result = existing.copy();
+                result.setCount(toExtract);
+                if (!simulate) {
+                    existing.shrink(toExtract);
+                    if (existing.isEmpty()) chamber.storedLoot.remove(slot);
+                    chamber.updateVersion++;
+                }
+                return result;
+            }
+        }
+
+        @Override public int getSlotLimit(int slot) { return Integer.MAX_VALUE; }
+        @Override public boolean isItemValid(int slot, ItemStack stack) { return !isSource; }
+    }
+
+    private static class MarketItemHandler implements IItemHandler {
+        private final UUID playerUuid;
+
+        public MarketItemHandler(UUID playerUuid) {
+            this.playerUuid = playerUuid;
+        }
+
+        @Override public int getSlots() { return 1; }
+        @Override public ItemStack getStackInSlot(int slot) { return ItemStack.EMPTY; }
+
+        @Override
+        public ItemStack insertItem(int slot, ItemStack stack, boolean simulate) {
+            if (stack.isEmpty()) return stack;
+            BigDecimal price = StorePriceManager.getSellPrice(stack.getItem(), playerUuid);
+            if (price.compareTo(BigDecimal.ZERO) <= 0) return stack;
+
+            if (!simulate) {
+                BigDecimal gain = price.multiply(BigDecimal.valueOf(stack.getCount()));
+                StorePriceManager.addMoney(playerUuid, gain);
+                StorePriceManager.recordSale(stack.getItem(), BigDecimal.valueOf(stack.getCount()));
+            }
+            return ItemStack.EMPTY;
+        }
+
+        @Override public ItemStack extractItem(int slot, int amount, boolean simulate) { return ItemStack.EMPTY; }
+        @Override public int getSlotLimit(int slot) { return Integer.MAX_VALUE; }
+        @Override public boolean isItemValid(int slot, ItemStack stack) { return true; }
+    }
+}
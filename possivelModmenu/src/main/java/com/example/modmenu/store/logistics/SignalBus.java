@@ -0,0 +1,93 @@
+package com.example.modmenu.store.logistics;
+
+import java.util.UUID;
+
+/**
+ * Bounded queue of signals fired in a network, drained at the start of each of its tick slots.
+ * A signal with the same type and source node as one still waiting is merged into it, since subscribers would
+ * react to both identically; a burst of transfers therefore triggers each subscriber once per slot. When the queue
+ * is full new signals are dropped. Both cases are counted for the network stats.
+ * Entries are kept in parallel arrays, so firing and dispatching allocate nothing.
+ */
+public class SignalBus {
+    public static final int CAPACITY = 256;
+
+    private final String[] types = new String[CAPACITY];
+    private final int[] hashes = new int[CAPACITY];
+    private final UUID[] nodes = new UUID[CAPACITY];
+    private final UUID[] rules = new UUID[CAPACITY];
+    private int head = 0; // First entry not yet dispatched
+    private int tail = 0;
+
+    public long coalescedThisMin = 0;
+    public long droppedThisMin = 0;
+
+    /**
+     * Queues a signal unless an equal one is already waiting. Returns false if it was merged or dropped.
+     */
+    public boolean fire(String type, UUID sourceNodeId, UUID sourceRuleId) {
+        int hash = type.hashCode();
+        for (int i = head; i < tail; i++) {
+            if (hashes[i] == hash && type.equals(types[i]) && (sourceNodeId == null ? nodes[i] == null : sourceNodeId.equals(nodes[i]))) {
+                coalescedThisMin++;
+                return false;
+            }
+        }
+        if (tail == CAPACITY) {
+            if (head == 0) {
+                droppedThisMin++;
+                return false;
+            }
+            compact();
+        }
+        types[tail] = type;
+        hashes[tail] = hash;
+        nodes[tail] = sourceNodeId;
+        rules[tail] = sourceRuleId;
+        tail++;
+        return true;
+    }
+
+    public int size() {
+        return tail - head;
+    }
+
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    /** Accessors for the oldest waiting signal. */
+    public String peekType() {
+        return types[head];
+    }
+
+    public UUID peekNode() {
+        return nodes[head];
+    }
+
+    public UUID peekRule() {
+        return rules[head];
+    }
+
+    /** Removes the oldest signal; call before dispatching it so re-fires during dispatch queue anew. */
+    public void pop() {
+        types[head] = null;
+        nodes[head] = null;
+        rules[head] = null;
+        head++;
+        if (head == tail) head = tail = 0;
+    }
+
+    private void compact() {
+        int n = tail - head;
+        System.arraycopy(types, head, types, 0, n);
+        System.arraycopy(hashes, head, hashes, 0, n);
+        System.arraycopy(nodes, head, nodes, 0, n);
+        System.arraycopy(rules, head, rules, 0, n);
+        java.util.Arrays.fill(types, n, tail, null);
+        java.util.Arrays.fill(nodes, n, tail, null);
+        java.util.Arrays.fill(rules, n, tail, null);
+        head = 0;
+        tail = n;
+    }
+}
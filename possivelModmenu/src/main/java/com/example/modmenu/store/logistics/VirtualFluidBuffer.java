@@ -0,0 +1,231 @@
+package com.example.modmenu.store.logistics;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.level.material.Fluid;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.fluids.capability.IFluidHandler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Fluid counterpart of {@link VirtualItemBuffer}: one tank per fluid + NBT, 64-bit amounts, stable tank indices.
+ */
+public class VirtualFluidBuffer implements IFluidHandler {
+    private static final class Key {
+        final Fluid fluid;
+        final CompoundTag tag;
+        final int hash;
+
+        Key(FluidStack stack) {
+            this.fluid = stack.getFluid();
+            this.tag = stack.getTag();
+            this.hash = 31 * fluid.hashCode() + Objects.hashCode(tag);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && k.fluid == fluid && Objects.equals(k.tag, tag);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        final Key key;
+        final FluidStack prototype;
+        final FluidStack view; // handed out by the handler facade; callers may mutate it, so it never backs the index
+        final int tank;
+        long amount;
+
+        Entry(Key key, FluidStack prototype, int tank) {
+            this.key = key;
+            this.prototype = prototype;
+            this.view = prototype.copy();
+            this.tank = tank;
+        }
+
+        FluidStack view() {
+            view.setAmount((int) Math.min(amount, Integer.MAX_VALUE));
+            return view;
+        }
+    }
+
+    private final Map<Key, Entry> index = new HashMap<>();
+    private final List<Entry> tanks = new ArrayList<>();
+    private final List<Integer> freeTanks = new ArrayList<>();
+
+    public boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    /** Number of distinct fluids stored. */
+    public int size() {
+        return index.size();
+    }
+
+    public long getAmount(FluidStack stack) {
+        Entry e = index.get(new Key(stack));
+        return e != null ? e.amount : 0;
+    }
+
+    public void add(FluidStack stack, long amount) {
+        if (stack.isEmpty() || amount <= 0) return;
+        Key key = new Key(stack);
+        Entry e = index.get(key);
+        if (e == null) {
+            FluidStack prototype = new FluidStack(stack, 1);
+            int tank = freeTanks.isEmpty() ? tanks.size() : freeTanks.remove(freeTanks.size() - 1);
+            e = new Entry(new Key(prototype), prototype, tank);
+            if (tank == tanks.size()) tanks.add(e);
+            else tanks.set(tank, e);
+            index.put(e.key, e);
+        }
+        e.amount = e.amount > Long.MAX_VALUE - amount ? Long.MAX_VALUE : e.amount + amount;
+    }
+
+    /** Stored fluids in tank order, amounts clamped to int. Copies, safe to keep. */
+    public List<FluidStack> stacks() {
+        List<FluidStack> list = new ArrayList<>(index.size());
+        for (Entry e : tanks) if (e != null) list.add(e.view().copy());
+        return list;
+    }
+
+    public void clear() {
+        index.clear();
+        tanks.clear();
+        freeTanks.clear();
+    }
+
+    private void remove(Entry e) {
+        index.remove(e.key);
+        if (e.tank == tanks.size() - 1) {
+            tanks.remove(e.tank);
+            while (!tanks.isEmpty() && tanks.get(tanks.size() - 1) == null) {
+                freeTanks.remove(Integer.valueOf(tanks.size() - 1));
+                tanks.remove(tanks.size() - 1);
+            }
+        } else {
+            tanks.set(e.tank, null);
+            freeTanks.add(e.tank);
+        }
+    }
+
+    private FluidStack drain(Entry e, int maxDrain, FluidAction action) {
+        int toDrain = (int) Math.min(maxDrain, e.amount);
+        if (toDrain <= 0) return FluidStack.EMPTY;
+        FluidStack result = new FluidStack(e.prototype, toDrain);
+        if (action.execute()) {
+            e.amount -= toDrain;
+            if (e.amount <= 0) remove(e);
+        }
+        return result;
+    }
+
+    @Override
+    public int getTanks() {
+        return tanks.size() + 1;
+    }
+
+    @Override
+    public FluidStack getFluidInTank(int tank) {
+        Entry e = tank < tanks.size() ? tanks.get(tank) : null;
+        return e != null ? e.view() : FluidStack.EMPTY;
+    }
+
+    @Override
+    public int getTankCapacity(int tank) {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean isFluidValid(int tank, FluidStack stack) {
+        return true;
+    }
+
+    @Override
+    public int fill(FluidStack resource, FluidAction action) {
+        if (resource.isEmpty()) return 0;
+        if (action.execute()) add(resource, resource.getAmount());
+        return resource.getAmount();
+    }
+
+    @Override
+    public FluidStack drain(FluidStack resource, FluidAction action) {
+        if (resource.isEmpty()) return FluidStack.EMPTY;
+        Entry e = index.get(new Key(resource));
+        return e != null ? drain(e, resource.getAmount(), action) : FluidStack.EMPTY;
+    }
+
+    @Override
+    public FluidStack drain(int maxDrain, FluidAction action) {
+        for (Entry e : tanks) {
+            if (e != null) return drain(e, maxDrain, action);
+        }
+        return FluidStack.EMPTY;
+    }
+
+    public VirtualFluidBuffer snapshot() {
+        VirtualFluidBuffer snap = new VirtualFluidBuffer();
+        for (Entry e : tanks) if (e != null) snap.add(e.prototype, e.amount);
+        return snap;
+    }
+
+    public ListTag saveNBT() {
+        ListTag list = new ListTag();
+        for (Entry e : tanks) {
+            if (e == null) continue;
+            CompoundTag tag = new CompoundTag();
+            e.prototype.writeToNBT(tag);
+            tag.putLong("LongAmount", e.amount);
+            list.add(tag);
+        }
+        return list;
+    }
+
+    /**
+     * Reads both the current format and the legacy plain-FluidStack list (amount in "Amount", duplicates allowed).
+     */
+    public void loadNBT(ListTag list) {
+        clear();
+        for (int i = 0; i < list.size(); i++) {
+            CompoundTag tag = list.getCompound(i);
+            FluidStack stack = FluidStack.loadFluidStackFromNBT(tag);
+            if (stack.isEmpty()) continue;
+            add(stack, tag.contains("LongAmount") ? tag.getLong("LongAmount") : stack.getAmount());
+        }
+    }
+
+    /**
+     * Writes at most {@code limit} entries in slot order.
+     */
+    public void writeBuf(FriendlyByteBuf buf, int limit) {
+        int size = Math.min(index.size(), limit);
+        buf.writeVarInt(size);
+        int written = 0;
+        for (Entry e : tanks) {
+            if (e == null) continue;
+            if (written++ >= size) break;
+            e.prototype.writeToPacket(buf);
+            buf.writeVarLong(e.amount);
+        }
+    }
+
+    public void readBuf(FriendlyByteBuf buf, int limit) {
+        clear();
+        int size = buf.readVarInt();
+        if (size > limit) throw new RuntimeException("Too many fluids in buffer");
+        for (int i = 0; i < size; i++) {
+            FluidStack stack = FluidStack.readFromPacket(buf);
+            add(stack, buf.readVarLong());
+        }
+    }
+}
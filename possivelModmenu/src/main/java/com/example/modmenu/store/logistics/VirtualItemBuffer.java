@@ -0,0 +1,221 @@
+package com.example.modmenu.store.logistics;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Item storage behind BUFFER nodes and network ports.
+ * Stacks are indexed by item + NBT with 64-bit counts, so inserts, extracts and lookups are O(1) regardless of how
+ * many distinct items are stored. Each item type keeps the slot it was first given until it runs out, which keeps
+ * the {@link IItemHandler} view stable while a transfer walks the slots; freed slots are reused by new types.
+ */
+public class VirtualItemBuffer implements IItemHandler {
+    private static final class Key {
+        final Item item;
+        final CompoundTag tag;
+        final int hash;
+
+        Key(ItemStack stack) {
+            this.item = stack.getItem();
+            this.tag = stack.getTag();
+            this.hash = 31 * item.hashCode() + Objects.hashCode(tag);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && k.item == item && Objects.equals(k.tag, tag);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        final Key key;
+        final ItemStack prototype;
+        final ItemStack view; // handed out by the handler facade; callers may mutate it, so it never backs the index
+        final int slot;
+        long count;
+
+        Entry(Key key, ItemStack prototype, int slot) {
+            this.key = key;
+            this.prototype = prototype;
+            this.view = prototype.copy();
+            this.slot = slot;
+        }
+
+        ItemStack view() {
+            view.setCount((int) Math.min(count, Integer.MAX_VALUE));
+            return view;
+        }
+    }
+
+    private final Map<Key, Entry> index = new HashMap<>();
+    private final List<Entry> slots = new ArrayList<>();
+    private final List<Integer> freeSlots = new ArrayList<>();
+
+    public boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    /** Number of distinct item types stored. */
+    public int size() {
+        return index.size();
+    }
+
+    public long getCount(ItemStack stack) {
+        Entry e = index.get(new Key(stack));
+        return e != null ? e.count : 0;
+    }
+
+    public void add(ItemStack stack, long count) {
+        if (stack.isEmpty() || count <= 0) return;
+        Key key = new Key(stack);
+        Entry e = index.get(key);
+        if (e == null) {
+            ItemStack prototype = stack.copyWithCount(1);
+            int slot = freeSlots.isEmpty() ? slots.size() : freeSlots.remove(freeSlots.size() - 1);
+            e = new Entry(new Key(prototype), prototype, slot);
+            if (slot == slots.size()) slots.add(e);
+            else slots.set(slot, e);
+            index.put(e.key, e);
+        }
+        e.count = e.count > Long.MAX_VALUE - count ? Long.MAX_VALUE : e.count + count;
+    }
+
+    /** Stored stacks in slot order, counts clamped to int. Copies, safe to keep. */
+    public List<ItemStack> stacks() {
+        List<ItemStack> list = new ArrayList<>(index.size());
+        for (Entry e : slots) if (e != null) list.add(e.view().copy());
+        return list;
+    }
+
+    public void clear() {
+        index.clear();
+        slots.clear();
+        freeSlots.clear();
+    }
+
+    private void remove(Entry e) {
+        index.remove(e.key);
+        if (e.slot == slots.size() - 1) {
+            slots.remove(e.slot);
+            // Trim trailing holes so getSlots() shrinks back once the tail empties
+            while (!slots.isEmpty() && slots.get(slots.size() - 1) == null) {
+                freeSlots.remove(Integer.valueOf(slots.size() - 1));
+                slots.remove(slots.size() - 1);
+            }
+        } else {
+            slots.set(e.slot, null);
+            freeSlots.add(e.slot);
+        }
+    }
+
+    @Override
+    public int getSlots() {
+        return slots.size() + 1;
+    }
+
+    @Override
+    public ItemStack getStackInSlot(int slot) {
+        Entry e = slot < slots.size() ? slots.get(slot) : null;
+        return e != null ? e.view() : ItemStack.EMPTY;
+    }
+
+    @Override
+    public ItemStack insertItem(int slot, ItemStack stack, boolean simulate) {
+        if (stack.isEmpty()) return stack;
+        if (!simulate) add(stack, stack.getCount());
+        return ItemStack.EMPTY;
+    }
+
+    @Override
+    public ItemStack extractItem(int slot, int amount, boolean simulate) {
+        Entry e = slot < slots.size() ? slots.get(slot) : null;
+        if (e == null || amount <= 0) return ItemStack.EMPTY;
+        int toExtract = (int) Math.min(amount, e.count);
+        ItemStack result = e.prototype.copyWithCount(toExtract);
+        if (!simulate) {
+            e.count -= toExtract;
+            if (e.count <= 0) remove(e);
+        }
+        return result;
+    }
+
+    @Override
+    public int getSlotLimit(int slot) {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean isItemValid(int slot, ItemStack stack) {
+        return true;
+    }
+
+    public VirtualItemBuffer snapshot() {
+        VirtualItemBuffer snap = new VirtualItemBuffer();
+        for (Entry e : slots) if (e != null) snap.add(e.prototype, e.count);
+        return snap;
+    }
+
+    public ListTag saveNBT() {
+        ListTag list = new ListTag();
+        for (Entry e : slots) {
+            if (e == null) continue;
+            CompoundTag tag = e.prototype.save(new CompoundTag());
+            tag.putLong("LongCount", e.count);
+            list.add(tag);
+        }
+        return list;
+    }
+
+    /**
+     * Reads both the current format and the legacy plain-ItemStack list (count in "Count", duplicates allowed).
+     */
+    public void loadNBT(ListTag list) {
+        clear();
+        for (int i = 0; i < list.size(); i++) {
+            CompoundTag tag = list.getCompound(i);
+            ItemStack stack = ItemStack.of(tag);
+            if (stack.isEmpty()) continue;
+            add(stack, tag.contains("LongCount") ? tag.getLong("LongCount") : stack.getCount());
+        }
+    }
+
+    /**
+     * Writes at most {@code limit} entries in slot order.
+     */
+    public void writeBuf(FriendlyByteBuf buf, int limit) {
+        int size = Math.min(index.size(), limit);
+        buf.writeVarInt(size);
+        int written = 0;
+        for (Entry e : slots) {
+            if (e == null) continue;
+            if (written++ >= size) break;
+            buf.writeItem(e.prototype);
+            buf.writeVarLong(e.count);
+        }
+    }
+
+    public void readBuf(FriendlyByteBuf buf, int limit) {
+        clear();
+        int size = buf.readVarInt();
+        if (size > limit) throw new RuntimeException("Too many items in buffer");
+        for (int i = 0; i < size; i++) {
+            ItemStack stack = buf.readItem();
+            add(stack, buf.readVarLong());
+        }
+    }
+}
@@ -12,6 +12,11 @@ public class MultiLayerCache {
         persistentCache.put(itemId, price);
     }
 
+    /** Stores the price unless one is already there; returns the existing price, or null if this one was stored. */
+    public BigDecimal putPersistentIfAbsent(String itemId, BigDecimal price) {
+        return persistentCache.putIfAbsent(itemId, price);
+    }
+
     public void putSession(String itemId, BigDecimal price) {
         sessionCache.put(itemId, price);
     }
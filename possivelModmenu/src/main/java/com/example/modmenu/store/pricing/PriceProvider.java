@@ -22,4 +22,12 @@ public interface PriceProvider {
      * A name for this provider for logging purposes.
      */
     String getName();
+
+    /**
+     * Whether the price is built from other items' prices read through the context. Inside a recipe cycle these
+     * providers are relaxed against the cycle's estimates; the others price the item on its own.
+     */
+    default boolean readsPrices() {
+        return false;
+    }
 }
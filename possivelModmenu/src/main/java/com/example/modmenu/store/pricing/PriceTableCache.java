@@ -0,0 +1,103 @@
+package com.example.modmenu.store.pricing;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import net.minecraftforge.fml.loading.FMLPaths;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * The last computed price table on disk, together with the {@link PricingSnapshot#getFingerprint() fingerprint} of
+ * the inputs it was computed from. If nothing changed the table is reused as is. If only recipes changed, the prices
+ * of items whose own recipes are unchanged and that do not use a changed item, directly or through other recipes,
+ * are kept and only the rest is recomputed. Any other change (mods, formulas, engine) discards the table.
+ */
+public class PriceTableCache {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final Gson GSON = new GsonBuilder().create();
+    private static final File FILE = new File(FMLPaths.CONFIGDIR.get().toFile(), "store_price_cache.json");
+
+    private static class Stored {
+        Map<String, String> fingerprint = new HashMap<>();
+        Map<String, Long> recipeHashes = new HashMap<>();
+        Map<String, BigDecimal> prices = new HashMap<>();
+        Map<String, String> sources = new HashMap<>();
+    }
+
+    /** Prices (and their sources) that still hold for a snapshot. */
+    public record Reusable(Map<String, BigDecimal> prices, Map<String, String> sources, boolean complete) {}
+
+    /**
+     * Loads the stored table and keeps what is still valid for {@code snapshot}, or returns null if nothing is.
+     */
+    public static Reusable load(PricingSnapshot snapshot) {
+        if (!FILE.exists()) return null;
+        Stored stored;
+        try (FileReader reader = new FileReader(FILE)) {
+            stored = GSON.fromJson(reader, Stored.class);
+        } catch (Exception e) {
+            LOGGER.warn("Could not read price cache, recomputing all prices", e);
+            return null;
+        }
+        if (stored == null || stored.fingerprint == null || stored.prices == null) return null;
+        Map<String, String> sources = stored.sources != null ? stored.sources : new HashMap<>();
+
+        Map<String, String> current = snapshot.getFingerprint();
+        if (current.equals(stored.fingerprint)) {
+            return new Reusable(stored.prices, sources, true);
+        }
+        for (String input : current.keySet()) {
+            if (input.equals("recipes") || input.equals("tags")) continue;
+            if (!current.get(input).equals(stored.fingerprint.get(input))) {
+                LOGGER.info("Price cache inputs changed ({}), recomputing all prices", input);
+                return null;
+            }
+        }
+
+        // Ingredient tags are expanded into the recipe hashes, so only recipe differences matter here
+        Set<String> changed = snapshot.changedRecipes(stored.recipeHashes != null ? stored.recipeHashes : Collections.emptyMap());
+        Set<String> affected = snapshot.getGraph().getDependents(changed);
+
+        Map<String, BigDecimal> prices = new HashMap<>();
+        for (String id : snapshot.getItemIds()) {
+            BigDecimal price = stored.prices.get(id);
+            if (price != null && !affected.contains(id)) prices.put(id, price);
+        }
+        LOGGER.info("Price cache: {} items with changed recipes, reusing {} of {} prices", changed.size(), prices.size(), stored.prices.size());
+        return new Reusable(prices, sources, false);
+    }
+
+    public static void save(PricingSnapshot snapshot, Map<String, BigDecimal> prices, Map<String, String> sources) {
+        Stored stored = new Stored();
+        stored.fingerprint = new HashMap<>(snapshot.getFingerprint());
+        stored.recipeHashes = new HashMap<>(snapshot.getRecipeHashes());
+        stored.prices = prices;
+        stored.sources = sources;
+
+        File tmpFile = new File(FILE.getParent(), FILE.getName() + ".tmp");
+        try (FileWriter writer = new FileWriter(tmpFile)) {
+            GSON.toJson(stored, writer);
+        } catch (IOException e) {
+            LOGGER.warn("Could not write price cache", e);
+            return;
+        }
+        try {
+            Files.move(tmpFile.toPath(), FILE.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.move(tmpFile.toPath(), FILE.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ex) {
+                LOGGER.warn("Could not write price cache", ex);
+            }
+        }
+    }
+}
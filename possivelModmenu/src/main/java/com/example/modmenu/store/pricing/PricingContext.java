@@ -1,69 +1,68 @@
 package com.example.modmenu.store.pricing;
 
-import net.minecraft.world.level.Level;
-import net.minecraft.world.item.crafting.RecipeManager;
-import net.minecraft.core.RegistryAccess;
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * State of one pricing run. The snapshot, cache and source map are shared by all workers. While a cyclic component
+ * is being solved, a worker prices against {@link #forComponent its own view}, in which the component's items read
+ * the previous round's estimates instead of the cache.
+ */
 public class PricingContext {
-    private final Level level;
-    private final RecipeManager recipeManager;
-    private final RegistryAccess registryAccess;
+    private final PricingSnapshot snapshot;
     private final Map<String, BigDecimal> resolvedPrices;
-    private final Set<String> visiting;
+    private final Map<String, String> sources;
     private final MultiLayerCache cache;
+    private final Set<String> component;
+    private final Map<String, BigDecimal> estimates;
 
-    private int depth = 0;
-    private static final int MAX_DEPTH = 50;
+    private static final BigDecimal UNPRICED = BigDecimal.valueOf(-1);
 
-    public PricingContext(Level level, MultiLayerCache cache) {
-        this.level = level;
-        this.recipeManager = level.getRecipeManager();
-        this.registryAccess = level.registryAccess();
-        this.resolvedPrices = new ConcurrentHashMap<>();
-        this.visiting = ConcurrentHashMap.newKeySet();
-        this.cache = cache;
+    public PricingContext(PricingSnapshot snapshot, MultiLayerCache cache) {
+        this(snapshot, cache, new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), Collections.emptySet(), Collections.emptyMap());
     }
 
-    public boolean push() {
-        if (depth >= MAX_DEPTH) return false;
-        depth++;
-        return true;
+    private PricingContext(PricingSnapshot snapshot, MultiLayerCache cache, Map<String, BigDecimal> resolvedPrices, Map<String, String> sources,
+                           Set<String> component, Map<String, BigDecimal> estimates) {
+        this.snapshot = snapshot;
+        this.resolvedPrices = resolvedPrices;
+        this.sources = sources;
+        this.cache = cache;
+        this.component = component;
+        this.estimates = estimates;
     }
 
-    public void pop() {
-        depth--;
+    public PricingContext forComponent(Set<String> component, Map<String, BigDecimal> estimates) {
+        return new PricingContext(snapshot, cache, resolvedPrices, sources, component, estimates);
     }
 
-    public Level getLevel() {
-        return level;
+    /**
+     * Price of an ingredient, or -1 if it has none (yet). Never computes anything: dependencies outside the current
+     * component are priced in earlier layers.
+     */
+    public BigDecimal getPrice(String itemId) {
+        BigDecimal price = component.contains(itemId) ? estimates.get(itemId) : cache.get(itemId);
+        return price != null ? price : UNPRICED;
     }
 
-    public RecipeManager getRecipeManager() {
-        return recipeManager;
+    public PricingSnapshot getSnapshot() {
+        return snapshot;
     }
 
-    public RegistryAccess getRegistryAccess() {
-        return registryAccess;
+    public RecipeDependencyGraph getGraph() {
+        return snapshot.getGraph();
     }
 
     public Map<String, BigDecimal> getResolvedPrices() {
         return resolvedPrices;
     }
 
-    public boolean startVisiting(String itemId) {
-        return visiting.add(itemId);
-    }
-
-    public void stopVisiting(String itemId) {
-        visiting.remove(itemId);
-    }
-
-    public boolean isVisiting(String itemId) {
-        return visiting.contains(itemId);
+    /** Name of the provider that priced each item. */
+    public Map<String, String> getSources() {
+        return sources;
     }
 
     public MultiLayerCache getCache() {
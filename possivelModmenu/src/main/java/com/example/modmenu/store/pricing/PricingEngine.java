@@ -1,23 +1,36 @@
 package com.example.modmenu.store.pricing;
 
-import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Item;
-import net.minecraft.world.level.Level;
-import net.minecraftforge.registries.ForgeRegistries;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import java.math.BigDecimal;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Prices every item from a {@link PricingSnapshot} on a worker pool. The recipe graph is split into strongly
+ * connected components, and those into layers that only depend on earlier ones; each layer is priced in parallel.
+ * A component that is a recipe cycle is solved as a unit by lowering its prices until they settle. The finished table replaces the previous one in
+ * a single step, so {@link #getPrices()} keeps returning the old table while a run is in progress.
+ * Prices still valid from the {@link PriceTableCache} are taken as they are.
+ */
 public class PricingEngine {
+    /** Bump when a change here or in a provider alters prices, so cached tables are recomputed. */
+    public static final int VERSION = 4;
+
     private static final Logger LOGGER = LogManager.getLogger();
     private final List<PriceProvider> providers = new ArrayList<>();
-    private final MultiLayerCache cache = new MultiLayerCache();
-    private final Map<String, String> priceSources = new ConcurrentHashMap<>();
-    private final Map<String, List<String>> dependencyChains = new ConcurrentHashMap<>();
-    private final Map<String, BigDecimal> appliedMultipliers = new ConcurrentHashMap<>();
-    private final Map<String, Boolean> usedFallback = new ConcurrentHashMap<>();
+    private volatile Map<String, BigDecimal> prices = Collections.emptyMap();
+    private volatile Map<String, String> priceSources = Collections.emptyMap();
+    private volatile PricingSnapshot lastSnapshot;
+
+    private ForkJoinPool pool;
+    private CompletableFuture<Map<String, BigDecimal>> running;
+    private final AtomicInteger priced = new AtomicInteger();
+    private volatile int total = 0;
 
     public PricingEngine() {
         registerProvider(new ProjectEPriceProvider());
@@ -33,123 +46,209 @@ public class PricingEngine {
         providers.sort(Comparator.comparingInt(PriceProvider::getPriority).reversed());
     }
 
-    public void computeAllPrices(Level level) {
-        LOGGER.info("Starting deterministic pricing engine...");
-        cache.clearAll();
-        PricingContext context = new PricingContext(level, cache);
-        
-        // 1. Pre-build dependency graph and sort items
-        RecipeDependencyGraph graph = null;
-        for (PriceProvider provider : providers) {
-            if (provider instanceof RecipePriceProvider recipeProvider) {
-                recipeProvider.ensureGraphBuilt(context);
-                graph = recipeProvider.getGraph();
-                break;
-            }
+    /**
+     * Starts pricing on the worker pool and returns the finished table. If a run is already in progress, that run
+     * is returned instead.
+     */
+    public synchronized CompletableFuture<Map<String, BigDecimal>> computeAllPrices(PricingSnapshot snapshot) {
+        if (running != null && !running.isDone()) return running;
+        running = CompletableFuture.supplyAsync(() -> run(snapshot), pool());
+        return running;
+    }
+
+    /**
+     * Reprices only items whose recipes changed since the last run, and everything made from them, keeping the
+     * other prices of the current table. Runs after any pricing already in progress.
+     */
+    public synchronized CompletableFuture<Map<String, BigDecimal>> repriceChanged(PricingSnapshot snapshot) {
+        CompletableFuture<Map<String, BigDecimal>> previous = running != null ? running : CompletableFuture.completedFuture(prices);
+        running = previous.handle((table, e) -> table).thenApplyAsync(table -> reprice(snapshot), pool());
+        return running;
+    }
+
+    private Map<String, BigDecimal> reprice(PricingSnapshot snapshot) {
+        PricingSnapshot last = lastSnapshot;
+        if (last == null) return run(snapshot);
+
+        Set<String> changed = snapshot.changedRecipes(last.getRecipeHashes());
+        if (changed.isEmpty()) {
+            lastSnapshot = snapshot;
+            LOGGER.info("Recipes unchanged, keeping all prices.");
+            return prices;
         }
+        Set<String> affected = snapshot.getGraph().getDependents(changed);
+        Map<String, BigDecimal> kept = new HashMap<>(prices);
+        kept.keySet().removeAll(affected);
+        LOGGER.info("{} items with changed recipes, repricing {} affected items.", changed.size(), affected.size());
+        return price(snapshot, new PriceTableCache.Reusable(kept, priceSources, false));
+    }
+
+    private Map<String, BigDecimal> run(PricingSnapshot snapshot) {
+        return price(snapshot, PriceTableCache.load(snapshot));
+    }
+
+    private Map<String, BigDecimal> price(PricingSnapshot snapshot, PriceTableCache.Reusable reusable) {
+        long start = System.currentTimeMillis();
+        PricingContext context = new PricingContext(snapshot, new MultiLayerCache());
+        total = snapshot.getItemIds().size();
+        priced.set(0);
 
-        if (graph != null) {
-            List<String> sortedIds = graph.getTopologicalSort();
-            LOGGER.info("Topologically sorted {} items with recipes.", sortedIds.size());
-            for (String id : sortedIds) {
-                Item item = ForgeRegistries.ITEMS.getValue(net.minecraft.resources.ResourceLocation.tryParse(id));
-                if (item != null) {
-                    resolvePrice(item, context);
-                }
+        if (reusable != null) {
+            if (reusable.complete()) {
+                priced.set(total);
+                prices = Collections.unmodifiableMap(new HashMap<>(reusable.prices()));
+                priceSources = Collections.unmodifiableMap(new HashMap<>(reusable.sources()));
+                lastSnapshot = snapshot;
+                LOGGER.info("Loaded {} prices from cache, inputs unchanged.", prices.size());
+                return prices;
             }
+            reusable.prices().forEach((id, price) -> {
+                context.getCache().putPersistent(id, price);
+                String source = reusable.sources().get(id);
+                if (source != null) context.getSources().put(id, source);
+            });
+            priced.set(reusable.prices().size());
         }
 
-        // 2. Price everything else (base items, etc.)
-        for (Item item : ForgeRegistries.ITEMS) {
-            resolvePrice(item, context);
+        List<List<RecipeDependencyGraph.Component>> layers = snapshot.getGraph().getLayers();
+        LOGGER.info("Starting pricing engine: {} items, {} recipe layers, {} workers.", total, layers.size(), pool.getParallelism());
+
+        // 1. Recipe graph, one dependency layer at a time
+        for (int i = 0; i < layers.size(); i++) {
+            // Runs on a pool worker, so the parallel stream splits across the same pool
+            layers.get(i).parallelStream().forEach(component -> priceComponent(component, context));
+            LOGGER.info("Pricing layer {}/{} done ({}%).", i + 1, layers.size(), Math.round(getProgress() * 100));
         }
-        LOGGER.info("Pricing engine completed. Priced {} items.", cache.getPersistentCache().size());
-    }
 
-    public BigDecimal resolvePrice(Item item, PricingContext context) {
-        String id = ForgeRegistries.ITEMS.getKey(item).toString();
-        
-        BigDecimal cached = cache.get(id);
-        if (cached != null) return cached;
+        // 2. Price everything else (base items, etc.)
+        snapshot.getItemIds().parallelStream().forEach(id -> {
+            if (context.getCache().get(id) == null) store(id, evaluate(id, context), context);
+        });
 
-        if (context.isVisiting(id)) {
-            // Loop detected
-            return BigDecimal.valueOf(-1);
-        }
+        Map<String, BigDecimal> result = Collections.unmodifiableMap(new HashMap<>(context.getCache().getPersistentCache()));
+        priceSources = Collections.unmodifiableMap(new HashMap<>(context.getSources()));
+        prices = result;
+        lastSnapshot = snapshot;
+        PriceTableCache.save(snapshot, result, priceSources);
+        LOGGER.info("Pricing engine completed. Priced {} items in {} ms.", result.size(), System.currentTimeMillis() - start);
+        return result;
+    }
 
-        if (!context.push()) {
-            // Depth overflow
-            return BigDecimal.valueOf(-1);
+    private void priceComponent(RecipeDependencyGraph.Component component, PricingContext context) {
+        List<String> items = component.items();
+        if (!component.cyclic()) {
+            String id = items.get(0);
+            if (context.getCache().get(id) == null) store(id, evaluate(id, context), context);
+            return;
         }
+        // Components are invalidated as a whole, so one cached member means all are
+        if (context.getCache().get(items.get(0)) != null) return;
+
+        // The provider order splits in three: the providers ahead of the first price-reading one (ProjectE, Default)
+        // give fixed prices, the price-reading run after them (recipes) is relaxed, and the rest (Inference, Fallback)
+        // only price members that are still unpriced once the cycle settles. This is the same order evaluate() follows.
+        int fixedEnd = 0;
+        while (fixedEnd < providers.size() && !providers.get(fixedEnd).readsPrices()) fixedEnd++;
+        int relaxEnd = fixedEnd;
+        while (relaxEnd < providers.size() && providers.get(relaxEnd).readsPrices()) relaxEnd++;
 
-        context.startVisiting(id);
-        try {
-            for (PriceProvider provider : providers) {
-                Optional<BigDecimal> price = provider.getPrice(item, context);
-                if (price.isPresent()) {
-                    BigDecimal multiplier = BigDecimal.valueOf(getMultiplier(item));
-                    BigDecimal finalPrice = price.get().multiply(multiplier).setScale(0, java.math.RoundingMode.HALF_UP);
-                    
-                    cache.putPersistent(id, finalPrice);
-                    priceSources.put(id, provider.getName());
-                    appliedMultipliers.put(id, multiplier);
-                    usedFallback.put(id, provider.getName().equals("Fallback"));
-                    
-                    LOGGER.info("Priced {}: {} [Source: {}, Multiplier: {}, Fallback: {}]", 
-                        id, finalPrice, provider.getName(), multiplier, usedFallback.get(id));
-                    
-                    return finalPrice;
-                }
+        Map<String, BigDecimal> estimates = new HashMap<>();
+        PricingContext inner = context.forComponent(new HashSet<>(items), estimates);
+        Map<String, Priced> current = new HashMap<>();
+        List<String> relaxed = new ArrayList<>();
+        for (String id : items) {
+            Priced p = evaluate(id, inner, 0, fixedEnd);
+            if (p != null) {
+                current.put(id, p);
+                estimates.put(id, p.price());
+            } else {
+                relaxed.add(id);
             }
-        } finally {
-            context.stopVisiting(id);
-            context.pop();
         }
 
-        return BigDecimal.valueOf(-1);
+        // Members without an estimate count as unpriced ingredients. Every round prices the relaxed members from the
+        // current estimates and keeps a price only if it is lower. Prices only fall and every recipe adds a fee, so
+        // like a shortest path search this settles within one round per member. All members of a round read the
+        // same estimates, so the result does not depend on the order they are visited in.
+        Map<String, Priced> lowered = new HashMap<>();
+        for (int round = 0; round <= relaxed.size(); round++) { // One more than needed, to see it settle
+            lowered.clear();
+            for (String id : relaxed) {
+                Priced p = evaluate(id, inner, fixedEnd, relaxEnd);
+                Priced old = current.get(id);
+                if (p != null && (old == null || p.price().compareTo(old.price()) < 0)) lowered.put(id, p);
+            }
+            if (lowered.isEmpty()) break;
+            current.putAll(lowered);
+            lowered.forEach((id, p) -> estimates.put(id, p.price()));
+        }
+        if (!lowered.isEmpty()) {
+            LOGGER.debug("Cycle of {} items around {} was still falling after {} rounds.", items.size(), items.get(0), relaxed.size() + 1);
+        }
+        for (String id : items) {
+            Priced p = current.get(id);
+            if (p == null) p = evaluate(id, inner, relaxEnd, providers.size());
+            store(id, p, context);
+        }
     }
 
-    private double getMultiplier(Item item) {
-        double multiplier = 1.0;
-        String id = ForgeRegistries.ITEMS.getKey(item).toString();
+    private record Priced(BigDecimal price, String source) {}
 
-        if (isTool(item)) multiplier = 1.2;
-        
-        net.minecraft.world.item.Rarity rarity = item.getRarity(new ItemStack(item));
-        switch (rarity) {
-            case UNCOMMON -> multiplier = Math.max(multiplier, 1.2);
-            case RARE -> multiplier = Math.max(multiplier, 1.5);
-            case EPIC -> multiplier = Math.max(multiplier, 2.0);
-        }
-
-        // Apply rarity modifiers based on ID keywords (heuristic)
-        if (id.contains("nether") || id.contains("quartz")) multiplier *= 1.2;
-        if (id.contains("end") || id.contains("chorus") || id.contains("shulker")) multiplier *= 1.5;
-        if (id.contains("magic") || id.contains("spell") || id.contains("relic")) multiplier *= 1.5;
-        if (id.contains("ancient") || id.contains("legendary") || id.contains("mythic")) multiplier *= 2.0;
-        if (id.contains("infinite") || id.contains("creative") || id.contains("debug")) multiplier *= 100.0;
+    /** Asks the providers in order for a price, reading ingredient prices from the context. */
+    private Priced evaluate(String id, PricingContext context) {
+        return evaluate(id, context, 0, providers.size());
+    }
 
-        if (isExploitProne(item)) {
-            multiplier *= 10.0;
+    /** Like {@link #evaluate(String, PricingContext)}, asking only the providers at positions {@code from} to {@code to - 1}. */
+    private Priced evaluate(String id, PricingContext context, int from, int to) {
+        Item item = context.getSnapshot().getItem(id);
+        if (item == null) return null;
+        for (int i = from; i < to; i++) {
+            PriceProvider provider = providers.get(i);
+            Optional<BigDecimal> price = provider.getPrice(item, context);
+            if (price.isPresent()) {
+                BigDecimal multiplier = BigDecimal.valueOf(context.getSnapshot().getMultiplier(id));
+                BigDecimal finalPrice = price.get().multiply(multiplier).setScale(0, java.math.RoundingMode.HALF_UP);
+                LOGGER.debug("Priced {}: {} [Source: {}, Multiplier: {}]", id, finalPrice, provider.getName(), multiplier);
+                return new Priced(finalPrice, provider.getName());
+            }
         }
-        return multiplier;
+        return null;
     }
 
-    private BigDecimal applyModifiers(Item item, BigDecimal basePrice) {
-        return basePrice.multiply(BigDecimal.valueOf(getMultiplier(item))).setScale(0, java.math.RoundingMode.HALF_UP);
+    private void store(String id, Priced priced, PricingContext context) {
+        if (priced == null) return;
+        if (context.getCache().putPersistentIfAbsent(id, priced.price()) != null) return;
+        context.getSources().put(id, priced.source());
+        this.priced.incrementAndGet();
+    }
+
+    private synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            AtomicInteger threads = new AtomicInteger();
+            pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), p -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                thread.setName("ModMenu Pricing Worker-" + threads.incrementAndGet());
+                thread.setContextClassLoader(PricingEngine.class.getClassLoader());
+                return thread;
+            }, null, false);
+        }
+        return pool;
     }
 
-    private boolean isTool(Item item) {
-        return item.getMaxDamage(new ItemStack(item)) > 0;
+    public boolean isRunning() {
+        CompletableFuture<?> current = running;
+        return current != null && !current.isDone();
     }
 
-    private boolean isExploitProne(Item item) {
-        String id = ForgeRegistries.ITEMS.getKey(item).toString();
-        return id.contains("generator") || id.contains("creative") || id.contains("debug") || id.contains("dupe");
+    /** Share of items priced by the current (or last) run, from 0 to 1. */
+    public float getProgress() {
+        int t = total;
+        return t == 0 ? 0 : Math.min(1f, priced.get() / (float) t);
     }
 
     public Map<String, BigDecimal> getPrices() {
-        return cache.getPersistentCache();
+        return prices;
     }
 
     public String getSource(String id) {
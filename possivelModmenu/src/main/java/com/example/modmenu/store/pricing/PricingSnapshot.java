@@ -0,0 +1,174 @@
+package com.example.modmenu.store.pricing;
+
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Everything pricing reads from the game, captured on the server thread so the engine can run on worker threads:
+ * the item registry, each item's price multiplier and the recipe graph.
+ *
+ * The snapshot also fingerprints those inputs for {@link PriceTableCache}: one hash each for the recipes, the item
+ * tags, the mod list, the store formulas and the engine version, plus a hash of each item's own recipes.
+ */
+public class PricingSnapshot {
+    static final long FNV_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final List<String> itemIds = new ArrayList<>();
+    private final Map<String, Item> items = new HashMap<>();
+    private final Map<String, Double> multipliers = new HashMap<>();
+    private final RecipeDependencyGraph graph = new RecipeDependencyGraph();
+    private final Map<String, Long> recipeHashes = new HashMap<>();
+    private final Map<String, String> fingerprint = new TreeMap<>();
+
+    /**
+     * @param formulas the store formulas as saved to {@code store_formulas.json}
+     */
+    public static PricingSnapshot capture(Level level, String formulas) {
+        PricingSnapshot snapshot = new PricingSnapshot();
+        for (Item item : ForgeRegistries.ITEMS) {
+            String id = ForgeRegistries.ITEMS.getKey(item).toString();
+            snapshot.itemIds.add(id);
+            snapshot.items.put(id, item);
+            snapshot.multipliers.put(id, multiplier(item, id));
+        }
+        snapshot.graph.build(level.getRecipeManager(), level.registryAccess());
+
+        List<String> results = new ArrayList<>(snapshot.graph.getResultIds());
+        Collections.sort(results);
+        long recipes = FNV_BASIS;
+        for (String id : results) {
+            long h = snapshot.graph.hashRecipes(id);
+            snapshot.recipeHashes.put(id, h);
+            recipes = hash(recipes, Long.toHexString(h));
+        }
+        snapshot.fingerprint.put("recipes", Long.toHexString(recipes));
+        snapshot.fingerprint.put("tags", Long.toHexString(hashTags()));
+        snapshot.fingerprint.put("mods", Long.toHexString(hashMods()));
+        snapshot.fingerprint.put("formulas", Long.toHexString(hash(FNV_BASIS, formulas)));
+        snapshot.fingerprint.put("engine", Integer.toString(PricingEngine.VERSION));
+        return snapshot;
+    }
+
+    private static long hashTags() {
+        Map<String, List<String>> tags = new TreeMap<>();
+        net.minecraft.core.registries.BuiltInRegistries.ITEM.getTags().forEach(pair -> {
+            List<String> members = new ArrayList<>();
+            for (net.minecraft.core.Holder<Item> holder : pair.getSecond()) {
+                members.add(ForgeRegistries.ITEMS.getKey(holder.value()).toString());
+            }
+            Collections.sort(members);
+            tags.put(pair.getFirst().location().toString(), members);
+        });
+        long h = FNV_BASIS;
+        for (Map.Entry<String, List<String>> tag : tags.entrySet()) {
+            h = hash(h, tag.getKey());
+            for (String member : tag.getValue()) h = hash(h, member);
+        }
+        return h;
+    }
+
+    private static long hashMods() {
+        List<String> mods = new ArrayList<>();
+        for (net.minecraftforge.forgespi.language.IModInfo mod : net.minecraftforge.fml.ModList.get().getMods()) {
+            mods.add(mod.getModId() + "@" + mod.getVersion());
+        }
+        Collections.sort(mods);
+        long h = FNV_BASIS;
+        for (String mod : mods) h = hash(h, mod);
+        return h;
+    }
+
+    /** 64-bit FNV-1a over the string's characters, continuing from {@code h}, with a separator after it. */
+    static long hash(long h, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= FNV_PRIME;
+        }
+        h ^= 0xFFFF;
+        return h * FNV_PRIME;
+    }
+
+    /** Input hashes by name; two snapshots with equal fingerprints produce the same prices. */
+    public Map<String, String> getFingerprint() {
+        return Collections.unmodifiableMap(fingerprint);
+    }
+
+    /** Hash of each item's own recipes, for items that have any. */
+    public Map<String, Long> getRecipeHashes() {
+        return Collections.unmodifiableMap(recipeHashes);
+    }
+
+    /** Items whose own recipes differ from {@code previous} recipe hashes, including added and removed ones. */
+    public Set<String> changedRecipes(Map<String, Long> previous) {
+        Set<String> changed = new HashSet<>();
+        for (Map.Entry<String, Long> e : recipeHashes.entrySet()) {
+            if (!e.getValue().equals(previous.get(e.getKey()))) changed.add(e.getKey());
+        }
+        for (String id : previous.keySet()) {
+            if (!recipeHashes.containsKey(id)) changed.add(id);
+        }
+        return changed;
+    }
+
+    /** Registry ids of all items, in registry order. */
+    public List<String> getItemIds() {
+        return Collections.unmodifiableList(itemIds);
+    }
+
+    public Item getItem(String id) {
+        return items.get(id);
+    }
+
+    public double getMultiplier(String id) {
+        return multipliers.getOrDefault(id, 1.0);
+    }
+
+    public RecipeDependencyGraph getGraph() {
+        return graph;
+    }
+
+    private static double multiplier(Item item, String id) {
+        double multiplier = 1.0;
+
+        if (isTool(item)) multiplier = 1.2;
+
+        net.minecraft.world.item.Rarity rarity = item.getRarity(new ItemStack(item));
+        switch (rarity) {
+            case UNCOMMON -> multiplier = Math.max(multiplier, 1.2);
+            case RARE -> multiplier = Math.max(multiplier, 1.5);
+            case EPIC -> multiplier = Math.max(multiplier, 2.0);
+        }
+
+        // Apply rarity modifiers based on ID keywords (heuristic)
+        if (id.contains("nether") || id.contains("quartz")) multiplier *= 1.2;
+        if (id.contains("end") || id.contains("chorus") || id.contains("shulker")) multiplier *= 1.5;
+        if (id.contains("magic") || id.contains("spell") || id.contains("relic")) multiplier *= 1.5;
+        if (id.contains("ancient") || id.contains("legendary") || id.contains("mythic")) multiplier *= 2.0;
+        if (id.contains("infinite") || id.contains("creative") || id.contains("debug")) multiplier *= 100.0;
+
+        if (isExploitProne(id)) {
+            multiplier *= 10.0;
+        }
+        return multiplier;
+    }
+
+    private static boolean isTool(Item item) {
+        return item.getMaxDamage(new ItemStack(item)) > 0;
+    }
+
+    private static boolean isExploitProne(String id) {
+        return id.contains("generator") || id.contains("creative") || id.contains("debug") || id.contains("dupe");
+    }
+}
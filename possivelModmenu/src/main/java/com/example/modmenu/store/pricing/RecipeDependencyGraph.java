@@ -1,73 +1,197 @@
 package com.example.modmenu.store.pricing;
 
-import net.minecraft.world.item.Item;
+import net.minecraft.core.RegistryAccess;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.Ingredient;
 import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.item.crafting.RecipeManager;
 import net.minecraftforge.registries.ForgeRegistries;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * Recipes by result item, copied out of the recipe manager as plain item ids so the graph can be walked off the
+ * server thread. Building it resolves every ingredient, including tag ingredients, and must happen on the server
+ * thread; afterwards it is read-only.
+ */
 public class RecipeDependencyGraph {
-    private final Map<String, List<Recipe<?>>> itemRecipes = new ConcurrentHashMap<>();
-    private final Map<String, Set<String>> dependencies = new ConcurrentHashMap<>();
+    /**
+     * One recipe. {@code ingredients} has one entry per ingredient slot of the original recipe; an empty
+     * ingredient is an empty array.
+     */
+    public record RecipeEntry(String recipeId, String resultId, int resultCount, List<String[]> ingredients) {}
 
-    public void build(PricingContext context) {
-        for (Recipe<?> recipe : context.getRecipeManager().getRecipes()) {
-            ItemStack resultStack = recipe.getResultItem(context.getRegistryAccess());
-            if (resultStack.isEmpty()) continue;
-
-            Item resultItem = resultStack.getItem();
-            String resultId = ForgeRegistries.ITEMS.getKey(resultItem).toString();
+    private final Map<String, List<RecipeEntry>> itemRecipes = new HashMap<>();
+    private final Map<String, Set<String>> dependencies = new HashMap<>();
+    private final Map<String, List<RecipeEntry>> usages = new HashMap<>();
 
-            itemRecipes.computeIfAbsent(resultId, k -> new CopyOnWriteArrayList<>()).add(recipe);
+    public void build(RecipeManager recipeManager, RegistryAccess registryAccess) {
+        for (Recipe<?> recipe : recipeManager.getRecipes()) {
+            ItemStack resultStack = recipe.getResultItem(registryAccess);
+            if (resultStack.isEmpty()) continue;
 
-            Set<String> deps = dependencies.computeIfAbsent(resultId, k -> ConcurrentHashMap.newKeySet());
+            String resultId = ForgeRegistries.ITEMS.getKey(resultStack.getItem()).toString();
+            List<String[]> ingredients = new ArrayList<>(recipe.getIngredients().size());
+            Set<String> deps = dependencies.computeIfAbsent(resultId, k -> new HashSet<>());
             for (Ingredient ingredient : recipe.getIngredients()) {
-                for (ItemStack stack : ingredient.getItems()) {
-                    deps.add(ForgeRegistries.ITEMS.getKey(stack.getItem()).toString());
+                if (ingredient.isEmpty()) {
+                    ingredients.add(new String[0]);
+                    continue;
+                }
+                ItemStack[] stacks = ingredient.getItems();
+                String[] ids = new String[stacks.length];
+                for (int i = 0; i < stacks.length; i++) {
+                    ids[i] = ForgeRegistries.ITEMS.getKey(stacks[i].getItem()).toString();
+                    deps.add(ids[i]);
+                }
+                ingredients.add(ids);
+            }
+
+            RecipeEntry entry = new RecipeEntry(recipe.getId().toString(), resultId, resultStack.getCount(), ingredients);
+            itemRecipes.computeIfAbsent(resultId, k -> new ArrayList<>()).add(entry);
+            for (String[] ids : ingredients) {
+                for (String id : ids) {
+                    usages.computeIfAbsent(id, k -> new ArrayList<>()).add(entry);
                 }
             }
         }
     }
 
-    public List<Recipe<?>> getRecipesForItem(String itemId) {
+    public List<RecipeEntry> getRecipesForItem(String itemId) {
         return itemRecipes.getOrDefault(itemId, Collections.emptyList());
     }
 
+    /** Recipes that take the item as an ingredient, once per ingredient option naming it. */
+    public List<RecipeEntry> getUsages(String itemId) {
+        return usages.getOrDefault(itemId, Collections.emptyList());
+    }
+
+    /** The given items and every item made from them, directly or through other recipes. */
+    public Set<String> getDependents(Collection<String> items) {
+        Set<String> result = new HashSet<>(items);
+        Deque<String> queue = new ArrayDeque<>(items);
+        while (!queue.isEmpty()) {
+            for (RecipeEntry recipe : getUsages(queue.poll())) {
+                if (result.add(recipe.resultId())) queue.add(recipe.resultId());
+            }
+        }
+        return result;
+    }
+
     public Set<String> getDependencies(String itemId) {
         return dependencies.getOrDefault(itemId, Collections.emptySet());
     }
 
-    public List<String> getTopologicalSort() {
-        List<String> sorted = new ArrayList<>();
-        Set<String> visited = new HashSet<>();
-        Set<String> visiting = new HashSet<>();
+    public boolean hasRecipes(String itemId) {
+        return itemRecipes.containsKey(itemId);
+    }
+
+    public Set<String> getResultIds() {
+        return Collections.unmodifiableSet(itemRecipes.keySet());
+    }
 
-        for (String item : itemRecipes.keySet()) {
-            if (!visited.contains(item)) {
-                dfs(item, visited, visiting, sorted);
+    /** Hash of every recipe producing the item, independent of the order the recipe manager lists them in. */
+    public long hashRecipes(String itemId) {
+        List<RecipeEntry> recipes = new ArrayList<>(getRecipesForItem(itemId));
+        recipes.sort(Comparator.comparing(RecipeEntry::recipeId));
+        long hash = PricingSnapshot.hash(PricingSnapshot.FNV_BASIS, itemId);
+        for (RecipeEntry recipe : recipes) {
+            hash = PricingSnapshot.hash(hash, recipe.recipeId());
+            hash = PricingSnapshot.hash(hash, Integer.toString(recipe.resultCount()));
+            for (String[] ingredient : recipe.ingredients()) {
+                hash = PricingSnapshot.hash(hash, "[");
+                for (String id : ingredient) hash = PricingSnapshot.hash(hash, id);
             }
         }
-        Collections.reverse(sorted);
-        return sorted;
+        return hash;
     }
 
-    private void dfs(String item, Set<String> visited, Set<String> visiting, List<String> sorted) {
-        visiting.add(item);
-        Set<String> deps = dependencies.get(item);
-        if (deps != null) {
-            for (String dep : deps) {
-                if (visiting.contains(dep)) continue; // Simple cycle break
-                if (!visited.contains(dep)) {
-                    dfs(dep, visited, visiting, sorted);
+    /**
+     * Strongly connected components of the dependency graph, grouped into layers: every component only depends on
+     * components in earlier layers, so the components of one layer can be priced independently of each other.
+     * Items of a cyclic component (ingot, block and nugget, say) depend on each other and are priced together.
+     * Uses an iterative Tarjan walk, so deep recipe chains cannot overflow the stack.
+     */
+    public List<List<Component>> getLayers() {
+        // Sorted node order keeps component membership and layer order identical between runs
+        TreeSet<String> nodeSet = new TreeSet<>(dependencies.keySet());
+        for (Set<String> deps : dependencies.values()) nodeSet.addAll(deps);
+        String[] nodes = nodeSet.toArray(new String[0]);
+        Map<String, Integer> indexOf = new HashMap<>(nodes.length * 2);
+        for (int i = 0; i < nodes.length; i++) indexOf.put(nodes[i], i);
+        int[][] adj = new int[nodes.length][];
+        for (int i = 0; i < nodes.length; i++) {
+            Set<String> deps = dependencies.get(nodes[i]);
+            adj[i] = deps == null ? new int[0] : deps.stream().mapToInt(indexOf::get).sorted().toArray();
+        }
+
+        int n = nodes.length;
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] edge = new int[n];
+        int[] componentOf = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] stack = new int[n];
+        int[] call = new int[n];
+        Arrays.fill(index, -1);
+        Arrays.fill(componentOf, -1);
+        int counter = 0, sp = 0;
+
+        List<Integer> layerOf = new ArrayList<>(); // By component id
+        List<List<Component>> layers = new ArrayList<>();
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != -1) continue;
+            int cp = 0;
+            call[cp++] = root;
+            index[root] = low[root] = counter++;
+            stack[sp++] = root;
+            onStack[root] = true;
+            while (cp > 0) {
+                int v = call[cp - 1];
+                if (edge[v] < adj[v].length) {
+                    int w = adj[v][edge[v]++];
+                    if (index[w] == -1) {
+                        index[w] = low[w] = counter++;
+                        stack[sp++] = w;
+                        onStack[w] = true;
+                        call[cp++] = w;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
                 }
+                cp--;
+                if (cp > 0) low[call[cp - 1]] = Math.min(low[call[cp - 1]], low[v]);
+                if (low[v] != index[v]) continue;
+
+                // v roots a component; its dependencies' components were all completed before it
+                int id = layerOf.size();
+                List<String> items = new ArrayList<>();
+                int layer = 0;
+                boolean cyclic = false;
+                int w;
+                do {
+                    w = stack[--sp];
+                    onStack[w] = false;
+                    componentOf[w] = id;
+                    items.add(nodes[w]);
+                } while (w != v);
+                for (String item : items) {
+                    for (int dep : adj[indexOf.get(item)]) {
+                        if (componentOf[dep] == id) cyclic = true;
+                        else layer = Math.max(layer, layerOf.get(componentOf[dep]) + 1);
+                    }
+                }
+                Collections.sort(items);
+                layerOf.add(layer);
+                while (layers.size() <= layer) layers.add(new ArrayList<>());
+                layers.get(layer).add(new Component(items, cyclic));
             }
         }
-        visiting.remove(item);
-        visited.add(item);
-        sorted.add(item);
+        return layers;
     }
+
+    /** Items that have to be priced together; {@code cyclic} if they depend on each other (or one on itself). */
+    public record Component(List<String> items, boolean cyclic) {}
 }
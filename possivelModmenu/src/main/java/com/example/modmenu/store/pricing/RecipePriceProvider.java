@@ -1,9 +1,6 @@
 package com.example.modmenu.store.pricing;
 
 import net.minecraft.world.item.Item;
-import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.item.crafting.Ingredient;
-import net.minecraft.world.item.crafting.Recipe;
 import net.minecraftforge.registries.ForgeRegistries;
 
 import java.math.BigDecimal;
@@ -12,48 +9,32 @@ import java.util.List;
 import java.util.Optional;
 
 public class RecipePriceProvider implements PriceProvider {
-    private volatile RecipeDependencyGraph graph;
     private final PricingEngine engine;
 
     public RecipePriceProvider(PricingEngine engine) {
         this.engine = engine;
     }
 
-    public synchronized void ensureGraphBuilt(PricingContext context) {
-        if (graph == null) {
-            graph = new RecipeDependencyGraph();
-            graph.build(context);
-        }
-    }
-
-    public RecipeDependencyGraph getGraph() {
-        return graph;
-    }
-
     @Override
     public Optional<BigDecimal> getPrice(Item item, PricingContext context) {
-        if (graph == null) {
-            ensureGraphBuilt(context);
-        }
-
         String id = ForgeRegistries.ITEMS.getKey(item).toString();
-        List<Recipe<?>> recipes = graph.getRecipesForItem(id);
+        List<RecipeDependencyGraph.RecipeEntry> recipes = context.getGraph().getRecipesForItem(id);
         
         if (recipes.isEmpty()) return Optional.empty();
 
         BigDecimal minCost = null;
         boolean foundValidRecipe = false;
 
-        for (Recipe<?> recipe : recipes) {
+        for (RecipeDependencyGraph.RecipeEntry recipe : recipes) {
             BigDecimal recipeCost = BigDecimal.ZERO;
             boolean allIngredientsPriced = true;
             
-            for (Ingredient ingredient : recipe.getIngredients()) {
-                if (ingredient.isEmpty()) continue;
+            for (String[] ingredient : recipe.ingredients()) {
+                if (ingredient.length == 0) continue;
                 
                 BigDecimal bestIngredientPrice = null;
-                for (ItemStack stack : ingredient.getItems()) {
-                    BigDecimal price = engine.resolvePrice(stack.getItem(), context);
+                for (String ingredientId : ingredient) {
+                    BigDecimal price = context.getPrice(ingredientId);
                     if (price.compareTo(BigDecimal.ZERO) > 0) {
                         if (bestIngredientPrice == null || price.compareTo(bestIngredientPrice) < 0) {
                             bestIngredientPrice = price;
@@ -70,10 +51,9 @@ public class RecipePriceProvider implements PriceProvider {
             }
 
             if (allIngredientsPriced && recipeCost.compareTo(BigDecimal.ZERO) > 0) {
-                ItemStack result = recipe.getResultItem(context.getRegistryAccess());
-                if (result.isEmpty() || result.getCount() <= 0) continue;
+                if (recipe.resultCount() <= 0) continue;
                 
-                BigDecimal perItemCost = recipeCost.divide(BigDecimal.valueOf(result.getCount()), 10, java.math.RoundingMode.HALF_UP);
+                BigDecimal perItemCost = recipeCost.divide(BigDecimal.valueOf(recipe.resultCount()), 10, java.math.RoundingMode.HALF_UP);
                 
                 // Add processing cost (heuristic)
                 perItemCost = perItemCost.add(BigDecimal.valueOf(5)); // Flat processing fee
@@ -97,4 +77,9 @@ public class RecipePriceProvider implements PriceProvider {
     public String getName() {
         return "Recipe";
     }
+
+    @Override
+    public boolean readsPrices() {
+        return true;
+    }
 }